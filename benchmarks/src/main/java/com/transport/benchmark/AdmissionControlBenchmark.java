@@ -0,0 +1,126 @@
+package com.transport.benchmark;
+
+import com.transport.admission.AdmissionLane;
+import com.transport.admission.AdmissionPolicy;
+import com.transport.admission.TransportServiceGateway;
+import com.transport.exception.AdmissionRejectedException;
+import com.transport.model.Car;
+import com.transport.model.Transport;
+import com.transport.service.TransportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка чтения по идентификатору при насыщающем потоке изменений: шесть потоков
+ * непрерывно добавляют и удаляют пачки по {@value #WRITE_BATCH} автомобилей, два потока читают.
+ * Процентили задержки чтения сравниваются при прямом обращении к сервису и через
+ * TransportServiceGateway; отклоненные запросы завершаются сразу и тоже попадают в выборку.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+@State(Scope.Group)
+public class AdmissionControlBenchmark {
+    private static final int WRITE_BATCH = 256;
+
+    @Param({"false", "true"})
+    public boolean admissionControl;
+
+    @Param({"100000"})
+    public int fleetSize;
+
+    private TransportService service;
+    private TransportServiceGateway gateway;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = FleetFixtures.populatedService(fleetSize, FleetFixtures.TypeMix.MIXED, FleetFixtures.Backend.HEAP);
+        List<Transport> fleet = service.getTransports();
+        ids = new long[fleet.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = fleet.get(i).getId();
+        }
+        gateway = new TransportServiceGateway(service, AdmissionPolicy.defaults()
+                .withLatencyTarget(AdmissionLane.READ, 1, TimeUnit.MILLISECONDS));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public Transport read() {
+        long id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+        if (!admissionControl) {
+            return service.findTransportById(id);
+        }
+        try {
+            return gateway.findTransportById("interactive", id);
+        } catch (AdmissionRejectedException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(6)
+    public int write() {
+        Transport[] batch = new Transport[WRITE_BATCH];
+        int written = 0;
+        for (int i = 0; i < WRITE_BATCH; i++) {
+            batch[i] = new Car("Bulk-" + i, 120, "Kia", "BULK" + i, 4, "Petrol");
+            if (!admissionControl) {
+                service.addTransport(batch[i]);
+                written++;
+                continue;
+            }
+            try {
+                gateway.addTransport("loader", batch[i]);
+                written++;
+            } catch (AdmissionRejectedException e) {
+                batch[i] = null;
+            }
+        }
+        for (Transport transport : batch) {
+            if (transport != null) {
+                if (admissionControl) {
+                    removeThroughGateway(transport.getId());
+                } else {
+                    service.removeTransportById(transport.getId());
+                }
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Удаляет транспорт через шлюз, повторяя отклоненный запрос, чтобы парк не разрастался.
+     */
+    private void removeThroughGateway(long id) {
+        while (true) {
+            try {
+                gateway.removeTransportById("loader", id);
+                return;
+            } catch (AdmissionRejectedException e) {
+                Thread.yield();
+            }
+        }
+    }
+}
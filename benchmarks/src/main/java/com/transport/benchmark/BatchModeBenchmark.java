@@ -0,0 +1,83 @@
+package com.transport.benchmark;
+
+import com.transport.batch.BatchReport;
+import com.transport.batch.BatchRunner;
+import com.transport.service.TransportService;
+import com.transport.validation.TransportRecordParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность пакетного режима на сценарии из {@value #COMMANDS} команд:
+ * загрузка {@value #INITIAL_FLEET} транспортных средств, затем смесь изменений (добавление,
+ * удаление по индексу) и команд чтения (сравнение, поиск) с долей чтения {@code readPercent}.
+ * Результат приводится в командах в миллисекунду.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchModeBenchmark {
+    private static final int INITIAL_FLEET = 10000;
+    private static final int COMMANDS = 50000;
+
+    @Param({"50", "95"})
+    public int readPercent;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private String script;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(17);
+        StringBuilder commands = new StringBuilder(COMMANDS * 48);
+        int added = 0;
+        for (int i = 0; i < COMMANDS; i++) {
+            if (added < INITIAL_FLEET || random.nextInt(100) >= readPercent) {
+                if (added > INITIAL_FLEET && random.nextBoolean()) {
+                    commands.append("remove ").append(random.nextInt(INITIAL_FLEET / 2));
+                } else {
+                    commands.append("add ").append(TransportRecordParser.format(
+                            FleetFixtures.vehicle(added++, FleetFixtures.TypeMix.MIXED)));
+                }
+            } else if (random.nextBoolean()) {
+                commands.append("compare ").append(random.nextInt(INITIAL_FLEET / 2))
+                        .append(' ').append(random.nextInt(INITIAL_FLEET / 2));
+            } else {
+                commands.append("search -").append(random.nextInt(added));
+            }
+            commands.append('\n');
+        }
+        script = commands.toString();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COMMANDS)
+    public BatchReport run() throws IOException {
+        TransportService service = new TransportService();
+        try (BatchRunner runner = new BatchRunner(service, parallelism, BatchRunner.DEFAULT_WINDOW_SIZE)) {
+            return runner.run(new StringReader(script), Writer.nullWriter());
+        }
+    }
+}
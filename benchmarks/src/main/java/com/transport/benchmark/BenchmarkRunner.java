@@ -0,0 +1,77 @@
+package com.transport.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Точка входа в модуль бенчмарков.
+ * <p>
+ * {@code java -jar benchmarks.jar [опции JMH]} запускает бенчмарки с профилировщиком
+ * выделения памяти ({@code -prof gc}) и сохраняет результаты в {@code jmh-result.json}.
+ * Опции командной строки JMH переопределяют эти значения по умолчанию;
+ * {@code -prof none} отключает профилировщик.
+ * <p>
+ * {@code java -jar benchmarks.jar compare <базовый.json> <текущий.json> [порог %]}
+ * сравнивает два запуска, см. {@link ResultComparator}.
+ */
+public final class BenchmarkRunner {
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+    private static final String NO_PROFILER = "none";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        if (args.length > 0 && "compare".equals(args[0])) {
+            System.exit(ResultComparator.run(Arrays.copyOfRange(args, 1, args.length)));
+        }
+
+        boolean profile = true;
+        List<String> jmhArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("-prof".equals(args[i]) && i + 1 < args.length && NO_PROFILER.equals(args[i + 1])) {
+                profile = false;
+                i++;
+            } else {
+                jmhArgs.add(args[i]);
+            }
+        }
+
+        CommandLineOptions cmd;
+        try {
+            cmd = new CommandLineOptions(jmhArgs.toArray(new String[0]));
+        } catch (CommandLineOptionException e) {
+            System.err.println("Ошибка разбора опций: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+        if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListWithParams()
+                || cmd.shouldListProfilers() || cmd.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(cmd);
+        if (profile && cmd.getProfilers().isEmpty()) {
+            builder.addProfiler(GCProfiler.class);
+        }
+        if (!cmd.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmd.getResult().hasValue()) {
+            builder.result(DEFAULT_RESULT_FILE);
+        }
+        new Runner(builder.build()).run();
+    }
+}
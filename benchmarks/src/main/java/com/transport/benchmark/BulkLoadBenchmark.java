@@ -0,0 +1,125 @@
+package com.transport.benchmark;
+
+import com.transport.model.Airplane;
+import com.transport.model.Car;
+import com.transport.model.Ship;
+import com.transport.model.Transport;
+import com.transport.service.BulkLoadReport;
+import com.transport.service.TransportService;
+import com.transport.validation.TransportRecordParser;
+import com.transport.validation.Violations;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность массовой загрузки при разной доле некорректных записей:
+ * разбор с накоплением нарушений без исключений в сравнении с прежним подходом,
+ * где о некорректных данных сообщают NumberFormatException и IllegalArgumentException.
+ * Результат приводится в записях в миллисекунду.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BulkLoadBenchmark {
+    private static final int RECORDS = 10000;
+
+    @Param({"1", "10", "50"})
+    public int invalidPercent;
+
+    private List<String> records;
+    private TransportRecordParser parser;
+    private Violations violations;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(11);
+        records = new ArrayList<>(RECORDS);
+        for (int i = 0; i < RECORDS; i++) {
+            String record = TransportRecordParser.format(FleetFixtures.vehicle(i, FleetFixtures.TypeMix.MIXED));
+            if (random.nextInt(100) < invalidPercent) {
+                record = corrupt(record, random);
+            }
+            records.add(record);
+        }
+        parser = new TransportRecordParser();
+        violations = new Violations();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void parseWithViolations(Blackhole blackhole) {
+        for (String record : records) {
+            blackhole.consume(parser.parse(record, violations));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void parseWithExceptions(Blackhole blackhole) {
+        for (String record : records) {
+            try {
+                blackhole.consume(parseThrowing(record));
+            } catch (IllegalArgumentException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public BulkLoadReport bulkLoad() {
+        return new TransportService().bulkLoad(records);
+    }
+
+    /**
+     * Портит запись: делает одно из числовых полей нечисловым или выводит его за допустимый диапазон.
+     */
+    private static String corrupt(String record, SplittableRandom random) {
+        String[] fields = record.split(";", -1);
+        int index = random.nextBoolean() ? 2 : fields.length == 7 ? 5 : 4;
+        fields[index] = random.nextBoolean() ? "x" + fields[index] : "-" + (1 + random.nextInt(100));
+        return String.join(";", fields);
+    }
+
+    /**
+     * Разбор записи в стиле интерактивного ввода: Integer.parseInt и конструкторы,
+     * которые сообщают о нарушениях исключениями.
+     */
+    private static Transport parseThrowing(String record) {
+        String[] fields = record.split(";", -1);
+        int maxSpeed = Integer.parseInt(fields[2]);
+        switch (fields[0]) {
+            case "AIRPLANE":
+                return new Airplane(fields[1], maxSpeed, fields[3],
+                        Integer.parseInt(fields[4]), Integer.parseInt(fields[5]));
+            case "CAR":
+                return new Car(fields[1], maxSpeed, fields[3], fields[4],
+                        Integer.parseInt(fields[5]), fields[6]);
+            case "SHIP":
+                return new Ship(fields[1], maxSpeed, fields[3],
+                        Integer.parseInt(fields[4]), Integer.parseInt(fields[5]), fields[6]);
+            default:
+                return new Transport(fields[1], maxSpeed, fields[3]);
+        }
+    }
+}
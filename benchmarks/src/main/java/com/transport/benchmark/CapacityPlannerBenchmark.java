@@ -0,0 +1,98 @@
+package com.transport.benchmark;
+
+import com.transport.model.Airplane;
+import com.transport.model.Car;
+import com.transport.model.Ship;
+import com.transport.model.Transport;
+import com.transport.planning.CapacityDemand;
+import com.transport.planning.CapacityPlan;
+import com.transport.planning.CapacityPlanner;
+import com.transport.planning.PlanningObjective;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подбор транспорта под потребность на парке из {@code fleetSize} кандидатов со случайными
+ * вместимостью, экипажем и скоростью: пятая часть всех пассажирских мест, четверть общей
+ * грузоподъемности и двадцатая часть общего экипажа кораблей, так что ограничение экипажа
+ * существенно. Лимит времени подбора — {@value #TIMEOUT_SECONDS} с.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+@State(Scope.Benchmark)
+public class CapacityPlannerBenchmark {
+    private static final long TIMEOUT_SECONDS = 5;
+
+    @Param({"100000"})
+    public int fleetSize;
+
+    @Param({"MIN_VEHICLES", "MIN_TIME"})
+    public PlanningObjective objective;
+
+    private List<Transport> fleet;
+    private CapacityDemand demand;
+    private CapacityPlanner planner;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(41);
+        fleet = new ArrayList<>(fleetSize);
+        long seats = 0;
+        long cargo = 0;
+        long crew = 0;
+        for (int i = 0; i < fleetSize; i++) {
+            int speed = 10 + random.nextInt(1990);
+            switch (i % 3) {
+                case 0:
+                    Airplane airplane = new Airplane("Airplane-" + i, speed, "Boeing", 10000, 1 + random.nextInt(1000));
+                    seats += airplane.getPassengerCapacity();
+                    fleet.add(airplane);
+                    break;
+                case 1:
+                    Car car = new Car("Car-" + i, speed, "Volvo", "PLATE" + i, 1 + random.nextInt(10), "Diesel");
+                    seats += car.getDoorCount();
+                    fleet.add(car);
+                    break;
+                default:
+                    Ship ship = new Ship("Ship-" + i, speed, "Maersk", 1 + random.nextInt(1000000),
+                            1 + random.nextInt(5000), "Cargo");
+                    cargo += ship.getDisplacement();
+                    crew += ship.getCrewSize();
+                    fleet.add(ship);
+            }
+        }
+        demand = CapacityDemand.of(seats / 5, cargo / 4).withCrewLimit(crew / 20).withDistance(5000)
+                .minimizing(objective);
+        planner = new CapacityPlanner();
+        System.out.printf("%n%s%n", planner.plan(fleet, demand, TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        planner.close();
+    }
+
+    @Benchmark
+    public CapacityPlan plan() {
+        return planner.plan(fleet, demand, TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,68 @@
+package com.transport.benchmark;
+
+import com.transport.model.Car;
+import com.transport.model.Transport;
+import com.transport.service.FleetSnapshot;
+import com.transport.service.TransportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка существования отсутствующего номерного знака: через фильтр Блума
+ * в сравнении с полным просмотром коллекции.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExistenceFilterBenchmark {
+    private static final int PROBES = 4096;
+
+    @Param({"10000", "1000000"})
+    public int fleetSize;
+
+    private TransportService service;
+    private String[] missingPlates;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = FleetFixtures.populatedService(fleetSize, FleetFixtures.TypeMix.CAR, FleetFixtures.Backend.HEAP);
+        missingPlates = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            missingPlates[i] = "MISSING" + i;
+        }
+    }
+
+    @Benchmark
+    public boolean negativeLookupFiltered() {
+        return service.containsLicensePlate(missingPlates[next++ & (PROBES - 1)]);
+    }
+
+    @Benchmark
+    public boolean negativeLookupScan() {
+        String plate = missingPlates[next++ & (PROBES - 1)];
+        try (FleetSnapshot snapshot = service.snapshot()) {
+            for (Transport transport : snapshot) {
+                if (transport instanceof Car && plate.equals(((Car) transport).getLicensePlate())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,100 @@
+package com.transport.benchmark;
+
+import com.transport.model.Airplane;
+import com.transport.model.Car;
+import com.transport.model.Ship;
+import com.transport.model.Transport;
+import com.transport.service.FleetStore;
+import com.transport.service.OffHeapFleetStore;
+import com.transport.service.TransportService;
+import com.transport.service.VersionedFleetStore;
+
+/**
+ * Генерация тестовых данных для бенчмарков.
+ */
+public final class FleetFixtures {
+    private static final String[] MANUFACTURERS = {"Boeing", "Airbus", "Volvo", "Toyota", "Maersk", "Hyundai"};
+    private static final String[] FUEL_TYPES = {"Petrol", "Diesel", "Electric"};
+    private static final String[] SHIP_TYPES = {"Cargo", "Passenger", "Military", "Cruise"};
+
+    /**
+     * Состав парка транспортных средств.
+     */
+    public enum TypeMix {
+        AIRPLANE,
+        CAR,
+        SHIP,
+        MIXED
+    }
+
+    /**
+     * Хранилище, на котором работает сервис.
+     */
+    public enum Backend {
+        HEAP,
+        OFF_HEAP;
+
+        /**
+         * Создает новое пустое хранилище.
+         *
+         * @return хранилище
+         */
+        public FleetStore createStore() {
+            return this == HEAP ? new VersionedFleetStore() : new OffHeapFleetStore();
+        }
+    }
+
+    private FleetFixtures() {
+    }
+
+    /**
+     * Создает транспортное средство с детерминированными полями.
+     *
+     * @param i   порядковый номер, от которого зависят значения полей
+     * @param mix состав парка
+     * @return транспортное средство
+     */
+    public static Transport vehicle(int i, TypeMix mix) {
+        TypeMix type = mix == TypeMix.MIXED ? TypeMix.values()[Math.floorMod(i, 3)] : mix;
+        String manufacturer = MANUFACTURERS[Math.floorMod(i, MANUFACTURERS.length)];
+        switch (type) {
+            case AIRPLANE:
+                return new Airplane("Airplane-" + i, 500 + Math.floorMod(i, 1000), manufacturer,
+                        Math.floorMod(i * 7, 20000), 1 + Math.floorMod(i, 1000));
+            case CAR:
+                return new Car("Car-" + i, 60 + Math.floorMod(i, 200), manufacturer, "PLATE" + i,
+                        1 + Math.floorMod(i, 5), FUEL_TYPES[Math.floorMod(i, FUEL_TYPES.length)]);
+            default:
+                return new Ship("Ship-" + i, 10 + Math.floorMod(i, 40), manufacturer,
+                        1 + Math.floorMod(i * 31, 1000000), 1 + Math.floorMod(i, 5000),
+                        SHIP_TYPES[Math.floorMod(i, SHIP_TYPES.length)]);
+        }
+    }
+
+    /**
+     * Создает сервис с заполненным парком.
+     *
+     * @param size    количество транспортных средств
+     * @param mix     состав парка
+     * @param backend хранилище
+     * @return заполненный сервис
+     */
+    public static TransportService populatedService(int size, TypeMix mix, Backend backend) {
+        return populate(new TransportService(backend.createStore()), size, mix);
+    }
+
+    /**
+     * Заполняет сервис парком транспортных средств.
+     *
+     * @param service сервис
+     * @param size    количество транспортных средств
+     * @param mix     состав парка
+     * @return тот же сервис
+     */
+    public static TransportService populate(TransportService service, int size, TypeMix mix) {
+        for (int i = 0; i < size; i++) {
+            service.addTransport(vehicle(i, mix));
+        }
+        return service;
+    }
+}
@@ -0,0 +1,101 @@
+package com.transport.benchmark;
+
+import com.transport.history.FleetHistory;
+import com.transport.history.VehicleState;
+import com.transport.model.Airplane;
+import com.transport.model.Car;
+import com.transport.model.Ship;
+import com.transport.model.Transport;
+import com.transport.service.TransportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запросы к истории изменений на момент времени после года смоделированных изменений:
+ * {@value #VEHICLES} транспортных средств, каждое из которых получает {@code updatesPerVehicle}
+ * изменений скорости и типовых полей (вместимость самолета, номер автомобиля, экипаж корабля),
+ * равномерно распределенных по году. Изменения проходят через сервис и слушателя истории.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class HistoryAsOfBenchmark {
+    private static final int VEHICLES = 1000;
+    private static final long YEAR_MILLIS = TimeUnit.DAYS.toMillis(365);
+    private static final long START = 1_700_000_000_000L;
+    private static final int QUERIES = 1024;
+
+    @Param({"365", "8760"})
+    public int updatesPerVehicle;
+
+    private FleetHistory history;
+    private long[] queryIds;
+    private long[] queryTimes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long[] clock = {START};
+        TransportService service = FleetFixtures.populatedService(VEHICLES, FleetFixtures.TypeMix.MIXED,
+                FleetFixtures.Backend.HEAP);
+        history = new FleetHistory(400, TimeUnit.DAYS, Integer.MAX_VALUE, () -> clock[0]);
+        service.addListener(history);
+        List<Transport> fleet = service.getTransports();
+        history.seed(fleet);
+        SplittableRandom random = new SplittableRandom(23);
+        long updates = (long) VEHICLES * updatesPerVehicle;
+        for (long i = 0; i < updates; i++) {
+            clock[0] = START + YEAR_MILLIS * i / updates;
+            update(fleet.get(random.nextInt(VEHICLES)), random);
+        }
+        queryIds = new long[QUERIES];
+        queryTimes = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queryIds[i] = fleet.get(random.nextInt(VEHICLES)).getId();
+            queryTimes[i] = START + random.nextLong(YEAR_MILLIS);
+        }
+    }
+
+    @Benchmark
+    public VehicleState vehicleAsOf() {
+        int query = next++ & (QUERIES - 1);
+        return history.asOf(queryIds[query], queryTimes[query]);
+    }
+
+    @Benchmark
+    public List<VehicleState> fleetAsOf() {
+        return history.fleetAsOf(queryTimes[next++ & (QUERIES - 1)]);
+    }
+
+    /**
+     * Меняет скорость или поле, характерное для типа транспорта.
+     */
+    private static void update(Transport transport, SplittableRandom random) {
+        if (random.nextBoolean()) {
+            transport.setMaxSpeed(random.nextInt(2001));
+        } else if (transport instanceof Airplane) {
+            ((Airplane) transport).setPassengerCapacity(1 + random.nextInt(1000));
+        } else if (transport instanceof Car) {
+            ((Car) transport).setLicensePlate("PLATE" + random.nextInt(100000));
+        } else if (transport instanceof Ship) {
+            ((Ship) transport).setCrewSize(1 + random.nextInt(5000));
+        }
+    }
+}
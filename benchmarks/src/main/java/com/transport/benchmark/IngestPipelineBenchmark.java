@@ -0,0 +1,76 @@
+package com.transport.benchmark;
+
+import com.transport.service.BulkLoadReport;
+import com.transport.service.IngestPipeline;
+import com.transport.service.IngestReport;
+import com.transport.service.TransportService;
+import com.transport.validation.TransportRecordParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время загрузки миллиона записей в пустой сервис: последовательный bulkLoad в сравнении
+ * с конвейером IngestPipeline при разном количестве потоков на стадиях разбора и подготовки индексов.
+ * Сервис создается заново перед каждой загрузкой.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g"})
+@State(Scope.Benchmark)
+public class IngestPipelineBenchmark {
+    @Param({"1000000"})
+    public int records;
+
+    @Param({"1", "2", "4", "8"})
+    public int workers;
+
+    private List<String> lines;
+    private IngestPipeline pipeline;
+    private TransportService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        lines = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            lines.add(TransportRecordParser.format(FleetFixtures.vehicle(i, FleetFixtures.TypeMix.MIXED)));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void newService() {
+        service = new TransportService();
+        pipeline = new IngestPipeline(service, workers, workers, IngestPipeline.DEFAULT_BATCH_SIZE);
+    }
+
+    @TearDown(Level.Invocation)
+    public void closePipeline() {
+        pipeline.close();
+    }
+
+    @Benchmark
+    public BulkLoadReport bulkLoad() {
+        return service.bulkLoad(lines);
+    }
+
+    @Benchmark
+    public IngestReport pipelineLoad() {
+        return pipeline.load(lines);
+    }
+}
@@ -0,0 +1,114 @@
+package com.transport.benchmark;
+
+import com.transport.model.Transport;
+import com.transport.service.FleetSnapshot;
+import com.transport.service.TransportQuery;
+import com.transport.service.TransportService;
+import com.transport.service.VersionedFleetStore;
+import jdk.jfr.Recording;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Накладные расходы метрик и событий JFR в TransportService.
+ * При {@code jfr=OFF} события создаются, но не записываются; при {@code jfr=ON} идет запись
+ * всех событий com.transport.* без порога длительности. Сравнение с результатами
+ * TransportServiceBenchmark до появления метрик показывает стоимость самих метрик.
+ * Кеш результатов запросов отключен, чтобы queryAll измерял просмотр коллекции.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InstrumentationOverheadBenchmark {
+    private static final int FLEET_SIZE = 10000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final String[] EVENTS = {
+            "com.transport.Add", "com.transport.Remove", "com.transport.Query", "com.transport.BulkLoad"};
+
+    /**
+     * Состояние записи JFR.
+     */
+    public enum JfrMode {
+        OFF,
+        ON
+    }
+
+    @Param({"OFF", "ON"})
+    public JfrMode jfr;
+
+    private TransportService service;
+    private Transport[] spare;
+    private long[] ids;
+    private TransportQuery query;
+    private SplittableRandom random;
+    private Recording recording;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = FleetFixtures.populate(new TransportService(new VersionedFleetStore(), FALSE_POSITIVE_RATE, 0, 0),
+                FLEET_SIZE, FleetFixtures.TypeMix.MIXED);
+        spare = new Transport[1024];
+        for (int i = 0; i < spare.length; i++) {
+            spare[i] = FleetFixtures.vehicle(FLEET_SIZE + i, FleetFixtures.TypeMix.MIXED);
+        }
+        ids = new long[FLEET_SIZE];
+        int i = 0;
+        try (FleetSnapshot snapshot = service.snapshot()) {
+            for (Transport transport : snapshot) {
+                ids[i++] = transport.getId();
+            }
+        }
+        query = TransportQuery.of(Transport.class);
+        random = new SplittableRandom(3);
+        if (jfr == JfrMode.ON) {
+            recording = new Recording();
+            for (String event : EVENTS) {
+                recording.enable(event).withoutThreshold();
+            }
+            recording.setToDisk(false);
+            recording.start();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Benchmark
+    public Transport addThenRemoveLast() {
+        service.addTransport(spare[next++ & (spare.length - 1)]);
+        return service.removeTransport(service.size() - 1);
+    }
+
+    @Benchmark
+    public Transport findById() {
+        return service.findTransportById(ids[random.nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public List<Transport> queryAll() {
+        return service.query(query);
+    }
+}
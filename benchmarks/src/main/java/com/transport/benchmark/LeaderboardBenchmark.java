@@ -0,0 +1,116 @@
+package com.transport.benchmark;
+
+import com.transport.index.FleetLeaderboard;
+import com.transport.model.Airplane;
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+import com.transport.service.FleetSnapshot;
+import com.transport.service.TransportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Рейтинг самых быстрых самолетов: чтение поддерживаемого рейтинга в сравнении с отбором
+ * K лучших при полном просмотре коллекции и стоимость изменения скорости самолета
+ * с подписанными рейтингами и без них.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g"})
+@State(Scope.Benchmark)
+public class LeaderboardBenchmark {
+    private static final Comparator<Transport> FASTEST_FIRST = Comparator.comparingInt(Transport::getMaxSpeed)
+            .reversed().thenComparingLong(Transport::getId);
+
+    @Param({"100000", "1000000"})
+    public int fleetSize;
+
+    @Param({"100"})
+    public int size;
+
+    private TransportService tracked;
+    private TransportService untracked;
+    private FleetLeaderboard fastest;
+    private FleetLeaderboard fastestByManufacturer;
+    private Airplane[] trackedPlanes;
+    private Airplane[] untrackedPlanes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tracked = FleetFixtures.populatedService(fleetSize, FleetFixtures.TypeMix.AIRPLANE,
+                FleetFixtures.Backend.HEAP);
+        untracked = FleetFixtures.populatedService(fleetSize, FleetFixtures.TypeMix.AIRPLANE,
+                FleetFixtures.Backend.HEAP);
+        fastest = new FleetLeaderboard(Airplane.class, TransportField.MAX_SPEED, null, size, tracked::snapshot);
+        fastestByManufacturer = new FleetLeaderboard(Airplane.class, TransportField.MAX_SPEED,
+                TransportField.MANUFACTURER, size, tracked::snapshot);
+        tracked.addListener(fastest);
+        tracked.addListener(fastestByManufacturer);
+        trackedPlanes = tracked.getTransports().toArray(new Airplane[0]);
+        untrackedPlanes = untracked.getTransports().toArray(new Airplane[0]);
+    }
+
+    @Benchmark
+    public List<Transport> topFromLeaderboard() {
+        return fastest.top();
+    }
+
+    @Benchmark
+    public List<Transport> topByManufacturerFromLeaderboard() {
+        return fastestByManufacturer.top("Boeing");
+    }
+
+    @Benchmark
+    public List<Transport> topFromScan() {
+        PriorityQueue<Transport> best = new PriorityQueue<>(size + 1, FASTEST_FIRST.reversed());
+        try (FleetSnapshot snapshot = tracked.snapshot()) {
+            for (Transport transport : snapshot) {
+                if (best.size() < size) {
+                    best.add(transport);
+                } else if (FASTEST_FIRST.compare(transport, best.peek()) < 0) {
+                    best.poll();
+                    best.add(transport);
+                }
+            }
+        }
+        List<Transport> top = new ArrayList<>(best);
+        top.sort(FASTEST_FIRST);
+        return top;
+    }
+
+    @Benchmark
+    public Airplane speedChangeTracked() {
+        return changeSpeed(trackedPlanes);
+    }
+
+    @Benchmark
+    public Airplane speedChangeUntracked() {
+        return changeSpeed(untrackedPlanes);
+    }
+
+    private static Airplane changeSpeed(Airplane[] planes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Airplane plane = planes[random.nextInt(planes.length)];
+        plane.setMaxSpeed(1 + random.nextInt(2000));
+        return plane;
+    }
+}
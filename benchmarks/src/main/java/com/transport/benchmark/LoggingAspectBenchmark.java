@@ -0,0 +1,86 @@
+package com.transport.benchmark;
+
+import com.transport.Main;
+import com.transport.model.Transport;
+import com.transport.service.TransportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость логирующего аспекта: вызов методов TransportService через Spring-прокси
+ * в сравнении с прямым вызовом того же метода на экземпляре без прокси.
+ * На время замера System.out перенаправляется в пустой поток, чтобы измерялись
+ * перехват и форматирование, а не вывод в консоль.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LoggingAspectBenchmark {
+    private static final int FLEET_SIZE = 1000;
+
+    private AnnotationConfigApplicationContext context;
+    private TransportService proxied;
+    private TransportService direct;
+    private long proxiedId;
+    private long directId;
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        context = new AnnotationConfigApplicationContext(Main.class);
+        proxied = context.getBean(TransportService.class);
+        direct = new TransportService();
+        for (int i = 0; i < FLEET_SIZE; i++) {
+            proxied.addTransport(FleetFixtures.vehicle(i, FleetFixtures.TypeMix.MIXED));
+            direct.addTransport(FleetFixtures.vehicle(i, FleetFixtures.TypeMix.MIXED));
+        }
+        proxiedId = proxied.getTransports().get(FLEET_SIZE / 2).getId();
+        directId = direct.getTransports().get(FLEET_SIZE / 2).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public int sizeDirect() {
+        return direct.size();
+    }
+
+    @Benchmark
+    public int sizeProxied() {
+        return proxied.size();
+    }
+
+    @Benchmark
+    public Transport findDirect() {
+        return direct.findTransportById(directId);
+    }
+
+    @Benchmark
+    public Transport findProxied() {
+        return proxied.findTransportById(proxiedId);
+    }
+}
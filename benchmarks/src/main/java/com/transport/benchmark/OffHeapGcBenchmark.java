@@ -0,0 +1,123 @@
+package com.transport.benchmark;
+
+import com.transport.model.Transport;
+import com.transport.service.FleetSnapshot;
+import com.transport.service.TransportService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение пауз сборщика мусора при хранении большого парка в куче и вне кучи.
+ * Нагрузка одинакова для обоих хранилищ: поиск по идентификатору и выделение
+ * объектов, часть которых доживает до старого поколения, что вынуждает сборщик
+ * обходить старое поколение вместе с хранимым парком.
+ * Время и количество сборок за итерацию выводятся как вспомогательные счетчики.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class OffHeapGcBenchmark {
+    private static final int SURVIVOR_SLOTS = 1 << 16;
+
+    @Param({"2000000"})
+    public int fleetSize;
+
+    @Param({"HEAP", "OFF_HEAP"})
+    public FleetFixtures.Backend backend;
+
+    private TransportService service;
+    private long[] ids;
+
+    /**
+     * Счетчики сборщика мусора за итерацию.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class GcCounters {
+        public long gcCount;
+        public long gcTimeMs;
+        private long startCount;
+        private long startTime;
+
+        @Setup(Level.Iteration)
+        public void start() {
+            startCount = totalCount();
+            startTime = totalTime();
+            gcCount = 0;
+            gcTimeMs = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            gcCount = totalCount() - startCount;
+            gcTimeMs = totalTime() - startTime;
+        }
+    }
+
+    /**
+     * Потоковое состояние нагрузки: генератор и кольцо долгоживущих объектов.
+     */
+    @State(Scope.Thread)
+    public static class Workload {
+        final SplittableRandom random = new SplittableRandom(7);
+        final Object[] survivors = new Object[SURVIVOR_SLOTS];
+        int next;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = FleetFixtures.populatedService(fleetSize, FleetFixtures.TypeMix.MIXED, backend);
+        ids = new long[fleetSize];
+        int i = 0;
+        try (FleetSnapshot snapshot = service.snapshot()) {
+            for (Transport transport : snapshot) {
+                ids[i++] = transport.getId();
+            }
+        }
+        System.gc();
+    }
+
+    @Benchmark
+    public Object lookupAndAllocate(Workload workload, GcCounters counters) {
+        Transport found = service.findTransportById(ids[workload.random.nextInt(ids.length)]);
+        byte[] garbage = new byte[256];
+        workload.survivors[workload.next++ & (SURVIVOR_SLOTS - 1)] = new Object[]{found, garbage};
+        return found;
+    }
+
+    private static long totalCount() {
+        long sum = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            sum += Math.max(0, bean.getCollectionCount());
+        }
+        return sum;
+    }
+
+    private static long totalTime() {
+        long sum = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            sum += Math.max(0, bean.getCollectionTime());
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,113 @@
+package com.transport.benchmark;
+
+import com.transport.model.Airplane;
+import com.transport.model.Car;
+import com.transport.model.Ship;
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+import com.transport.service.FleetSnapshot;
+import com.transport.service.TransportQuery;
+import com.transport.service.TransportService;
+import com.transport.service.VersionedFleetStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Повторяющиеся запросы дашборда с кешем результатов и без него.
+ * С вероятностью {@code writePercent} вместо запроса выполняется изменение автомобиля:
+ * половина изменений меняет тип топлива и сбрасывает запрос по дизелю, половина меняет
+ * количество дверей и не затрагивает ни один запрос.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryCacheBenchmark {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int CACHE_ENTRIES = 256;
+    private static final long CACHE_BYTES = 16L * 1024 * 1024;
+    private static final TransportQuery[] DASHBOARD = {
+            TransportQuery.of(Airplane.class).where(TransportField.MANUFACTURER, "Boeing"),
+            TransportQuery.of(Ship.class).where(TransportField.SHIP_TYPE, "Cargo"),
+            TransportQuery.of(Car.class).where(TransportField.FUEL_TYPE, "Diesel")
+    };
+    private static final String[] FUEL_TYPES = {"Petrol", "Diesel"};
+
+    /**
+     * Включен ли кеш результатов запросов.
+     */
+    public enum CacheMode {
+        OFF,
+        ON
+    }
+
+    @Param({"OFF", "ON"})
+    public CacheMode cache;
+
+    @Param({"10000", "100000"})
+    public int fleetSize;
+
+    @Param({"0", "1", "10"})
+    public int writePercent;
+
+    private TransportService service;
+    private Car[] cars;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int entries = cache == CacheMode.ON ? CACHE_ENTRIES : 0;
+        service = FleetFixtures.populate(
+                new TransportService(new VersionedFleetStore(), FALSE_POSITIVE_RATE, entries, CACHE_BYTES),
+                fleetSize, FleetFixtures.TypeMix.MIXED);
+        List<Car> found = new ArrayList<>();
+        try (FleetSnapshot snapshot = service.snapshot()) {
+            for (Transport transport : snapshot) {
+                if (transport instanceof Car) {
+                    found.add((Car) transport);
+                }
+            }
+        }
+        cars = found.toArray(new Car[0]);
+    }
+
+    /**
+     * Генератор случайных чисел отдельного потока.
+     */
+    @State(Scope.Thread)
+    public static class ThreadRandom {
+        final SplittableRandom random = new SplittableRandom(17);
+    }
+
+    @Benchmark
+    public void dashboard(ThreadRandom state, Blackhole blackhole) {
+        SplittableRandom random = state.random;
+        if (random.nextInt(100) < writePercent) {
+            Car car = cars[random.nextInt(cars.length)];
+            if (random.nextBoolean()) {
+                car.setFuelType(FUEL_TYPES[random.nextInt(FUEL_TYPES.length)]);
+            } else {
+                car.setDoorCount(1 + random.nextInt(5));
+            }
+            return;
+        }
+        blackhole.consume(service.query(DASHBOARD[random.nextInt(DASHBOARD.length)]));
+    }
+}
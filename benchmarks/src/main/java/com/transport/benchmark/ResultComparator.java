@@ -0,0 +1,142 @@
+package com.transport.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Сравнение двух JSON-результатов JMH.
+ * Результаты сопоставляются по имени бенчмарка, режиму и параметрам. Регрессией считается
+ * ухудшение основной метрики больше порога: падение пропускной способности для режима thrpt
+ * или рост времени для остальных режимов. Бенчмарки, присутствующие только в одном из файлов,
+ * выводятся, но регрессией не считаются.
+ */
+public final class ResultComparator {
+    private static final double DEFAULT_THRESHOLD_PERCENT = 5.0;
+
+    /**
+     * Основная метрика одного бенчмарка.
+     */
+    private static final class Score {
+        final double value;
+        final String unit;
+        final boolean higherIsBetter;
+
+        Score(double value, String unit, boolean higherIsBetter) {
+            this.value = value;
+            this.unit = unit;
+            this.higherIsBetter = higherIsBetter;
+        }
+    }
+
+    private ResultComparator() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * Сравнивает результаты и печатает отчет.
+     *
+     * @param args путь к базовому файлу, путь к текущему файлу и необязательный порог в процентах
+     * @return 0 если регрессий нет, 1 если найдены регрессии, 2 при ошибке аргументов или чтения
+     */
+    public static int run(String[] args) {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Использование: compare <базовый.json> <текущий.json> [порог в процентах, по умолчанию "
+                    + DEFAULT_THRESHOLD_PERCENT + "]");
+            return 2;
+        }
+        double threshold = DEFAULT_THRESHOLD_PERCENT;
+        Map<String, Score> baseline;
+        Map<String, Score> current;
+        try {
+            if (args.length == 3) {
+                threshold = Double.parseDouble(args[2]);
+            }
+            baseline = read(Paths.get(args[0]));
+            current = read(Paths.get(args[1]));
+        } catch (NumberFormatException e) {
+            System.err.println("Ошибка: порог должен быть числом: " + args[2]);
+            return 2;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ошибка чтения результатов: " + e.getMessage());
+            return 2;
+        }
+
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("[NEW]  %s: %.3f %s%n", entry.getKey(), now.value, now.unit);
+                continue;
+            }
+            double change = before.value == 0 ? 0 : (now.value - before.value) / before.value * 100;
+            double worsening = now.higherIsBetter ? -change : change;
+            String status = "[OK]  ";
+            if (worsening > threshold) {
+                status = "[FAIL]";
+                regressions++;
+            }
+            System.out.printf("%s %s: %.3f -> %.3f %s (%+.2f%%)%n",
+                    status, entry.getKey(), before.value, now.value, now.unit, change);
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                System.out.printf("[GONE] %s%n", key);
+            }
+        }
+
+        System.out.printf("Регрессий больше %.1f%%: %d%n", threshold, regressions);
+        return regressions > 0 ? 1 : 0;
+    }
+
+    /**
+     * Читает файл результатов JMH в формате JSON.
+     *
+     * @param path путь к файлу
+     * @return основные метрики по ключу "бенчмарк [режим] {параметры}"
+     * @throws IOException если файл не удалось прочитать
+     */
+    private static Map<String, Score> read(Path path) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            JsonArray runs = JsonParser.parseReader(reader).getAsJsonArray();
+            for (JsonElement element : runs) {
+                JsonObject run = element.getAsJsonObject();
+                String mode = run.get("mode").getAsString();
+                JsonObject metric = run.getAsJsonObject("primaryMetric");
+                scores.put(key(run, mode), new Score(metric.get("score").getAsDouble(),
+                        metric.get("scoreUnit").getAsString(), "thrpt".equals(mode)));
+            }
+        }
+        return scores;
+    }
+
+    private static String key(JsonObject run, String mode) {
+        StringBuilder key = new StringBuilder(run.get("benchmark").getAsString())
+                .append(" [").append(mode).append(']');
+        JsonObject params = run.getAsJsonObject("params");
+        if (params != null) {
+            Map<String, String> sorted = new TreeMap<>();
+            for (Map.Entry<String, JsonElement> param : params.entrySet()) {
+                sorted.put(param.getKey(), param.getValue().getAsString());
+            }
+            key.append(' ').append(sorted);
+        }
+        return key.toString();
+    }
+}
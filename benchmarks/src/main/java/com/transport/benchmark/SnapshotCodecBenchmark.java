@@ -0,0 +1,144 @@
+package com.transport.benchmark;
+
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+import com.transport.service.FleetSnapshot;
+import com.transport.service.TransportService;
+import com.transport.shard.TransportCodec;
+import com.transport.snapshot.SnapshotBlock;
+import com.transport.snapshot.SnapshotDecoder;
+import com.transport.snapshot.SnapshotEncoder;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение колоночного снимка с построчным форматом TransportCodec на смешанном парке.
+ * Одна операция — запись или чтение всего парка. Вспомогательные счетчики показывают
+ * строки и байты в секунду: для чтения снимка учитываются байты построчного представления
+ * того же парка, так что они сравнимы с чтением TransportCodec. Размеры обоих форматов
+ * выводятся при подготовке.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class SnapshotCodecBenchmark {
+    @Param({"1000000"})
+    public int fleetSize;
+
+    private List<Transport> fleet;
+    private byte[] snapshot;
+    private byte[] rows;
+
+    /**
+     * Обработанные строки и байты построчного представления.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Volume {
+        public long rows;
+        public long rowBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        TransportService service = FleetFixtures.populatedService(fleetSize, FleetFixtures.TypeMix.MIXED,
+                FleetFixtures.Backend.HEAP);
+        fleet = new ArrayList<>(fleetSize);
+        try (FleetSnapshot view = service.snapshot()) {
+            view.forEach(fleet::add);
+        }
+        snapshot = encodeSnapshot();
+        rows = encodeRows();
+        System.out.printf("%nСнимок: %d байт, построчно: %d байт, сжатие %.2f%n",
+                snapshot.length, rows.length, (double) rows.length / snapshot.length);
+    }
+
+    @Benchmark
+    public byte[] encodeSnapshot() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(fleetSize * 24);
+        try (SnapshotEncoder encoder = new SnapshotEncoder(out)) {
+            encoder.writeAll(fleet);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encodeRows() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(fleetSize * 64);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(bytes, 1 << 16))) {
+            for (Transport transport : fleet) {
+                TransportCodec.writeTransport(out, transport);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Чтение колонок без создания объектов: сумма скоростей и длин названий.
+     */
+    @Benchmark
+    public long decodeSnapshotColumns(Volume volume) throws IOException {
+        long checksum = 0;
+        try (SnapshotDecoder decoder = new SnapshotDecoder(new ByteArrayInputStream(snapshot))) {
+            for (SnapshotBlock block = decoder.next(); block != null; block = decoder.next()) {
+                for (int row = 0; row < block.size(); row++) {
+                    String name = block.getString(TransportField.NAME, row);
+                    checksum += block.getInt(TransportField.MAX_SPEED, row) + (name == null ? 0 : name.length());
+                }
+            }
+        }
+        count(volume);
+        return checksum;
+    }
+
+    @Benchmark
+    public long decodeSnapshotTransports(Volume volume) throws IOException {
+        long[] checksum = new long[1];
+        try (SnapshotDecoder decoder = new SnapshotDecoder(new ByteArrayInputStream(snapshot))) {
+            decoder.forEach(transport -> checksum[0] += transport.getMaxSpeed());
+        }
+        count(volume);
+        return checksum[0];
+    }
+
+    @Benchmark
+    public long decodeRows(Volume volume) throws IOException {
+        long checksum = 0;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(rows))) {
+            for (int i = 0; i < fleetSize; i++) {
+                checksum += TransportCodec.readTransport(in).getMaxSpeed();
+            }
+        }
+        count(volume);
+        return checksum;
+    }
+
+    private void count(Volume volume) {
+        volume.rows += fleetSize;
+        volume.rowBytes += rows.length;
+    }
+}
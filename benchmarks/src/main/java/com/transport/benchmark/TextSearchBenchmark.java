@@ -0,0 +1,71 @@
+package com.transport.benchmark;
+
+import com.transport.model.Transport;
+import com.transport.service.FleetSnapshot;
+import com.transport.service.TransportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск по части названия или производителя: триграммный индекс против просмотра коллекции
+ * с {@code String.contains}, которым такой поиск выполнялся раньше.
+ * Запросы: редкая подстрока названия, частая подстрока производителя и подстрока,
+ * захватывающая производителя и название.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xmx6g"})
+@State(Scope.Benchmark)
+public class TextSearchBenchmark {
+    private static final int LIMIT = 100;
+
+    @Param({"100000", "1000000"})
+    public int fleetSize;
+
+    @Param({"ar-12345", "volvo", "boeing airplane-7"})
+    public String text;
+
+    private TransportService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = FleetFixtures.populatedService(fleetSize, FleetFixtures.TypeMix.MIXED, FleetFixtures.Backend.HEAP);
+    }
+
+    @Benchmark
+    public List<Transport> trigramIndex() {
+        return service.search(text, LIMIT);
+    }
+
+    @Benchmark
+    public List<Transport> linearScan() {
+        String query = text.toLowerCase(Locale.ROOT);
+        List<Transport> result = new ArrayList<>();
+        try (FleetSnapshot snapshot = service.snapshot()) {
+            for (Transport transport : snapshot) {
+                String searchable = (transport.getManufacturer() + ' ' + transport.getName()).toLowerCase(Locale.ROOT);
+                if (searchable.contains(query) && result.add(transport) && result.size() == LIMIT) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+}
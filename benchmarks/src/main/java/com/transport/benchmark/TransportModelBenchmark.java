@@ -0,0 +1,62 @@
+package com.transport.benchmark;
+
+import com.transport.model.Transport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки equals, hashCode и toString моделей транспорта.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TransportModelBenchmark {
+
+    @Param({"AIRPLANE", "CAR", "SHIP"})
+    public FleetFixtures.TypeMix type;
+
+    private Transport first;
+    private Transport equalCopy;
+    private Transport different;
+
+    @Setup
+    public void setUp() {
+        first = FleetFixtures.vehicle(42, type);
+        equalCopy = FleetFixtures.vehicle(42, type);
+        different = FleetFixtures.vehicle(43, type);
+    }
+
+    @Benchmark
+    public boolean equalsEqual() {
+        return first.equals(equalCopy);
+    }
+
+    @Benchmark
+    public boolean equalsDifferent() {
+        return first.equals(different);
+    }
+
+    @Benchmark
+    public int hashCodeOf() {
+        return first.hashCode();
+    }
+
+    @Benchmark
+    public String toStringOf() {
+        return first.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package com.transport.benchmark;
+
+import com.transport.model.Transport;
+import com.transport.service.FleetSnapshot;
+import com.transport.service.TransportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки добавления, удаления и сравнения транспорта в TransportService
+ * на разных размерах парка, составах и хранилищах.
+ * Размер парка не меняется: каждая операция удаления сопровождается добавлением.
+ * Сравнение выполняется только в своем прогоне, поэтому идентификаторы, собранные при подготовке, остаются актуальными.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TransportServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int fleetSize;
+
+    @Param({"AIRPLANE", "CAR", "SHIP", "MIXED"})
+    public FleetFixtures.TypeMix typeMix;
+
+    @Param({"HEAP", "OFF_HEAP"})
+    public FleetFixtures.Backend backend;
+
+    private TransportService service;
+    private Transport[] spare;
+    private long[] ids;
+    private SplittableRandom random;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = FleetFixtures.populatedService(fleetSize, typeMix, backend);
+        spare = new Transport[1024];
+        for (int i = 0; i < spare.length; i++) {
+            spare[i] = FleetFixtures.vehicle(fleetSize + i, typeMix);
+        }
+        ids = new long[fleetSize];
+        int i = 0;
+        try (FleetSnapshot snapshot = service.snapshot()) {
+            for (Transport transport : snapshot) {
+                ids[i++] = transport.getId();
+            }
+        }
+        random = new SplittableRandom(42);
+    }
+
+    @Benchmark
+    public Transport addThenRemoveLast() {
+        service.addTransport(spare[next++ & (spare.length - 1)]);
+        return service.removeTransport(service.size() - 1);
+    }
+
+    @Benchmark
+    public Transport removeRandomThenAdd() {
+        Transport removed = service.removeTransport(random.nextInt(service.size()));
+        service.addTransport(removed);
+        return removed;
+    }
+
+    @Benchmark
+    public boolean compareRandomPair() {
+        Transport first = service.findTransportById(ids[random.nextInt(ids.length)]);
+        Transport second = service.findTransportById(ids[random.nextInt(ids.length)]);
+        return first.equals(second);
+    }
+}
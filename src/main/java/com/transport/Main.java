@@ -1,5 +1,7 @@
 package com.transport;
 
+import com.transport.batch.BatchReport;
+import com.transport.batch.BatchRunner;
 import com.transport.service.TransportService;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
@@ -7,6 +9,14 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 /**
@@ -16,9 +26,15 @@ import java.util.Scanner;
 @ComponentScan(basePackages = "com.transport")
 @EnableAspectJAutoProxy
 public class Main {
+    private static final String BATCH_OPTION = "--batch";
+
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals(BATCH_OPTION)) {
+            System.exit(runBatch(args.length > 1 ? args[1] : "-"));
+        }
         ApplicationContext context = new AnnotationConfigApplicationContext(Main.class);
         TransportService service = context.getBean(TransportService.class);
+        service.getMetrics().registerMBeans("TransportService");
         Scanner scanner = new Scanner(System.in);
 
         boolean running = true;
@@ -47,11 +63,14 @@ public class Main {
                         running = false;
                         System.out.println("Завершение работы...");
                         break;
+                    case 6:
+                        service.searchTransports();
+                        break;
                     default:
-                        System.out.println("Неверный выбор! Введите число от 1 до 5.");
+                        System.out.println("Неверный выбор! Введите число от 1 до 6.");
                 }
             } catch (NumberFormatException e) {
-                System.out.println("Ошибка: введите число от 1 до 5!");
+                System.out.println("Ошибка: введите число от 1 до 6!");
             } catch (Exception e) {
                 System.out.println("Произошла ошибка: " + e.getMessage());
                 e.printStackTrace();
@@ -70,6 +89,32 @@ public class Main {
         System.out.println("3. Вывести все транспортные средства");
         System.out.println("4. Сравнить два транспортных средства");
         System.out.println("5. Завершить работу");
+        System.out.println("6. Найти транспортное средство по названию");
         System.out.println("=========================================");
     }
-}
\ No newline at end of file
+
+    /**
+     * Выполняет команды пакетного режима без диалога и без контекста Spring, чтобы журнал вызовов
+     * не смешивался с результатами. Результаты выводятся в стандартный вывод, итог — в поток ошибок.
+     *
+     * @param file файл с командами или {@code -} для стандартного ввода
+     * @return код завершения: 0 — все команды выполнены, 1 — были ошибки команд, 2 — ошибка ввода-вывода
+     */
+    private static int runBatch(String file) {
+        TransportService service = new TransportService();
+        try (Reader input = file.equals("-")
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8);
+             BatchRunner runner = new BatchRunner(service)) {
+            BatchReport report = runner.run(input, new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            System.err.println(report);
+            return report.getErrorCount() == 0 ? 0 : 1;
+        } catch (NoSuchFileException e) {
+            System.err.println("Файл не найден: " + file);
+            return 2;
+        } catch (IOException e) {
+            System.err.println("Ошибка ввода-вывода: " + e.getMessage());
+            return 2;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.transport.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Адаптивный предел одновременно выполняемых запросов одной очереди (AIMD по задержке).
+ * <p>
+ * Задержки собираются окнами по {@value #WINDOW_SAMPLES} запросов, но не дольше
+ * {@link #WINDOW_NANOS}. Если в окне больше 1% запросов медленнее цели, то есть 99-й процентиль
+ * выше цели, очередь считается перегруженной и предел уменьшается на четверть; иначе, если
+ * за окно предел хотя бы раз был достигнут, он увеличивается на единицу. Перегруженная очередь
+ * с приоритетом сначала уменьшает предел уступающей очереди и только когда та дошла до минимума —
+ * свой; уступающая очередь не увеличивает предел, пока приоритетная перегружена.
+ */
+final class AdaptiveConcurrencyLimit {
+    static final int WINDOW_SAMPLES = 256;
+    static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetNanos;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger samples = new AtomicInteger();
+    private final AtomicInteger slowSamples = new AtomicInteger();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicBoolean closingWindow = new AtomicBoolean();
+    private volatile boolean saturated;
+    private volatile long congestedUntil = System.nanoTime();
+    private AdaptiveConcurrencyLimit yielding;
+    private AdaptiveConcurrencyLimit priority;
+
+    /**
+     * Создает предел.
+     *
+     * @param minLimit     наименьший предел
+     * @param initialLimit начальный предел
+     * @param maxLimit     наибольший предел
+     * @param targetNanos  целевой 99-й процентиль задержки в наносекундах
+     */
+    AdaptiveConcurrencyLimit(int minLimit, int initialLimit, int maxLimit, long targetNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetNanos = targetNanos;
+        this.limit = new AtomicInteger(initialLimit);
+    }
+
+    /**
+     * Делает эту очередь приоритетной по отношению к другой.
+     *
+     * @param other очередь, которая уступает этой при перегрузке
+     */
+    void takePriorityOver(AdaptiveConcurrencyLimit other) {
+        this.yielding = other;
+        other.priority = this;
+    }
+
+    /**
+     * Занимает место для запроса, если предел не достигнут.
+     *
+     * @return true если запрос допущен
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                saturated = true;
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Освобождает место и учитывает задержку запроса.
+     *
+     * @param now     время завершения System.nanoTime()
+     * @param latency длительность запроса в наносекундах
+     */
+    void release(long now, long latency) {
+        inFlight.decrementAndGet();
+        if (latency > targetNanos) {
+            slowSamples.incrementAndGet();
+        }
+        int count = samples.incrementAndGet();
+        if ((count >= WINDOW_SAMPLES || now - windowStart.get() >= WINDOW_NANOS)
+                && closingWindow.compareAndSet(false, true)) {
+            try {
+                closeWindow(now);
+            } finally {
+                closingWindow.set(false);
+            }
+        }
+    }
+
+    /**
+     * Возвращает текущий предел.
+     *
+     * @return количество одновременно допускаемых запросов
+     */
+    int getLimit() {
+        return limit.get();
+    }
+
+    /**
+     * Возвращает количество выполняемых запросов.
+     *
+     * @return количество запросов
+     */
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void closeWindow(long now) {
+        int count = samples.getAndSet(0);
+        int slow = slowSamples.getAndSet(0);
+        boolean wasSaturated = saturated;
+        saturated = false;
+        windowStart.set(now);
+        if (count > 0 && slow * 100L > count) {
+            congestedUntil = now + 2 * WINDOW_NANOS;
+            if (yielding != null && yielding.getLimit() > yielding.minLimit) {
+                yielding.decrease();
+            } else {
+                decrease();
+            }
+        } else if (wasSaturated && (priority == null || priority.congestedUntil - now <= 0)) {
+            limit.updateAndGet(value -> Math.min(maxLimit, value + 1));
+        }
+    }
+
+    private void decrease() {
+        limit.updateAndGet(value -> Math.max(minLimit, value - Math.max(1, value / 4)));
+    }
+}
@@ -0,0 +1,232 @@
+package com.transport.admission;
+
+import com.transport.exception.AdmissionRejectedException;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Контроль допуска запросов: очереди чтения и изменения с отдельными пределами параллельности,
+ * лимиты частоты для каждого клиента и адаптация пределов по наблюдаемой задержке.
+ * <p>
+ * Запрос сначала проверяется по лимиту частоты клиента в своей очереди ({@link TokenBucket}),
+ * затем по пределу параллельности очереди ({@link AdaptiveConcurrencyLimit}). Запрос сверх
+ * лимитов не ждет освобождения ресурсов, а сразу отклоняется с
+ * {@link AdmissionRejectedException}. Чтение приоритетно: когда его 99-й процентиль задержки
+ * превышает цель, сначала уменьшается предел очереди изменений, и лишь когда тот дошел
+ * до минимума — предел самого чтения.
+ * <p>
+ * Корзины лимитов создаются при первом запросе клиента. Когда количество клиентов удваивается,
+ * корзины, которые успели наполниться и не отличаются от новых, удаляются, поэтому память
+ * не растет от клиентов, которые перестали обращаться. Если и после этого отслеживается больше
+ * {@value #MAX_TRACKED_CLIENTS} клиентов, забываются произвольные корзины: их клиенты получают
+ * полный запас запросов, но память остается ограниченной при любом потоке новых идентификаторов.
+ * <p>
+ * Экземпляр потокобезопасен.
+ */
+public class AdmissionController {
+    private static final AdmissionLane[] LANES = AdmissionLane.values();
+    private static final AdmissionRejectedException.Reason[] REASONS = AdmissionRejectedException.Reason.values();
+    private static final int INITIAL_SWEEP_SIZE = 1024;
+    private static final int MAX_TRACKED_CLIENTS = 1 << 16;
+
+    private final AdmissionPolicy policy;
+    private final AdaptiveConcurrencyLimit[] limits = new AdaptiveConcurrencyLimit[LANES.length];
+    private final ConcurrentMap<String, TokenBucket[]> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger sweepSize = new AtomicInteger(INITIAL_SWEEP_SIZE);
+    private final LongAdder[] admitted = new LongAdder[LANES.length];
+    private final LongAdder[][] rejected = new LongAdder[LANES.length][REASONS.length];
+
+    /**
+     * Создает контроль допуска.
+     *
+     * @param policy настройки
+     */
+    public AdmissionController(AdmissionPolicy policy) {
+        this.policy = Objects.requireNonNull(policy, "policy");
+        for (AdmissionLane lane : LANES) {
+            limits[lane.ordinal()] = policy.newLimit(lane);
+            admitted[lane.ordinal()] = new LongAdder();
+            for (AdmissionRejectedException.Reason reason : REASONS) {
+                rejected[lane.ordinal()][reason.ordinal()] = new LongAdder();
+            }
+        }
+        limits[AdmissionLane.READ.ordinal()].takePriorityOver(limits[AdmissionLane.WRITE.ordinal()]);
+    }
+
+    /**
+     * Выполняет операцию, если она допущена.
+     *
+     * @param clientId  идентификатор клиента
+     * @param lane      очередь
+     * @param operation операция
+     * @param <T>       тип результата
+     * @return результат операции
+     * @throws AdmissionRejectedException если клиент превысил лимит частоты или очередь перегружена
+     */
+    public <T> T call(String clientId, AdmissionLane lane, Supplier<T> operation) {
+        AdaptiveConcurrencyLimit limit = admit(clientId, lane);
+        long start = System.nanoTime();
+        try {
+            return operation.get();
+        } finally {
+            long end = System.nanoTime();
+            limit.release(end, end - start);
+        }
+    }
+
+    /**
+     * Выполняет операцию без результата, если она допущена.
+     *
+     * @param clientId  идентификатор клиента
+     * @param lane      очередь
+     * @param operation операция
+     * @throws AdmissionRejectedException если клиент превысил лимит частоты или очередь перегружена
+     */
+    public void run(String clientId, AdmissionLane lane, Runnable operation) {
+        call(clientId, lane, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * Возвращает текущий предел параллельности очереди.
+     *
+     * @param lane очередь
+     * @return количество одновременно допускаемых запросов
+     */
+    public int getLimit(AdmissionLane lane) {
+        return limits[lane.ordinal()].getLimit();
+    }
+
+    /**
+     * Возвращает количество выполняемых запросов очереди.
+     *
+     * @param lane очередь
+     * @return количество запросов
+     */
+    public int getInFlight(AdmissionLane lane) {
+        return limits[lane.ordinal()].getInFlight();
+    }
+
+    /**
+     * Возвращает количество допущенных запросов очереди.
+     *
+     * @param lane очередь
+     * @return количество запросов
+     */
+    public long getAdmittedCount(AdmissionLane lane) {
+        return admitted[lane.ordinal()].sum();
+    }
+
+    /**
+     * Возвращает количество отклоненных запросов очереди по причине.
+     *
+     * @param lane   очередь
+     * @param reason причина отклонения
+     * @return количество запросов
+     */
+    public long getRejectedCount(AdmissionLane lane, AdmissionRejectedException.Reason reason) {
+        return rejected[lane.ordinal()][reason.ordinal()].sum();
+    }
+
+    /**
+     * Проверяет лимит частоты клиента и занимает место в очереди.
+     *
+     * @return предел очереди, который нужно освободить после выполнения
+     * @throws AdmissionRejectedException если запрос не допущен
+     */
+    private AdaptiveConcurrencyLimit admit(String clientId, AdmissionLane lane) {
+        Objects.requireNonNull(clientId, "clientId");
+        int index = lane.ordinal();
+        TokenBucket bucket = bucketsOf(clientId)[index];
+        if (bucket != null) {
+            long wait = bucket.tryAcquire(System.nanoTime());
+            if (wait > 0) {
+                rejected[index][AdmissionRejectedException.Reason.RATE_LIMITED.ordinal()].increment();
+                throw new AdmissionRejectedException(() -> String.format(
+                        "Клиент %s превысил лимит запросов %s (%s): повторите через %d мс", clientId, lane,
+                        policy.getRate(clientId, lane), Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait))),
+                        AdmissionRejectedException.Reason.RATE_LIMITED, wait);
+            }
+        }
+        AdaptiveConcurrencyLimit limit = limits[index];
+        if (!limit.tryAcquire()) {
+            rejected[index][AdmissionRejectedException.Reason.OVERLOADED.ordinal()].increment();
+            int inFlight = limit.getInFlight();
+            int current = limit.getLimit();
+            throw new AdmissionRejectedException(() -> String.format(
+                    "Сервис перегружен: выполняется %d запросов %s при пределе %d", inFlight, lane, current),
+                    AdmissionRejectedException.Reason.OVERLOADED, 0);
+        }
+        admitted[index].increment();
+        return limit;
+    }
+
+    /**
+     * Возвращает корзины клиента, создавая их при первом запросе. Если количество клиентов
+     * достигло порога, поток, создавший корзины, удаляет неиспользуемые.
+     */
+    private TokenBucket[] bucketsOf(String clientId) {
+        TokenBucket[] clientBuckets = buckets.get(clientId);
+        if (clientBuckets != null) {
+            return clientBuckets;
+        }
+        clientBuckets = buckets.computeIfAbsent(clientId, this::newBuckets);
+        int threshold = sweepSize.get();
+        if (buckets.size() >= threshold && sweepSize.compareAndSet(threshold, Integer.MAX_VALUE)) {
+            int remaining = sweep(System.nanoTime());
+            sweepSize.set(Math.max(INITIAL_SWEEP_SIZE, Math.min(remaining * 2, MAX_TRACKED_CLIENTS)));
+        }
+        return clientBuckets;
+    }
+
+    /**
+     * Удаляет корзины клиентов, которые не отличаются от новых, а если клиентов все еще больше
+     * половины предела — любые корзины до половины предела.
+     *
+     * @param now текущее время System.nanoTime()
+     * @return количество оставшихся клиентов
+     */
+    private int sweep(long now) {
+        for (Map.Entry<String, TokenBucket[]> entry : buckets.entrySet()) {
+            if (isIdle(entry.getValue(), now)) {
+                buckets.remove(entry.getKey(), entry.getValue());
+            }
+        }
+        int excess = buckets.size() - MAX_TRACKED_CLIENTS / 2;
+        for (Iterator<String> clients = buckets.keySet().iterator(); excess > 0 && clients.hasNext(); excess--) {
+            clients.next();
+            clients.remove();
+        }
+        return buckets.size();
+    }
+
+    private static boolean isIdle(TokenBucket[] clientBuckets, long now) {
+        for (TokenBucket bucket : clientBuckets) {
+            if (bucket != null && !bucket.isIdle(now)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private TokenBucket[] newBuckets(String clientId) {
+        TokenBucket[] clientBuckets = new TokenBucket[LANES.length];
+        for (AdmissionLane lane : LANES) {
+            AdmissionPolicy.Rate rate = policy.getRate(clientId, lane);
+            if (!rate.isUnlimited()) {
+                clientBuckets[lane.ordinal()] = new TokenBucket(rate.getPerSecond(), rate.getBurst());
+            }
+        }
+        return clientBuckets;
+    }
+}
@@ -0,0 +1,15 @@
+package com.transport.admission;
+
+/**
+ * Очередь приоритета запроса: у каждой свои лимиты частоты и параллельности.
+ */
+public enum AdmissionLane {
+    /**
+     * Чтение: поиск, запросы, проверки наличия. Чувствительно к задержкам и имеет приоритет.
+     */
+    READ,
+    /**
+     * Изменение: добавление, удаление, массовая загрузка. Уступает чтению при его замедлении.
+     */
+    WRITE
+}
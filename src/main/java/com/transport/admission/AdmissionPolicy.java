@@ -0,0 +1,197 @@
+package com.transport.admission;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Настройки контроля допуска для каждой очереди: лимит частоты запросов одного клиента,
+ * целевой 99-й процентиль задержки и границы адаптивного предела параллельности.
+ * Объект неизменяем; методы with* возвращают новые настройки.
+ * <pre>
+ * AdmissionPolicy policy = AdmissionPolicy.defaults()
+ *         .withRate(AdmissionLane.WRITE, 500, 50)
+ *         .withClientRate("bulk-loader", AdmissionLane.WRITE, 20, 1)
+ *         .withLatencyTarget(AdmissionLane.READ, 2, TimeUnit.MILLISECONDS);
+ * </pre>
+ */
+public final class AdmissionPolicy {
+    private static final int LANES = AdmissionLane.values().length;
+
+    /**
+     * Лимит частоты запросов: средняя частота и наибольшее количество запросов подряд.
+     */
+    public static final class Rate {
+        private final double perSecond;
+        private final int burst;
+
+        private Rate(double perSecond, int burst) {
+            if (!(perSecond > 0) || burst <= 0) {
+                throw new IllegalArgumentException(String.format(
+                        "Недопустимый лимит частоты: %s в секунду, подряд %d", perSecond, burst));
+            }
+            this.perSecond = perSecond;
+            this.burst = burst;
+        }
+
+        /**
+         * Возвращает среднюю частоту.
+         *
+         * @return запросов в секунду; бесконечность, если частота не ограничена
+         */
+        public double getPerSecond() {
+            return perSecond;
+        }
+
+        /**
+         * Возвращает наибольшее количество запросов подряд.
+         *
+         * @return количество запросов
+         */
+        public int getBurst() {
+            return burst;
+        }
+
+        boolean isUnlimited() {
+            return Double.isInfinite(perSecond);
+        }
+
+        /**
+         * Возвращает строковое представление лимита.
+         *
+         * @return строковое представление
+         */
+        @Override
+        public String toString() {
+            return isUnlimited() ? "unlimited" : perSecond + "/s burst " + burst;
+        }
+    }
+
+    private static final Rate UNLIMITED = new Rate(Double.POSITIVE_INFINITY, Integer.MAX_VALUE);
+
+    private final Rate[] rates;
+    private final Map<String, Rate[]> clientRates;
+    private final long[] latencyTargets;
+    private final int[][] concurrency;
+
+    private AdmissionPolicy(Rate[] rates, Map<String, Rate[]> clientRates, long[] latencyTargets,
+                            int[][] concurrency) {
+        this.rates = rates;
+        this.clientRates = clientRates;
+        this.latencyTargets = latencyTargets;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Возвращает настройки по умолчанию: частота не ограничена, цель задержки чтения 5 мс
+     * и изменения 50 мс, предел параллельности чтения от 4 до 1024 (начальный 64),
+     * изменения — от 1 до 256 (начальный 8).
+     *
+     * @return настройки
+     */
+    public static AdmissionPolicy defaults() {
+        return new AdmissionPolicy(new Rate[]{UNLIMITED, UNLIMITED}, Collections.emptyMap(),
+                new long[]{TimeUnit.MILLISECONDS.toNanos(5), TimeUnit.MILLISECONDS.toNanos(50)},
+                new int[][]{{4, 64, 1024}, {1, 8, 256}});
+    }
+
+    /**
+     * Возвращает настройки с лимитом частоты запросов каждого клиента в очереди.
+     *
+     * @param lane      очередь
+     * @param perSecond средняя частота запросов
+     * @param burst     наибольшее количество запросов подряд
+     * @return новые настройки
+     * @throws IllegalArgumentException если частота или количество не положительны
+     */
+    public AdmissionPolicy withRate(AdmissionLane lane, double perSecond, int burst) {
+        Rate[] copy = rates.clone();
+        copy[lane.ordinal()] = new Rate(perSecond, burst);
+        return new AdmissionPolicy(copy, clientRates, latencyTargets, concurrency);
+    }
+
+    /**
+     * Возвращает настройки с отдельным лимитом частоты для клиента.
+     *
+     * @param clientId  идентификатор клиента
+     * @param lane      очередь
+     * @param perSecond средняя частота запросов
+     * @param burst     наибольшее количество запросов подряд
+     * @return новые настройки
+     * @throws IllegalArgumentException если частота или количество не положительны
+     */
+    public AdmissionPolicy withClientRate(String clientId, AdmissionLane lane, double perSecond, int burst) {
+        Map<String, Rate[]> copy = new HashMap<>(clientRates);
+        Rate[] client = copy.containsKey(clientId) ? copy.get(clientId).clone() : new Rate[LANES];
+        client[lane.ordinal()] = new Rate(perSecond, burst);
+        copy.put(clientId, client);
+        return new AdmissionPolicy(rates, Collections.unmodifiableMap(copy), latencyTargets, concurrency);
+    }
+
+    /**
+     * Возвращает настройки с целевым 99-м процентилем задержки очереди.
+     *
+     * @param lane   очередь
+     * @param target целевая задержка
+     * @param unit   единица времени
+     * @return новые настройки
+     * @throws IllegalArgumentException если задержка не положительна
+     */
+    public AdmissionPolicy withLatencyTarget(AdmissionLane lane, long target, TimeUnit unit) {
+        if (target <= 0) {
+            throw new IllegalArgumentException("Целевая задержка должна быть положительной: " + target);
+        }
+        long[] copy = latencyTargets.clone();
+        copy[lane.ordinal()] = unit.toNanos(target);
+        return new AdmissionPolicy(rates, clientRates, copy, concurrency);
+    }
+
+    /**
+     * Возвращает настройки с границами предела параллельности очереди.
+     *
+     * @param lane    очередь
+     * @param min     наименьший предел
+     * @param initial начальный предел
+     * @param max     наибольший предел
+     * @return новые настройки
+     * @throws IllegalArgumentException если не выполняется 1 &lt;= min &lt;= initial &lt;= max
+     */
+    public AdmissionPolicy withConcurrency(AdmissionLane lane, int min, int initial, int max) {
+        if (min < 1 || initial < min || max < initial) {
+            throw new IllegalArgumentException(String.format(
+                    "Недопустимые границы параллельности: %d, %d, %d", min, initial, max));
+        }
+        int[][] copy = concurrency.clone();
+        copy[lane.ordinal()] = new int[]{min, initial, max};
+        return new AdmissionPolicy(rates, clientRates, latencyTargets, copy);
+    }
+
+    /**
+     * Возвращает лимит частоты запросов клиента в очереди.
+     *
+     * @param clientId идентификатор клиента
+     * @param lane     очередь
+     * @return лимит клиента или общий лимит очереди
+     */
+    public Rate getRate(String clientId, AdmissionLane lane) {
+        Rate[] client = clientRates.get(clientId);
+        Rate rate = client == null ? null : client[lane.ordinal()];
+        return rate == null ? rates[lane.ordinal()] : rate;
+    }
+
+    /**
+     * Возвращает целевой 99-й процентиль задержки очереди.
+     *
+     * @param lane очередь
+     * @return задержка в наносекундах
+     */
+    public long getLatencyTargetNanos(AdmissionLane lane) {
+        return latencyTargets[lane.ordinal()];
+    }
+
+    AdaptiveConcurrencyLimit newLimit(AdmissionLane lane) {
+        int[] bounds = concurrency[lane.ordinal()];
+        return new AdaptiveConcurrencyLimit(bounds[0], bounds[1], bounds[2], latencyTargets[lane.ordinal()]);
+    }
+}
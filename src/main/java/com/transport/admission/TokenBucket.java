@@ -0,0 +1,59 @@
+package com.transport.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограничение частоты запросов: в среднем {@code ratePerSecond} запросов в секунду и не больше
+ * {@code burst} запросов подряд. Реализовано по алгоритму GCRA: вместо количества токенов
+ * хранится теоретическое время прихода следующего запроса, которое обновляется одной операцией
+ * compareAndSet, поэтому корзина не требует блокировок и таймера пополнения.
+ */
+final class TokenBucket {
+    private final long interval;
+    private final long tolerance;
+    private final AtomicLong nextArrival = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Создает корзину.
+     *
+     * @param ratePerSecond средняя частота запросов
+     * @param burst         наибольшее количество запросов подряд
+     */
+    TokenBucket(double ratePerSecond, int burst) {
+        this.interval = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.tolerance = interval > Long.MAX_VALUE / 4 / burst ? Long.MAX_VALUE / 4 : interval * burst;
+    }
+
+    /**
+     * Пытается взять токен.
+     *
+     * @param now текущее время System.nanoTime()
+     * @return 0, если токен взят, иначе через сколько наносекунд появится следующий токен
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long current = nextArrival.get();
+            long base = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+            long next = base + interval;
+            long ahead = next - now;
+            if (ahead > tolerance) {
+                return ahead - tolerance;
+            }
+            if (nextArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Сообщает, что корзина полна: теоретическое время следующего запроса уже прошло, и корзина
+     * ведет себя так же, как новая. Такую корзину можно забыть без потери состояния.
+     *
+     * @param now текущее время System.nanoTime()
+     * @return true если корзина не отличается от новой
+     */
+    boolean isIdle(long now) {
+        long current = nextArrival.get();
+        return current == Long.MIN_VALUE || current - now <= 0;
+    }
+}
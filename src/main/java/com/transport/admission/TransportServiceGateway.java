@@ -0,0 +1,131 @@
+package com.transport.admission;
+
+import com.transport.model.Transport;
+import com.transport.service.BulkLoadReport;
+import com.transport.service.TransportQuery;
+import com.transport.service.TransportService;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Доступ к TransportService через контроль допуска: каждая операция выполняется от имени клиента
+ * в очереди чтения или изменения. Операции, отклоненные контролем допуска, выбрасывают
+ * {@link com.transport.exception.AdmissionRejectedException} и не доходят до сервиса.
+ * <pre>
+ * TransportServiceGateway gateway = new TransportServiceGateway(service, AdmissionPolicy.defaults()
+ *         .withClientRate("bulk-loader", AdmissionLane.WRITE, 20, 1));
+ * List&lt;Transport&gt; ships = gateway.query("ui", TransportQuery.of(Ship.class));
+ * </pre>
+ */
+public class TransportServiceGateway {
+    private final TransportService service;
+    private final AdmissionController controller;
+
+    /**
+     * Создает шлюз.
+     *
+     * @param service сервис транспортных средств
+     * @param policy  настройки контроля допуска
+     */
+    public TransportServiceGateway(TransportService service, AdmissionPolicy policy) {
+        this.service = Objects.requireNonNull(service, "service");
+        this.controller = new AdmissionController(policy);
+    }
+
+    /**
+     * Возвращает контроль допуска шлюза, например для наблюдения за пределами и отказами.
+     *
+     * @return контроль допуска
+     */
+    public AdmissionController getController() {
+        return controller;
+    }
+
+    /**
+     * Ищет транспортное средство по идентификатору в очереди чтения.
+     *
+     * @param clientId идентификатор клиента
+     * @param id       идентификатор транспортного средства
+     * @return найденное транспортное средство или null
+     */
+    public Transport findTransportById(String clientId, long id) {
+        return controller.call(clientId, AdmissionLane.READ, () -> service.findTransportById(id));
+    }
+
+    /**
+     * Выполняет запрос в очереди чтения.
+     *
+     * @param clientId идентификатор клиента
+     * @param query    запрос
+     * @return подходящие транспортные средства
+     */
+    public List<Transport> query(String clientId, TransportQuery query) {
+        return controller.call(clientId, AdmissionLane.READ, () -> service.query(query));
+    }
+
+    /**
+     * Выполняет полнотекстовый поиск в очереди чтения.
+     *
+     * @param clientId идентификатор клиента
+     * @param text     строка поиска
+     * @param limit    наибольшее количество результатов
+     * @return найденные транспортные средства
+     */
+    public List<Transport> search(String clientId, String text, int limit) {
+        return controller.call(clientId, AdmissionLane.READ, () -> service.search(text, limit));
+    }
+
+    /**
+     * Проверяет наличие номерного знака в очереди чтения.
+     *
+     * @param clientId     идентификатор клиента
+     * @param licensePlate номерной знак
+     * @return true если автомобиль с таким номером есть
+     */
+    public boolean containsLicensePlate(String clientId, String licensePlate) {
+        return controller.call(clientId, AdmissionLane.READ, () -> service.containsLicensePlate(licensePlate));
+    }
+
+    /**
+     * Возвращает все транспортные средства в очереди чтения.
+     *
+     * @param clientId идентификатор клиента
+     * @return список транспортных средств
+     */
+    public List<Transport> getTransports(String clientId) {
+        return controller.call(clientId, AdmissionLane.READ, service::getTransports);
+    }
+
+    /**
+     * Добавляет транспортное средство в очереди изменений.
+     *
+     * @param clientId  идентификатор клиента
+     * @param transport транспортное средство
+     */
+    public void addTransport(String clientId, Transport transport) {
+        controller.run(clientId, AdmissionLane.WRITE, () -> service.addTransport(transport));
+    }
+
+    /**
+     * Удаляет транспортное средство по идентификатору в очереди изменений.
+     *
+     * @param clientId идентификатор клиента
+     * @param id       идентификатор транспортного средства
+     * @return удаленное транспортное средство или null
+     */
+    public Transport removeTransportById(String clientId, long id) {
+        return controller.call(clientId, AdmissionLane.WRITE, () -> service.removeTransportById(id));
+    }
+
+    /**
+     * Выполняет массовую загрузку в очереди изменений; загрузка считается одним запросом.
+     *
+     * @param clientId идентификатор клиента
+     * @param records  текстовые записи
+     * @return отчет о загрузке
+     */
+    public BulkLoadReport bulkLoad(String clientId, Iterable<String> records) {
+        return controller.call(clientId, AdmissionLane.WRITE, () -> service.bulkLoad(records));
+    }
+}
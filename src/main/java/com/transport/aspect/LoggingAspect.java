@@ -1,19 +1,36 @@
 package com.transport.aspect;
 
+import com.transport.monitoring.FleetMetrics;
+import com.transport.monitoring.JmxRegistration;
+import com.transport.monitoring.OperationStats;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.*;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.stereotype.Component;
 
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * Аспект для логирования вызовов методов сервисного слоя через Spring AOP
+ * Аспект для логирования вызовов методов сервисного слоя через Spring AOP.
+ * Помимо вывода в консоль собирает по каждому перехваченному методу количество вызовов, ошибок
+ * и перцентили длительности и публикует их через JMX как
+ * {@code com.transport:type=ServiceMethod,name=<Класс.метод(параметры)>}.
  */
 @Aspect
 @Component
-public class LoggingAspect {
+public class LoggingAspect implements DisposableBean {
+    private final ConcurrentHashMap<Method, OperationStats> methodStats = new ConcurrentHashMap<>();
+    private final List<JmxRegistration> registrations = new CopyOnWriteArrayList<>();
 
     /**
      * Логирует вызов метода перед его выполнением.
@@ -59,6 +76,7 @@ public class LoggingAspect {
      */
     @AfterThrowing(pointcut = "execution(* com.transport..*(..))", throwing = "exception")
     public void logAfterThrowing(JoinPoint joinPoint, Throwable exception) {
+        statsOf(joinPoint).recordError();
         String methodName = joinPoint.getSignature().getName();
         String className = joinPoint.getTarget().getClass().getSimpleName();
 
@@ -68,7 +86,8 @@ public class LoggingAspect {
 
     /**
      * Логирует время выполнения метода.
-     * Замеряет и выводит время выполнения метода в миллисекундах.
+     * Замеряет и выводит время выполнения метода в миллисекундах,
+     * а точную длительность в наносекундах учитывает в статистике метода.
      * Применяется ко всем методам в пакете service и его подпакетах.
      * Является around-советом, который оборачивает выполнение целевого метода.
      *
@@ -78,16 +97,81 @@ public class LoggingAspect {
      */
     @Around("execution(* com.transport.service..*(..))")
     public Object logExecutionTime(ProceedingJoinPoint joinPoint) throws Throwable {
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
+        Object result;
+        long elapsed;
+        try {
+            result = joinPoint.proceed();
+        } finally {
+            elapsed = System.nanoTime() - startTime;
+            statsOf(joinPoint).record(elapsed);
+        }
 
-        Object result = joinPoint.proceed();
-
-        long endTime = System.currentTimeMillis();
+        long elapsedMillis = elapsed / 1_000_000;
         String methodName = joinPoint.getSignature().getName();
 
         System.out.printf("[LOG] Метод %s() выполнен за %d мс%n",
-                methodName, (endTime - startTime));
+                methodName, elapsedMillis);
 
         return result;
     }
+
+    /**
+     * Возвращает статистику перехваченных методов.
+     *
+     * @return метод и его статистика
+     */
+    public Map<Method, OperationStats> getMethodStats() {
+        return Collections.unmodifiableMap(methodStats);
+    }
+
+    /**
+     * Снимает с публикации MBean статистики методов при закрытии контекста Spring.
+     */
+    @Override
+    public void destroy() {
+        for (JmxRegistration registration : registrations) {
+            registration.close();
+        }
+        registrations.clear();
+    }
+
+    /**
+     * Возвращает статистику метода, создавая и публикуя ее при первом вызове.
+     *
+     * @param joinPoint точка соединения
+     * @return статистика метода
+     */
+    private OperationStats statsOf(JoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        OperationStats stats = methodStats.get(method);
+        return stats != null ? stats : methodStats.computeIfAbsent(method, this::publish);
+    }
+
+    /**
+     * Создает статистику метода и публикует ее через JMX.
+     * Если MBean с таким именем уже опубликован другим контекстом, статистика собирается без публикации.
+     *
+     * @param method метод
+     * @return статистика метода
+     */
+    private OperationStats publish(Method method) {
+        OperationStats stats = new OperationStats();
+        StringBuilder name = new StringBuilder(method.getDeclaringClass().getSimpleName())
+                .append('.').append(method.getName()).append('(');
+        Class<?>[] parameters = method.getParameterTypes();
+        for (int i = 0; i < parameters.length; i++) {
+            name.append(i == 0 ? "" : ",").append(parameters[i].getSimpleName());
+        }
+        name.append(')');
+        try {
+            ObjectName objectName = new ObjectName(FleetMetrics.DOMAIN + ":type=ServiceMethod,name="
+                    + ObjectName.quote(name.toString()));
+            registrations.add(JmxRegistration.register(
+                    Collections.singletonList(new JmxRegistration.Entry(objectName, stats))));
+        } catch (MalformedObjectNameException | IllegalStateException e) {
+            System.out.printf("[WARN] Статистика метода %s не опубликована через JMX: %s%n", name, e.getMessage());
+        }
+        return stats;
+    }
 }
\ No newline at end of file
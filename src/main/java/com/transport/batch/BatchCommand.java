@@ -0,0 +1,243 @@
+package com.transport.batch;
+
+import com.transport.model.Transport;
+import com.transport.service.FleetSnapshot;
+import com.transport.service.TransportQuery;
+import com.transport.service.TransportService;
+import com.transport.validation.TransportRecordParser;
+
+import java.util.List;
+
+/**
+ * Разобранная команда пакетного режима. Команды создаются {@link BatchCommandParser} заранее,
+ * до выполнения, и пишут результат в собственный буфер, поэтому команды чтения можно
+ * выполнять параллельно, а вывод собирать в исходном порядке.
+ */
+public abstract class BatchCommand {
+    private final long line;
+    private final boolean readOnly;
+
+    /**
+     * Создает команду.
+     *
+     * @param line     номер строки во входных данных
+     * @param readOnly true если команда не изменяет коллекцию
+     */
+    BatchCommand(long line, boolean readOnly) {
+        this.line = line;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Возвращает номер строки, из которой разобрана команда.
+     *
+     * @return номер строки, начиная с 1
+     */
+    public long getLine() {
+        return line;
+    }
+
+    /**
+     * Сообщает, только ли читает команда коллекцию. Такие команды, идущие подряд,
+     * выполняются параллельно; изменяющие команды выполняются по одной в порядке ввода.
+     *
+     * @return true если команда не изменяет коллекцию
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Выполняет команду и записывает результат в буфер.
+     *
+     * @param service сервис транспортных средств
+     * @param out     буфер вывода команды
+     * @return true если команда выполнена, false если вместо результата записано сообщение об ошибке
+     * @throws RuntimeException при ошибке выполнения; сообщение попадает в вывод
+     */
+    abstract boolean execute(TransportService service, StringBuilder out);
+
+    /**
+     * Выводит сообщение об ошибке команды в формате {@code error <номер строки>: <сообщение>}.
+     *
+     * @param line    номер строки команды
+     * @param message сообщение
+     * @param out     буфер вывода
+     */
+    static void appendError(long line, String message, StringBuilder out) {
+        out.append("error ").append(line).append(": ").append(message).append('\n');
+    }
+
+    /**
+     * Выводит количество транспортных средств и их записи с идентификаторами.
+     *
+     * @param transports транспортные средства
+     * @param out        буфер вывода
+     */
+    static void appendAll(List<Transport> transports, StringBuilder out) {
+        out.append("count ").append(transports.size()).append('\n');
+        for (Transport transport : transports) {
+            appendRecord(transport, out);
+        }
+    }
+
+    /**
+     * Выводит запись транспортного средства в формате {@code id;ТИП;поля...}.
+     *
+     * @param transport транспортное средство
+     * @param out       буфер вывода
+     */
+    static void appendRecord(Transport transport, StringBuilder out) {
+        out.append(transport.getId()).append(TransportRecordParser.SEPARATOR)
+                .append(TransportRecordParser.format(transport)).append('\n');
+    }
+
+    /**
+     * Добавление транспортного средства: {@code add ТИП;поля...}.
+     */
+    static final class Add extends BatchCommand {
+        private final Transport transport;
+
+        Add(long line, Transport transport) {
+            super(line, false);
+            this.transport = transport;
+        }
+
+        @Override
+        boolean execute(TransportService service, StringBuilder out) {
+            service.addTransport(transport);
+            out.append("added ").append(transport.getId()).append('\n');
+            return true;
+        }
+    }
+
+    /**
+     * Удаление по индексу: {@code remove индекс}.
+     */
+    static final class Remove extends BatchCommand {
+        private final int index;
+
+        Remove(long line, int index) {
+            super(line, false);
+            this.index = index;
+        }
+
+        @Override
+        boolean execute(TransportService service, StringBuilder out) {
+            out.append("removed ").append(service.removeTransport(index).getId()).append('\n');
+            return true;
+        }
+    }
+
+    /**
+     * Удаление по идентификатору: {@code remove-id идентификатор}.
+     */
+    static final class RemoveById extends BatchCommand {
+        private final long id;
+
+        RemoveById(long line, long id) {
+            super(line, false);
+            this.id = id;
+        }
+
+        @Override
+        boolean execute(TransportService service, StringBuilder out) {
+            Transport removed = service.removeTransportById(id);
+            out.append(removed == null ? "not-found " : "removed ").append(id).append('\n');
+            return true;
+        }
+    }
+
+    /**
+     * Вывод всей коллекции: {@code list}.
+     */
+    static final class ListAll extends BatchCommand {
+
+        ListAll(long line) {
+            super(line, true);
+        }
+
+        @Override
+        boolean execute(TransportService service, StringBuilder out) {
+            try (FleetSnapshot snapshot = service.snapshot()) {
+                appendAll(snapshot.toList(), out);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Сравнение по индексам: {@code compare индекс индекс}.
+     */
+    static final class Compare extends BatchCommand {
+        private final int first;
+        private final int second;
+
+        Compare(long line, int first, int second) {
+            super(line, true);
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        boolean execute(TransportService service, StringBuilder out) {
+            boolean equal = service.getTransport(first).equals(service.getTransport(second));
+            out.append(equal ? "equal" : "not-equal").append('\n');
+            return true;
+        }
+    }
+
+    /**
+     * Запрос по типу и условиям равенства полей: {@code query ТИП;поле=значение;...}.
+     */
+    static final class Query extends BatchCommand {
+        private final TransportQuery query;
+
+        Query(long line, TransportQuery query) {
+            super(line, true);
+            this.query = query;
+        }
+
+        @Override
+        boolean execute(TransportService service, StringBuilder out) {
+            appendAll(service.query(query), out);
+            return true;
+        }
+    }
+
+    /**
+     * Поиск по части названия или производителя: {@code search текст}.
+     */
+    static final class Search extends BatchCommand {
+        private final String text;
+
+        Search(long line, String text) {
+            super(line, true);
+            this.text = text;
+        }
+
+        @Override
+        boolean execute(TransportService service, StringBuilder out) {
+            appendAll(service.search(text, Integer.MAX_VALUE), out);
+            return true;
+        }
+    }
+
+    /**
+     * Строка, которую не удалось разобрать. Ошибка выводится на месте команды.
+     */
+    static final class Invalid extends BatchCommand {
+        private final String message;
+
+        Invalid(long line, String message) {
+            super(line, true);
+            this.message = message;
+        }
+
+        @Override
+        boolean execute(TransportService service, StringBuilder out) {
+            appendError(getLine(), message, out);
+            return false;
+        }
+    }
+}
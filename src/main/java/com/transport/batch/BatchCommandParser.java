@@ -0,0 +1,177 @@
+package com.transport.batch;
+
+import com.transport.model.Airplane;
+import com.transport.model.Car;
+import com.transport.model.Ship;
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+import com.transport.service.TransportQuery;
+import com.transport.validation.TransportRecordParser;
+import com.transport.validation.TransportValidator;
+import com.transport.validation.Violations;
+
+import java.util.Locale;
+
+/**
+ * Разбор строк пакетного режима в команды. Каждая строка содержит одну команду:
+ * <pre>
+ * add ТИП;поля...                  добавить транспорт (формат записи {@link TransportRecordParser})
+ * remove индекс                    удалить транспорт по индексу
+ * remove-id идентификатор          удалить транспорт по идентификатору
+ * list                             вывести все транспортные средства
+ * compare индекс индекс            сравнить два транспортных средства
+ * query ТИП[;поле=значение...]     найти транспорт по типу и значениям полей
+ * search текст                     найти транспорт по части названия или производителя
+ * </pre>
+ * Пустые строки и строки, начинающиеся с {@code #}, пропускаются. Ошибка разбора не приводит
+ * к исключению: строка превращается в команду, которая выводит ошибку на своем месте.
+ * Экземпляр переиспользует буферы парсера записей и не потокобезопасен.
+ */
+public final class BatchCommandParser {
+    private final TransportRecordParser recordParser = new TransportRecordParser();
+    private final Violations violations = new Violations();
+
+    /**
+     * Разбирает строку.
+     *
+     * @param text строка ввода
+     * @param line номер строки, начиная с 1
+     * @return команда или null, если строка пустая или является комментарием
+     */
+    public BatchCommand parse(String text, long line) {
+        String command = text.trim();
+        if (command.isEmpty() || command.charAt(0) == '#') {
+            return null;
+        }
+        int space = command.indexOf(' ');
+        String name = space < 0 ? command : command.substring(0, space);
+        String args = space < 0 ? "" : command.substring(space + 1).trim();
+        switch (name) {
+            case "add":
+                return parseAdd(args, line);
+            case "remove":
+                int index = index(args);
+                return index < 0 ? invalid(line, "Ожидался индекс: " + args) : new BatchCommand.Remove(line, index);
+            case "remove-id":
+                long id = id(args);
+                return id <= 0
+                        ? invalid(line, "Ожидался идентификатор: " + args)
+                        : new BatchCommand.RemoveById(line, id);
+            case "list":
+                return args.isEmpty() ? new BatchCommand.ListAll(line) : invalid(line, "Лишние аргументы: " + args);
+            case "compare":
+                return parseCompare(args, line);
+            case "query":
+                return parseQuery(args, line);
+            case "search":
+                return new BatchCommand.Search(line, args);
+            default:
+                return invalid(line, "Неизвестная команда: " + name);
+        }
+    }
+
+    private BatchCommand parseAdd(String record, long line) {
+        Transport transport = recordParser.parse(record, violations);
+        if (transport == null) {
+            return invalid(line, violations.first().getMessage());
+        }
+        return new BatchCommand.Add(line, transport);
+    }
+
+    private BatchCommand parseCompare(String args, long line) {
+        int space = args.indexOf(' ');
+        int first = space < 0 ? -1 : index(args.substring(0, space));
+        int second = space < 0 ? -1 : index(args.substring(space + 1).trim());
+        if (first < 0 || second < 0) {
+            return invalid(line, "Ожидались два индекса: " + args);
+        }
+        return new BatchCommand.Compare(line, first, second);
+    }
+
+    /**
+     * Разбирает запрос вида {@code ТИП;поле=значение;...}. Значения числовых полей
+     * должны быть целыми числами, значения текстовых полей берутся как есть.
+     *
+     * @param args аргументы команды
+     * @param line номер строки
+     * @return команда запроса или команда с ошибкой разбора
+     */
+    private BatchCommand parseQuery(String args, long line) {
+        String[] parts = args.split(String.valueOf(TransportRecordParser.SEPARATOR), -1);
+        Class<? extends Transport> type = typeOf(parts[0].trim());
+        if (type == null) {
+            return invalid(line, "Неизвестный тип транспорта: " + parts[0]);
+        }
+        TransportQuery query = TransportQuery.of(type);
+        for (int i = 1; i < parts.length; i++) {
+            int equals = parts[i].indexOf('=');
+            if (equals < 0) {
+                return invalid(line, "Ожидалось условие поле=значение: " + parts[i]);
+            }
+            String value = parts[i].substring(equals + 1);
+            try {
+                TransportField field = TransportField.byName(parts[i].substring(0, equals).trim());
+                if (field.getValueType() == Integer.class) {
+                    long number = TransportValidator.parseInt(value);
+                    if (number == TransportValidator.NOT_A_NUMBER) {
+                        return invalid(line, "Ожидалось целое число: " + value);
+                    }
+                    query = query.where(field, (int) number);
+                } else {
+                    query = query.where(field, value);
+                }
+            } catch (IllegalArgumentException e) {
+                return invalid(line, e.getMessage());
+            }
+        }
+        return new BatchCommand.Query(line, query);
+    }
+
+    private static Class<? extends Transport> typeOf(String name) {
+        switch (name.toUpperCase(Locale.ROOT)) {
+            case "TRANSPORT":
+                return Transport.class;
+            case "AIRPLANE":
+                return Airplane.class;
+            case "CAR":
+                return Car.class;
+            case "SHIP":
+                return Ship.class;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Разбирает неотрицательный индекс.
+     *
+     * @param text текст
+     * @return индекс или -1, если текст не является неотрицательным целым числом
+     */
+    private static int index(String text) {
+        long value = TransportValidator.parseInt(text);
+        return value < 0 ? -1 : (int) value;
+    }
+
+    /**
+     * Разбирает идентификатор транспортного средства без исключений.
+     *
+     * @param text текст
+     * @return идентификатор или -1, если текст не является положительным числом из не более чем 18 цифр
+     */
+    private static long id(String text) {
+        if (text.isEmpty() || text.length() > 18) {
+            return -1;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < '0' || text.charAt(i) > '9') {
+                return -1;
+            }
+        }
+        return Long.parseLong(text);
+    }
+
+    private static BatchCommand invalid(long line, String message) {
+        return new BatchCommand.Invalid(line, message);
+    }
+}
@@ -0,0 +1,48 @@
+package com.transport.batch;
+
+/**
+ * Итог пакетного выполнения: количество выполненных команд и команд, завершившихся ошибкой.
+ */
+public class BatchReport {
+    private long commands;
+    private long errors;
+
+    /**
+     * Учитывает выполненные команды окна.
+     *
+     * @param commandCount количество команд
+     * @param errorCount   количество команд с ошибкой
+     */
+    void record(int commandCount, int errorCount) {
+        commands += commandCount;
+        errors += errorCount;
+    }
+
+    /**
+     * Возвращает количество выполненных команд, включая завершившиеся ошибкой.
+     *
+     * @return количество команд
+     */
+    public long getCommandCount() {
+        return commands;
+    }
+
+    /**
+     * Возвращает количество команд, завершившихся ошибкой разбора или выполнения.
+     *
+     * @return количество ошибок
+     */
+    public long getErrorCount() {
+        return errors;
+    }
+
+    /**
+     * Возвращает строковое представление итога.
+     *
+     * @return количество команд и ошибок
+     */
+    @Override
+    public String toString() {
+        return String.format("Выполнено команд: %d, ошибок: %d", commands, errors);
+    }
+}
@@ -0,0 +1,212 @@
+package com.transport.batch;
+
+import com.transport.service.TransportService;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+/**
+ * Пакетное выполнение команд без диалога с пользователем.
+ * <p>
+ * Отдельный поток читает ввод и разбирает команды окнами по {@code windowSize} штук, опережая
+ * выполнение на несколько окон. Изменяющие команды выполняются по одной в порядке ввода,
+ * а идущие между ними подряд команды чтения — параллельно: коллекция в это время не меняется,
+ * поэтому их результат тот же, что и при последовательном выполнении. Каждая команда пишет
+ * в собственный буфер, и вывод окна записывается в исходном порядке через общий буфер.
+ * <p>
+ * Ошибка команды не прерывает выполнение: на ее месте выводится строка
+ * {@code error <номер строки>: <сообщение>}.
+ */
+public class BatchRunner implements AutoCloseable {
+    public static final int DEFAULT_WINDOW_SIZE = 4096;
+    private static final int WINDOWS_AHEAD = 4;
+    private static final int PARALLEL_THRESHOLD = 32;
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+    private static final List<BatchCommand> END = Collections.emptyList();
+
+    private final TransportService service;
+    private final ForkJoinPool pool;
+    private final int windowSize;
+
+    /**
+     * Создает исполнитель, выполняющий команды чтения на всех доступных процессорах.
+     *
+     * @param service сервис транспортных средств
+     */
+    public BatchRunner(TransportService service) {
+        this(service, Runtime.getRuntime().availableProcessors(), DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Создает исполнитель.
+     *
+     * @param service     сервис транспортных средств
+     * @param parallelism количество потоков для команд чтения; 1 отключает параллельное выполнение
+     * @param windowSize  количество команд, разбираемых и выводимых за один раз
+     * @throws IllegalArgumentException если parallelism или windowSize не положительны
+     */
+    public BatchRunner(TransportService service, int parallelism, int windowSize) {
+        if (parallelism <= 0 || windowSize <= 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Недопустимые параметры: потоков %d, размер окна %d", parallelism, windowSize));
+        }
+        this.service = service;
+        this.pool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Выполняет все команды из ввода и записывает результаты в вывод.
+     * Вывод сбрасывается по завершении, но не закрывается. При ошибке чтения ввода или прерывании
+     * вывод тоже сбрасывается: в нем остаются результаты всех уже выполненных команд.
+     *
+     * @param input  ввод с командами, по одной на строку
+     * @param output вывод результатов
+     * @return итог выполнения
+     * @throws IOException при ошибке чтения ввода или записи вывода
+     */
+    public BatchReport run(Reader input, Writer output) throws IOException {
+        BlockingQueue<List<BatchCommand>> windows = new ArrayBlockingQueue<>(WINDOWS_AHEAD);
+        AtomicReference<IOException> failure = new AtomicReference<>();
+        Thread parser = new Thread(() -> parseAll(input, windows, failure), "batch-parser");
+        parser.setDaemon(true);
+        parser.start();
+        BufferedWriter buffered = new BufferedWriter(output, OUTPUT_BUFFER_SIZE);
+        BatchReport report = new BatchReport();
+        try {
+            for (List<BatchCommand> window = windows.take(); window != END; window = windows.take()) {
+                execute(window, buffered, report);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Пакетное выполнение прервано");
+        } finally {
+            parser.interrupt();
+            buffered.flush();
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return report;
+    }
+
+    /**
+     * Останавливает потоки выполнения команд чтения.
+     */
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Читает и разбирает ввод, передавая команды окнами. В конце всегда передает признак {@link #END}.
+     *
+     * @param input   ввод
+     * @param windows очередь разобранных окон
+     * @param failure ошибка чтения ввода
+     */
+    private void parseAll(Reader input, BlockingQueue<List<BatchCommand>> windows,
+                          AtomicReference<IOException> failure) {
+        BatchCommandParser parser = new BatchCommandParser();
+        BufferedReader reader = input instanceof BufferedReader ? (BufferedReader) input : new BufferedReader(input);
+        try {
+            List<BatchCommand> window = new ArrayList<>(windowSize);
+            long line = 0;
+            for (String text = reader.readLine(); text != null; text = reader.readLine()) {
+                BatchCommand command = parser.parse(text, ++line);
+                if (command != null) {
+                    window.add(command);
+                }
+                if (window.size() == windowSize) {
+                    windows.put(window);
+                    window = new ArrayList<>(windowSize);
+                }
+            }
+            if (!window.isEmpty()) {
+                windows.put(window);
+            }
+        } catch (IOException e) {
+            failure.set(e);
+        } catch (InterruptedException e) {
+            return;
+        }
+        try {
+            windows.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Выполняет окно команд и записывает его вывод.
+     *
+     * @param window команды
+     * @param output вывод
+     * @param report итог выполнения
+     * @throws IOException при ошибке записи
+     */
+    private void execute(List<BatchCommand> window, Writer output, BatchReport report) throws IOException {
+        int size = window.size();
+        StringBuilder[] results = new StringBuilder[size];
+        boolean[] failed = new boolean[size];
+        int start = 0;
+        while (start < size) {
+            int end = start + 1;
+            if (window.get(start).isReadOnly()) {
+                while (end < size && window.get(end).isReadOnly()) {
+                    end++;
+                }
+            }
+            if (pool != null && end - start >= PARALLEL_THRESHOLD) {
+                int from = start;
+                int to = end;
+                pool.submit(() -> IntStream.range(from, to).parallel()
+                        .forEach(i -> failed[i] = !run(window.get(i), results[i] = new StringBuilder()))).join();
+            } else {
+                for (int i = start; i < end; i++) {
+                    failed[i] = !run(window.get(i), results[i] = new StringBuilder());
+                }
+            }
+            start = end;
+        }
+        int errors = 0;
+        for (int i = 0; i < size; i++) {
+            output.append(results[i]);
+            if (failed[i]) {
+                errors++;
+            }
+        }
+        report.record(size, errors);
+    }
+
+    /**
+     * Выполняет команду, заменяя ее вывод сообщением об ошибке, если она завершилась исключением.
+     *
+     * @param command команда
+     * @param out     буфер вывода команды
+     * @return true если команда выполнена без ошибки
+     */
+    private boolean run(BatchCommand command, StringBuilder out) {
+        try {
+            return command.execute(service, out);
+        } catch (RuntimeException e) {
+            out.setLength(0);
+            BatchCommand.appendError(command.getLine(), e.getMessage(), out);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package com.transport.cache;
+
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+import com.transport.service.FleetListener;
+import com.transport.service.TransportQuery;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Кеш результатов запросов TransportQuery, который поддерживается вместе с коллекцией.
+ * Ключом служит сам запрос: его условия хранятся в порядке объявления полей, поэтому
+ * одинаковые запросы, построенные в разном порядке, попадают в одну запись.
+ * <p>
+ * Размер кеша ограничен количеством записей и приблизительным объемом памяти. Вытеснение
+ * выполняется по алгоритму CLOCK (приближение LRU): попадание лишь выставляет признак
+ * обращения к записи, поэтому чтение из кеша не берет блокировок.
+ * <p>
+ * Инвалидация точная: при добавлении и удалении сбрасываются только записи, которым
+ * соответствует этот транспорт, а при изменении поля — только записи с условием на это поле,
+ * для которых изменилось соответствие транспорта запросу. Если хранилище возвращает копии,
+ * дополнительно сбрасываются записи, в результате которых есть измененный транспорт,
+ * так как сохраненные копии не видят изменения.
+ * <p>
+ * Чтобы не сохранить результат, посчитанный до параллельного изменения, для каждого типа транспорта
+ * ведется счетчик изменений. Перед выполнением запроса берется метка {@link #stamp(TransportQuery)},
+ * и {@link #put} отклоняет результат, если после этого менялся транспорт типа запроса.
+ */
+public class QueryResultCache implements FleetListener {
+    private static final long ENTRY_OVERHEAD_BYTES = 160;
+    private static final long CONDITION_BYTES = 48;
+    private static final long REFERENCE_BYTES = 8;
+
+    /**
+     * Запись кеша. Признак обращения выставляется при попадании и сбрасывается стрелкой CLOCK.
+     */
+    private static final class Entry {
+        final TransportQuery query;
+        final List<Transport> result;
+        final long bytes;
+        volatile boolean referenced;
+        boolean removed;
+
+        Entry(TransportQuery query, List<Transport> result, long bytes) {
+            this.query = query;
+            this.result = result;
+            this.bytes = bytes;
+        }
+    }
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final boolean copiedResults;
+    private final ConcurrentHashMap<TransportQuery, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Set<Entry>> entriesByType = new HashMap<>();
+    private final ArrayDeque<Entry> clock = new ArrayDeque<>();
+    private final ClassValue<AtomicLong> epochs = new ClassValue<AtomicLong>() {
+        @Override
+        protected AtomicLong computeValue(Class<?> type) {
+            return new AtomicLong();
+        }
+    };
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder staleRejections = new LongAdder();
+    private long bytes;
+
+    /**
+     * Создает пустой кеш.
+     *
+     * @param maxEntries максимальное количество записей; 0 отключает кеширование
+     * @param maxBytes   максимальный приблизительный объем записей в байтах
+     * @throws IllegalArgumentException если ограничения отрицательны
+     */
+    public QueryResultCache(int maxEntries, long maxBytes) {
+        this(maxEntries, maxBytes, false);
+    }
+
+    /**
+     * Создает пустой кеш.
+     *
+     * @param maxEntries    максимальное количество записей; 0 отключает кеширование
+     * @param maxBytes      максимальный приблизительный объем записей в байтах
+     * @param copiedResults true если результаты содержат копии транспортных средств, а не сами объекты
+     * @throws IllegalArgumentException если ограничения отрицательны
+     */
+    public QueryResultCache(int maxEntries, long maxBytes, boolean copiedResults) {
+        if (maxEntries < 0 || maxBytes < 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Недопустимые ограничения кеша: записей %d, байт %d", maxEntries, maxBytes));
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.copiedResults = copiedResults;
+    }
+
+    /**
+     * Возвращает сохраненный результат запроса.
+     *
+     * @param query запрос
+     * @return неизменяемый список найденных транспортных средств или null, если результата нет в кеше
+     */
+    public List<Transport> get(TransportQuery query) {
+        Entry entry = entries.get(query);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        hits.increment();
+        return entry.result;
+    }
+
+    /**
+     * Возвращает метку изменений типа запроса. Метку нужно взять до выполнения запроса
+     * и передать в {@link #put}.
+     *
+     * @param query запрос
+     * @return метка изменений
+     */
+    public long stamp(TransportQuery query) {
+        return epochs.get(query.getType()).get();
+    }
+
+    /**
+     * Сохраняет результат запроса, если транспорт типа запроса не менялся после получения метки.
+     * Слишком большой для кеша результат не сохраняется.
+     *
+     * @param query  запрос
+     * @param result неизменяемый список найденных транспортных средств
+     * @param stamp  метка, полученная до выполнения запроса
+     * @return true если результат сохранен
+     */
+    public boolean put(TransportQuery query, List<Transport> result, long stamp) {
+        Objects.requireNonNull(result, "result");
+        long size = estimateBytes(query, result.size());
+        if (maxEntries == 0 || size > maxBytes) {
+            return false;
+        }
+        synchronized (this) {
+            if (epochs.get(query.getType()).get() != stamp) {
+                staleRejections.increment();
+                return false;
+            }
+            Entry previous = entries.get(query);
+            if (previous != null) {
+                remove(previous);
+            }
+            Entry entry = new Entry(query, result, size);
+            entries.put(query, entry);
+            entriesByType.computeIfAbsent(query.getType(), type -> new HashSet<>()).add(entry);
+            clock.addLast(entry);
+            bytes += size;
+            while (entries.size() > maxEntries || bytes > maxBytes) {
+                evictOne();
+            }
+            if (clock.size() > 2 * entries.size() + 16) {
+                clock.removeIf(queued -> queued.removed);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Удаляет все записи. Статистика сохраняется.
+     */
+    public synchronized void clear() {
+        for (Entry entry : entries.values()) {
+            entry.removed = true;
+        }
+        entries.clear();
+        entriesByType.clear();
+        clock.clear();
+        bytes = 0;
+    }
+
+    @Override
+    public void onAdded(Transport transport) {
+        invalidateMatching(transport);
+    }
+
+    @Override
+    public void onRemoved(Transport transport) {
+        invalidateMatching(transport);
+    }
+
+    @Override
+    public void onModified(Transport transport, TransportField field, Object oldValue, Object newValue) {
+        synchronized (this) {
+            advanceEpochs(transport);
+            for (Class<?> type = transport.getClass(); type != Object.class; type = type.getSuperclass()) {
+                Set<Entry> candidates = entriesByType.get(type);
+                if (candidates == null) {
+                    continue;
+                }
+                for (Entry entry : candidates.toArray(new Entry[0])) {
+                    Map<TransportField, Object> conditions = entry.query.getConditions();
+                    boolean conditioned = conditions.containsKey(field);
+                    boolean matchedBefore = !conditioned || Objects.equals(oldValue, conditions.get(field));
+                    boolean matchesNow = !conditioned || Objects.equals(newValue, conditions.get(field));
+                    boolean affected = matchedBefore != matchesNow || copiedResults && matchedBefore;
+                    if (affected && matchesOtherConditions(entry.query, transport, field)) {
+                        remove(entry);
+                        invalidations.increment();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Сбрасывает записи, которым соответствует добавленное или удаленное транспортное средство.
+     *
+     * @param transport транспортное средство
+     */
+    private synchronized void invalidateMatching(Transport transport) {
+        advanceEpochs(transport);
+        for (Class<?> type = transport.getClass(); type != Object.class; type = type.getSuperclass()) {
+            Set<Entry> candidates = entriesByType.get(type);
+            if (candidates == null) {
+                continue;
+            }
+            for (Entry entry : candidates.toArray(new Entry[0])) {
+                if (entry.query.matches(transport)) {
+                    remove(entry);
+                    invalidations.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Увеличивает счетчики изменений класса транспорта и всех его предков.
+     *
+     * @param transport измененное транспортное средство
+     */
+    private void advanceEpochs(Transport transport) {
+        for (Class<?> type = transport.getClass(); type != Object.class; type = type.getSuperclass()) {
+            epochs.get(type).incrementAndGet();
+        }
+    }
+
+    /**
+     * Проверяет условия запроса, кроме условия на указанное поле.
+     *
+     * @param query     запрос
+     * @param transport транспортное средство
+     * @param skipped   поле, условие на которое не проверяется
+     * @return true если все остальные условия выполнены
+     */
+    private static boolean matchesOtherConditions(TransportQuery query, Transport transport, TransportField skipped) {
+        for (Map.Entry<TransportField, Object> condition : query.getConditions().entrySet()) {
+            if (condition.getKey() != skipped
+                    && !Objects.equals(condition.getKey().get(transport), condition.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Вытесняет одну запись: стрелка CLOCK пропускает удаленные записи и дает второй шанс тем,
+     * к которым обращались с прошлого прохода.
+     */
+    private void evictOne() {
+        while (!clock.isEmpty()) {
+            Entry entry = clock.pollFirst();
+            if (entry.removed) {
+                continue;
+            }
+            if (entry.referenced) {
+                entry.referenced = false;
+                clock.addLast(entry);
+                continue;
+            }
+            remove(entry);
+            evictions.increment();
+            return;
+        }
+    }
+
+    /**
+     * Удаляет запись из кеша и индекса по типам. Запись остается в очереди CLOCK
+     * с признаком удаления и отбрасывается при следующем проходе стрелки.
+     *
+     * @param entry запись
+     */
+    private void remove(Entry entry) {
+        entry.removed = true;
+        entries.remove(entry.query, entry);
+        Set<Entry> sameType = entriesByType.get(entry.query.getType());
+        if (sameType != null && sameType.remove(entry) && sameType.isEmpty()) {
+            entriesByType.remove(entry.query.getType());
+        }
+        bytes -= entry.bytes;
+    }
+
+    /**
+     * Оценивает объем записи: служебные объекты, условия запроса и ссылки в списке результата.
+     * Сами транспортные средства не учитываются, так как они принадлежат коллекции.
+     *
+     * @param query      запрос
+     * @param resultSize количество найденных транспортных средств
+     * @return приблизительный объем в байтах
+     */
+    private static long estimateBytes(TransportQuery query, int resultSize) {
+        return ENTRY_OVERHEAD_BYTES + CONDITION_BYTES * query.getConditions().size()
+                + REFERENCE_BYTES * resultSize;
+    }
+
+    /**
+     * Возвращает количество записей в кеше.
+     *
+     * @return количество записей
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Возвращает приблизительный объем записей в кеше.
+     *
+     * @return объем в байтах
+     */
+    public synchronized long getSizeInBytes() {
+        return bytes;
+    }
+
+    /**
+     * Возвращает количество попаданий в кеш.
+     *
+     * @return количество попаданий
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Возвращает количество промахов кеша.
+     *
+     * @return количество промахов
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Возвращает количество записей, вытесненных из-за ограничений размера.
+     *
+     * @return количество вытеснений
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Возвращает количество записей, сброшенных из-за изменений коллекции.
+     *
+     * @return количество инвалидаций
+     */
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    /**
+     * Возвращает количество результатов, не сохраненных из-за параллельного изменения коллекции.
+     *
+     * @return количество отклоненных результатов
+     */
+    public long getStaleRejectionCount() {
+        return staleRejections.sum();
+    }
+}
@@ -0,0 +1,137 @@
+package com.transport.event;
+
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+
+/**
+ * Событие изменения коллекции транспортных средств.
+ * Описывает добавление, удаление или изменение поля одного транспортного средства.
+ */
+public final class FleetChangeEvent {
+
+    /**
+     * Вид изменения коллекции.
+     */
+    public enum Kind {
+        ADDED,
+        REMOVED,
+        MODIFIED
+    }
+
+    private final long sequence;
+    private final long timestamp;
+    private final Kind kind;
+    private final Transport transport;
+    private final TransportField field;
+    private final Object oldValue;
+    private final Object newValue;
+
+    /**
+     * Создает событие изменения.
+     *
+     * @param sequence  порядковый номер события в потоке публикатора
+     * @param timestamp время события в миллисекундах с начала эпохи
+     * @param kind      вид изменения
+     * @param transport транспортное средство, к которому относится событие
+     * @param field     измененное поле или null для ADDED и REMOVED
+     * @param oldValue  предыдущее значение поля или null
+     * @param newValue  новое значение поля или null
+     */
+    public FleetChangeEvent(long sequence, long timestamp, Kind kind, Transport transport,
+                            TransportField field, Object oldValue, Object newValue) {
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.kind = kind;
+        this.transport = transport;
+        this.field = field;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    /**
+     * Возвращает порядковый номер события.
+     * Номера строго возрастают в пределах одного публикатора.
+     *
+     * @return порядковый номер события
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Возвращает время события.
+     *
+     * @return время в миллисекундах с начала эпохи
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Возвращает вид изменения.
+     *
+     * @return вид изменения
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Возвращает транспортное средство, к которому относится событие.
+     *
+     * @return транспортное средство
+     */
+    public Transport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Возвращает идентификатор транспортного средства.
+     *
+     * @return идентификатор транспортного средства
+     */
+    public long getTransportId() {
+        return transport.getId();
+    }
+
+    /**
+     * Возвращает измененное поле.
+     *
+     * @return измененное поле или null для событий ADDED и REMOVED
+     */
+    public TransportField getField() {
+        return field;
+    }
+
+    /**
+     * Возвращает предыдущее значение поля.
+     *
+     * @return предыдущее значение или null
+     */
+    public Object getOldValue() {
+        return oldValue;
+    }
+
+    /**
+     * Возвращает новое значение поля.
+     *
+     * @return новое значение или null
+     */
+    public Object getNewValue() {
+        return newValue;
+    }
+
+    /**
+     * Возвращает строковое представление события.
+     *
+     * @return строковое представление события
+     */
+    @Override
+    public String toString() {
+        if (kind == Kind.MODIFIED) {
+            return String.format("FleetChangeEvent{#%d, %s, id=%d, %s: %s -> %s}",
+                    sequence, kind, transport.getId(), field.getFieldName(), oldValue, newValue);
+        }
+        return String.format("FleetChangeEvent{#%d, %s, id=%d}", sequence, kind, transport.getId());
+    }
+}
@@ -0,0 +1,270 @@
+package com.transport.event;
+
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+import com.transport.service.FleetListener;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Публикатор потока событий изменения коллекции транспортных средств.
+ * Регистрируется в TransportService как слушатель и раздает события подписчикам
+ * через java.util.concurrent.Flow с ограниченным буфером на каждого подписчика.
+ * <p>
+ * Если буфер подписчика заполнен, публикация ждет не дольше заданного времени,
+ * после чего событие для этого подписчика отбрасывается и учитывается в счетчике потерь.
+ * Предел относится ко всей публикации события: в него входят ожидание очереди других изменяющих
+ * потоков и ожидание всех заполненных буферов. Поэтому медленные подписчики не могут задержать
+ * изменение коллекции больше чем на этот предел, сколько бы потоков ни изменяли коллекцию одновременно.
+ */
+public class FleetChangePublisher implements Flow.Publisher<FleetChangeEvent>, FleetListener, AutoCloseable {
+    private static final long DEFAULT_MAX_BLOCK_MILLIS = 10;
+    private static final long SPACE_POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final SubmissionPublisher<FleetChangeEvent> delegate;
+    private final long maxBlockNanos;
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private long nextSequence = 1;
+    private volatile int subscriberCount;
+
+    /**
+     * Создает публикатор с общим пулом ForkJoinPool, размером буфера по умолчанию
+     * и ожиданием не более 10 мс на заполненный буфер.
+     */
+    public FleetChangePublisher() {
+        this(ForkJoinPool.commonPool(), Flow.defaultBufferSize(), DEFAULT_MAX_BLOCK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Создает публикатор с указанными параметрами.
+     *
+     * @param executor       исполнитель, в котором вызываются методы подписчиков
+     * @param bufferCapacity максимальный размер буфера на одного подписчика
+     * @param maxBlock       максимальное время ожидания места в буфере
+     * @param unit           единица измерения времени ожидания
+     * @throws IllegalArgumentException если размер буфера не положительный или время ожидания отрицательное
+     */
+    public FleetChangePublisher(Executor executor, int bufferCapacity, long maxBlock, TimeUnit unit) {
+        if (maxBlock < 0) {
+            throw new IllegalArgumentException("Время ожидания не может быть отрицательным");
+        }
+        this.delegate = new SubmissionPublisher<>(executor, bufferCapacity);
+        this.maxBlockNanos = unit.toNanos(maxBlock);
+    }
+
+    /**
+     * Подписывает получателя на поток событий.
+     * Подписчик получает только события, опубликованные после подписки.
+     *
+     * @param subscriber подписчик
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super FleetChangeEvent> subscriber) {
+        delegate.subscribe(new CountingSubscriber(Objects.requireNonNull(subscriber, "subscriber")));
+    }
+
+    /**
+     * Публикует событие ADDED.
+     *
+     * @param transport добавленное транспортное средство
+     */
+    @Override
+    public void onAdded(Transport transport) {
+        publish(FleetChangeEvent.Kind.ADDED, transport, null, null, null);
+    }
+
+    /**
+     * Публикует событие REMOVED.
+     *
+     * @param transport удаленное транспортное средство
+     */
+    @Override
+    public void onRemoved(Transport transport) {
+        publish(FleetChangeEvent.Kind.REMOVED, transport, null, null, null);
+    }
+
+    /**
+     * Публикует событие MODIFIED.
+     *
+     * @param transport измененное транспортное средство
+     * @param field     измененное поле
+     * @param oldValue  предыдущее значение
+     * @param newValue  новое значение
+     */
+    @Override
+    public void onModified(Transport transport, TransportField field, Object oldValue, Object newValue) {
+        publish(FleetChangeEvent.Kind.MODIFIED, transport, field, oldValue, newValue);
+    }
+
+    /**
+     * Формирует событие и передает его подписчикам.
+     * Порядковые номера выдаются под блокировкой, поэтому подписчики получают события в порядке номеров.
+     * Блокировка и место в буферах ожидаются до общего срока, отсчитанного от начала публикации;
+     * если блокировку не удалось получить к сроку, событие отбрасывается для всех подписчиков
+     * и номер ему не выдается. Количество подписчиков запрашивается только под блокировкой:
+     * SubmissionPublisher отвечает на этот запрос под своей внутренней блокировкой, которую
+     * удерживает публикующий поток, пока ждет места в буфере. После закрытия публикатора
+     * или при отсутствии подписчиков события не формируются.
+     *
+     * @param kind      вид изменения
+     * @param transport транспортное средство
+     * @param field     измененное поле или null
+     * @param oldValue  предыдущее значение или null
+     * @param newValue  новое значение или null
+     */
+    private void publish(FleetChangeEvent.Kind kind, Transport transport, TransportField field,
+                         Object oldValue, Object newValue) {
+        if (delegate.isClosed()) {
+            return;
+        }
+        long deadline = System.nanoTime() + maxBlockNanos;
+        try {
+            if (!publishLock.tryLock(maxBlockNanos, TimeUnit.NANOSECONDS)) {
+                dropped.add(subscriberCount);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.add(subscriberCount);
+            return;
+        }
+        try {
+            subscriberCount = delegate.getNumberOfSubscribers();
+            if (subscriberCount == 0) {
+                return;
+            }
+            FleetChangeEvent event = new FleetChangeEvent(nextSequence++, System.currentTimeMillis(),
+                    kind, transport, field, oldValue, newValue);
+            int lag = delegate.offer(event, (subscriber, item) -> awaitSpace((CountingSubscriber) subscriber,
+                    deadline));
+            if (lag < 0) {
+                dropped.add(-lag);
+            }
+            published.increment();
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    /**
+     * Ждет, пока подписчик заберет из буфера хотя бы одно событие, но не дольше срока публикации.
+     * Вызывается SubmissionPublisher для заполненного буфера; после ответа true он один раз повторяет
+     * попытку и отбрасывает событие для этого подписчика, только если буфер все еще заполнен.
+     *
+     * @param subscriber подписчик с заполненным буфером
+     * @param deadline   срок публикации по System.nanoTime
+     * @return всегда true: повторная попытка не блокирует
+     */
+    private static boolean awaitSpace(CountingSubscriber subscriber, long deadline) {
+        long received = subscriber.received.get();
+        long remaining;
+        while (subscriber.received.get() == received && (remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(Math.min(remaining, SPACE_POLL_NANOS));
+        }
+        return true;
+    }
+
+    /**
+     * Возвращает количество опубликованных событий.
+     *
+     * @return количество событий, переданных в поток
+     */
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    /**
+     * Возвращает количество доставок, отброшенных из-за переполнения буферов подписчиков.
+     * Одно событие может быть отброшено для нескольких подписчиков.
+     *
+     * @return количество отброшенных доставок
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Возвращает текущее количество подписчиков.
+     *
+     * @return количество подписчиков
+     */
+    public int getSubscriberCount() {
+        return delegate.getNumberOfSubscribers();
+    }
+
+    /**
+     * Возвращает оценку наибольшего отставания среди подписчиков.
+     *
+     * @return количество событий, опубликованных, но еще не полученных самым медленным подписчиком
+     */
+    public int getMaxLag() {
+        return delegate.estimateMaximumLag();
+    }
+
+    /**
+     * Завершает поток: подписчики получают onComplete после обработки уже опубликованных событий.
+     */
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    /**
+     * Подписчик-обертка, который считает полученные события: увеличение счетчика означает,
+     * что событие уже извлечено из буфера и в нем освободилось место.
+     */
+    private static final class CountingSubscriber implements Flow.Subscriber<FleetChangeEvent> {
+        private final Flow.Subscriber<? super FleetChangeEvent> subscriber;
+        private final AtomicLong received = new AtomicLong();
+
+        CountingSubscriber(Flow.Subscriber<? super FleetChangeEvent> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscriber.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(FleetChangeEvent item) {
+            received.incrementAndGet();
+            subscriber.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            subscriber.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            subscriber.onComplete();
+        }
+
+        /**
+         * Обертки равны, если равны исходные подписчики: так SubmissionPublisher
+         * по-прежнему распознает повторную подписку.
+         */
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CountingSubscriber && subscriber.equals(((CountingSubscriber) o).subscriber);
+        }
+
+        @Override
+        public int hashCode() {
+            return subscriber.hashCode();
+        }
+    }
+}
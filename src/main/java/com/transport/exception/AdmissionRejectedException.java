@@ -0,0 +1,94 @@
+package com.transport.exception;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Исключение, возникающее, когда запрос к сервису отклонен контролем допуска:
+ * клиент превысил свой лимит частоты или сервис работает на пределе параллельности.
+ * Запрос отклоняется сразу, не ожидая освобождения ресурсов, и может быть повторен позже.
+ * <p>
+ * Отклонение происходит при перегрузке, поэтому оно должно стоить дешевле выполнения запроса:
+ * исключение не заполняет стек вызовов, а сообщение может строиться только при первом обращении к нему.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    /**
+     * Причина отклонения запроса.
+     */
+    public enum Reason {
+        /** Клиент исчерпал лимит запросов. */
+        RATE_LIMITED,
+        /** Достигнут предел одновременно выполняемых запросов. */
+        OVERLOADED
+    }
+
+    private final Reason reason;
+    private final long retryAfterNanos;
+    private final Supplier<String> messageSupplier;
+    private String message;
+
+    /**
+     * Создает новое исключение.
+     *
+     * @param message         детальное сообщение об ошибке
+     * @param reason          причина отклонения
+     * @param retryAfterNanos через сколько наносекунд запрос имеет смысл повторить; 0, если неизвестно
+     */
+    public AdmissionRejectedException(String message, Reason reason, long retryAfterNanos) {
+        super(message, null, false, false);
+        this.messageSupplier = null;
+        this.message = message;
+        this.reason = reason;
+        this.retryAfterNanos = retryAfterNanos;
+    }
+
+    /**
+     * Создает новое исключение, сообщение которого строится при первом обращении к нему.
+     *
+     * @param message         построитель детального сообщения об ошибке
+     * @param reason          причина отклонения
+     * @param retryAfterNanos через сколько наносекунд запрос имеет смысл повторить; 0, если неизвестно
+     */
+    public AdmissionRejectedException(Supplier<String> message, Reason reason, long retryAfterNanos) {
+        super(null, null, false, false);
+        this.messageSupplier = Objects.requireNonNull(message, "message");
+        this.reason = reason;
+        this.retryAfterNanos = retryAfterNanos;
+    }
+
+    /**
+     * Возвращает детальное сообщение, при необходимости построив его.
+     * При одновременном первом обращении из нескольких потоков сообщение может быть построено
+     * несколько раз, но результат всегда одинаков.
+     *
+     * @return сообщение об ошибке
+     */
+    @Override
+    public String getMessage() {
+        String built = message;
+        if (built == null && messageSupplier != null) {
+            built = messageSupplier.get();
+            message = built;
+        }
+        return built;
+    }
+
+    /**
+     * Возвращает причину отклонения.
+     *
+     * @return причина
+     */
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * Возвращает время, через которое запрос имеет смысл повторить.
+     *
+     * @return время в наносекундах; 0, если неизвестно
+     */
+    public long getRetryAfterNanos() {
+        return retryAfterNanos;
+    }
+}
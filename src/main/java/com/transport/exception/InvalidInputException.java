@@ -1,9 +1,25 @@
 package com.transport.exception;
 
+import com.transport.validation.Violation;
+
 /**
  * Пользовательское исключение для обработки неверного ввода данных.
+ * Исключение не заполняет стек вызовов и не накапливает подавленные исключения,
+ * поэтому его создание дешево, а экземпляры для кодов нарушений, полученные через
+ * {@link #of(Violation)}, создаются один раз и переиспользуются.
  */
 public class InvalidInputException extends RuntimeException {
+    private static final InvalidInputException[] SHARED;
+
+    static {
+        Violation[] violations = Violation.values();
+        SHARED = new InvalidInputException[violations.length];
+        for (Violation violation : violations) {
+            SHARED[violation.ordinal()] = new InvalidInputException(violation);
+        }
+    }
+
+    private final Violation violation;
 
     /**
      * Создает новое исключение с указанным сообщением об ошибке.
@@ -14,7 +30,7 @@ public class InvalidInputException extends RuntimeException {
      * @throws NullPointerException если message равен null
      */
     public InvalidInputException(String message) {
-        super(message);
+        this(message, null);
     }
 
     /**
@@ -28,6 +44,37 @@ public class InvalidInputException extends RuntimeException {
      * @throws NullPointerException если message равен null
      */
     public InvalidInputException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, false, false);
+        this.violation = null;
+    }
+
+    /**
+     * Создает исключение для кода нарушения.
+     *
+     * @param violation нарушение
+     */
+    private InvalidInputException(Violation violation) {
+        super(violation.getMessage(), null, false, false);
+        this.violation = violation;
+    }
+
+    /**
+     * Возвращает общий неизменяемый экземпляр исключения для кода нарушения.
+     *
+     * @param violation нарушение
+     * @return исключение с сообщением нарушения
+     * @throws NullPointerException если violation равен null
+     */
+    public static InvalidInputException of(Violation violation) {
+        return SHARED[violation.ordinal()];
+    }
+
+    /**
+     * Возвращает код нарушения.
+     *
+     * @return нарушение или null, если исключение создано с произвольным сообщением
+     */
+    public Violation getViolation() {
+        return violation;
     }
-}
\ No newline at end of file
+}
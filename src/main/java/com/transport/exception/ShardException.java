@@ -0,0 +1,27 @@
+package com.transport.exception;
+
+/**
+ * Исключение, возникающее при обращении к шарду коллекции транспортных средств:
+ * ошибка ввода-вывода, обрыв соединения или ошибка на стороне удаленного шарда.
+ */
+public class ShardException extends RuntimeException {
+
+    /**
+     * Создает новое исключение с указанным сообщением об ошибке.
+     *
+     * @param message детальное сообщение об ошибке
+     */
+    public ShardException(String message) {
+        super(message);
+    }
+
+    /**
+     * Создает новое исключение с указанным сообщением об ошибке и причиной.
+     *
+     * @param message детальное сообщение об ошибке
+     * @param cause   исходное исключение
+     */
+    public ShardException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
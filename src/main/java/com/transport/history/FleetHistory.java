@@ -0,0 +1,383 @@
+package com.transport.history;
+
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+import com.transport.service.FleetListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * История изменений коллекции транспортных средств с запросами на момент времени.
+ * Регистрируется в TransportService как слушатель:
+ * <pre>
+ * FleetHistory history = new FleetHistory(365, TimeUnit.DAYS);
+ * service.addListener(history);
+ * history.seed(service.getTransports());
+ * VehicleState state = history.asOf(id, timestamp);
+ * </pre>
+ * Для каждого транспортного средства ведется журнал только на добавление: изменения полей,
+ * удаление и повторное добавление хранятся с дельта-кодированием, а каждые
+ * {@value VehicleHistory#KEYFRAME_INTERVAL} записей сохраняется опорный кадр с полным состоянием.
+ * Состояние на момент времени восстанавливается двоичным поиском кадра и применением
+ * ограниченного числа записей, то есть за логарифмическое от длины истории время.
+ * Текстовые значения хранятся в общем словаре номерами строк.
+ * <p>
+ * Память ограничивается политикой хранения: история старше срока хранения отбрасывается
+ * участками между опорными кадрами, удаленные из коллекции транспортные средства забываются
+ * целиком, а количество кадров одного транспортного средства может быть ограничено.
+ * Запросы на моменты раньше {@link #getHorizon()} отклоняются: ответ на них был бы неполным.
+ * Словарь строк не сокращается.
+ * <p>
+ * Изменения записываются под блокировкой записи, запросы выполняются под блокировкой чтения.
+ * Время изменений берется из часов и не убывает, даже если системные часы переведены назад.
+ */
+public class FleetHistory implements FleetListener {
+    private final long retentionMillis;
+    private final int maxKeyframesPerVehicle;
+    private final LongSupplier clock;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, VehicleHistory> vehicles = new HashMap<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final ArrayDeque<VehicleHistory> removed = new ArrayDeque<>();
+    private long lastTime = Long.MIN_VALUE;
+    private long trimmedHorizon = Long.MIN_VALUE;
+
+    /**
+     * Создает историю с указанным сроком хранения и системными часами.
+     *
+     * @param retention срок хранения истории
+     * @param unit      единица измерения срока
+     * @throws IllegalArgumentException если срок не положительный
+     */
+    public FleetHistory(long retention, TimeUnit unit) {
+        this(retention, unit, Integer.MAX_VALUE, System::currentTimeMillis);
+    }
+
+    /**
+     * Создает историю с указанной политикой хранения и источником времени.
+     *
+     * @param retention              срок хранения истории; {@link Long#MAX_VALUE} — без ограничения
+     * @param unit                   единица измерения срока
+     * @param maxKeyframesPerVehicle максимальное количество опорных кадров одного транспортного средства;
+     *                               при превышении самые старые участки отбрасываются и горизонт сдвигается
+     * @param clock                  источник времени в миллисекундах с начала эпохи
+     * @throws IllegalArgumentException если срок или количество кадров не положительны
+     */
+    public FleetHistory(long retention, TimeUnit unit, int maxKeyframesPerVehicle, LongSupplier clock) {
+        if (retention <= 0 || maxKeyframesPerVehicle <= 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Недопустимая политика хранения: срок %d %s, опорных кадров %d",
+                    retention, unit, maxKeyframesPerVehicle));
+        }
+        this.retentionMillis = retention == Long.MAX_VALUE ? Long.MAX_VALUE : unit.toMillis(retention);
+        this.maxKeyframesPerVehicle = maxKeyframesPerVehicle;
+        this.clock = clock;
+    }
+
+    /**
+     * Начинает историю транспортных средств, которые уже были в коллекции до регистрации слушателя.
+     * Транспортные средства, история которых уже ведется, пропускаются.
+     *
+     * @param transports транспортные средства коллекции
+     */
+    public void seed(Iterable<Transport> transports) {
+        lock.writeLock().lock();
+        try {
+            long now = now();
+            for (Transport transport : transports) {
+                if (!vehicles.containsKey(transport.getId())) {
+                    vehicles.put(transport.getId(), start(transport, null, null, now));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onAdded(Transport transport) {
+        lock.writeLock().lock();
+        try {
+            long now = now();
+            VehicleHistory history = vehicles.get(transport.getId());
+            if (history == null) {
+                vehicles.put(transport.getId(), start(transport, null, null, now));
+            } else {
+                TransportField[] fields = history.getFields();
+                for (int i = 0; i < fields.length; i++) {
+                    int value = encode(fields[i], fields[i].get(transport));
+                    if (value != history.current(i)) {
+                        append(history, i, value, now);
+                    }
+                }
+                if (!history.isPresent()) {
+                    append(history, history.presenceIndex(), 1, now);
+                }
+            }
+            forgetRemoved();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onRemoved(Transport transport) {
+        lock.writeLock().lock();
+        try {
+            VehicleHistory history = vehicles.get(transport.getId());
+            if (history != null && history.isPresent()) {
+                append(history, history.presenceIndex(), 0, now());
+                removed.addLast(history);
+            }
+            forgetRemoved();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onModified(Transport transport, TransportField field, Object oldValue, Object newValue) {
+        lock.writeLock().lock();
+        try {
+            long now = now();
+            VehicleHistory history = vehicles.get(transport.getId());
+            if (history == null) {
+                history = start(transport, field, oldValue, now);
+                vehicles.put(transport.getId(), history);
+            }
+            int index = history.indexOf(field);
+            if (index >= 0) {
+                append(history, index, encode(field, newValue), now);
+            }
+            forgetRemoved();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Восстанавливает состояние транспортного средства на момент времени.
+     *
+     * @param id        идентификатор транспортного средства
+     * @param timestamp момент времени в миллисекундах с начала эпохи
+     * @return состояние или null, если в этот момент транспортного средства не было в коллекции
+     *         или его история еще не велась
+     * @throws IllegalArgumentException если момент раньше {@link #getHorizon()}
+     */
+    public VehicleState asOf(long id, long timestamp) {
+        lock.readLock().lock();
+        try {
+            checkHorizon(timestamp);
+            VehicleHistory history = vehicles.get(id);
+            return history == null ? null : stateAt(history, timestamp, new int[TransportField.values().length + 1]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Восстанавливает состояние всей коллекции на момент времени.
+     *
+     * @param timestamp момент времени в миллисекундах с начала эпохи
+     * @return неизменяемый список состояний транспортных средств, бывших в коллекции в этот момент,
+     *         в порядке идентификаторов
+     * @throws IllegalArgumentException если момент раньше {@link #getHorizon()}
+     */
+    public List<VehicleState> fleetAsOf(long timestamp) {
+        List<VehicleState> fleet = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            checkHorizon(timestamp);
+            int[] state = new int[TransportField.values().length + 1];
+            for (VehicleHistory history : vehicles.values()) {
+                VehicleState vehicle = stateAt(history, timestamp, state);
+                if (vehicle != null) {
+                    fleet.add(vehicle);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        fleet.sort(Comparator.comparingLong(VehicleState::getId));
+        return Collections.unmodifiableList(fleet);
+    }
+
+    /**
+     * Возвращает самый ранний момент, на который история гарантированно полна.
+     * Горизонт определяется сроком хранения и сдвигается вперед, когда история
+     * отдельного транспортного средства сокращается из-за ограничения количества кадров.
+     *
+     * @return время в миллисекундах с начала эпохи или {@link Long#MIN_VALUE}, если история не сокращалась
+     */
+    public long getHorizon() {
+        lock.readLock().lock();
+        try {
+            return horizon(Math.max(clock.getAsLong(), lastTime));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает количество транспортных средств, история которых хранится.
+     *
+     * @return количество транспортных средств, включая удаленные в пределах срока хранения
+     */
+    public int getVehicleCount() {
+        lock.readLock().lock();
+        try {
+            return vehicles.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает количество хранимых записей журнала.
+     *
+     * @return количество записей по всем транспортным средствам
+     */
+    public long getEntryCount() {
+        lock.readLock().lock();
+        try {
+            long entries = 0;
+            for (VehicleHistory history : vehicles.values()) {
+                entries += history.getEntryCount();
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает приблизительный объем памяти, занимаемый историей без словаря строк.
+     *
+     * @return объем в байтах
+     */
+    public long getSizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (VehicleHistory history : vehicles.values()) {
+                bytes += history.getSizeInBytes();
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Начинает историю транспортного средства с его текущего состояния.
+     *
+     * @param transport транспортное средство
+     * @param field     поле, которое только что изменилось, или null
+     * @param oldValue  значение этого поля до изменения
+     * @param now       текущее время
+     * @return новая история
+     */
+    private VehicleHistory start(Transport transport, TransportField field, Object oldValue, long now) {
+        TransportField[] fields = VehicleHistory.fieldsOf(transport.getClass());
+        int[] initial = new int[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            initial[i] = encode(fields[i], fields[i] == field ? oldValue : fields[i].get(transport));
+        }
+        return new VehicleHistory(transport.getId(), transport.getClass(), initial, now);
+    }
+
+    /**
+     * Записывает изменение и, если начат новый опорный кадр, применяет политику хранения.
+     */
+    private void append(VehicleHistory history, int index, int value, long now) {
+        if (history.append(now, index, value)) {
+            history.dropBefore(horizon(now));
+            trimmedHorizon = Math.max(trimmedHorizon, history.dropBeyond(maxKeyframesPerVehicle));
+        }
+    }
+
+    /**
+     * Забывает транспортные средства, удаленные из коллекции раньше горизонта.
+     * Если транспортное средство было добавлено снова, оно остается в истории.
+     */
+    private void forgetRemoved() {
+        long horizon = horizon(lastTime);
+        while (!removed.isEmpty()) {
+            VehicleHistory history = removed.peekFirst();
+            if (!history.isPresent() && history.getLastTime() > horizon) {
+                return;
+            }
+            removed.pollFirst();
+            if (!history.isPresent()) {
+                vehicles.remove(history.getId(), history);
+            }
+        }
+    }
+
+    private VehicleState stateAt(VehicleHistory history, long timestamp, int[] state) {
+        if (!history.stateAt(timestamp, state)) {
+            return null;
+        }
+        TransportField[] fields = history.getFields();
+        Object[] values = new Object[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            values[i] = decode(fields[i], state[i]);
+        }
+        return new VehicleState(history.getId(), timestamp, history.getType(), fields, values);
+    }
+
+    private long now() {
+        lastTime = Math.max(clock.getAsLong(), lastTime);
+        return lastTime;
+    }
+
+    private long horizon(long now) {
+        long byAge = retentionMillis == Long.MAX_VALUE ? Long.MIN_VALUE : now - retentionMillis;
+        return Math.max(byAge, trimmedHorizon);
+    }
+
+    private void checkHorizon(long timestamp) {
+        long horizon = horizon(Math.max(clock.getAsLong(), lastTime));
+        if (timestamp < horizon) {
+            throw new IllegalArgumentException(String.format(
+                    "История на момент %d не хранится: горизонт хранения %d", timestamp, horizon));
+        }
+    }
+
+    /**
+     * Кодирует значение поля целым числом: числовые поля как есть,
+     * текстовые — номером строки в словаре, начиная с 1; 0 означает null.
+     */
+    private int encode(TransportField field, Object value) {
+        if (field.getValueType() == Integer.class) {
+            return (Integer) value;
+        }
+        if (value == null) {
+            return 0;
+        }
+        Integer id = stringIds.get(value);
+        if (id == null) {
+            strings.add((String) value);
+            id = strings.size();
+            stringIds.put((String) value, id);
+        }
+        return id;
+    }
+
+    private Object decode(TransportField field, int value) {
+        if (field.getValueType() == Integer.class) {
+            return value;
+        }
+        return value == 0 ? null : strings.get(value - 1);
+    }
+}
@@ -0,0 +1,318 @@
+package com.transport.history;
+
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * История одного транспортного средства: журнал изменений с дельта-кодированием
+ * и опорными кадрами с полным состоянием.
+ * <p>
+ * Состояние хранится как массив целых чисел по полям типа транспорта: числовые поля как есть,
+ * текстовые — номерами строк в словаре {@link FleetHistory}; последний элемент — признак
+ * присутствия в коллекции. Запись журнала состоит из приращения времени (varint), номера поля
+ * (один байт) и приращения значения поля (zigzag varint), поэтому типичное изменение
+ * занимает 3–5 байт. Каждые {@value #KEYFRAME_INTERVAL} записей сохраняется опорный кадр,
+ * и восстановление состояния на момент времени — это двоичный поиск кадра и применение
+ * не более {@value #KEYFRAME_INTERVAL} записей.
+ * <p>
+ * Класс не потокобезопасен; доступ синхронизирует {@link FleetHistory}.
+ */
+final class VehicleHistory {
+    static final int KEYFRAME_INTERVAL = 32;
+    private static final int MAX_ENTRY_BYTES = 10 + 1 + 10;
+    private static final long OBJECT_BYTES = 16;
+    private static final ClassValue<TransportField[]> FIELDS = new ClassValue<TransportField[]>() {
+        @Override
+        protected TransportField[] computeValue(Class<?> type) {
+            List<TransportField> fields = new ArrayList<>();
+            for (TransportField field : TransportField.values()) {
+                if (field.getOwner().isAssignableFrom(type)) {
+                    fields.add(field);
+                }
+            }
+            return fields.toArray(new TransportField[0]);
+        }
+    };
+
+    private final long id;
+    private final Class<? extends Transport> type;
+    private final TransportField[] fields;
+    private final int presence;
+    private final int[] current;
+    private byte[] log = new byte[64];
+    private int length;
+    private long lastTime;
+    private int sinceKeyframe;
+    private long[] keyTimes = new long[4];
+    private int[] keyOffsets = new int[4];
+    private int[][] keyStates = new int[4][];
+    private int keyframes;
+    private long entries;
+
+    /**
+     * Создает историю транспортного средства, появившегося в коллекции.
+     *
+     * @param id      идентификатор транспортного средства
+     * @param type    класс транспортного средства
+     * @param initial закодированные значения полей в порядке {@link #fieldsOf(Class)}
+     * @param time    время появления в миллисекундах с начала эпохи
+     */
+    VehicleHistory(long id, Class<? extends Transport> type, int[] initial, long time) {
+        this.id = id;
+        this.type = type;
+        this.fields = fieldsOf(type);
+        this.presence = fields.length;
+        this.current = Arrays.copyOf(initial, fields.length + 1);
+        this.current[presence] = 1;
+        this.lastTime = time;
+        addKeyframe();
+    }
+
+    /**
+     * Возвращает поля, которые есть у транспортных средств указанного класса, в порядке объявления.
+     * Массив общий и не должен изменяться.
+     *
+     * @param type класс транспортного средства
+     * @return поля класса и его предков
+     */
+    static TransportField[] fieldsOf(Class<?> type) {
+        return FIELDS.get(type);
+    }
+
+    long getId() {
+        return id;
+    }
+
+    Class<? extends Transport> getType() {
+        return type;
+    }
+
+    TransportField[] getFields() {
+        return fields;
+    }
+
+    long getLastTime() {
+        return lastTime;
+    }
+
+    long getEntryCount() {
+        return entries;
+    }
+
+    boolean isPresent() {
+        return current[presence] == 1;
+    }
+
+    /**
+     * Возвращает номер признака присутствия в коллекции: значение 1 — в коллекции, 0 — удалено.
+     *
+     * @return номер элемента состояния после всех полей
+     */
+    int presenceIndex() {
+        return presence;
+    }
+
+    /**
+     * Возвращает текущее закодированное значение поля.
+     *
+     * @param index номер поля в {@link #getFields()}
+     * @return закодированное значение
+     */
+    int current(int index) {
+        return current[index];
+    }
+
+    /**
+     * Возвращает номер поля в состоянии этого транспортного средства.
+     *
+     * @param field поле
+     * @return номер поля или -1, если у этого типа транспорта такого поля нет
+     */
+    int indexOf(TransportField field) {
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] == field) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Записывает изменение поля.
+     *
+     * @param time  время изменения; не меньше времени предыдущей записи
+     * @param index номер поля
+     * @param value новое закодированное значение
+     * @return true если перед записью был создан новый опорный кадр
+     */
+    boolean append(long time, int index, int value) {
+        boolean keyframe = sinceKeyframe == KEYFRAME_INTERVAL;
+        if (keyframe) {
+            addKeyframe();
+        }
+        if (length + MAX_ENTRY_BYTES > log.length) {
+            log = Arrays.copyOf(log, Math.max(log.length * 2, length + MAX_ENTRY_BYTES));
+        }
+        writeVarLong(time - lastTime);
+        log[length++] = (byte) index;
+        long delta = (long) value - current[index];
+        writeVarLong((delta << 1) ^ (delta >> 63));
+        current[index] = value;
+        lastTime = time;
+        sinceKeyframe++;
+        entries++;
+        return keyframe;
+    }
+
+    /**
+     * Восстанавливает закодированное состояние на момент времени.
+     *
+     * @param time  момент времени в миллисекундах с начала эпохи
+     * @param state массив для состояния длиной не меньше количества полей плюс один
+     * @return true если в этот момент транспортное средство было в коллекции
+     */
+    boolean stateAt(long time, int[] state) {
+        if (time < keyTimes[0]) {
+            return false;
+        }
+        int keyframe = lastKeyframeAtOrBefore(time);
+        System.arraycopy(keyStates[keyframe], 0, state, 0, current.length);
+        int position = keyOffsets[keyframe];
+        int end = keyframe + 1 < keyframes ? keyOffsets[keyframe + 1] : length;
+        long entryTime = keyTimes[keyframe];
+        while (position < end) {
+            long timeDelta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = log[position++];
+                timeDelta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            entryTime += timeDelta;
+            if (entryTime > time) {
+                break;
+            }
+            int index = log[position++];
+            long encoded = 0;
+            shift = 0;
+            do {
+                b = log[position++];
+                encoded |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            state[index] += (int) ((encoded >>> 1) ^ -(encoded & 1));
+        }
+        return state[presence] == 1;
+    }
+
+    /**
+     * Отбрасывает начало истории, которое не нужно для восстановления состояния
+     * на моменты не раньше указанного.
+     *
+     * @param horizon самый ранний момент, на который должно восстанавливаться состояние
+     */
+    void dropBefore(long horizon) {
+        if (keyframes > 1 && keyTimes[1] <= horizon) {
+            dropKeyframes(lastKeyframeAtOrBefore(horizon));
+        }
+    }
+
+    /**
+     * Ограничивает количество опорных кадров, отбрасывая самые старые участки истории.
+     *
+     * @param maxKeyframes максимальное количество кадров
+     * @return самый ранний момент, на который состояние по-прежнему восстанавливается,
+     *         или {@link Long#MIN_VALUE}, если ничего не отброшено
+     */
+    long dropBeyond(int maxKeyframes) {
+        if (keyframes <= maxKeyframes) {
+            return Long.MIN_VALUE;
+        }
+        dropKeyframes(keyframes - maxKeyframes);
+        return keyTimes[0];
+    }
+
+    /**
+     * Возвращает приблизительный объем памяти, занимаемый историей.
+     *
+     * @return объем в байтах
+     */
+    long getSizeInBytes() {
+        long keyframeBytes = (long) keyTimes.length * (Long.BYTES + Integer.BYTES + Integer.BYTES)
+                + (long) keyframes * (OBJECT_BYTES + Integer.BYTES * current.length);
+        return OBJECT_BYTES * 6 + log.length + keyframeBytes + Integer.BYTES * current.length;
+    }
+
+    private void addKeyframe() {
+        if (keyframes == keyTimes.length) {
+            int capacity = keyframes * 2;
+            keyTimes = Arrays.copyOf(keyTimes, capacity);
+            keyOffsets = Arrays.copyOf(keyOffsets, capacity);
+            keyStates = Arrays.copyOf(keyStates, capacity);
+        }
+        keyTimes[keyframes] = lastTime;
+        keyOffsets[keyframes] = length;
+        keyStates[keyframes] = current.clone();
+        keyframes++;
+        sinceKeyframe = 0;
+    }
+
+    /**
+     * Ищет последний опорный кадр, созданный не позже указанного момента.
+     *
+     * @param time момент времени не раньше первого кадра
+     * @return номер кадра
+     */
+    private int lastKeyframeAtOrBefore(long time) {
+        int low = 0;
+        int high = keyframes - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (keyTimes[middle] <= time) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Удаляет первые опорные кадры вместе с записями журнала до следующего оставшегося кадра.
+     * Все удаляемые участки, кроме последнего, содержат ровно {@value #KEYFRAME_INTERVAL} записей.
+     *
+     * @param count количество удаляемых кадров, меньше общего количества
+     */
+    private void dropKeyframes(int count) {
+        if (count <= 0) {
+            return;
+        }
+        int offset = keyOffsets[count];
+        System.arraycopy(log, offset, log, 0, length - offset);
+        length -= offset;
+        keyframes -= count;
+        System.arraycopy(keyTimes, count, keyTimes, 0, keyframes);
+        System.arraycopy(keyStates, count, keyStates, 0, keyframes);
+        Arrays.fill(keyStates, keyframes, keyframes + count, null);
+        for (int i = 0; i < keyframes; i++) {
+            keyOffsets[i] = keyOffsets[i + count] - offset;
+        }
+        entries -= (long) count * KEYFRAME_INTERVAL;
+        if (log.length > 64 && length < log.length / 4) {
+            log = Arrays.copyOf(log, Math.max(64, length * 2));
+        }
+    }
+
+    private void writeVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            log[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        log[length++] = (byte) value;
+    }
+}
@@ -0,0 +1,106 @@
+package com.transport.history;
+
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Состояние транспортного средства, восстановленное по истории на момент времени.
+ * Неизменяемо и не связано с объектом транспорта в коллекции.
+ */
+public final class VehicleState {
+    private final long id;
+    private final long timestamp;
+    private final Class<? extends Transport> type;
+    private final TransportField[] fields;
+    private final Object[] values;
+
+    /**
+     * Создает состояние.
+     *
+     * @param id        идентификатор транспортного средства
+     * @param timestamp момент, на который восстановлено состояние
+     * @param type      класс транспортного средства
+     * @param fields    поля типа транспорта
+     * @param values    значения полей в порядке fields
+     */
+    VehicleState(long id, long timestamp, Class<? extends Transport> type, TransportField[] fields, Object[] values) {
+        this.id = id;
+        this.timestamp = timestamp;
+        this.type = type;
+        this.fields = fields;
+        this.values = values;
+    }
+
+    /**
+     * Возвращает идентификатор транспортного средства.
+     *
+     * @return идентификатор
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Возвращает момент, на который восстановлено состояние.
+     *
+     * @return время в миллисекундах с начала эпохи
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Возвращает класс транспортного средства.
+     *
+     * @return класс транспорта
+     */
+    public Class<? extends Transport> getType() {
+        return type;
+    }
+
+    /**
+     * Возвращает поля, которые есть у транспортного средства этого типа.
+     *
+     * @return неизменяемый список полей в порядке объявления
+     */
+    public List<TransportField> getFields() {
+        return Collections.unmodifiableList(Arrays.asList(fields));
+    }
+
+    /**
+     * Возвращает значение поля на момент {@link #getTimestamp()}.
+     *
+     * @param field поле
+     * @return Integer для числовых полей, String для текстовых
+     * @throws IllegalArgumentException если у транспортного средства этого типа нет такого поля
+     */
+    public Object get(TransportField field) {
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] == field) {
+                return values[i];
+            }
+        }
+        throw new IllegalArgumentException(String.format(
+                "Поле %s отсутствует у %s", field.getFieldName(), type.getSimpleName()));
+    }
+
+    /**
+     * Возвращает строковое представление в формате {@code id;ТИП;значения полей}.
+     *
+     * @return строковое представление состояния
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder(64).append(id).append(';')
+                .append(type.getSimpleName().toUpperCase(Locale.ROOT));
+        for (Object value : values) {
+            result.append(';').append(value);
+        }
+        return result.toString();
+    }
+}
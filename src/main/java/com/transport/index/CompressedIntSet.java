@@ -0,0 +1,383 @@
+package com.transport.index;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Сжатое множество неотрицательных целых чисел в стиле Roaring bitmap.
+ * Числа делятся на блоки по старшим 16 битам; блок хранит младшие 16 бит либо отсортированным
+ * массивом char (до 4096 значений, 2 байта на значение), либо битовой картой из 1024 слов
+ * (8 КБ на блок независимо от количества значений). Представление блока меняется автоматически
+ * при добавлении и удалении, поэтому и редкие, и частые значения хранятся компактно.
+ * Не потокобезопасно.
+ */
+public final class CompressedIntSet {
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int BITMAP_WORDS = 1024;
+    private static final int OBJECT_OVERHEAD_BYTES = 16;
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;
+    private int cardinality;
+
+    /**
+     * Добавляет число.
+     *
+     * @param value неотрицательное число
+     * @return true если числа не было в множестве
+     */
+    public boolean add(int value) {
+        char high = (char) (value >>> 16);
+        int i = indexOf(high);
+        if (i < 0) {
+            i = -i - 1;
+            insert(i, high, new ArrayContainer());
+        }
+        Container container = containers[i];
+        int before = container.cardinality;
+        containers[i] = container.add((char) value);
+        if (containers[i].cardinality == before) {
+            return false;
+        }
+        cardinality++;
+        return true;
+    }
+
+    /**
+     * Удаляет число.
+     *
+     * @param value неотрицательное число
+     * @return true если число было в множестве
+     */
+    public boolean remove(int value) {
+        int i = indexOf((char) (value >>> 16));
+        if (i < 0) {
+            return false;
+        }
+        Container container = containers[i];
+        int before = container.cardinality;
+        Container updated = container.remove((char) value);
+        if (updated.cardinality == before) {
+            return false;
+        }
+        cardinality--;
+        if (updated.cardinality == 0) {
+            System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+            System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+            containers[--size] = null;
+        } else {
+            containers[i] = updated;
+        }
+        return true;
+    }
+
+    /**
+     * Проверяет наличие числа.
+     *
+     * @param value неотрицательное число
+     * @return true если число есть в множестве
+     */
+    public boolean contains(int value) {
+        int i = indexOf((char) (value >>> 16));
+        return i >= 0 && containers[i].contains((char) value);
+    }
+
+    /**
+     * Возвращает количество чисел.
+     *
+     * @return количество чисел
+     */
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Проверяет, пусто ли множество.
+     *
+     * @return true если чисел нет
+     */
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * Передает числа в порядке возрастания, пока действие возвращает true.
+     *
+     * @param action действие; false прекращает обход
+     * @return false если обход прерван действием
+     */
+    public boolean forEach(IntPredicate action) {
+        for (int i = 0; i < size; i++) {
+            if (!containers[i].forEach(keys[i] << 16, action)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Возвращает приблизительный объем памяти множества.
+     *
+     * @return количество байт
+     */
+    public long getSizeInBytes() {
+        long bytes = OBJECT_OVERHEAD_BYTES + 2L * keys.length + 4L * containers.length;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Передает в порядке возрастания числа, которые есть во всех множествах, пока действие возвращает true.
+     * Пересечение строится по блокам: битовые карты объединяются пословным AND, а блок-массив
+     * проверяется поэлементно по остальным блокам, поэтому обход можно прервать,
+     * не вычисляя пересечение целиком. Быстрее всего, если первым идет самое маленькое множество.
+     *
+     * @param sets   непустой массив множеств
+     * @param action действие; false прекращает обход
+     * @return false если обход прерван действием
+     */
+    public static boolean forEachInAll(CompressedIntSet[] sets, IntPredicate action) {
+        CompressedIntSet first = sets[0];
+        Container[] block = new Container[sets.length];
+        long[] words = null;
+        for (int i = 0; i < first.size; i++) {
+            char high = first.keys[i];
+            ArrayContainer smallestArray = null;
+            boolean present = true;
+            for (int k = 0; k < sets.length && present; k++) {
+                int j = k == 0 ? i : sets[k].indexOf(high);
+                if (j < 0) {
+                    present = false;
+                } else {
+                    block[k] = sets[k].containers[j];
+                    if (block[k] instanceof ArrayContainer
+                            && (smallestArray == null || block[k].cardinality < smallestArray.cardinality)) {
+                        smallestArray = (ArrayContainer) block[k];
+                    }
+                }
+            }
+            if (!present) {
+                continue;
+            }
+            int base = high << 16;
+            if (smallestArray != null) {
+                for (int v = 0; v < smallestArray.cardinality; v++) {
+                    char value = smallestArray.values[v];
+                    if (containsInAll(block, value) && !action.test(base | value)) {
+                        return false;
+                    }
+                }
+                continue;
+            }
+            if (words == null) {
+                words = new long[BITMAP_WORDS];
+            }
+            System.arraycopy(((BitmapContainer) block[0]).words, 0, words, 0, BITMAP_WORDS);
+            for (int k = 1; k < block.length; k++) {
+                long[] other = ((BitmapContainer) block[k]).words;
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    words[w] &= other[w];
+                }
+            }
+            if (!BitmapContainer.forEach(words, base, action)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsInAll(Container[] block, char value) {
+        for (Container container : block) {
+            if (!container.contains(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int indexOf(char high) {
+        if (size == 0 || high > keys[size - 1]) {
+            return -size - 1;
+        }
+        return high == keys[size - 1] ? size - 1 : Arrays.binarySearch(keys, 0, size, high);
+    }
+
+    private void insert(int index, char high, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = high;
+        containers[index] = container;
+        size++;
+    }
+
+    /**
+     * Блок чисел с общими старшими 16 битами. Операции изменения возвращают блок,
+     * который нужно сохранить вместо текущего: при переходе через порог меняется представление.
+     */
+    private abstract static class Container {
+        int cardinality;
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract boolean forEach(int base, IntPredicate action);
+
+        abstract long sizeInBytes();
+    }
+
+    /**
+     * Блок в виде отсортированного массива младших 16 бит.
+     */
+    private static final class ArrayContainer extends Container {
+        char[] values;
+
+        ArrayContainer() {
+            this.values = new char[4];
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            int i = cardinality == 0 || value > values[cardinality - 1] ? -cardinality - 1
+                    : Arrays.binarySearch(values, 0, cardinality, value);
+            if (i >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_LIMIT) {
+                return toBitmap().add(value);
+            }
+            i = -i - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, cardinality * 2));
+            }
+            System.arraycopy(values, i, values, i + 1, cardinality - i);
+            values[i] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int i = Arrays.binarySearch(values, 0, cardinality, value);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, cardinality - i - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        boolean forEach(int base, IntPredicate action) {
+            for (int i = 0; i < cardinality; i++) {
+                if (!action.test(base | values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return OBJECT_OVERHEAD_BYTES * 2 + 2L * values.length;
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.words[values[i] >>> 6] |= 1L << values[i];
+            }
+            bitmap.cardinality = cardinality;
+            return bitmap;
+        }
+    }
+
+    /**
+     * Блок в виде битовой карты на 65536 значений.
+     */
+    private static final class BitmapContainer extends Container {
+        final long[] words = new long[BITMAP_WORDS];
+
+        @Override
+        Container add(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) == 0) {
+                words[value >>> 6] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) != 0) {
+                words[value >>> 6] &= ~bit;
+                cardinality--;
+                if (cardinality <= ARRAY_LIMIT / 2) {
+                    return toArray();
+                }
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        boolean forEach(int base, IntPredicate action) {
+            return forEach(words, base, action);
+        }
+
+        static boolean forEach(long[] words, int base, IntPredicate action) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    if (!action.test(base | i << 6 | Long.numberOfTrailingZeros(word))) {
+                        return false;
+                    }
+                    word &= word - 1;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return OBJECT_OVERHEAD_BYTES * 2 + 8L * BITMAP_WORDS;
+        }
+
+        private ArrayContainer toArray() {
+            char[] values = new char[Math.max(4, cardinality)];
+            int n = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    values[n++] = (char) (i << 6 | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, n);
+        }
+    }
+}
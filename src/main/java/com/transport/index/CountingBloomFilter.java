@@ -0,0 +1,154 @@
+package com.transport.index;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Считающий фильтр Блума с 4-битными счетчиками.
+ * Отвечает на вопрос "может ли элемент присутствовать": ответ "нет" всегда точен,
+ * ответ "да" ошибочен с вероятностью, заданной при создании. В отличие от обычного фильтра Блума
+ * поддерживает удаление. Счетчик, достигший максимума, больше не уменьшается, поэтому
+ * переполнение не приводит к ложноотрицательным ответам.
+ * <p>
+ * Элементы задаются 64-битным хешем; индексы счетчиков вычисляются двойным хешированием.
+ * Изменять фильтр должен один поток за раз (например, под внешней блокировкой), а проверять
+ * можно параллельно с изменениями: слова со счетчиками записываются с семантикой release
+ * и читаются с семантикой acquire, поэтому проверка, начатая после завершения {@link #add(long)},
+ * видит его счетчики и не дает ложноотрицательного ответа.
+ */
+public final class CountingBloomFilter {
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final long COUNTER_MASK = 0xFL;
+    private static final int MAX_COUNT = 15;
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] words;
+    private final int counterCount;
+    private final int hashCount;
+
+    /**
+     * Создает фильтр под ожидаемое количество элементов и вероятность ложноположительного ответа.
+     *
+     * @param expectedInsertions ожидаемое количество элементов
+     * @param falsePositiveRate  допустимая вероятность ложноположительного ответа (от 0 до 1, не включая)
+     * @throws IllegalArgumentException если параметры вне допустимого диапазона
+     */
+    public CountingBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Ожидаемое количество элементов должно быть положительным");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("Вероятность ложноположительного ответа должна быть между 0 и 1");
+        }
+        double ln2 = Math.log(2);
+        long counters = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.counterCount = (int) Math.min(Integer.MAX_VALUE - COUNTERS_PER_WORD, Math.max(COUNTERS_PER_WORD, counters));
+        this.hashCount = Math.max(1, (int) Math.round((double) counterCount / expectedInsertions * ln2));
+        this.words = new long[(counterCount + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD];
+    }
+
+    /**
+     * Добавляет элемент.
+     *
+     * @param hash 64-битный хеш элемента
+     */
+    public void add(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int index = reduce(h1 + i * h2);
+            int count = counter(index);
+            if (count < MAX_COUNT) {
+                setCounter(index, count + 1);
+            }
+        }
+    }
+
+    /**
+     * Удаляет элемент, если фильтр считает его присутствующим.
+     * Удалять можно только ранее добавленные элементы.
+     *
+     * @param hash 64-битный хеш элемента
+     * @return true если счетчики были уменьшены
+     */
+    public boolean remove(long hash) {
+        if (!mightContain(hash)) {
+            return false;
+        }
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int index = reduce(h1 + i * h2);
+            int count = counter(index);
+            if (count < MAX_COUNT) {
+                setCounter(index, count - 1);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Проверяет, может ли элемент присутствовать в фильтре.
+     *
+     * @param hash 64-битный хеш элемента
+     * @return false если элемент точно отсутствует, true если он возможно присутствует
+     */
+    public boolean mightContain(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            if (counter(reduce(h1 + i * h2)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Возвращает количество счетчиков.
+     *
+     * @return количество счетчиков
+     */
+    public int getCounterCount() {
+        return counterCount;
+    }
+
+    /**
+     * Возвращает количество хеш-функций.
+     *
+     * @return количество хеш-функций
+     */
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Возвращает объем памяти, занятой счетчиками.
+     *
+     * @return количество байт
+     */
+    public long getSizeInBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    /**
+     * Отображает 32-битный хеш в индекс счетчика умножением со сдвигом вместо деления по модулю.
+     *
+     * @param hash хеш
+     * @return индекс от 0 до counterCount - 1
+     */
+    private int reduce(int hash) {
+        return (int) (((hash & 0xFFFFFFFFL) * counterCount) >>> 32);
+    }
+
+    private int counter(int index) {
+        int shift = (index & (COUNTERS_PER_WORD - 1)) << 2;
+        return (int) (((long) WORDS.getAcquire(words, index >>> 4) >>> shift) & COUNTER_MASK);
+    }
+
+    private void setCounter(int index, int value) {
+        int word = index >>> 4;
+        int shift = (index & (COUNTERS_PER_WORD - 1)) << 2;
+        WORDS.setRelease(words, word, (words[word] & ~(COUNTER_MASK << shift)) | ((long) value << shift));
+    }
+}
@@ -0,0 +1,304 @@
+package com.transport.index;
+
+import com.transport.model.Car;
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+import com.transport.service.FleetListener;
+import com.transport.service.FleetSnapshot;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Фильтр существования транспортных средств, который поддерживается вместе с коллекцией.
+ * Хранит два считающих фильтра Блума: по номерному знаку автомобилей и по паре
+ * (название, производитель) для всех типов транспорта. Отрицательный ответ фильтра означает,
+ * что такого транспорта в коллекции точно нет, и основное хранилище можно не просматривать.
+ * <p>
+ * Когда количество транспорта превышает расчетную емкость, фильтры перестраиваются
+ * с удвоенной емкостью по снимку коллекции, поэтому заданная вероятность ложноположительного
+ * ответа сохраняется при росте коллекции.
+ * <p>
+ * Изменения выполняются под монитором фильтра, а проверки не блокируются: считающие фильтры
+ * публикуют счетчики с семантикой release/acquire, а перестроенные фильтры публикуются
+ * через volatile-поле целиком заполненными.
+ * <p>
+ * Фильтр является упорядоченным слушателем: сервис уведомляет его под блокировкой изменений,
+ * поэтому снимок, по которому фильтр перестраивается, не содержит изменений, уведомление о которых
+ * еще не получено. Иначе отложенное удаление или переименование уменьшило бы счетчики,
+ * которые перестроенный фильтр для этого транспорта не увеличивал и которые принадлежат
+ * другому транспорту, и фильтр ответил бы "точно нет" для транспорта из коллекции.
+ */
+public class FleetExistenceFilter implements FleetListener {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long NULL_HASH = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Фильтры и емкость, под которую они построены. Заменяются целиком при перестройке.
+     */
+    private static final class Filters {
+        final CountingBloomFilter plates;
+        final CountingBloomFilter pairs;
+        final int capacity;
+
+        Filters(int capacity, double falsePositiveRate) {
+            this.plates = new CountingBloomFilter(capacity, falsePositiveRate);
+            this.pairs = new CountingBloomFilter(capacity, falsePositiveRate);
+            this.capacity = capacity;
+        }
+    }
+
+    private final double falsePositiveRate;
+    private final Supplier<FleetSnapshot> source;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private volatile Filters filters;
+    private int size;
+    private int rebuilds;
+
+    /**
+     * Создает пустой фильтр.
+     *
+     * @param falsePositiveRate допустимая вероятность ложноположительного ответа
+     * @param source            источник снимков коллекции для перестройки фильтров
+     * @throws IllegalArgumentException если вероятность вне диапазона (0, 1)
+     */
+    public FleetExistenceFilter(double falsePositiveRate, Supplier<FleetSnapshot> source) {
+        this.falsePositiveRate = falsePositiveRate;
+        this.source = source;
+        this.filters = new Filters(INITIAL_CAPACITY, falsePositiveRate);
+    }
+
+    /**
+     * Проверяет, может ли в коллекции быть автомобиль с указанным номерным знаком.
+     *
+     * @param licensePlate номерной знак
+     * @return false если такого автомобиля точно нет
+     */
+    public boolean mightContainLicensePlate(String licensePlate) {
+        return record(filters.plates.mightContain(hash(licensePlate)));
+    }
+
+    /**
+     * Проверяет, может ли в коллекции быть транспорт с указанными названием и производителем.
+     *
+     * @param name         название
+     * @param manufacturer производитель
+     * @return false если такого транспорта точно нет
+     */
+    public boolean mightContainNameAndManufacturer(String name, String manufacturer) {
+        return record(filters.pairs.mightContain(hash(name, manufacturer)));
+    }
+
+    /**
+     * Учитывает ложноположительный ответ, обнаруженный при просмотре хранилища.
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    @Override
+    public boolean isOrdered() {
+        return true;
+    }
+
+    @Override
+    public synchronized void onAdded(Transport transport) {
+        size++;
+        if (size > filters.capacity) {
+            rebuild(Math.max(filters.capacity * 2, size));
+        } else {
+            insert(filters, transport);
+        }
+    }
+
+    @Override
+    public Object prepareAdded(List<Transport> batch) {
+        long[] hashes = new long[batch.size() * 2];
+        for (int i = 0; i < batch.size(); i++) {
+            Transport transport = batch.get(i);
+            hashes[2 * i] = hash(transport.getName(), transport.getManufacturer());
+            if (transport instanceof Car) {
+                hashes[2 * i + 1] = hash(((Car) transport).getLicensePlate());
+            }
+        }
+        return hashes;
+    }
+
+    @Override
+    public synchronized void onAddedAll(List<Transport> batch, Object prepared) {
+        size += batch.size();
+        if (size > filters.capacity) {
+            rebuild(Math.max(filters.capacity * 2, size));
+            return;
+        }
+        long[] hashes = (long[]) (prepared instanceof long[] ? prepared : prepareAdded(batch));
+        Filters current = filters;
+        for (int i = 0; i < batch.size(); i++) {
+            current.pairs.add(hashes[2 * i]);
+            if (batch.get(i) instanceof Car) {
+                current.plates.add(hashes[2 * i + 1]);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void onRemoved(Transport transport) {
+        size--;
+        Filters current = filters;
+        if (transport instanceof Car) {
+            current.plates.remove(hash(((Car) transport).getLicensePlate()));
+        }
+        current.pairs.remove(hash(transport.getName(), transport.getManufacturer()));
+    }
+
+    @Override
+    public synchronized void onModified(Transport transport, TransportField field, Object oldValue, Object newValue) {
+        Filters current = filters;
+        switch (field) {
+            case LICENSE_PLATE:
+                current.plates.remove(hash((String) oldValue));
+                current.plates.add(hash((String) newValue));
+                break;
+            case NAME:
+                current.pairs.remove(hash((String) oldValue, transport.getManufacturer()));
+                current.pairs.add(hash((String) newValue, transport.getManufacturer()));
+                break;
+            case MANUFACTURER:
+                current.pairs.remove(hash(transport.getName(), (String) oldValue));
+                current.pairs.add(hash(transport.getName(), (String) newValue));
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Возвращает количество проверок существования.
+     *
+     * @return количество проверок
+     */
+    public long getLookupCount() {
+        return lookups.sum();
+    }
+
+    /**
+     * Возвращает количество проверок, на которые фильтр ответил "точно нет".
+     *
+     * @return количество отрицательных ответов
+     */
+    public long getNegativeCount() {
+        return negatives.sum();
+    }
+
+    /**
+     * Возвращает количество обнаруженных ложноположительных ответов.
+     *
+     * @return количество ложноположительных ответов
+     */
+    public long getFalsePositiveCount() {
+        return falsePositives.sum();
+    }
+
+    /**
+     * Возвращает емкость, под которую построены текущие фильтры.
+     *
+     * @return расчетное количество транспортных средств
+     */
+    public int getCapacity() {
+        return filters.capacity;
+    }
+
+    /**
+     * Возвращает количество перестроек фильтров.
+     *
+     * @return количество перестроек
+     */
+    public synchronized int getRebuildCount() {
+        return rebuilds;
+    }
+
+    /**
+     * Возвращает объем памяти, занятой фильтрами.
+     *
+     * @return количество байт
+     */
+    public long getSizeInBytes() {
+        Filters current = filters;
+        return current.plates.getSizeInBytes() + current.pairs.getSizeInBytes();
+    }
+
+    /**
+     * Строит фильтры заданной емкости по снимку коллекции и подменяет текущие.
+     *
+     * @param capacity новая емкость
+     */
+    private void rebuild(int capacity) {
+        Filters rebuilt = new Filters(capacity, falsePositiveRate);
+        int count = 0;
+        try (FleetSnapshot snapshot = source.get()) {
+            for (Transport transport : snapshot) {
+                insert(rebuilt, transport);
+                count++;
+            }
+        }
+        size = count;
+        filters = rebuilt;
+        rebuilds++;
+    }
+
+    private boolean record(boolean mightContain) {
+        lookups.increment();
+        if (!mightContain) {
+            negatives.increment();
+        }
+        return mightContain;
+    }
+
+    private static void insert(Filters target, Transport transport) {
+        if (transport instanceof Car) {
+            target.plates.add(hash(((Car) transport).getLicensePlate()));
+        }
+        target.pairs.add(hash(transport.getName(), transport.getManufacturer()));
+    }
+
+    /**
+     * Вычисляет 64-битный хеш строки (FNV-1a с финальным перемешиванием).
+     *
+     * @param value строка или null
+     * @return хеш строки
+     */
+    static long hash(String value) {
+        if (value == null) {
+            return NULL_HASH;
+        }
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    /**
+     * Вычисляет 64-битный хеш пары строк.
+     *
+     * @param name         название
+     * @param manufacturer производитель
+     * @return хеш пары
+     */
+    static long hash(String name, String manufacturer) {
+        return mix(hash(name) ^ Long.rotateLeft(hash(manufacturer), 31) ^ 0x5851F42D4C957F2DL);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,375 @@
+package com.transport.index;
+
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+import com.transport.service.FleetListener;
+import com.transport.service.FleetSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Рейтинг транспортных средств одного типа по числовому полю, поддерживаемый вместе
+ * с коллекцией: например, 100 самых быстрых самолетов или самые вместительные самолеты
+ * каждого производителя. Рейтинг может быть сгруппирован по текстовому полю.
+ * <p>
+ * Для каждой группы хранятся не K, а до 2K лучших транспортных средств в упорядоченном
+ * множестве, поэтому добавление, удаление и изменение поля обходятся в O(log K). Запас
+ * в K позиций расходуется удалениями; когда в группе остается меньше K, а в коллекции есть
+ * транспорт группы вне рейтинга, группа перестраивается по снимку коллекции. Первые K
+ * публикуются неизменяемым списком, который пересобирается только при изменении видимой
+ * части рейтинга, поэтому чтение выполняется без блокировок за постоянное время.
+ * <p>
+ * Рейтинг заполняется по снимку коллекции при создании и должен быть подписан на изменения
+ * сервиса до того, как коллекцию начнут изменять:
+ * <pre>
+ * FleetLeaderboard fastest = new FleetLeaderboard(Airplane.class, TransportField.MAX_SPEED, null, 100,
+ *         service::snapshot);
+ * service.addListener(fastest);
+ * List&lt;Transport&gt; top = fastest.top();
+ * </pre>
+ * При равных значениях выше стоит транспорт с меньшим идентификатором.
+ * <p>
+ * Рейтинг является упорядоченным слушателем: сервис уведомляет его под блокировкой изменений,
+ * поэтому снимок, по которому перестраивается группа, не содержит изменений, уведомление о которых
+ * еще не получено. Иначе отложенное уведомление повторно учло бы изменение в количестве транспорта
+ * группы, и группа с транспортом могла бы исчезнуть из рейтинга.
+ */
+public class FleetLeaderboard implements FleetListener {
+    private static final Object WHOLE_FLEET = new Object();
+    private static final Object NULL_GROUP = new Object();
+
+    /**
+     * Позиция рейтинга со значением поля на момент вставки.
+     */
+    private static final class Entry implements Comparable<Entry> {
+        final Transport transport;
+        final long id;
+        final int value;
+        final Object group;
+
+        Entry(Transport transport, int value, Object group) {
+            this.transport = transport;
+            this.id = transport.getId();
+            this.value = value;
+            this.group = group;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byValue = Integer.compare(other.value, value);
+            return byValue != 0 ? byValue : Long.compare(id, other.id);
+        }
+    }
+
+    /**
+     * Рейтинг одной группы. Изменяется под монитором рейтинга, публикуемый список читается без блокировок.
+     */
+    private static final class Group {
+        TreeSet<Entry> members = new TreeSet<>();
+        int eligible;
+        volatile List<Transport> top = Collections.emptyList();
+        Entry lastVisible;
+    }
+
+    private final Class<? extends Transport> type;
+    private final TransportField metric;
+    private final TransportField groupBy;
+    private final int size;
+    private final int capacity;
+    private final Supplier<FleetSnapshot> source;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final ConcurrentMap<Object, Group> groups = new ConcurrentHashMap<>();
+    private int rebuilds;
+
+    /**
+     * Создает рейтинг и заполняет его по снимку коллекции.
+     *
+     * @param type    тип транспорта, например Airplane.class
+     * @param metric  числовое поле, по убыванию которого строится рейтинг
+     * @param groupBy текстовое поле для группировки или null
+     * @param size    количество позиций рейтинга K
+     * @param source  источник снимков коллекции для заполнения и перестройки
+     * @throws IllegalArgumentException если поле не числовое, поле группировки не текстовое,
+     *                                  у типа нет таких полей или размер не положителен
+     */
+    public FleetLeaderboard(Class<? extends Transport> type, TransportField metric, TransportField groupBy, int size,
+                            Supplier<FleetSnapshot> source) {
+        if (metric.getValueType() != Integer.class || !metric.getOwner().isAssignableFrom(type)) {
+            throw new IllegalArgumentException(String.format("Поле %s не является числовым полем типа %s",
+                    metric.getFieldName(), type.getSimpleName()));
+        }
+        if (groupBy != null && (groupBy.getValueType() != String.class || !groupBy.getOwner().isAssignableFrom(type))) {
+            throw new IllegalArgumentException(String.format("Поле %s не является текстовым полем типа %s",
+                    groupBy.getFieldName(), type.getSimpleName()));
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Размер рейтинга должен быть положительным: " + size);
+        }
+        this.type = type;
+        this.metric = metric;
+        this.groupBy = groupBy;
+        this.size = size;
+        this.capacity = (int) Math.min(Integer.MAX_VALUE, 2L * size);
+        this.source = Objects.requireNonNull(source, "source");
+        synchronized (this) {
+            Map<Object, TreeSet<Entry>> seeded = collect(null);
+            for (Map.Entry<Object, TreeSet<Entry>> group : seeded.entrySet()) {
+                groups.get(group.getKey()).members = group.getValue();
+                for (Entry entry : group.getValue()) {
+                    entries.put(entry.id, entry);
+                }
+            }
+            for (Group group : groups.values()) {
+                publish(group);
+            }
+        }
+    }
+
+    /**
+     * Возвращает первые K позиций несгруппированного рейтинга.
+     *
+     * @return неизменяемый список по убыванию значения поля
+     * @throws IllegalStateException если рейтинг сгруппирован
+     */
+    public List<Transport> top() {
+        if (groupBy != null) {
+            throw new IllegalStateException("Рейтинг сгруппирован по полю " + groupBy.getFieldName());
+        }
+        Group group = groups.get(WHOLE_FLEET);
+        return group == null ? Collections.emptyList() : group.top;
+    }
+
+    /**
+     * Возвращает первые K позиций рейтинга группы.
+     *
+     * @param group значение поля группировки, может быть null
+     * @return неизменяемый список по убыванию значения поля; пустой, если группы нет
+     * @throws IllegalStateException если рейтинг не сгруппирован
+     */
+    public List<Transport> top(String group) {
+        if (groupBy == null) {
+            throw new IllegalStateException("Рейтинг не сгруппирован");
+        }
+        Group found = groups.get(group == null ? NULL_GROUP : group);
+        return found == null ? Collections.emptyList() : found.top;
+    }
+
+    /**
+     * Возвращает первые K позиций рейтинга каждой группы.
+     *
+     * @return группы по возрастанию значения поля группировки (null — первой) и их рейтинги
+     */
+    public Map<String, List<Transport>> topByGroup() {
+        Map<String, List<Transport>> result = new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+        for (Map.Entry<Object, Group> group : groups.entrySet()) {
+            Object key = group.getKey();
+            result.put(key == NULL_GROUP || key == WHOLE_FLEET ? null : (String) key, group.getValue().top);
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает количество позиций рейтинга.
+     *
+     * @return K
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Возвращает количество перестроек групп по снимку коллекции.
+     *
+     * @return количество перестроек
+     */
+    public synchronized int getRebuildCount() {
+        return rebuilds;
+    }
+
+    @Override
+    public boolean isOrdered() {
+        return true;
+    }
+
+    @Override
+    public synchronized void onAdded(Transport transport) {
+        if (type.isInstance(transport)) {
+            Object key = groupOf(transport);
+            Group group = groups.computeIfAbsent(key, k -> new Group());
+            group.eligible++;
+            offer(key, group, new Entry(transport, valueOf(transport), key));
+        }
+    }
+
+    @Override
+    public synchronized void onRemoved(Transport transport) {
+        if (type.isInstance(transport)) {
+            Entry entry = entries.get(transport.getId());
+            leave(transport, entry == null ? groupOf(transport) : entry.group);
+        }
+    }
+
+    @Override
+    public synchronized void onModified(Transport transport, TransportField field, Object oldValue, Object newValue) {
+        if (!type.isInstance(transport) || (field != metric && field != groupBy)) {
+            return;
+        }
+        Object previousGroup = field == groupBy ? keyOf(oldValue) : groupOf(transport);
+        Entry entry = entries.get(transport.getId());
+        Object rebuilt = leave(transport, entry == null ? previousGroup : entry.group);
+        if (rebuilt == null || !rebuilt.equals(groupOf(transport))) {
+            onAdded(transport);
+        }
+    }
+
+    /**
+     * Убирает транспорт из группы и перестраивает ее, если в ней не осталось K позиций,
+     * а в коллекции есть транспорт группы вне рейтинга.
+     *
+     * @return ключ перестроенной группы или null; перестроенная группа уже учитывает текущее
+     *         состояние транспорта
+     */
+    private Object leave(Transport transport, Object key) {
+        Group group = groups.get(key);
+        if (group == null) {
+            return null;
+        }
+        group.eligible--;
+        Entry entry = entries.remove(transport.getId());
+        if (entry != null && group.members.remove(entry) && isVisible(group, entry)) {
+            publish(group);
+        }
+        if (group.eligible <= 0) {
+            groups.remove(key);
+        } else if (group.members.size() < size && group.members.size() < group.eligible) {
+            rebuild(key, group);
+            return key;
+        }
+        return null;
+    }
+
+    /**
+     * Вставляет позицию, если она входит в хранимую часть группы: лучше худшей хранимой
+     * позиции либо вся группа хранится целиком. Если позиция не вставлена, а в группе меньше
+     * K позиций, количество транспорта группы разошлось с коллекцией и группа перестраивается.
+     */
+    private void offer(Object key, Group group, Entry entry) {
+        TreeSet<Entry> members = group.members;
+        boolean complete = members.size() == group.eligible - 1;
+        if (!(complete && members.size() < capacity) && (members.isEmpty() || entry.compareTo(members.last()) > 0)) {
+            if (members.size() < size) {
+                rebuild(key, group);
+            }
+            return;
+        }
+        members.add(entry);
+        entries.put(entry.id, entry);
+        if (members.size() > capacity) {
+            entries.remove(members.pollLast().id);
+        }
+        if (isVisible(group, entry)) {
+            publish(group);
+        }
+    }
+
+    /**
+     * Перестраивает группу по снимку коллекции.
+     */
+    private void rebuild(Object key, Group group) {
+        for (Entry entry : group.members) {
+            entries.remove(entry.id);
+        }
+        TreeSet<Entry> members = collect(key).get(key);
+        group.members = members == null ? new TreeSet<>() : members;
+        for (Entry entry : group.members) {
+            entries.put(entry.id, entry);
+        }
+        publish(group);
+        rebuilds++;
+    }
+
+    /**
+     * Собирает по снимку коллекции до 2K лучших позиций каждой группы и пересчитывает
+     * количество транспорта в группах.
+     *
+     * @param only ключ единственной собираемой группы или null для всех групп
+     * @return хранимые позиции по группам
+     */
+    private Map<Object, TreeSet<Entry>> collect(Object only) {
+        Map<Object, TreeSet<Entry>> collected = new HashMap<>();
+        Map<Object, int[]> counts = new HashMap<>();
+        try (FleetSnapshot snapshot = source.get()) {
+            for (Transport transport : snapshot) {
+                if (!type.isInstance(transport)) {
+                    continue;
+                }
+                Object key = groupOf(transport);
+                if (only != null && !only.equals(key)) {
+                    continue;
+                }
+                counts.computeIfAbsent(key, k -> new int[1])[0]++;
+                TreeSet<Entry> members = collected.computeIfAbsent(key, k -> new TreeSet<>());
+                Entry entry = new Entry(transport, valueOf(transport), key);
+                if (members.size() < capacity) {
+                    members.add(entry);
+                } else if (entry.compareTo(members.last()) < 0) {
+                    members.add(entry);
+                    members.pollLast();
+                }
+            }
+        }
+        for (Map.Entry<Object, int[]> count : counts.entrySet()) {
+            groups.computeIfAbsent(count.getKey(), key -> new Group()).eligible = count.getValue()[0];
+        }
+        if (only != null && !counts.containsKey(only)) {
+            groups.remove(only);
+        }
+        return collected;
+    }
+
+    /**
+     * Проверяет, затрагивает ли позиция опубликованные первые K.
+     */
+    private boolean isVisible(Group group, Entry entry) {
+        return group.lastVisible == null || group.top.size() < size || entry.compareTo(group.lastVisible) <= 0;
+    }
+
+    /**
+     * Публикует первые K позиций группы.
+     */
+    private void publish(Group group) {
+        List<Transport> top = new ArrayList<>(Math.min(size, group.members.size()));
+        Entry last = null;
+        Iterator<Entry> iterator = group.members.iterator();
+        while (top.size() < size && iterator.hasNext()) {
+            last = iterator.next();
+            top.add(last.transport);
+        }
+        group.lastVisible = last;
+        group.top = Collections.unmodifiableList(top);
+    }
+
+    private int valueOf(Transport transport) {
+        return (Integer) metric.get(transport);
+    }
+
+    private Object groupOf(Transport transport) {
+        return groupBy == null ? WHOLE_FLEET : keyOf(groupBy.get(transport));
+    }
+
+    private Object keyOf(Object value) {
+        return groupBy == null ? WHOLE_FLEET : value == null ? NULL_GROUP : value;
+    }
+}
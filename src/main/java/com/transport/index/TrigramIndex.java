@@ -0,0 +1,441 @@
+package com.transport.index;
+
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+import com.transport.service.FleetListener;
+import com.transport.service.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongFunction;
+
+/**
+ * Полнотекстовый индекс по названию и производителю транспортных средств.
+ * Для каждого транспорта индексируется строка «производитель название» в нижнем регистре,
+ * дополненная граничными символами, и для каждой ее триграммы хранится сжатый список
+ * внутренних номеров документов {@link CompressedIntSet}.
+ * <p>
+ * Поиск подстроки длиной от трех символов пересекает списки триграмм запроса по блокам, начиная
+ * с самого короткого списка, и сверяет кандидатов с самим транспортом. Пересечение останавливается,
+ * как только набрано нужное количество результатов. Запрос из одного или двух
+ * символов обходит списки триграмм, которые его содержат; проверка в этом случае не нужна.
+ * Регистр не учитывается.
+ * <p>
+ * Индекс обновляется при добавлении, удалении и изменении названия или производителя.
+ * Поиск выполняется под блокировкой чтения и не мешает параллельным поискам.
+ */
+public class TrigramIndex implements FleetListener {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MISSING = -1;
+    private static final char START = '\u0002';
+    private static final char END = '\u0003';
+    private static final long REFERENCE_BYTES = 8;
+
+    /**
+     * Триграммы пачки транспортных средств, сгруппированные по триграмме, чтобы при добавлении
+     * пачки каждый список документов искался один раз, а не для каждого транспортного средства.
+     */
+    private static final class PreparedBatch {
+        final long[] trigrams;
+        final int[] starts;
+        final int[] members;
+
+        PreparedBatch(List<Transport> batch) {
+            long[][] keys = new long[batch.size()][];
+            int total = 0;
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = trigrams(searchableText(batch.get(i)));
+                total += keys[i].length;
+            }
+            // Ключи хранятся инвертированными: у кода триграммы биты 16-23 всегда нулевые,
+            // поэтому инвертированный код не совпадает с пустым ключом 0 таблицы.
+            LongIntHashMap slots = new LongIntHashMap(INITIAL_CAPACITY);
+            long[] distinct = new long[64];
+            int[] counts = new int[65];
+            int[] pairSlots = new int[total];
+            int slotCount = 0;
+            int pair = 0;
+            for (long[] recordKeys : keys) {
+                for (long trigram : recordKeys) {
+                    int slot = slots.get(~trigram);
+                    if (slot == MISSING) {
+                        slot = slotCount++;
+                        slots.put(~trigram, slot);
+                        if (slot == distinct.length) {
+                            distinct = Arrays.copyOf(distinct, slot * 2);
+                            counts = Arrays.copyOf(counts, slot * 2 + 1);
+                        }
+                        distinct[slot] = trigram;
+                    }
+                    counts[slot + 1]++;
+                    pairSlots[pair++] = slot;
+                }
+            }
+            for (int t = 0; t < slotCount; t++) {
+                counts[t + 1] += counts[t];
+            }
+            this.trigrams = Arrays.copyOf(distinct, slotCount);
+            this.starts = Arrays.copyOf(counts, slotCount + 1);
+            this.members = new int[total];
+            pair = 0;
+            for (int i = 0; i < keys.length; i++) {
+                for (int k = 0; k < keys[i].length; k++) {
+                    members[counts[pairSlots[pair++]]++] = i;
+                }
+            }
+        }
+    }
+
+    private final LongFunction<Transport> resolver;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, CompressedIntSet> postings = new HashMap<>();
+    private final LongIntHashMap docsById = new LongIntHashMap(INITIAL_CAPACITY);
+    private final CompressedIntSet liveDocs = new CompressedIntSet();
+    private long[] idsByDoc = new long[INITIAL_CAPACITY];
+    private int[] freeDocs = new int[16];
+    private int freeCount;
+    private int nextDoc;
+
+    /**
+     * Создает пустой индекс.
+     *
+     * @param resolver поиск транспортного средства по идентификатору, например FleetStore::findById
+     */
+    public TrigramIndex(LongFunction<Transport> resolver) {
+        this.resolver = resolver;
+    }
+
+    /**
+     * Ищет транспортные средства, у которых название, производитель или строка
+     * «производитель название» содержит указанный текст без учета регистра.
+     *
+     * @param text  искомая подстрока; пустая строка соответствует всем транспортным средствам
+     * @param limit максимальное количество результатов
+     * @return неизменяемый список найденных транспортных средств; порядок не определен
+     * @throws IllegalArgumentException если limit отрицателен
+     */
+    public List<Transport> search(String text, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Отрицательное ограничение количества результатов: " + limit);
+        }
+        String query = normalize(text);
+        List<Transport> result = new ArrayList<>();
+        if (limit == 0) {
+            return Collections.unmodifiableList(result);
+        }
+        lock.readLock().lock();
+        try {
+            if (query.isEmpty()) {
+                liveDocs.forEach(doc -> collect(doc, query, false, result, limit));
+            } else if (query.length() < 3) {
+                CompressedIntSet seen = new CompressedIntSet();
+                for (Map.Entry<Long, CompressedIntSet> posting : postings.entrySet()) {
+                    if (decode(posting.getKey()).contains(query) && !posting.getValue().forEach(
+                            doc -> !seen.add(doc) || collect(doc, query, false, result, limit))) {
+                        break;
+                    }
+                }
+            } else {
+                CompressedIntSet[] lists = postingsOf(query);
+                boolean verify = query.length() > 3;
+                if (lists != null) {
+                    CompressedIntSet.forEachInAll(lists, doc -> collect(doc, query, verify, result, limit));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public void onAdded(Transport transport) {
+        long[] keys = trigrams(searchableText(transport));
+        lock.writeLock().lock();
+        try {
+            index(transport, keys);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Object prepareAdded(List<Transport> batch) {
+        return new PreparedBatch(batch);
+    }
+
+    @Override
+    public void onAddedAll(List<Transport> batch, Object prepared) {
+        PreparedBatch grouped = prepared instanceof PreparedBatch ? (PreparedBatch) prepared : new PreparedBatch(batch);
+        lock.writeLock().lock();
+        try {
+            int[] docs = new int[batch.size()];
+            for (int i = 0; i < docs.length; i++) {
+                long id = batch.get(i).getId();
+                if (docsById.get(id) == MISSING) {
+                    docs[i] = allocateDoc(id);
+                    liveDocs.add(docs[i]);
+                } else {
+                    docs[i] = MISSING;
+                }
+            }
+            for (int t = 0; t < grouped.trigrams.length; t++) {
+                CompressedIntSet posting = null;
+                for (int k = grouped.starts[t]; k < grouped.starts[t + 1]; k++) {
+                    int doc = docs[grouped.members[k]];
+                    if (doc != MISSING) {
+                        if (posting == null) {
+                            posting = postings.computeIfAbsent(grouped.trigrams[t], key -> new CompressedIntSet());
+                        }
+                        posting.add(doc);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onRemoved(Transport transport) {
+        lock.writeLock().lock();
+        try {
+            int doc = docsById.remove(transport.getId());
+            if (doc == MISSING) {
+                return;
+            }
+            liveDocs.remove(doc);
+            for (long trigram : trigrams(searchableText(transport))) {
+                removePosting(trigram, doc);
+            }
+            releaseDoc(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onModified(Transport transport, TransportField field, Object oldValue, Object newValue) {
+        if (field != TransportField.NAME && field != TransportField.MANUFACTURER) {
+            return;
+        }
+        String name = field == TransportField.NAME ? (String) oldValue : transport.getName();
+        String manufacturer = field == TransportField.MANUFACTURER ? (String) oldValue : transport.getManufacturer();
+        long[] before = trigrams(searchableText(name, manufacturer));
+        long[] after = trigrams(searchableText(transport));
+        lock.writeLock().lock();
+        try {
+            int doc = docsById.get(transport.getId());
+            if (doc == MISSING) {
+                return;
+            }
+            int i = 0;
+            int j = 0;
+            while (i < before.length || j < after.length) {
+                if (j == after.length || i < before.length && before[i] < after[j]) {
+                    removePosting(before[i++], doc);
+                } else if (i == before.length || before[i] > after[j]) {
+                    postings.computeIfAbsent(after[j++], key -> new CompressedIntSet()).add(doc);
+                } else {
+                    i++;
+                    j++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает количество проиндексированных транспортных средств.
+     *
+     * @return количество документов
+     */
+    public int getDocumentCount() {
+        lock.readLock().lock();
+        try {
+            return liveDocs.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает количество различных триграмм в индексе.
+     *
+     * @return количество триграмм
+     */
+    public int getTrigramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает приблизительный объем памяти индекса.
+     *
+     * @return количество байт
+     */
+    public long getSizeInBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = liveDocs.getSizeInBytes() + 8L * idsByDoc.length + 4L * freeDocs.length
+                    + 16L * docsById.size() * 4 / 3;
+            for (CompressedIntSet posting : postings.values()) {
+                bytes += posting.getSizeInBytes() + 4 * REFERENCE_BYTES;
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает списки документов для триграмм запроса, от самого короткого к самому длинному.
+     *
+     * @param query запрос из трех и более символов в нижнем регистре
+     * @return списки документов или null, если какой-то триграммы нет в индексе
+     */
+    private CompressedIntSet[] postingsOf(String query) {
+        long[] keys = distinctTrigrams(query);
+        CompressedIntSet[] lists = new CompressedIntSet[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            lists[i] = postings.get(keys[i]);
+            if (lists[i] == null) {
+                return null;
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.cardinality(), b.cardinality()));
+        return lists;
+    }
+
+    /**
+     * Добавляет транспорт документа в результат, если он проходит проверку.
+     *
+     * @param doc    номер документа
+     * @param query  запрос в нижнем регистре
+     * @param verify нужно ли проверить вхождение запроса в строку транспорта
+     * @param result результат
+     * @param limit  максимальное количество результатов
+     * @return true если нужно продолжать поиск
+     */
+    private boolean collect(int doc, String query, boolean verify, List<Transport> result, int limit) {
+        Transport transport = resolver.apply(idsByDoc[doc]);
+        if (transport != null && (!verify || searchableText(transport).contains(query))) {
+            result.add(transport);
+        }
+        return result.size() < limit;
+    }
+
+    /**
+     * Добавляет документ транспортного средства в списки триграмм; вызывается под блокировкой записи.
+     *
+     * @param transport транспортное средство
+     * @param keys      триграммы его индексируемой строки
+     */
+    private void index(Transport transport, long[] keys) {
+        if (docsById.get(transport.getId()) != MISSING) {
+            return;
+        }
+        int doc = allocateDoc(transport.getId());
+        liveDocs.add(doc);
+        for (long trigram : keys) {
+            postings.computeIfAbsent(trigram, key -> new CompressedIntSet()).add(doc);
+        }
+    }
+
+    private void removePosting(long trigram, int doc) {
+        CompressedIntSet posting = postings.get(trigram);
+        if (posting != null && posting.remove(doc) && posting.isEmpty()) {
+            postings.remove(trigram);
+        }
+    }
+
+    private int allocateDoc(long id) {
+        int doc;
+        if (freeCount > 0) {
+            doc = freeDocs[--freeCount];
+        } else {
+            doc = nextDoc++;
+            if (doc == idsByDoc.length) {
+                idsByDoc = Arrays.copyOf(idsByDoc, doc * 2);
+            }
+        }
+        idsByDoc[doc] = id;
+        docsById.put(id, doc);
+        return doc;
+    }
+
+    private void releaseDoc(int doc) {
+        if (freeCount == freeDocs.length) {
+            freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+        }
+        freeDocs[freeCount++] = doc;
+    }
+
+    private static String searchableText(Transport transport) {
+        return searchableText(transport.getName(), transport.getManufacturer());
+    }
+
+    /**
+     * Возвращает индексируемую строку транспортного средства.
+     *
+     * @param name         название
+     * @param manufacturer производитель
+     * @return строка «производитель название» в нижнем регистре
+     */
+    private static String searchableText(String name, String manufacturer) {
+        return normalize((manufacturer == null ? "" : manufacturer) + ' ' + (name == null ? "" : name));
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Возвращает различные триграммы индексируемой строки с граничными символами.
+     *
+     * @param text строка в нижнем регистре
+     * @return отсортированные коды триграмм
+     */
+    private static long[] trigrams(String text) {
+        return distinctTrigrams(START + text + END);
+    }
+
+    /**
+     * Возвращает различные триграммы строки. Символы кода разнесены по битам 48, 24 и 0, чтобы
+     * Long.hashCode (исключающее ИЛИ половин) не склеивал триграммы однобайтовых символов
+     * и списки триграмм не собирались в одних корзинах HashMap.
+     *
+     * @param text строка
+     * @return отсортированные коды триграмм без повторов
+     */
+    private static long[] distinctTrigrams(String text) {
+        int count = Math.max(0, text.length() - 2);
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = (long) text.charAt(i) << 48 | (long) text.charAt(i + 1) << 24 | text.charAt(i + 2);
+        }
+        Arrays.sort(keys);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || keys[i] != keys[distinct - 1]) {
+                keys[distinct++] = keys[i];
+            }
+        }
+        return distinct == count ? keys : Arrays.copyOf(keys, distinct);
+    }
+
+    private static String decode(long trigram) {
+        return new String(new char[]{(char) (trigram >>> 48), (char) (trigram >>> 24), (char) trigram});
+    }
+}
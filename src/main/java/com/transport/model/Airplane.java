@@ -1,5 +1,8 @@
 package com.transport.model;
 
+import com.transport.validation.TransportValidator;
+import com.transport.validation.Violation;
+
 import java.util.Objects;
 
 /**
@@ -33,7 +36,15 @@ public class Airplane extends Transport {
      */
     public Airplane(String name, int maxSpeed, String manufacturer,
                     int maxAltitude, int passengerCapacity) {
-        super(name, maxSpeed, manufacturer);
+        this(nextId(), name, maxSpeed, manufacturer, maxAltitude, passengerCapacity);
+    }
+
+    /**
+     * Конструктор с заданным идентификатором для {@link RestoredTransports};
+     * остальные параметры те же, что у открытого конструктора.
+     */
+    Airplane(long id, String name, int maxSpeed, String manufacturer, int maxAltitude, int passengerCapacity) {
+        super(id, name, maxSpeed, manufacturer);
         validateAltitude(maxAltitude);
         validatePassengerCapacity(passengerCapacity);
         this.maxAltitude = maxAltitude;
@@ -48,11 +59,9 @@ public class Airplane extends Transport {
      * @throws IllegalArgumentException если высота отрицательная или превышает 20000 метров
      */
     private void validateAltitude(int altitude) {
-        if (altitude < 0) {
-            throw new IllegalArgumentException("Высота не может быть отрицательной");
-        }
-        if (altitude > 20000) {
-            throw new IllegalArgumentException("Высота не может превышать 20000 м");
+        Violation violation = TransportValidator.checkAltitude(altitude);
+        if (violation != null) {
+            throw new IllegalArgumentException(violation.getMessage());
         }
     }
 
@@ -64,11 +73,9 @@ public class Airplane extends Transport {
      * @throws IllegalArgumentException если вместимость не положительная или превышает 1000 человек
      */
     private void validatePassengerCapacity(int capacity) {
-        if (capacity <= 0) {
-            throw new IllegalArgumentException("Вместимость пассажиров должна быть положительной");
-        }
-        if (capacity > 1000) {
-            throw new IllegalArgumentException("Вместимость пассажиров не может превышать 1000");
+        Violation violation = TransportValidator.checkPassengerCapacity(capacity);
+        if (violation != null) {
+            throw new IllegalArgumentException(violation.getMessage());
         }
     }
 
@@ -89,7 +96,7 @@ public class Airplane extends Transport {
      */
     public void setMaxAltitude(int maxAltitude) {
         validateAltitude(maxAltitude);
-        this.maxAltitude = maxAltitude;
+        changeField(TransportField.MAX_ALTITUDE, this.maxAltitude, maxAltitude, () -> this.maxAltitude = maxAltitude);
     }
 
     /**
@@ -109,7 +116,8 @@ public class Airplane extends Transport {
      */
     public void setPassengerCapacity(int passengerCapacity) {
         validatePassengerCapacity(passengerCapacity);
-        this.passengerCapacity = passengerCapacity;
+        changeField(TransportField.PASSENGER_CAPACITY, this.passengerCapacity, passengerCapacity,
+                () -> this.passengerCapacity = passengerCapacity);
     }
 
     /**
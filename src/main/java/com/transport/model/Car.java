@@ -1,5 +1,8 @@
 package com.transport.model;
 
+import com.transport.validation.TransportValidator;
+import com.transport.validation.Violation;
+
 import java.util.Objects;
 
 /**
@@ -35,7 +38,16 @@ public class Car extends Transport {
      */
     public Car(String name, int maxSpeed, String manufacturer,
                String licensePlate, int doorCount, String fuelType) {
-        super(name, maxSpeed, manufacturer);
+        this(nextId(), name, maxSpeed, manufacturer, licensePlate, doorCount, fuelType);
+    }
+
+    /**
+     * Конструктор с заданным идентификатором для {@link RestoredTransports};
+     * остальные параметры те же, что у открытого конструктора.
+     */
+    Car(long id, String name, int maxSpeed, String manufacturer, String licensePlate, int doorCount,
+        String fuelType) {
+        super(id, name, maxSpeed, manufacturer);
         validateDoorCount(doorCount);
         this.licensePlate = licensePlate;
         this.doorCount = doorCount;
@@ -50,11 +62,9 @@ public class Car extends Transport {
      * @throws IllegalArgumentException если количество дверей не положительное или превышает 10
      */
     private void validateDoorCount(int doors) {
-        if (doors <= 0) {
-            throw new IllegalArgumentException("Количество дверей должно быть положительным");
-        }
-        if (doors > 10) {
-            throw new IllegalArgumentException("Количество дверей не может превышать 10");
+        Violation violation = TransportValidator.checkDoorCount(doors);
+        if (violation != null) {
+            throw new IllegalArgumentException(violation.getMessage());
         }
     }
 
@@ -73,7 +83,8 @@ public class Car extends Transport {
      * @param licensePlate новый номерной знак
      */
     public void setLicensePlate(String licensePlate) {
-        this.licensePlate = licensePlate;
+        changeField(TransportField.LICENSE_PLATE, this.licensePlate, licensePlate,
+                () -> this.licensePlate = licensePlate);
     }
 
     /**
@@ -93,7 +104,7 @@ public class Car extends Transport {
      */
     public void setDoorCount(int doorCount) {
         validateDoorCount(doorCount);
-        this.doorCount = doorCount;
+        changeField(TransportField.DOOR_COUNT, this.doorCount, doorCount, () -> this.doorCount = doorCount);
     }
 
     /**
@@ -111,7 +122,7 @@ public class Car extends Transport {
      * @param fuelType новый тип топлива
      */
     public void setFuelType(String fuelType) {
-        this.fuelType = fuelType;
+        changeField(TransportField.FUEL_TYPE, this.fuelType, fuelType, () -> this.fuelType = fuelType);
     }
 
     /**
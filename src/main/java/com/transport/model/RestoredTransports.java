@@ -0,0 +1,80 @@
+package com.transport.model;
+
+/**
+ * Создание транспортных средств с ранее выданным идентификатором при чтении из сериализованного вида:
+ * копия сохраняет идентичность оригинала, а последующие идентификаторы выдаются строго больше
+ * восстановленного. Идентификатор задается только при создании объекта и у существующего
+ * транспортного средства не меняется. Значения полей проверяются конструкторами модели.
+ */
+public final class RestoredTransports {
+
+    private RestoredTransports() {
+    }
+
+    /**
+     * Создает транспортное средство базового типа.
+     *
+     * @param id           восстанавливаемый идентификатор
+     * @param name         название
+     * @param maxSpeed     максимальная скорость
+     * @param manufacturer производитель
+     * @return новое транспортное средство
+     * @throws IllegalArgumentException если идентификатор не положительный или значения не проходят валидацию
+     */
+    public static Transport transport(long id, String name, int maxSpeed, String manufacturer) {
+        return new Transport(Transport.reserveId(id), name, maxSpeed, manufacturer);
+    }
+
+    /**
+     * Создает самолет.
+     *
+     * @param id                восстанавливаемый идентификатор
+     * @param name              название
+     * @param maxSpeed          максимальная скорость
+     * @param manufacturer      производитель
+     * @param maxAltitude       максимальная высота полета
+     * @param passengerCapacity вместимость пассажиров
+     * @return новый самолет
+     * @throws IllegalArgumentException если идентификатор не положительный или значения не проходят валидацию
+     */
+    public static Airplane airplane(long id, String name, int maxSpeed, String manufacturer,
+                                    int maxAltitude, int passengerCapacity) {
+        return new Airplane(Transport.reserveId(id), name, maxSpeed, manufacturer, maxAltitude, passengerCapacity);
+    }
+
+    /**
+     * Создает автомобиль.
+     *
+     * @param id           восстанавливаемый идентификатор
+     * @param name         название
+     * @param maxSpeed     максимальная скорость
+     * @param manufacturer производитель
+     * @param licensePlate номерной знак
+     * @param doorCount    количество дверей
+     * @param fuelType     тип топлива
+     * @return новый автомобиль
+     * @throws IllegalArgumentException если идентификатор не положительный или значения не проходят валидацию
+     */
+    public static Car car(long id, String name, int maxSpeed, String manufacturer,
+                          String licensePlate, int doorCount, String fuelType) {
+        return new Car(Transport.reserveId(id), name, maxSpeed, manufacturer, licensePlate, doorCount, fuelType);
+    }
+
+    /**
+     * Создает корабль.
+     *
+     * @param id           восстанавливаемый идентификатор
+     * @param name         название
+     * @param maxSpeed     максимальная скорость
+     * @param manufacturer производитель
+     * @param displacement водоизмещение
+     * @param crewSize     размер экипажа
+     * @param shipType     тип корабля
+     * @return новый корабль
+     * @throws IllegalArgumentException если идентификатор не положительный или значения не проходят валидацию
+     */
+    public static Ship ship(long id, String name, int maxSpeed, String manufacturer,
+                            int displacement, int crewSize, String shipType) {
+        return new Ship(Transport.reserveId(id), name, maxSpeed, manufacturer, displacement, crewSize, shipType);
+    }
+}
@@ -1,5 +1,8 @@
 package com.transport.model;
 
+import com.transport.validation.TransportValidator;
+import com.transport.validation.Violation;
+
 import java.util.Objects;
 
 /**
@@ -36,7 +39,16 @@ public class Ship extends Transport {
      */
     public Ship(String name, int maxSpeed, String manufacturer,
                 int displacement, int crewSize, String shipType) {
-        super(name, maxSpeed, manufacturer);
+        this(nextId(), name, maxSpeed, manufacturer, displacement, crewSize, shipType);
+    }
+
+    /**
+     * Конструктор с заданным идентификатором для {@link RestoredTransports};
+     * остальные параметры те же, что у открытого конструктора.
+     */
+    Ship(long id, String name, int maxSpeed, String manufacturer, int displacement, int crewSize,
+         String shipType) {
+        super(id, name, maxSpeed, manufacturer);
         validateDisplacement(displacement);
         validateCrewSize(crewSize);
         this.displacement = displacement;
@@ -52,11 +64,9 @@ public class Ship extends Transport {
      * @throws IllegalArgumentException если водоизмещение не положительное или превышает 1,000,000 тонн
      */
     private void validateDisplacement(int displacement) {
-        if (displacement <= 0) {
-            throw new IllegalArgumentException("Водоизмещение должно быть положительным");
-        }
-        if (displacement > 1000000) {
-            throw new IllegalArgumentException("Водоизмещение не может превышать 1,000,000 тонн");
+        Violation violation = TransportValidator.checkDisplacement(displacement);
+        if (violation != null) {
+            throw new IllegalArgumentException(violation.getMessage());
         }
     }
 
@@ -68,11 +78,9 @@ public class Ship extends Transport {
      * @throws IllegalArgumentException если размер экипажа не положительный или превышает 5000 человек
      */
     private void validateCrewSize(int crewSize) {
-        if (crewSize <= 0) {
-            throw new IllegalArgumentException("Размер экипажа должен быть положительным");
-        }
-        if (crewSize > 5000) {
-            throw new IllegalArgumentException("Размер экипажа не может превышать 5000 человек");
+        Violation violation = TransportValidator.checkCrewSize(crewSize);
+        if (violation != null) {
+            throw new IllegalArgumentException(violation.getMessage());
         }
     }
 
@@ -93,7 +101,8 @@ public class Ship extends Transport {
      */
     public void setDisplacement(int displacement) {
         validateDisplacement(displacement);
-        this.displacement = displacement;
+        changeField(TransportField.DISPLACEMENT, this.displacement, displacement,
+                () -> this.displacement = displacement);
     }
 
     /**
@@ -113,7 +122,7 @@ public class Ship extends Transport {
      */
     public void setCrewSize(int crewSize) {
         validateCrewSize(crewSize);
-        this.crewSize = crewSize;
+        changeField(TransportField.CREW_SIZE, this.crewSize, crewSize, () -> this.crewSize = crewSize);
     }
 
     /**
@@ -131,7 +140,7 @@ public class Ship extends Transport {
      * @param shipType новый тип корабля
      */
     public void setShipType(String shipType) {
-        this.shipType = shipType;
+        changeField(TransportField.SHIP_TYPE, this.shipType, shipType, () -> this.shipType = shipType);
     }
 
     /**
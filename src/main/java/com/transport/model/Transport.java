@@ -1,11 +1,20 @@
 package com.transport.model;
 
+import com.transport.validation.TransportValidator;
+import com.transport.validation.Violation;
+
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Базовый класс для всех транспортных средств
  */
 public class Transport {
+    private static final AtomicLong ID_SEQUENCE = new AtomicLong();
+
+    private final long id;
+    private volatile TransportChangeListener changeListener;
+
     protected String name;
     protected int maxSpeed;
     protected String manufacturer;
@@ -14,6 +23,7 @@ public class Transport {
      * Конструктор по умолчанию
      */
     public Transport() {
+        this.id = nextId();
         this.name = "Unknown";
         this.maxSpeed = 0;
         this.manufacturer = "Unknown";
@@ -28,25 +38,112 @@ public class Transport {
      * @throws IllegalArgumentException если скорость не проходит валидацию
      */
     public Transport(String name, int maxSpeed, String manufacturer) {
+        this(nextId(), name, maxSpeed, manufacturer);
+    }
+
+    /**
+     * Конструктор с заданным идентификатором для подклассов и {@link RestoredTransports}.
+     *
+     * @param id           идентификатор, выданный {@link #nextId()} или {@link #reserveId(long)}
+     * @param name         название транспортного средства
+     * @param maxSpeed     максимальная скорость в км/ч
+     * @param manufacturer производитель транспортного средства
+     * @throws IllegalArgumentException если скорость не проходит валидацию
+     */
+    Transport(long id, String name, int maxSpeed, String manufacturer) {
         validateSpeed(maxSpeed);
+        this.id = id;
         this.name = name;
         this.maxSpeed = maxSpeed;
         this.manufacturer = manufacturer;
     }
 
+    /**
+     * Выдает новый идентификатор.
+     *
+     * @return идентификатор больше всех выданных и восстановленных ранее
+     */
+    static long nextId() {
+        return ID_SEQUENCE.incrementAndGet();
+    }
+
+    /**
+     * Проверяет восстанавливаемый идентификатор и сдвигает счетчик так,
+     * чтобы последующие идентификаторы выдавались строго больше него.
+     *
+     * @param id восстанавливаемый идентификатор
+     * @return тот же идентификатор
+     * @throws IllegalArgumentException если идентификатор не положительный
+     */
+    static long reserveId(long id) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Идентификатор должен быть положительным");
+        }
+        if (ID_SEQUENCE.get() < id) {
+            ID_SEQUENCE.accumulateAndGet(id, Math::max);
+        }
+        return id;
+    }
+
     /**
      * Валидирует значение скорости.
      * Проверяет, что скорость находится в допустимом диапазоне.
+     * Правило задано в {@link TransportValidator#checkSpeed(int)}; для проверки без исключения следует вызывать его.
      *
      * @param speed скорость для валидации
      * @throws IllegalArgumentException если скорость отрицательная или превышает 2000 км/ч
      */
     protected void validateSpeed(int speed) {
-        if (speed < 0) {
-            throw new IllegalArgumentException("Скорость не может быть отрицательной");
+        Violation violation = TransportValidator.checkSpeed(speed);
+        if (violation != null) {
+            throw new IllegalArgumentException(violation.getMessage());
         }
-        if (speed > 2000) {
-            throw new IllegalArgumentException("Скорость не может превышать 2000 км/ч");
+    }
+
+    /**
+     * Возвращает уникальный идентификатор транспортного средства.
+     * Идентификатор выдается при создании объекта и не участвует в equals/hashCode.
+     *
+     * @return идентификатор транспортного средства
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Возвращает слушатель изменений полей.
+     *
+     * @return текущий слушатель или null, если он не установлен
+     */
+    public TransportChangeListener getChangeListener() {
+        return changeListener;
+    }
+
+    /**
+     * Устанавливает слушатель изменений полей.
+     * Обычно вызывается сервисом, который хранит это транспортное средство.
+     *
+     * @param changeListener новый слушатель или null, чтобы отключить уведомления
+     */
+    public void setChangeListener(TransportChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Присваивает полю новое значение. Если значение действительно меняется и слушатель установлен,
+     * присваивание и уведомление выполняет слушатель.
+     *
+     * @param field      изменяемое поле
+     * @param oldValue   предыдущее значение
+     * @param newValue   новое значение
+     * @param assignment присваивание нового значения
+     */
+    protected void changeField(TransportField field, Object oldValue, Object newValue, Runnable assignment) {
+        TransportChangeListener listener = changeListener;
+        if (listener != null && !Objects.equals(oldValue, newValue)) {
+            listener.applyFieldChange(this, field, oldValue, newValue, assignment);
+        } else {
+            assignment.run();
         }
     }
 
@@ -65,7 +162,7 @@ public class Transport {
      * @param name новое название транспортного средства
      */
     public void setName(String name) {
-        this.name = name;
+        changeField(TransportField.NAME, this.name, name, () -> this.name = name);
     }
 
     /**
@@ -85,7 +182,7 @@ public class Transport {
      */
     public void setMaxSpeed(int maxSpeed) {
         validateSpeed(maxSpeed);
-        this.maxSpeed = maxSpeed;
+        changeField(TransportField.MAX_SPEED, this.maxSpeed, maxSpeed, () -> this.maxSpeed = maxSpeed);
     }
 
     /**
@@ -103,7 +200,8 @@ public class Transport {
      * @param manufacturer новый производитель
      */
     public void setManufacturer(String manufacturer) {
-        this.manufacturer = manufacturer;
+        changeField(TransportField.MANUFACTURER, this.manufacturer, manufacturer,
+                () -> this.manufacturer = manufacturer);
     }
 
     /**
@@ -0,0 +1,37 @@
+package com.transport.model;
+
+/**
+ * Слушатель изменений полей транспортного средства.
+ * Сеттеры модели передают слушателю проверенное новое значение вместе с его присваиванием:
+ * слушатель может выполнить присваивание под своей блокировкой, чтобы новое значение
+ * не стало видно другим потокам раньше, чем обработано уведомление.
+ */
+@FunctionalInterface
+public interface TransportChangeListener {
+
+    /**
+     * Вызывается после изменения значения поля.
+     *
+     * @param transport транспортное средство, у которого изменилось поле
+     * @param field     измененное поле
+     * @param oldValue  предыдущее значение
+     * @param newValue  новое значение
+     */
+    void onFieldChanged(Transport transport, TransportField field, Object oldValue, Object newValue);
+
+    /**
+     * Присваивает полю новое значение и уведомляет об изменении.
+     * По умолчанию выполняет присваивание и вызывает {@link #onFieldChanged}.
+     *
+     * @param transport  транспортное средство, у которого меняется поле
+     * @param field      изменяемое поле
+     * @param oldValue   предыдущее значение
+     * @param newValue   новое значение
+     * @param assignment присваивание нового значения; должно быть выполнено ровно один раз
+     */
+    default void applyFieldChange(Transport transport, TransportField field, Object oldValue, Object newValue,
+                                  Runnable assignment) {
+        assignment.run();
+        onFieldChanged(transport, field, oldValue, newValue);
+    }
+}
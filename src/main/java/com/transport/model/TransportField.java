@@ -0,0 +1,99 @@
+package com.transport.model;
+
+import java.util.function.Function;
+
+/**
+ * Перечисление изменяемых полей транспортных средств.
+ * Для каждого поля хранится его имя, тип-владелец, тип значения и функция чтения значения.
+ */
+public enum TransportField {
+    NAME("name", Transport.class, String.class, Transport::getName),
+    MAX_SPEED("maxSpeed", Transport.class, Integer.class, Transport::getMaxSpeed),
+    MANUFACTURER("manufacturer", Transport.class, String.class, Transport::getManufacturer),
+    MAX_ALTITUDE("maxAltitude", Airplane.class, Integer.class, t -> ((Airplane) t).getMaxAltitude()),
+    PASSENGER_CAPACITY("passengerCapacity", Airplane.class, Integer.class,
+            t -> ((Airplane) t).getPassengerCapacity()),
+    LICENSE_PLATE("licensePlate", Car.class, String.class, t -> ((Car) t).getLicensePlate()),
+    DOOR_COUNT("doorCount", Car.class, Integer.class, t -> ((Car) t).getDoorCount()),
+    FUEL_TYPE("fuelType", Car.class, String.class, t -> ((Car) t).getFuelType()),
+    DISPLACEMENT("displacement", Ship.class, Integer.class, t -> ((Ship) t).getDisplacement()),
+    CREW_SIZE("crewSize", Ship.class, Integer.class, t -> ((Ship) t).getCrewSize()),
+    SHIP_TYPE("shipType", Ship.class, String.class, t -> ((Ship) t).getShipType());
+
+    private final String fieldName;
+    private final Class<? extends Transport> owner;
+    private final Class<?> valueType;
+    private final Function<Transport, Object> getter;
+
+    TransportField(String fieldName, Class<? extends Transport> owner, Class<?> valueType,
+                   Function<Transport, Object> getter) {
+        this.fieldName = fieldName;
+        this.owner = owner;
+        this.valueType = valueType;
+        this.getter = getter;
+    }
+
+    /**
+     * Возвращает имя поля в том виде, в котором оно объявлено в классе модели.
+     *
+     * @return имя поля
+     */
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Возвращает класс, в котором объявлено поле.
+     *
+     * @return класс-владелец поля
+     */
+    public Class<? extends Transport> getOwner() {
+        return owner;
+    }
+
+    /**
+     * Возвращает тип значения поля: Integer для числовых полей и String для текстовых.
+     *
+     * @return тип значения
+     */
+    public Class<?> getValueType() {
+        return valueType;
+    }
+
+    /**
+     * Проверяет, есть ли это поле у указанного транспортного средства.
+     *
+     * @param transport транспортное средство
+     * @return true если поле объявлено в классе транспорта или его предке
+     */
+    public boolean appliesTo(Transport transport) {
+        return owner.isInstance(transport);
+    }
+
+    /**
+     * Читает значение поля у указанного транспортного средства.
+     *
+     * @param transport транспортное средство, у которого есть это поле
+     * @return текущее значение поля
+     * @throws ClassCastException если поле не принадлежит типу транспорта
+     */
+    public Object get(Transport transport) {
+        return getter.apply(transport);
+    }
+
+    /**
+     * Ищет поле по его имени.
+     *
+     * @param fieldName имя поля, например "maxSpeed"
+     * @return найденное поле
+     * @throws IllegalArgumentException если поле с таким именем не существует
+     */
+    public static TransportField byName(String fieldName) {
+        for (TransportField field : values()) {
+            if (field.fieldName.equals(fieldName)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестное поле: " + fieldName);
+    }
+}
@@ -0,0 +1,21 @@
+package com.transport.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Событие JFR: массовая загрузка транспортных средств из текстовых записей.
+ */
+@Name("com.transport.BulkLoad")
+@Label("Transport Bulk Load")
+@Category("Transport")
+@Description("Массовая загрузка транспортных средств")
+public class BulkLoadEvent extends jdk.jfr.Event {
+    @Label("Loaded")
+    public long loaded;
+
+    @Label("Rejected")
+    public long rejected;
+}
@@ -0,0 +1,184 @@
+package com.transport.monitoring;
+
+import com.transport.cache.QueryResultCache;
+import com.transport.index.FleetExistenceFilter;
+import com.transport.model.Transport;
+import com.transport.service.FleetListener;
+
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Метрики TransportService. Слушает изменения коллекции, чтобы поддерживать размер парка по типам,
+ * и хранит статистику операций, которую сервис обновляет при каждом вызове.
+ * Через {@link #registerMBeans(String)} метрики публикуются в платформенном MBeanServer:
+ * {@code com.transport:type=Fleet,name=<сервис>} и
+ * {@code com.transport:type=FleetOperation,service=<сервис>,name=<операция>}.
+ */
+public class FleetMetrics implements FleetListener, FleetMetricsMXBean {
+    public static final String DOMAIN = "com.transport";
+
+    private final Map<FleetOperation, OperationStats> operations = new EnumMap<>(FleetOperation.class);
+    private final ConcurrentHashMap<Class<?>, LongAdder> sizeByType = new ConcurrentHashMap<>();
+    private final ClassValue<LongAdder> typeCounters = new ClassValue<LongAdder>() {
+        @Override
+        protected LongAdder computeValue(Class<?> type) {
+            return sizeByType.computeIfAbsent(type, key -> new LongAdder());
+        }
+    };
+    private final FleetExistenceFilter existenceFilter;
+    private final QueryResultCache queryCache;
+
+    /**
+     * Создает метрики сервиса.
+     *
+     * @param existenceFilter фильтр существования сервиса, статистика которого публикуется вместе с метриками
+     * @param queryCache      кеш результатов запросов сервиса, статистика которого публикуется вместе с метриками
+     */
+    public FleetMetrics(FleetExistenceFilter existenceFilter, QueryResultCache queryCache) {
+        this.existenceFilter = existenceFilter;
+        this.queryCache = queryCache;
+        for (FleetOperation operation : FleetOperation.values()) {
+            operations.put(operation, new OperationStats(operation.getSampleInterval()));
+        }
+    }
+
+    /**
+     * Возвращает статистику операции.
+     *
+     * @param operation операция
+     * @return статистика
+     */
+    public OperationStats get(FleetOperation operation) {
+        return operations.get(operation);
+    }
+
+    /**
+     * Публикует метрики в платформенном MBeanServer.
+     *
+     * @param serviceName имя сервиса, которое попадает в ObjectName
+     * @return регистрация; закрытие снимает MBean с публикации
+     * @throws IllegalStateException если MBean с таким именем уже зарегистрирован
+     */
+    public JmxRegistration registerMBeans(String serviceName) {
+        String service = ObjectName.quote(serviceName);
+        List<JmxRegistration.Entry> entries = new ArrayList<>();
+        try {
+            entries.add(new JmxRegistration.Entry(
+                    new ObjectName(DOMAIN + ":type=Fleet,name=" + service), this));
+            for (Map.Entry<FleetOperation, OperationStats> operation : operations.entrySet()) {
+                entries.add(new JmxRegistration.Entry(new ObjectName(DOMAIN + ":type=FleetOperation,service="
+                        + service + ",name=" + operation.getKey().name()), operation.getValue()));
+            }
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException("Недопустимое имя сервиса: " + serviceName, e);
+        }
+        return JmxRegistration.register(entries);
+    }
+
+    @Override
+    public void onAdded(Transport transport) {
+        typeCounters.get(transport.getClass()).increment();
+    }
+
+    @Override
+    public void onRemoved(Transport transport) {
+        typeCounters.get(transport.getClass()).decrement();
+    }
+
+    @Override
+    public long getFleetSize() {
+        long total = 0;
+        for (LongAdder count : sizeByType.values()) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Long> getFleetSizeByType() {
+        Map<String, Long> result = new TreeMap<>();
+        sizeByType.forEach((type, count) -> result.merge(type.getSimpleName(), count.sum(), Long::sum));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        Map<String, Long> result = new TreeMap<>();
+        operations.forEach((operation, stats) -> result.put(operation.name(), stats.getCount()));
+        return result;
+    }
+
+    @Override
+    public long getExistenceLookupCount() {
+        return existenceFilter.getLookupCount();
+    }
+
+    @Override
+    public double getExistenceFilterHitRate() {
+        long lookups = existenceFilter.getLookupCount();
+        return lookups == 0 ? 0 : (double) existenceFilter.getNegativeCount() / lookups;
+    }
+
+    @Override
+    public double getExistenceFalsePositiveRate() {
+        long lookups = existenceFilter.getLookupCount();
+        return lookups == 0 ? 0 : (double) existenceFilter.getFalsePositiveCount() / lookups;
+    }
+
+    @Override
+    public long getExistenceFilterBytes() {
+        return existenceFilter.getSizeInBytes();
+    }
+
+    @Override
+    public int getQueryCacheSize() {
+        return queryCache.size();
+    }
+
+    @Override
+    public long getQueryCacheBytes() {
+        return queryCache.getSizeInBytes();
+    }
+
+    @Override
+    public double getQueryCacheHitRate() {
+        long hits = queryCache.getHitCount();
+        long lookups = hits + queryCache.getMissCount();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public long getQueryCacheHitCount() {
+        return queryCache.getHitCount();
+    }
+
+    @Override
+    public long getQueryCacheMissCount() {
+        return queryCache.getMissCount();
+    }
+
+    @Override
+    public long getQueryCacheEvictionCount() {
+        return queryCache.getEvictionCount();
+    }
+
+    @Override
+    public long getQueryCacheInvalidationCount() {
+        return queryCache.getInvalidationCount();
+    }
+
+    @Override
+    public void resetOperations() {
+        for (OperationStats stats : operations.values()) {
+            stats.reset();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.transport.monitoring;
+
+import java.util.Map;
+
+/**
+ * JMX-интерфейс сводной статистики парка: размер по типам, количество операций
+ * и эффективность фильтра существования.
+ */
+public interface FleetMetricsMXBean {
+
+    /**
+     * Возвращает общее количество транспортных средств.
+     *
+     * @return количество транспортных средств
+     */
+    long getFleetSize();
+
+    /**
+     * Возвращает количество транспортных средств каждого типа.
+     *
+     * @return простое имя класса и количество
+     */
+    Map<String, Long> getFleetSizeByType();
+
+    /**
+     * Возвращает количество вызовов каждой операции.
+     *
+     * @return имя операции и количество вызовов
+     */
+    Map<String, Long> getOperationCounts();
+
+    /**
+     * Возвращает количество проверок фильтра существования.
+     *
+     * @return количество проверок
+     */
+    long getExistenceLookupCount();
+
+    /**
+     * Возвращает долю проверок существования, на которые фильтр ответил без просмотра хранилища.
+     *
+     * @return доля от 0 до 1
+     */
+    double getExistenceFilterHitRate();
+
+    /**
+     * Возвращает долю проверок существования, которые оказались ложноположительными.
+     *
+     * @return доля от 0 до 1
+     */
+    double getExistenceFalsePositiveRate();
+
+    /**
+     * Возвращает объем памяти фильтра существования.
+     *
+     * @return количество байт
+     */
+    long getExistenceFilterBytes();
+
+    /**
+     * Возвращает количество записей в кеше результатов запросов.
+     *
+     * @return количество записей
+     */
+    int getQueryCacheSize();
+
+    /**
+     * Возвращает приблизительный объем кеша результатов запросов.
+     *
+     * @return количество байт
+     */
+    long getQueryCacheBytes();
+
+    /**
+     * Возвращает долю запросов, результат которых найден в кеше.
+     *
+     * @return доля попаданий от 0 до 1
+     */
+    double getQueryCacheHitRate();
+
+    /**
+     * Возвращает количество попаданий в кеш результатов запросов.
+     *
+     * @return количество попаданий
+     */
+    long getQueryCacheHitCount();
+
+    /**
+     * Возвращает количество промахов кеша результатов запросов.
+     *
+     * @return количество промахов
+     */
+    long getQueryCacheMissCount();
+
+    /**
+     * Возвращает количество записей, вытесненных из кеша из-за ограничений размера.
+     *
+     * @return количество вытеснений
+     */
+    long getQueryCacheEvictionCount();
+
+    /**
+     * Возвращает количество записей кеша, сброшенных из-за изменений коллекции.
+     *
+     * @return количество инвалидаций
+     */
+    long getQueryCacheInvalidationCount();
+
+    /**
+     * Сбрасывает статистику операций. Размер парка не сбрасывается.
+     */
+    void resetOperations();
+}
@@ -0,0 +1,31 @@
+package com.transport.monitoring;
+
+/**
+ * Операции TransportService, для которых собирается статистика.
+ * Для быстрых точечных операций длительность замеряется выборочно, так как два вызова
+ * System.nanoTime() сравнимы по стоимости с самой операцией; количество вызовов учитывается всегда.
+ */
+public enum FleetOperation {
+    ADD(16),
+    REMOVE(16),
+    FIND(16),
+    QUERY(1),
+    SEARCH(1),
+    EXISTS(16),
+    BULK_LOAD(1);
+
+    private final int sampleInterval;
+
+    FleetOperation(int sampleInterval) {
+        this.sampleInterval = sampleInterval;
+    }
+
+    /**
+     * Возвращает, в среднем каждый какой вызов операции замеряется.
+     *
+     * @return интервал выборки (степень двойки)
+     */
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+}
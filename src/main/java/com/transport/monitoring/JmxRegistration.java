@@ -0,0 +1,93 @@
+package com.transport.monitoring;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Группа MBean, зарегистрированных в платформенном MBeanServer.
+ * Закрытие снимает с публикации все MBean группы.
+ */
+public final class JmxRegistration implements AutoCloseable {
+
+    /**
+     * MBean и имя, под которым он публикуется.
+     */
+    public static final class Entry {
+        final ObjectName name;
+        final Object bean;
+
+        /**
+         * Создает описание публикуемого MBean.
+         *
+         * @param name имя MBean
+         * @param bean объект, реализующий MBean- или MXBean-интерфейс
+         */
+        public Entry(ObjectName name, Object bean) {
+            this.name = name;
+            this.bean = bean;
+        }
+    }
+
+    private final MBeanServer server;
+    private final List<ObjectName> names;
+
+    private JmxRegistration(MBeanServer server, List<ObjectName> names) {
+        this.server = server;
+        this.names = names;
+    }
+
+    /**
+     * Регистрирует все MBean группы. Если регистрация одного из них не удалась,
+     * уже зарегистрированные MBean снимаются с публикации.
+     *
+     * @param entries MBean для публикации
+     * @return регистрация
+     * @throws IllegalStateException если MBean с таким именем уже зарегистрирован или объект не является MBean
+     */
+    public static JmxRegistration register(List<Entry> entries) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        JmxRegistration registration = new JmxRegistration(server, new ArrayList<>(entries.size()));
+        for (Entry entry : entries) {
+            try {
+                server.registerMBean(entry.bean, entry.name);
+                registration.names.add(entry.name);
+            } catch (InstanceAlreadyExistsException e) {
+                registration.close();
+                throw new IllegalStateException("MBean уже зарегистрирован: " + entry.name, e);
+            } catch (JMException e) {
+                registration.close();
+                throw new IllegalStateException("Не удалось зарегистрировать MBean " + entry.name, e);
+            }
+        }
+        return registration;
+    }
+
+    /**
+     * Возвращает имена зарегистрированных MBean.
+     *
+     * @return имена MBean
+     */
+    public List<ObjectName> getNames() {
+        return new ArrayList<>(names);
+    }
+
+    @Override
+    public void close() {
+        for (ObjectName name : names) {
+            try {
+                server.unregisterMBean(name);
+            } catch (InstanceNotFoundException e) {
+                // уже снят с публикации
+            } catch (JMException e) {
+                throw new IllegalStateException("Не удалось снять MBean " + name, e);
+            }
+        }
+        names.clear();
+    }
+}
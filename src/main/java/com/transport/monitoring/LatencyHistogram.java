@@ -0,0 +1,135 @@
+package com.transport.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Потокобезопасная гистограмма длительностей в наносекундах с логарифмически-линейными корзинами.
+ * Значения до 16 нс хранятся точно, большие значения попадают в одну из восьми корзин
+ * внутри своей степени двойки, поэтому относительная погрешность перцентилей не превышает 12.5%.
+ * Запись значения не блокирует и не выделяет память: обновляются только корзина и сумма,
+ * а максимум — лишь когда он растет. Количество значений вычисляется по корзинам при чтении.
+ */
+public final class LatencyHistogram {
+    private static final int LINEAR_LIMIT = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int FIRST_EXPONENT = 4;
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - FIRST_EXPONENT) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Записывает длительность.
+     *
+     * @param nanos длительность в наносекундах; отрицательные значения считаются нулем
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(bucketOf(value));
+        sum.add(value);
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Возвращает количество записанных значений.
+     *
+     * @return количество значений
+     */
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += buckets.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Возвращает среднее значение.
+     *
+     * @return среднее в наносекундах или 0, если значений нет
+     */
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Возвращает максимальное записанное значение.
+     *
+     * @return максимум в наносекундах
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Возвращает приближенное значение перцентиля.
+     *
+     * @param percentile перцентиль от 0 до 100
+     * @return значение в наносекундах или 0, если значений нет
+     */
+    public long getPercentile(double percentile) {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(representative(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Сбрасывает все значения. Значения, записываемые параллельно со сбросом, могут быть частично учтены.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        sum.reset();
+        max.set(0);
+    }
+
+    private static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - FIRST_EXPONENT) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Возвращает середину диапазона значений корзины.
+     *
+     * @param bucket индекс корзины
+     * @return значение в наносекундах
+     */
+    private static long representative(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + FIRST_EXPONENT;
+        int sub = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lower = (SUB_BUCKETS + sub) * width;
+        return lower + width / 2;
+    }
+}
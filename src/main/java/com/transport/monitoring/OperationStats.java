@@ -0,0 +1,163 @@
+package com.transport.monitoring;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Статистика одной операции: количество вызовов, ошибок и гистограмма длительностей.
+ * Длительность может замеряться выборочно: в среднем для одного вызова из {@code sampleInterval},
+ * перцентили при этом строятся по выборке, а количество вызовов остается точным.
+ * Потокобезопасна; запись не блокирует.
+ * <pre>
+ * long start = stats.start();
+ * ... операция ...
+ * stats.stop(start);
+ * </pre>
+ */
+public final class OperationStats implements OperationStatsMXBean {
+    private static final double NANOS_PER_MICRO = 1000.0;
+    private static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final int sampleMask;
+
+    /**
+     * Создает статистику, замеряющую каждый вызов.
+     */
+    public OperationStats() {
+        this(1);
+    }
+
+    /**
+     * Создает статистику с выборочным замером длительности.
+     *
+     * @param sampleInterval в среднем каждый какой вызов замеряется; степень двойки
+     * @throws IllegalArgumentException если интервал не является положительной степенью двойки
+     */
+    public OperationStats(int sampleInterval) {
+        if (sampleInterval <= 0 || Integer.bitCount(sampleInterval) != 1) {
+            throw new IllegalArgumentException("Интервал выборки должен быть степенью двойки: " + sampleInterval);
+        }
+        this.sampleMask = sampleInterval - 1;
+    }
+
+    /**
+     * Начинает вызов: для вызова, попавшего в выборку, запоминает время начала.
+     *
+     * @return метка начала для {@link #stop(long)}
+     */
+    public long start() {
+        if (sampleMask != 0 && (ThreadLocalRandom.current().nextInt() & sampleMask) != 0) {
+            return NOT_SAMPLED;
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Завершает вызов, начатый {@link #start()}.
+     *
+     * @param start метка начала
+     */
+    public void stop(long start) {
+        calls.increment();
+        if (start != NOT_SAMPLED) {
+            latency.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Начинает пачку вызовов. Пачка замеряется всегда: стоимость замера делится на все ее вызовы.
+     *
+     * @return метка начала для {@link #stop(long, int)}
+     */
+    public long startBatch() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Завершает пачку из {@code count} вызовов, выполненных вместе после {@link #startBatch()}.
+     * Все вызовы учитываются в количестве, а в гистограмму попадает одна длительность:
+     * средняя доля пачки на один вызов.
+     *
+     * @param start метка начала
+     * @param count количество вызовов в пачке
+     */
+    public void stop(long start, int count) {
+        if (count <= 0) {
+            return;
+        }
+        calls.add(count);
+        latency.record((System.nanoTime() - start) / count);
+    }
+
+    /**
+     * Учитывает вызов с известной длительностью.
+     *
+     * @param nanos длительность в наносекундах
+     */
+    public void record(long nanos) {
+        calls.increment();
+        latency.record(nanos);
+    }
+
+    /**
+     * Учитывает вызов, завершившийся исключением.
+     */
+    public void recordError() {
+        errors.increment();
+    }
+
+    @Override
+    public long getCount() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getSampledCount() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return latency.getMean() / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return latency.getPercentile(50) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getP90Micros() {
+        return latency.getPercentile(90) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latency.getPercentile(99) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return latency.getPercentile(99.9) / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return latency.getMax() / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        calls.reset();
+        errors.reset();
+    }
+}
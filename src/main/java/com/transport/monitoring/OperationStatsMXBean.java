@@ -0,0 +1,75 @@
+package com.transport.monitoring;
+
+/**
+ * JMX-интерфейс статистики одной операции: количество вызовов, ошибок и перцентили длительности.
+ */
+public interface OperationStatsMXBean {
+
+    /**
+     * Возвращает количество вызовов.
+     *
+     * @return количество вызовов
+     */
+    long getCount();
+
+    /**
+     * Возвращает количество вызовов, длительность которых была замерена.
+     *
+     * @return размер выборки
+     */
+    long getSampledCount();
+
+    /**
+     * Возвращает количество вызовов, завершившихся исключением.
+     *
+     * @return количество ошибок
+     */
+    long getErrorCount();
+
+    /**
+     * Возвращает среднюю длительность.
+     *
+     * @return длительность в микросекундах
+     */
+    double getMeanMicros();
+
+    /**
+     * Возвращает медиану длительности.
+     *
+     * @return длительность в микросекундах
+     */
+    double getP50Micros();
+
+    /**
+     * Возвращает 90-й перцентиль длительности.
+     *
+     * @return длительность в микросекундах
+     */
+    double getP90Micros();
+
+    /**
+     * Возвращает 99-й перцентиль длительности.
+     *
+     * @return длительность в микросекундах
+     */
+    double getP99Micros();
+
+    /**
+     * Возвращает 99.9-й перцентиль длительности.
+     *
+     * @return длительность в микросекундах
+     */
+    double getP999Micros();
+
+    /**
+     * Возвращает максимальную длительность.
+     *
+     * @return длительность в микросекундах
+     */
+    double getMaxMicros();
+
+    /**
+     * Сбрасывает статистику.
+     */
+    void reset();
+}
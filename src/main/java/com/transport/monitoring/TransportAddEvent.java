@@ -0,0 +1,28 @@
+package com.transport.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Событие JFR: добавление транспортного средства в коллекцию. При загрузке пачкой событие одно
+ * на пачку: идентификатор и тип относятся к первому транспортному средству, а количество равно размеру пачки.
+ */
+@Name("com.transport.Add")
+@Label("Transport Add")
+@Category("Transport")
+@Description("Добавление транспортного средства в коллекцию")
+public class TransportAddEvent extends jdk.jfr.Event {
+    @Label("Transport Id")
+    public long transportId;
+
+    @Label("Transport Type")
+    public Class<?> transportType;
+
+    @Label("Count")
+    public int count;
+
+    @Label("Fleet Size")
+    public int fleetSize;
+}
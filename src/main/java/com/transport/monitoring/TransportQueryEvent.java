@@ -0,0 +1,30 @@
+package com.transport.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Событие JFR: выполнение запроса к коллекции.
+ */
+@Name("com.transport.Query")
+@Label("Transport Query")
+@Category("Transport")
+@Description("Выполнение запроса TransportQuery")
+public class TransportQueryEvent extends jdk.jfr.Event {
+    @Label("Query")
+    public String query;
+
+    @Label("Scanned")
+    @Description("Количество просмотренных транспортных средств")
+    public int scanned;
+
+    @Label("Matched")
+    @Description("Количество найденных транспортных средств")
+    public int matched;
+
+    @Label("Cached")
+    @Description("Результат взят из кеша без просмотра коллекции")
+    public boolean cached;
+}
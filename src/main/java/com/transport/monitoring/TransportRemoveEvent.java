@@ -0,0 +1,25 @@
+package com.transport.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Событие JFR: удаление транспортного средства из коллекции по индексу или идентификатору.
+ */
+@Name("com.transport.Remove")
+@Label("Transport Remove")
+@Category("Transport")
+@Description("Удаление транспортного средства из коллекции")
+public class TransportRemoveEvent extends jdk.jfr.Event {
+    @Label("Transport Id")
+    @Description("Идентификатор удаленного транспорта или 0, если он не найден")
+    public long transportId;
+
+    @Label("Transport Type")
+    public Class<?> transportType;
+
+    @Label("Fleet Size")
+    public int fleetSize;
+}
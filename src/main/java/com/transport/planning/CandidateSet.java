@@ -0,0 +1,104 @@
+package com.transport.planning;
+
+import com.transport.model.Transport;
+
+import java.util.Arrays;
+
+/**
+ * Транспортные средства, участвующие в подборе, с вместимостью, экипажем и скоростью
+ * в параллельных массивах.
+ */
+final class CandidateSet {
+    Transport[] vehicles;
+    int[] capacity;
+    int[] crew;
+    int[] speed;
+    int size;
+
+    CandidateSet(int initialCapacity) {
+        vehicles = new Transport[initialCapacity];
+        capacity = new int[initialCapacity];
+        crew = new int[initialCapacity];
+        speed = new int[initialCapacity];
+    }
+
+    /**
+     * Добавляет транспортное средство.
+     *
+     * @param vehicle        транспортное средство
+     * @param vehicleCapacity количество мест или грузоподъемность
+     * @param vehicleCrew    требуемый экипаж
+     * @param vehicleSpeed   максимальная скорость
+     */
+    void add(Transport vehicle, int vehicleCapacity, int vehicleCrew, int vehicleSpeed) {
+        if (size == vehicles.length) {
+            int grown = Math.max(16, size * 2);
+            vehicles = Arrays.copyOf(vehicles, grown);
+            capacity = Arrays.copyOf(capacity, grown);
+            crew = Arrays.copyOf(crew, grown);
+            speed = Arrays.copyOf(speed, grown);
+        }
+        vehicles[size] = vehicle;
+        capacity[size] = vehicleCapacity;
+        crew[size] = vehicleCrew;
+        speed[size] = vehicleSpeed;
+        size++;
+    }
+
+    /**
+     * Возвращает транспортные средства со скоростью не ниже порога.
+     *
+     * @param threshold минимальная скорость
+     * @return новый набор или этот же, если порог не отсекает ни одного транспортного средства
+     */
+    CandidateSet withSpeedAtLeast(int threshold) {
+        if (threshold <= 0) {
+            return this;
+        }
+        CandidateSet filtered = new CandidateSet(size);
+        for (int i = 0; i < size; i++) {
+            if (speed[i] >= threshold) {
+                filtered.add(vehicles[i], capacity[i], crew[i], speed[i]);
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * Возвращает суммарную вместимость транспортных средств со скоростью не ниже порога.
+     *
+     * @param threshold минимальная скорость
+     * @return суммарная вместимость
+     */
+    long capacityAtSpeed(int threshold) {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            if (speed[i] >= threshold) {
+                total += capacity[i];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Возвращает номера транспортных средств по возрастанию ключа. Ключ и номер упаковываются
+     * в одно число, поэтому сортируется массив long без объектов-обёрток.
+     *
+     * @param keys неотрицательные ключи, занимающие не больше {@code 63 - log2(size)} бит
+     * @return номера в порядке возрастания ключа, при равных ключах — по возрастанию номера
+     */
+    int[] order(long[] keys) {
+        int shift = Math.max(1, 64 - Long.numberOfLeadingZeros(size));
+        long mask = (1L << shift) - 1;
+        long[] packed = new long[size];
+        for (int i = 0; i < size; i++) {
+            packed[i] = (keys[i] << shift) | i;
+        }
+        Arrays.parallelSort(packed);
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = (int) (packed[i] & mask);
+        }
+        return order;
+    }
+}
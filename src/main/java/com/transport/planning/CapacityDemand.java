@@ -0,0 +1,144 @@
+package com.transport.planning;
+
+import java.util.Objects;
+
+/**
+ * Потребность в перевозке: количество пассажиров, масса груза в тоннах, доступный экипаж
+ * для кораблей, расстояние и цель подбора. Объект неизменяем; методы with* возвращают
+ * новую потребность.
+ * <pre>
+ * CapacityDemand demand = CapacityDemand.of(20000, 3000000)
+ *         .withCrewLimit(15000)
+ *         .withDistance(1200)
+ *         .minimizing(PlanningObjective.MIN_TIME);
+ * </pre>
+ */
+public final class CapacityDemand {
+    private final long passengers;
+    private final long cargoTonnes;
+    private final long crewLimit;
+    private final double distance;
+    private final PlanningObjective objective;
+
+    private CapacityDemand(long passengers, long cargoTonnes, long crewLimit, double distance,
+                           PlanningObjective objective) {
+        this.passengers = passengers;
+        this.cargoTonnes = cargoTonnes;
+        this.crewLimit = crewLimit;
+        this.distance = distance;
+        this.objective = objective;
+    }
+
+    /**
+     * Создает потребность без ограничения экипажа, с нулевым расстоянием и целью
+     * {@link PlanningObjective#MIN_VEHICLES}.
+     *
+     * @param passengers  количество пассажиров
+     * @param cargoTonnes масса груза в тоннах
+     * @return потребность
+     * @throws IllegalArgumentException если значения отрицательны
+     */
+    public static CapacityDemand of(long passengers, long cargoTonnes) {
+        if (passengers < 0 || cargoTonnes < 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Недопустимая потребность: пассажиров %d, груза %d т", passengers, cargoTonnes));
+        }
+        return new CapacityDemand(passengers, cargoTonnes, Long.MAX_VALUE, 0, PlanningObjective.MIN_VEHICLES);
+    }
+
+    /**
+     * Возвращает потребность с ограничением суммарного экипажа выбранных кораблей.
+     *
+     * @param crewLimit доступное количество членов экипажа
+     * @return новая потребность
+     * @throws IllegalArgumentException если ограничение отрицательно
+     */
+    public CapacityDemand withCrewLimit(long crewLimit) {
+        if (crewLimit < 0) {
+            throw new IllegalArgumentException("Недопустимое ограничение экипажа: " + crewLimit);
+        }
+        return new CapacityDemand(passengers, cargoTonnes, crewLimit, distance, objective);
+    }
+
+    /**
+     * Возвращает потребность с расстоянием перевозки.
+     *
+     * @param distance расстояние в километрах
+     * @return новая потребность
+     * @throws IllegalArgumentException если расстояние отрицательно или не является числом
+     */
+    public CapacityDemand withDistance(double distance) {
+        if (!(distance >= 0) || Double.isInfinite(distance)) {
+            throw new IllegalArgumentException("Недопустимое расстояние: " + distance);
+        }
+        return new CapacityDemand(passengers, cargoTonnes, crewLimit, distance, objective);
+    }
+
+    /**
+     * Возвращает потребность с другой целью подбора.
+     *
+     * @param objective цель подбора
+     * @return новая потребность
+     */
+    public CapacityDemand minimizing(PlanningObjective objective) {
+        return new CapacityDemand(passengers, cargoTonnes, crewLimit, distance,
+                Objects.requireNonNull(objective, "objective"));
+    }
+
+    /**
+     * Возвращает количество пассажиров.
+     *
+     * @return количество пассажиров
+     */
+    public long getPassengers() {
+        return passengers;
+    }
+
+    /**
+     * Возвращает массу груза.
+     *
+     * @return масса груза в тоннах
+     */
+    public long getCargoTonnes() {
+        return cargoTonnes;
+    }
+
+    /**
+     * Возвращает доступный экипаж для кораблей.
+     *
+     * @return количество членов экипажа; Long.MAX_VALUE, если экипаж не ограничен
+     */
+    public long getCrewLimit() {
+        return crewLimit;
+    }
+
+    /**
+     * Возвращает расстояние перевозки.
+     *
+     * @return расстояние в километрах
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * Возвращает цель подбора.
+     *
+     * @return цель подбора
+     */
+    public PlanningObjective getObjective() {
+        return objective;
+    }
+
+    /**
+     * Возвращает строковое представление потребности.
+     *
+     * @return строковое представление
+     */
+    @Override
+    public String toString() {
+        return String.format("CapacityDemand{passengers=%d, cargo=%d t, crewLimit=%s, distance=%.1f km, %s}",
+                passengers, cargoTonnes, crewLimit == Long.MAX_VALUE ? "none" : String.valueOf(crewLimit),
+                distance, objective);
+    }
+}
@@ -0,0 +1,175 @@
+package com.transport.planning;
+
+import com.transport.model.Transport;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Результат подбора: выбранные транспортные средства, их суммарная вместимость и экипаж,
+ * время в пути и сведения о качестве решения. Если время на подбор закончилось раньше,
+ * чем решение удалось доказать оптимальным, возвращается лучшее найденное решение,
+ * а {@link #getLowerBound()} показывает, насколько оно может быть хуже оптимального.
+ */
+public final class CapacityPlan {
+    private final CapacityDemand demand;
+    private final List<Transport> vehicles;
+    private final long passengerCapacity;
+    private final long cargoCapacity;
+    private final long crew;
+    private final int slowestSpeed;
+    private final int lowerBound;
+    private final boolean feasible;
+    private final boolean optimal;
+    private final boolean timedOut;
+    private final long elapsedMillis;
+
+    CapacityPlan(CapacityDemand demand, List<Transport> vehicles, long passengerCapacity, long cargoCapacity,
+                 long crew, int slowestSpeed, int lowerBound, boolean optimal, boolean timedOut,
+                 long elapsedMillis) {
+        this.demand = demand;
+        this.vehicles = Collections.unmodifiableList(vehicles);
+        this.passengerCapacity = passengerCapacity;
+        this.cargoCapacity = cargoCapacity;
+        this.crew = crew;
+        this.slowestSpeed = slowestSpeed;
+        this.lowerBound = lowerBound;
+        this.feasible = passengerCapacity >= demand.getPassengers() && cargoCapacity >= demand.getCargoTonnes()
+                && crew <= demand.getCrewLimit();
+        this.optimal = feasible && optimal;
+        this.timedOut = timedOut;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Возвращает потребность, для которой выполнен подбор.
+     *
+     * @return потребность
+     */
+    public CapacityDemand getDemand() {
+        return demand;
+    }
+
+    /**
+     * Возвращает выбранные транспортные средства.
+     *
+     * @return неизменяемый список
+     */
+    public List<Transport> getVehicles() {
+        return vehicles;
+    }
+
+    /**
+     * Возвращает количество выбранных транспортных средств.
+     *
+     * @return количество транспортных средств
+     */
+    public int getVehicleCount() {
+        return vehicles.size();
+    }
+
+    /**
+     * Возвращает суммарное количество пассажирских мест.
+     *
+     * @return количество мест
+     */
+    public long getPassengerCapacity() {
+        return passengerCapacity;
+    }
+
+    /**
+     * Возвращает суммарную грузоподъемность кораблей.
+     *
+     * @return грузоподъемность в тоннах
+     */
+    public long getCargoCapacity() {
+        return cargoCapacity;
+    }
+
+    /**
+     * Возвращает суммарный экипаж выбранных кораблей.
+     *
+     * @return количество членов экипажа
+     */
+    public long getCrew() {
+        return crew;
+    }
+
+    /**
+     * Возвращает максимальную скорость самого медленного выбранного транспортного средства.
+     *
+     * @return скорость в км/ч; 0, если ничего не выбрано
+     */
+    public int getSlowestSpeed() {
+        return slowestSpeed;
+    }
+
+    /**
+     * Возвращает время в пути, за которое все выбранные транспортные средства пройдут расстояние
+     * из потребности.
+     *
+     * @return время в часах; 0, если ничего не выбрано
+     */
+    public double getTravelHours() {
+        return slowestSpeed == 0 ? 0 : demand.getDistance() / slowestSpeed;
+    }
+
+    /**
+     * Возвращает нижнюю оценку количества транспортных средств для найденного времени в пути.
+     *
+     * @return количество, меньше которого потребность заведомо не покрыть
+     */
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * Проверяет, покрывает ли подбор потребность без превышения доступного экипажа.
+     * Если потребность покрыть нельзя, план содержит подбор с наибольшей вместимостью.
+     *
+     * @return true если потребность покрыта
+     */
+    public boolean isFeasible() {
+        return feasible;
+    }
+
+    /**
+     * Проверяет, доказана ли оптимальность плана по цели потребности.
+     *
+     * @return true если лучшего плана не существует
+     */
+    public boolean isOptimal() {
+        return optimal;
+    }
+
+    /**
+     * Проверяет, был ли подбор остановлен по истечении отведенного времени.
+     *
+     * @return true если поиск улучшений прерван
+     */
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Возвращает время подбора.
+     *
+     * @return время в миллисекундах
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Возвращает строковое представление плана.
+     *
+     * @return строковое представление
+     */
+    @Override
+    public String toString() {
+        return String.format("CapacityPlan{vehicles=%d, lowerBound=%d, passengers=%d, cargo=%d t, crew=%d, "
+                        + "slowestSpeed=%d, hours=%.2f, feasible=%b, optimal=%b, timedOut=%b, %d ms}",
+                vehicles.size(), lowerBound, passengerCapacity, cargoCapacity, crew, slowestSpeed,
+                getTravelHours(), feasible, optimal, timedOut, elapsedMillis);
+    }
+}
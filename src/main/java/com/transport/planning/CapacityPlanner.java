@@ -0,0 +1,235 @@
+package com.transport.planning;
+
+import com.transport.model.Airplane;
+import com.transport.model.Car;
+import com.transport.model.Ship;
+import com.transport.model.Transport;
+import com.transport.validation.TransportValidator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+
+/**
+ * Подбор транспортных средств под потребность в перевозке пассажиров и груза.
+ * <p>
+ * Пассажиров перевозят самолеты ({@code passengerCapacity} мест) и автомобили (по месту на
+ * каждую дверь, {@code doorCount}), груз — корабли ({@code displacement} тонн), каждому из
+ * которых нужен экипаж {@code crewSize} из общего доступного экипажа. Каждое транспортное
+ * средство совершает один рейс; транспорт с нулевой скоростью не участвует.
+ * <p>
+ * Пассажирская часть решается точно: наименьшее число транспортных средств дают самые
+ * вместительные. Грузовая часть с ограничением экипажа решается {@link ShipCoverSolver}
+ * с параллельной проверкой вариантов и ограничением по времени. Для цели
+ * {@link PlanningObjective#MIN_TIME} сначала двоичным поиском выбирается наибольший порог
+ * скорости, при котором потребность еще можно покрыть, затем число транспортных средств
+ * минимизируется среди транспорта не медленнее порога. Порог проверяется жадным подбором,
+ * а его оптимальность доказывается той же лагранжевой границей, что и у решателя.
+ * <pre>
+ * try (CapacityPlanner planner = new CapacityPlanner();
+ *      FleetSnapshot fleet = service.snapshot()) {
+ *     CapacityPlan plan = planner.plan(fleet, CapacityDemand.of(20000, 3000000), 2, TimeUnit.SECONDS);
+ * }
+ * </pre>
+ */
+public class CapacityPlanner implements AutoCloseable {
+    private final ForkJoinPool pool;
+
+    /**
+     * Создает планировщик, использующий все доступные процессоры.
+     */
+    public CapacityPlanner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Создает планировщик.
+     *
+     * @param parallelism количество потоков поиска; 1 отключает параллельный поиск
+     * @throws IllegalArgumentException если parallelism не положительно
+     */
+    public CapacityPlanner(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Недопустимое количество потоков: " + parallelism);
+        }
+        this.pool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Подбирает транспортные средства под потребность. Поиск прекращается по истечении
+     * отведенного времени, и тогда возвращается лучший найденный план.
+     *
+     * @param fleet   транспортные средства, например FleetSnapshot
+     * @param demand  потребность в перевозке
+     * @param timeout время на подбор
+     * @param unit    единица времени
+     * @return план; если потребность покрыть нельзя, {@link CapacityPlan#isFeasible()} возвращает false
+     * @throws IllegalArgumentException если время не положительно
+     */
+    public CapacityPlan plan(Iterable<? extends Transport> fleet, CapacityDemand demand, long timeout,
+                             TimeUnit unit) {
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("Время на подбор должно быть положительным: " + timeout);
+        }
+        long start = System.nanoTime();
+        long deadline = start + unit.toNanos(timeout);
+        CandidateSet seats = new CandidateSet(1024);
+        CandidateSet ships = new CandidateSet(1024);
+        for (Transport transport : fleet) {
+            int speed = transport.getMaxSpeed();
+            if (speed <= 0) {
+                continue;
+            }
+            if (transport instanceof Airplane) {
+                seats.add(transport, ((Airplane) transport).getPassengerCapacity(), 0, speed);
+            } else if (transport instanceof Car) {
+                seats.add(transport, ((Car) transport).getDoorCount(), 0, speed);
+            } else if (transport instanceof Ship) {
+                Ship ship = (Ship) transport;
+                ships.add(transport, ship.getDisplacement(), ship.getCrewSize(), speed);
+            }
+        }
+        int threshold = 0;
+        boolean thresholdProven = true;
+        if (demand.getObjective() == PlanningObjective.MIN_TIME) {
+            int[] speeds = distinctSpeedsDescending(seats, ships);
+            int relaxed = firstFeasible(speeds, 0, speed -> seats.capacityAtSpeed(speed) >= demand.getPassengers()
+                    && ships.capacityAtSpeed(speed) >= demand.getCargoTonnes());
+            int found = firstFeasible(speeds, relaxed, speed -> seats.capacityAtSpeed(speed) >= demand.getPassengers()
+                    && coversCargo(ships.withSpeedAtLeast(speed), demand, deadline));
+            if (found < speeds.length) {
+                threshold = speeds[found];
+                thresholdProven = found == relaxed || new ShipCoverSolver(ships.withSpeedAtLeast(speeds[found - 1]),
+                        demand.getCargoTonnes(), demand.getCrewLimit(), deadline, null).isProvenUncoverable();
+            } else {
+                thresholdProven = false;
+            }
+        }
+        List<Transport> chosen = new ArrayList<>();
+        long passengerCapacity = choosePassengerVehicles(seats.withSpeedAtLeast(threshold), demand, chosen);
+        int passengerVehicles = chosen.size();
+        CandidateSet fastShips = ships.withSpeedAtLeast(threshold);
+        ShipCoverSolver solver = new ShipCoverSolver(fastShips, demand.getCargoTonnes(), demand.getCrewLimit(),
+                deadline, pool);
+        boolean[] chosenShips = solver.solve();
+        long cargo = 0;
+        long crew = 0;
+        for (int i = 0; i < fastShips.size; i++) {
+            if (chosenShips[i]) {
+                chosen.add(fastShips.vehicles[i]);
+                cargo += fastShips.capacity[i];
+                crew += fastShips.crew[i];
+            }
+        }
+        int slowest = 0;
+        for (Transport transport : chosen) {
+            slowest = slowest == 0 ? transport.getMaxSpeed() : Math.min(slowest, transport.getMaxSpeed());
+        }
+        boolean passengersCovered = passengerCapacity >= demand.getPassengers();
+        return new CapacityPlan(demand, chosen, passengerCapacity, cargo, crew, slowest,
+                passengerVehicles + solver.getLowerBound(), passengersCovered && solver.isOptimal() && thresholdProven,
+                solver.isTimedOut(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Останавливает потоки поиска.
+     */
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Выбирает самые вместительные пассажирские транспортные средства, а среди равных по
+     * вместимости — самые быстрые, пока места не покроют потребность.
+     *
+     * @param seats  пассажирский транспорт
+     * @param demand потребность
+     * @param chosen список, в который добавляются выбранные транспортные средства
+     * @return суммарное количество мест
+     */
+    private static long choosePassengerVehicles(CandidateSet seats, CapacityDemand demand, List<Transport> chosen) {
+        long[] keys = new long[seats.size];
+        for (int i = 0; i < seats.size; i++) {
+            keys[i] = (long) (TransportValidator.MAX_PASSENGER_CAPACITY - seats.capacity[i])
+                    * (TransportValidator.MAX_SPEED + 1) + TransportValidator.MAX_SPEED - seats.speed[i];
+        }
+        long total = 0;
+        for (int vehicle : seats.order(keys)) {
+            if (total >= demand.getPassengers()) {
+                break;
+            }
+            chosen.add(seats.vehicles[vehicle]);
+            total += seats.capacity[vehicle];
+        }
+        return total;
+    }
+
+    /**
+     * Проверяет жадным подбором, можно ли покрыть груз кораблями при доступном экипаже.
+     */
+    private static boolean coversCargo(CandidateSet ships, CapacityDemand demand, long deadline) {
+        if (demand.getCargoTonnes() == 0) {
+            return true;
+        }
+        ShipCoverSolver solver = new ShipCoverSolver(ships, demand.getCargoTonnes(), demand.getCrewLimit(),
+                deadline, null);
+        boolean[] chosen = solver.greedyByRatio();
+        long cargo = 0;
+        for (int i = 0; i < ships.size; i++) {
+            if (chosen[i]) {
+                cargo += ships.capacity[i];
+            }
+        }
+        return cargo >= demand.getCargoTonnes();
+    }
+
+    /**
+     * Возвращает различные скорости транспорта по убыванию.
+     */
+    private static int[] distinctSpeedsDescending(CandidateSet seats, CandidateSet ships) {
+        boolean[] present = new boolean[TransportValidator.MAX_SPEED + 1];
+        int distinct = 0;
+        for (CandidateSet set : new CandidateSet[]{seats, ships}) {
+            for (int i = 0; i < set.size; i++) {
+                if (!present[set.speed[i]]) {
+                    present[set.speed[i]] = true;
+                    distinct++;
+                }
+            }
+        }
+        int[] speeds = new int[distinct];
+        int next = 0;
+        for (int speed = present.length - 1; speed > 0; speed--) {
+            if (present[speed]) {
+                speeds[next++] = speed;
+            }
+        }
+        return Arrays.copyOf(speeds, next);
+    }
+
+    /**
+     * Находит двоичным поиском первую скорость, начиная с номера from, при которой условие
+     * выполняется; условие монотонно: чем ниже порог, тем больше транспорта доступно.
+     *
+     * @return номер скорости или speeds.length, если условие не выполняется ни для одной
+     */
+    private static int firstFeasible(int[] speeds, int from, IntPredicate feasible) {
+        int low = from;
+        int high = speeds.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (feasible.test(speeds[middle])) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,16 @@
+package com.transport.planning;
+
+/**
+ * Цель подбора транспортных средств под потребность в перевозке.
+ */
+public enum PlanningObjective {
+    /**
+     * Наименьшее количество транспортных средств; при равенстве — наименьший экипаж.
+     */
+    MIN_VEHICLES,
+    /**
+     * Наименьшее время в пути, которое определяется самым медленным выбранным транспортом;
+     * при равном времени — наименьшее количество транспортных средств.
+     */
+    MIN_TIME
+}
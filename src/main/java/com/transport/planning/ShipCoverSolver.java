@@ -0,0 +1,548 @@
+package com.transport.planning;
+
+import com.transport.validation.TransportValidator;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Подбор наименьшего числа кораблей, суммарная грузоподъемность которых не меньше требуемой,
+ * а суммарный экипаж не больше доступного. Задача NP-трудна, поэтому решение эвристическое,
+ * но с нижней оценкой, которая позволяет доказать оптимальность, когда оценка достигнута.
+ * <p>
+ * Нижняя оценка — наименьшее k, при котором k самых грузоподъемных кораблей покрывают груз
+ * без учета экипажа; если их экипаж укладывается в ограничение, решение сразу оптимально.
+ * Иначе начальное решение строится жадно по грузоподъемности на члена экипажа. Затем ищется
+ * наименьшее k, для которого найдется набор не больше чем из k кораблей: берутся корабли с
+ * наибольшей положительной оценкой {@code displacement - λ·crewSize} при наименьшем λ, когда
+ * экипаж укладывается в ограничение, и набор дополняется обменами, увеличивающими
+ * грузоподъемность. Та же оценка дает лагранжеву верхнюю границу грузоподъемности, которая
+ * доказывает недопустимость k и поднимает нижнюю оценку. Несколько значений k проверяются
+ * параллельно, интервал поиска сужается, пока не сойдется или не истечет время; в последнем
+ * случае возвращается лучший найденный набор. Напоследок обменами уменьшается экипаж при той
+ * же грузоподъемности.
+ */
+final class ShipCoverSolver {
+    private static final int LAMBDA_STEPS = 40;
+    private static final int EXTRA_EXCHANGES = 16;
+
+    private final CandidateSet ships;
+    private final long target;
+    private final long crewLimit;
+    private final long deadline;
+    private final ForkJoinPool pool;
+    /** Номера кораблей по убыванию грузоподъемности, при равной — по возрастанию экипажа. */
+    private final int[] byCargo;
+    /** Номера кораблей по возрастанию экипажа. */
+    private final int[] byCrew;
+    /** Наибольшее количество кораблей, для которого доказано, что груз не покрыть. */
+    private final AtomicInteger infeasibleCount = new AtomicInteger();
+    private volatile boolean timedOut;
+    private int lowerBound;
+    private boolean optimal;
+
+    /**
+     * Создает решатель.
+     *
+     * @param ships     корабли: вместимость — грузоподъемность в тоннах
+     * @param target    требуемая грузоподъемность
+     * @param crewLimit доступный экипаж
+     * @param deadline  момент System.nanoTime(), после которого поиск прекращается
+     * @param pool      пул для параллельной проверки; null — проверка в текущем потоке
+     */
+    ShipCoverSolver(CandidateSet ships, long target, long crewLimit, long deadline, ForkJoinPool pool) {
+        this.ships = ships;
+        this.target = target;
+        this.crewLimit = crewLimit;
+        this.deadline = deadline;
+        this.pool = pool;
+        long[] keys = new long[ships.size];
+        for (int i = 0; i < ships.size; i++) {
+            keys[i] = (long) (TransportValidator.MAX_DISPLACEMENT - ships.capacity[i])
+                    * (TransportValidator.MAX_CREW_SIZE + 1) + ships.crew[i];
+        }
+        this.byCargo = ships.order(keys);
+        for (int i = 0; i < ships.size; i++) {
+            keys[i] = ships.crew[i];
+        }
+        this.byCrew = ships.order(keys);
+    }
+
+    /**
+     * Подбирает корабли.
+     *
+     * @return выбранные корабли по номерам; если груз покрыть нельзя — набор с наибольшей
+     *         найденной грузоподъемностью
+     */
+    boolean[] solve() {
+        int n = ships.size;
+        if (target <= 0) {
+            optimal = true;
+            return new boolean[n];
+        }
+        boolean[] top = new boolean[n];
+        long cargo = 0;
+        int k = 0;
+        while (k < n && cargo < target) {
+            top[byCargo[k]] = true;
+            cargo += ships.capacity[byCargo[k++]];
+        }
+        if (cargo < target) {
+            boolean[] greedy = greedyByRatio();
+            lowerBound = count(greedy);
+            return greedy;
+        }
+        lowerBound = k;
+        if (crew(top) <= crewLimit) {
+            optimal = true;
+            return reduceCrew(top);
+        }
+        boolean[] best = greedyByRatio();
+        int infeasible = k - 1;
+        int feasible;
+        if (cargo(best) >= target) {
+            feasible = count(best);
+        } else {
+            best = null;
+            feasible = -1;
+            for (int probe = k; !isTimedOut(); probe = (int) Math.min(n, 2L * probe)) {
+                boolean[] found = atMost(probe);
+                if (found != null) {
+                    best = found;
+                    feasible = count(found);
+                    break;
+                }
+                infeasible = probe;
+                if (probe == n) {
+                    break;
+                }
+            }
+            if (best == null) {
+                boolean[] greedy = greedyByRatio();
+                lowerBound = count(greedy);
+                return greedy;
+            }
+        }
+        int parallelism = pool == null ? 1 : pool.getParallelism();
+        while (feasible - infeasible > 1 && !isTimedOut()) {
+            int probes = Math.min(parallelism, feasible - infeasible - 1);
+            int[] counts = new int[probes];
+            for (int i = 0; i < probes; i++) {
+                counts[i] = infeasible + (int) ((long) (feasible - infeasible) * (i + 1) / (probes + 1));
+            }
+            boolean[][] found = new boolean[probes][];
+            if (probes == 1) {
+                found[0] = atMost(counts[0]);
+            } else {
+                pool.submit(() -> IntStream.range(0, probes).parallel()
+                        .forEach(i -> found[i] = atMost(counts[i]))).join();
+            }
+            for (int i = 0; i < probes; i++) {
+                if (found[i] != null) {
+                    best = found[i];
+                    feasible = count(best);
+                    break;
+                }
+                if (!isTimedOut()) {
+                    infeasible = counts[i];
+                }
+            }
+        }
+        lowerBound = Math.max(lowerBound, infeasibleCount.get() + 1);
+        optimal = feasible == lowerBound;
+        return reduceCrew(best);
+    }
+
+    /**
+     * Возвращает нижнюю оценку количества кораблей.
+     *
+     * @return количество кораблей
+     */
+    int getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * Проверяет, доказана ли минимальность количества кораблей в решении.
+     *
+     * @return true если количество совпало с нижней оценкой
+     */
+    boolean isOptimal() {
+        return optimal;
+    }
+
+    /**
+     * Проверяет, прекращен ли поиск по истечении времени.
+     *
+     * @return true если время истекло
+     */
+    boolean isTimedOut() {
+        if (!timedOut && System.nanoTime() - deadline > 0) {
+            timedOut = true;
+        }
+        return timedOut;
+    }
+
+    /**
+     * Жадно добавляет корабли по убыванию грузоподъемности на члена экипажа, пока экипаж
+     * позволяет и груз не покрыт, затем убирает лишние.
+     *
+     * @return выбранные корабли
+     */
+    boolean[] greedyByRatio() {
+        int n = ships.size;
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            float ratio = (float) ships.capacity[i] / Math.max(ships.crew[i], 1);
+            keys[i] = Float.floatToIntBits(ratio);
+        }
+        int[] byRatio = ships.order(keys);
+        boolean[] chosen = new boolean[n];
+        long cargo = 0;
+        long crew = 0;
+        for (int i = n - 1; i >= 0 && cargo < target; i--) {
+            int ship = byRatio[i];
+            if (ships.crew[ship] <= crewLimit - crew) {
+                chosen[ship] = true;
+                cargo += ships.capacity[ship];
+                crew += ships.crew[ship];
+            }
+        }
+        return dropRedundant(chosen);
+    }
+
+    /**
+     * Проверяет лагранжевой границей, что груз нельзя покрыть никаким набором кораблей:
+     * при любом λ грузоподъемность допустимого набора не больше суммы положительных оценок
+     * {@code displacement - λ·crewSize} плюс {@code λ·crewLimit}. Граница выпукла по λ,
+     * поэтому ее минимум ищется тернарным поиском.
+     *
+     * @return true если недостаточность кораблей доказана
+     */
+    boolean isProvenUncoverable() {
+        double low = 0;
+        double high = maxCargo() + 1.0;
+        double bound = relaxedCargo(0);
+        for (int step = 0; step < LAMBDA_STEPS; step++) {
+            double first = low + (high - low) / 3;
+            double second = high - (high - low) / 3;
+            double firstBound = relaxedCargo(first);
+            double secondBound = relaxedCargo(second);
+            bound = Math.min(bound, Math.min(firstBound, secondBound));
+            if (firstBound < secondBound) {
+                high = second;
+            } else {
+                low = first;
+            }
+        }
+        return bound < target - 1;
+    }
+
+    private double relaxedCargo(double lambda) {
+        double total = lambda * crewLimit;
+        for (int i = 0; i < ships.size; i++) {
+            total += Math.max(0, ships.capacity[i] - lambda * ships.crew[i]);
+        }
+        return total;
+    }
+
+    /**
+     * Ищет набор не больше чем из k кораблей, покрывающий груз. Для каждого испробованного λ
+     * сумма оценок выбранных кораблей плюс {@code λ·crewLimit} ограничивает сверху
+     * грузоподъемность любого допустимого набора из k кораблей; если эта граница меньше
+     * требуемой, недопустимость k доказана.
+     *
+     * @param k наибольшее количество кораблей
+     * @return набор или null, если он не найден или истекло время
+     */
+    private boolean[] atMost(int k) {
+        boolean[] chosen = top(0, k);
+        double bound = cargo(chosen);
+        if (crew(chosen) > crewLimit) {
+            double low = 0;
+            double high = maxCargo() + 1.0;
+            chosen = new boolean[ships.size];
+            for (int step = 0; step < LAMBDA_STEPS; step++) {
+                if (isTimedOut()) {
+                    return null;
+                }
+                double lambda = (low + high) / 2;
+                boolean[] candidate = top(lambda, k);
+                long candidateCrew = crew(candidate);
+                bound = Math.min(bound, cargo(candidate) + lambda * (crewLimit - candidateCrew));
+                if (candidateCrew <= crewLimit) {
+                    high = lambda;
+                    chosen = candidate;
+                } else {
+                    low = lambda;
+                }
+            }
+        }
+        if (bound < target - 1) {
+            infeasibleCount.accumulateAndGet(k, Math::max);
+            return null;
+        }
+        raiseCargo(chosen, k);
+        return cargo(chosen) >= target ? dropRedundant(chosen) : null;
+    }
+
+    /**
+     * Выбирает не больше k кораблей с наибольшей положительной оценкой
+     * {@code displacement - lambda·crewSize}.
+     */
+    private boolean[] top(double lambda, int k) {
+        int n = ships.size;
+        double[] scores = new double[n];
+        int positive = 0;
+        for (int i = 0; i < n; i++) {
+            double score = ships.capacity[i] - lambda * ships.crew[i];
+            if (score > 0) {
+                scores[positive++] = score;
+            }
+        }
+        boolean[] chosen = new boolean[n];
+        double threshold = positive <= k ? 0 : kthLargest(scores, positive, k);
+        int taken = 0;
+        for (int i = 0; i < n; i++) {
+            double score = ships.capacity[i] - lambda * ships.crew[i];
+            if (score > threshold && score > 0) {
+                chosen[i] = true;
+                taken++;
+            }
+        }
+        for (int i = 0; i < n && taken < k && positive > k; i++) {
+            if (!chosen[i] && ships.capacity[i] - lambda * ships.crew[i] == threshold) {
+                chosen[i] = true;
+                taken++;
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * Увеличивает грузоподъемность набора обменами и добавлениями кораблей, не превышая
+     * экипаж и количество k: на каждом шаге выполняется изменение с наибольшим приростом.
+     */
+    private void raiseCargo(boolean[] chosen, int k) {
+        int n = ships.size;
+        int[] free = new int[n];
+        int[] freeCrew = new int[n];
+        int[] bestFree = new int[n];
+        long cargo = cargo(chosen);
+        long crew = crew(chosen);
+        int count = count(chosen);
+        for (int exchange = 0; exchange < k + EXTRA_EXCHANGES && cargo < target && !isTimedOut(); exchange++) {
+            int m = 0;
+            for (int ship : byCrew) {
+                if (!chosen[ship]) {
+                    free[m] = ship;
+                    freeCrew[m] = ships.crew[ship];
+                    bestFree[m] = m == 0 || ships.capacity[ship] > ships.capacity[free[bestFree[m - 1]]]
+                            ? m : bestFree[m - 1];
+                    m++;
+                }
+            }
+            long slack = crewLimit - crew;
+            long bestGain = 0;
+            int out = -1;
+            int in = -1;
+            if (count < k) {
+                int fitting = countAtMost(freeCrew, m, slack);
+                if (fitting > 0) {
+                    in = free[bestFree[fitting - 1]];
+                    bestGain = ships.capacity[in];
+                }
+            }
+            for (int ship = 0; ship < n; ship++) {
+                if (chosen[ship]) {
+                    int fitting = countAtMost(freeCrew, m, ships.crew[ship] + slack);
+                    if (fitting > 0) {
+                        int candidate = free[bestFree[fitting - 1]];
+                        long gain = (long) ships.capacity[candidate] - ships.capacity[ship];
+                        if (gain > bestGain) {
+                            bestGain = gain;
+                            out = ship;
+                            in = candidate;
+                        }
+                    }
+                }
+            }
+            if (in < 0) {
+                return;
+            }
+            if (out >= 0) {
+                chosen[out] = false;
+                cargo -= ships.capacity[out];
+                crew -= ships.crew[out];
+                count--;
+            }
+            chosen[in] = true;
+            cargo += ships.capacity[in];
+            crew += ships.crew[in];
+            count++;
+        }
+    }
+
+    /**
+     * Уменьшает экипаж покрывающего набора обменами кораблей без потери покрытия груза.
+     */
+    private boolean[] reduceCrew(boolean[] chosen) {
+        int n = ships.size;
+        int[] free = new int[n];
+        int[] freeCargo = new int[n];
+        int[] leastCrew = new int[n + 1];
+        long cargo = cargo(chosen);
+        int count = count(chosen);
+        for (int exchange = 0; exchange < count + EXTRA_EXCHANGES && !isTimedOut(); exchange++) {
+            int m = 0;
+            for (int i = n - 1; i >= 0; i--) {
+                int ship = byCargo[i];
+                if (!chosen[ship]) {
+                    free[m] = ship;
+                    freeCargo[m] = ships.capacity[ship];
+                    m++;
+                }
+            }
+            leastCrew[m] = -1;
+            for (int i = m - 1; i >= 0; i--) {
+                leastCrew[i] = leastCrew[i + 1] < 0 || ships.crew[free[i]] < ships.crew[free[leastCrew[i + 1]]]
+                        ? i : leastCrew[i + 1];
+            }
+            long surplus = cargo - target;
+            long bestGain = 0;
+            int out = -1;
+            int in = -1;
+            for (int ship = 0; ship < n; ship++) {
+                if (chosen[ship]) {
+                    int from = m - countAtLeast(freeCargo, m, ships.capacity[ship] - surplus);
+                    if (from < m) {
+                        int candidate = free[leastCrew[from]];
+                        long gain = (long) ships.crew[ship] - ships.crew[candidate];
+                        if (gain > bestGain) {
+                            bestGain = gain;
+                            out = ship;
+                            in = candidate;
+                        }
+                    }
+                }
+            }
+            if (in < 0) {
+                break;
+            }
+            chosen[out] = false;
+            chosen[in] = true;
+            cargo += (long) ships.capacity[in] - ships.capacity[out];
+        }
+        return chosen;
+    }
+
+    /**
+     * Убирает из покрывающего набора корабли, без которых груз остается покрытым,
+     * начиная с наименее грузоподъемных.
+     */
+    private boolean[] dropRedundant(boolean[] chosen) {
+        long cargo = cargo(chosen);
+        for (int i = byCargo.length - 1; i >= 0 && cargo >= target; i--) {
+            int ship = byCargo[i];
+            if (chosen[ship] && cargo - ships.capacity[ship] >= target) {
+                chosen[ship] = false;
+                cargo -= ships.capacity[ship];
+            }
+        }
+        return chosen;
+    }
+
+    private int maxCargo() {
+        return ships.size == 0 ? 0 : ships.capacity[byCargo[0]];
+    }
+
+    private long cargo(boolean[] chosen) {
+        long total = 0;
+        for (int i = 0; i < chosen.length; i++) {
+            if (chosen[i]) {
+                total += ships.capacity[i];
+            }
+        }
+        return total;
+    }
+
+    private long crew(boolean[] chosen) {
+        long total = 0;
+        for (int i = 0; i < chosen.length; i++) {
+            if (chosen[i]) {
+                total += ships.crew[i];
+            }
+        }
+        return total;
+    }
+
+    private static int count(boolean[] chosen) {
+        int total = 0;
+        for (boolean value : chosen) {
+            if (value) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Возвращает количество элементов упорядоченного по возрастанию массива, не превышающих limit.
+     */
+    private static int countAtMost(int[] sorted, int size, long limit) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] <= limit) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Возвращает количество элементов упорядоченного по возрастанию массива, не меньших limit.
+     */
+    private static int countAtLeast(int[] sorted, int size, long limit) {
+        return size - countAtMost(sorted, size, limit - 1);
+    }
+
+    /**
+     * Возвращает k-е по убыванию значение среди первых count элементов, переставляя их.
+     */
+    private static double kthLargest(double[] values, int count, int k) {
+        int left = 0;
+        int right = count - 1;
+        int target = k - 1;
+        while (left < right) {
+            double pivot = values[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] > pivot) {
+                    i++;
+                }
+                while (values[j] < pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    double swap = values[i];
+                    values[i++] = values[j];
+                    values[j--] = swap;
+                }
+            }
+            if (target <= j) {
+                right = j;
+            } else if (target >= i) {
+                left = i;
+            } else {
+                return values[target];
+            }
+        }
+        return values[target];
+    }
+}
@@ -0,0 +1,165 @@
+package com.transport.service;
+
+import com.transport.validation.Violation;
+import com.transport.validation.Violations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Итог массовой загрузки: количество загруженных и отклоненных записей,
+ * число нарушений каждого вида и подробности по первым отклоненным записям.
+ */
+public class BulkLoadReport {
+    /**
+     * Сколько отклоненных записей сохраняется с подробностями.
+     */
+    public static final int MAX_REJECTION_SAMPLES = 100;
+    private static final Violation[] VIOLATIONS = Violation.values();
+
+    /**
+     * Отклоненная запись.
+     */
+    public static final class Rejection {
+        private final long recordNumber;
+        private final List<Violation> violations;
+
+        Rejection(long recordNumber, List<Violation> violations) {
+            this.recordNumber = recordNumber;
+            this.violations = Collections.unmodifiableList(violations);
+        }
+
+        /**
+         * Возвращает номер записи во входных данных, начиная с 1.
+         *
+         * @return номер записи
+         */
+        public long getRecordNumber() {
+            return recordNumber;
+        }
+
+        /**
+         * Возвращает нарушения записи.
+         *
+         * @return список нарушений
+         */
+        public List<Violation> getViolations() {
+            return violations;
+        }
+
+        /**
+         * Возвращает строковое представление отклоненной записи.
+         *
+         * @return номер записи и нарушения
+         */
+        @Override
+        public String toString() {
+            return "#" + recordNumber + " " + violations;
+        }
+    }
+
+    private final int[] violationCounts = new int[VIOLATIONS.length];
+    private final List<Rejection> samples = new ArrayList<>();
+    private long loaded;
+    private long rejected;
+
+    /**
+     * Учитывает загруженную запись.
+     */
+    void recordLoaded() {
+        loaded++;
+    }
+
+    /**
+     * Учитывает несколько загруженных записей.
+     *
+     * @param count количество записей
+     */
+    void recordLoaded(int count) {
+        loaded += count;
+    }
+
+    /**
+     * Учитывает отклоненную запись.
+     *
+     * @param recordNumber номер записи
+     * @param violations   нарушения записи
+     */
+    void recordRejected(long recordNumber, Violations violations) {
+        rejected++;
+        for (Violation violation : VIOLATIONS) {
+            if (violations.contains(violation)) {
+                violationCounts[violation.ordinal()]++;
+            }
+        }
+        if (samples.size() < MAX_REJECTION_SAMPLES) {
+            samples.add(new Rejection(recordNumber, violations.toList()));
+        }
+    }
+
+    /**
+     * Возвращает количество загруженных записей.
+     *
+     * @return количество записей
+     */
+    public long getLoadedCount() {
+        return loaded;
+    }
+
+    /**
+     * Возвращает количество отклоненных записей.
+     *
+     * @return количество записей
+     */
+    public long getRejectedCount() {
+        return rejected;
+    }
+
+    /**
+     * Возвращает число отклоненных записей с указанным нарушением.
+     *
+     * @param violation нарушение
+     * @return количество записей
+     */
+    public int getViolationCount(Violation violation) {
+        return violationCounts[violation.ordinal()];
+    }
+
+    /**
+     * Возвращает число записей по каждому встретившемуся нарушению.
+     *
+     * @return нарушения и количество записей
+     */
+    public Map<Violation, Integer> getViolationCounts() {
+        Map<Violation, Integer> counts = new EnumMap<>(Violation.class);
+        for (Violation violation : VIOLATIONS) {
+            if (violationCounts[violation.ordinal()] > 0) {
+                counts.put(violation, violationCounts[violation.ordinal()]);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Возвращает первые отклоненные записи с подробностями (не более {@link #MAX_REJECTION_SAMPLES}).
+     *
+     * @return отклоненные записи
+     */
+    public List<Rejection> getRejectionSamples() {
+        return Collections.unmodifiableList(samples);
+    }
+
+    /**
+     * Возвращает строковое представление итога загрузки.
+     *
+     * @return строковое представление
+     */
+    @Override
+    public String toString() {
+        return String.format("BulkLoadReport{loaded=%d, rejected=%d, violations=%s}",
+                loaded, rejected, getViolationCounts());
+    }
+}
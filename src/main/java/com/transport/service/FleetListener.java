@@ -0,0 +1,79 @@
+package com.transport.service;
+
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+
+import java.util.List;
+
+/**
+ * Слушатель изменений коллекции транспортных средств.
+ * Получает уведомления о добавлении, удалении и изменении полей транспорта в TransportService.
+ * Все методы имеют реализацию по умолчанию: уведомления пустые, а пакетное добавление
+ * сводится к {@link #onAdded(Transport)} для каждого транспортного средства.
+ */
+public interface FleetListener {
+
+    /**
+     * Вызывается после добавления транспортного средства в коллекцию.
+     *
+     * @param transport добавленное транспортное средство
+     */
+    default void onAdded(Transport transport) {
+    }
+
+    /**
+     * Подготавливает данные для {@link #onAddedAll(List, Object)}, например вычисляет ключи индекса.
+     * Вызывается до добавления пачки в коллекцию, параллельно для разных пачек и одновременно
+     * с другими уведомлениями, поэтому не должен менять состояние слушателя.
+     *
+     * @param batch транспортные средства, которые будут добавлены
+     * @return подготовленные данные или null
+     */
+    default Object prepareAdded(List<Transport> batch) {
+        return null;
+    }
+
+    /**
+     * Вызывается после добавления пачки транспортных средств в коллекцию.
+     *
+     * @param batch    добавленные транспортные средства в порядке добавления
+     * @param prepared результат {@link #prepareAdded(List)} для этой пачки или null
+     */
+    default void onAddedAll(List<Transport> batch, Object prepared) {
+        for (Transport transport : batch) {
+            onAdded(transport);
+        }
+    }
+
+    /**
+     * Вызывается после удаления транспортного средства из коллекции.
+     *
+     * @param transport удаленное транспортное средство
+     */
+    default void onRemoved(Transport transport) {
+    }
+
+    /**
+     * Вызывается после изменения поля транспортного средства, находящегося в коллекции.
+     *
+     * @param transport измененное транспортное средство
+     * @param field     измененное поле
+     * @param oldValue  предыдущее значение
+     * @param newValue  новое значение
+     */
+    default void onModified(Transport transport, TransportField field, Object oldValue, Object newValue) {
+    }
+
+    /**
+     * Сообщает, нужно ли доставлять уведомления слушателю под блокировкой изменений сервиса.
+     * Такой слушатель получает уведомления строго в порядке изменений, а снимок коллекции, взятый
+     * внутри уведомления, содержит ровно те изменения, о которых слушатель уже уведомлен. Это нужно
+     * слушателям, которые перестраивают свое состояние по снимку; остальные уведомления доставляются
+     * после снятия блокировки и не задерживают другие изменения.
+     *
+     * @return true если уведомления нужно доставлять под блокировкой изменений
+     */
+    default boolean isOrdered() {
+        return false;
+    }
+}
@@ -0,0 +1,47 @@
+package com.transport.service;
+
+import com.transport.model.Transport;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Неизменяемый снимок содержимого хранилища транспортных средств.
+ * Снимок можно обходить без блокировок параллельно с изменениями хранилища.
+ * После использования снимок нужно закрыть, чтобы хранилище могло освободить старые версии.
+ */
+public interface FleetSnapshot extends Iterable<Transport>, AutoCloseable {
+
+    /**
+     * Возвращает версию хранилища, зафиксированную снимком.
+     *
+     * @return версия хранилища
+     */
+    long getVersion();
+
+    /**
+     * Возвращает количество транспортных средств в снимке.
+     *
+     * @return количество элементов
+     */
+    int size();
+
+    /**
+     * Копирует содержимое снимка в новый список.
+     *
+     * @return список транспортных средств в порядке добавления
+     */
+    default List<Transport> toList() {
+        List<Transport> result = new ArrayList<>(size());
+        for (Transport transport : this) {
+            result.add(transport);
+        }
+        return result;
+    }
+
+    /**
+     * Освобождает снимок. Повторный вызов ничего не делает.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,116 @@
+package com.transport.service;
+
+import com.transport.model.Transport;
+import com.transport.model.TransportChangeListener;
+import com.transport.model.TransportField;
+
+import java.util.List;
+
+/**
+ * Хранилище транспортных средств, которое использует TransportService.
+ * Элементы упорядочены по времени добавления; индексы считаются только по живым элементам.
+ */
+public interface FleetStore {
+
+    /**
+     * Добавляет транспортное средство в конец хранилища.
+     *
+     * @param transport транспортное средство для добавления
+     */
+    void add(Transport transport);
+
+    /**
+     * Добавляет транспортные средства в конец хранилища в порядке списка.
+     *
+     * @param batch транспортные средства для добавления
+     */
+    default void addAll(List<Transport> batch) {
+        for (Transport transport : batch) {
+            add(transport);
+        }
+    }
+
+    /**
+     * Удаляет транспортное средство по индексу.
+     *
+     * @param index индекс удаляемого элемента
+     * @return удаленное транспортное средство
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    Transport remove(int index);
+
+    /**
+     * Удаляет транспортное средство по идентификатору.
+     *
+     * @param id идентификатор транспортного средства
+     * @return удаленное транспортное средство или null, если оно не найдено
+     */
+    Transport removeById(long id);
+
+    /**
+     * Ищет транспортное средство по идентификатору.
+     *
+     * @param id идентификатор транспортного средства
+     * @return найденное транспортное средство или null
+     */
+    Transport findById(long id);
+
+    /**
+     * Возвращает транспортное средство по индексу.
+     *
+     * @param index индекс элемента
+     * @return транспортное средство
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    Transport get(int index);
+
+    /**
+     * Возвращает количество транспортных средств в хранилище.
+     *
+     * @return количество элементов
+     */
+    int size();
+
+    /**
+     * Создает согласованный снимок содержимого хранилища.
+     * Снимок не меняется при последующих добавлениях и удалениях и должен быть закрыт после использования.
+     *
+     * @return снимок хранилища
+     */
+    FleetSnapshot snapshot();
+
+    /**
+     * Сообщает хранилищу об изменении поля транспортного средства, которое в нем находится.
+     * Хранилища, которые держат сами объекты, ничего не делают: сервис снимает слушатель
+     * с удаленных объектов, поэтому изменение всегда относится к хранимому транспорту.
+     * Хранилища, которые хранят копии полей, переписывают значение, если транспорт с таким
+     * идентификатором еще хранится, и иначе сообщают, что изменена устаревшая копия.
+     *
+     * @param transport измененное транспортное средство
+     * @param field     измененное поле
+     * @param newValue  новое значение
+     * @return false если транспортное средство с таким идентификатором в хранилище нет
+     */
+    default boolean fieldChanged(Transport transport, TransportField field, Object newValue) {
+        return true;
+    }
+
+    /**
+     * Задает слушатель, который хранилище устанавливает на транспортные средства,
+     * создаваемые им при чтении. Хранилища, которые возвращают сами объекты, ничего не делают.
+     *
+     * @param listener слушатель изменений полей
+     */
+    default void attachChangeListener(TransportChangeListener listener) {
+    }
+
+    /**
+     * Сообщает, возвращает ли хранилище при чтении копии вместо самих объектов.
+     * Копии, сохраненные вне хранилища, не видят последующих изменений полей.
+     *
+     * @return true если чтение создает копии
+     */
+    default boolean returnsCopies() {
+        return false;
+    }
+}
@@ -0,0 +1,412 @@
+package com.transport.service;
+
+import com.transport.model.Transport;
+import com.transport.monitoring.BulkLoadEvent;
+import com.transport.monitoring.FleetOperation;
+import com.transport.monitoring.OperationStats;
+import com.transport.validation.TransportRecordParser;
+import com.transport.validation.Violation;
+import com.transport.validation.Violations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Массовая загрузка текстовых записей конвейером из стадий {@link IngestStage}: разбор с проверкой
+ * и созданием объектов, подготовка данных индексов и добавление в коллекцию. Каждая стадия работает
+ * на своем ограниченном пуле потоков, а стадии передают друг другу пачки по {@code batchSize} записей
+ * через ограниченные очереди. Формат записей и отчет о загрузке те же, что у
+ * {@link TransportService#bulkLoad(Iterable)}.
+ * <p>
+ * Разбор и подготовка индексов обрабатывают пачки в любом порядке, а добавление восстанавливает
+ * исходный: коллекция получает транспорт в порядке записей одной записью в хранилище на пачку,
+ * и отчет совпадает с отчетом последовательной загрузки. Идентификаторы выдаются при создании
+ * объектов в потоках разбора и не обязательно возрастают в порядке записей.
+ * <p>
+ * Ввод читает отдельный поток, и число пачек в обработке ограничено, поэтому источник может быть
+ * ленивым (например, строки большого файла), а память конвейера не зависит от объема ввода.
+ * Добавление в хранилище и обновление индексов остаются последовательными: скорость загрузки
+ * ограничена стадией с наибольшей занятостью, которую показывает {@link IngestReport}.
+ * <pre>
+ * try (IngestPipeline pipeline = new IngestPipeline(service)) {
+ *     IngestReport report = pipeline.load(Files.readAllLines(path));
+ * }
+ * </pre>
+ * Экземпляр владеет пулами потоков и должен быть закрыт; загрузки выполняются по одной.
+ */
+public class IngestPipeline implements AutoCloseable {
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+    private static final int QUEUED_BATCHES_PER_WORKER = 2;
+    private static final Batch END = new Batch(-1, 0, new String[0], 0);
+
+    /**
+     * Пачка записей, которая проходит все стадии.
+     */
+    private static final class Batch {
+        final long sequence;
+        final long firstRecordNumber;
+        final int size;
+        String[] records;
+        List<Transport> loaded;
+        long[] rejectedNumbers;
+        Violations[] rejectedViolations;
+        int rejectedCount;
+        Map<FleetListener, Object> prepared;
+
+        Batch(long sequence, long firstRecordNumber, String[] records, int size) {
+            this.sequence = sequence;
+            this.firstRecordNumber = firstRecordNumber;
+            this.records = records;
+            this.size = size;
+        }
+
+        void reject(long recordNumber, Violations violations) {
+            if (rejectedNumbers == null) {
+                rejectedNumbers = new long[4];
+                rejectedViolations = new Violations[4];
+            } else if (rejectedCount == rejectedNumbers.length) {
+                rejectedNumbers = Arrays.copyOf(rejectedNumbers, rejectedCount * 2);
+                rejectedViolations = Arrays.copyOf(rejectedViolations, rejectedCount * 2);
+            }
+            Violations copy = new Violations();
+            for (Violation violation : violations.toList()) {
+                copy.add(violation);
+            }
+            rejectedNumbers[rejectedCount] = recordNumber;
+            rejectedViolations[rejectedCount++] = copy;
+        }
+    }
+
+    /**
+     * Входная очередь и показатели стадии в одной загрузке.
+     */
+    private static final class Stage {
+        final IngestStage kind;
+        final int workers;
+        final int capacity;
+        final BlockingQueue<Batch> queue;
+        final AtomicInteger running;
+        final LongAdder records = new LongAdder();
+        final LongAdder batches = new LongAdder();
+        final LongAdder busyNanos = new LongAdder();
+        final LongAdder depthSum = new LongAdder();
+        final LongAdder depthSamples = new LongAdder();
+        final AtomicInteger maxDepth = new AtomicInteger();
+
+        Stage(IngestStage kind, int workers, int capacity) {
+            this.kind = kind;
+            this.workers = workers;
+            this.capacity = capacity;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.running = new AtomicInteger(workers);
+        }
+
+        void put(Batch batch) throws InterruptedException {
+            queue.put(batch);
+            if (batch != END) {
+                int depth = queue.size();
+                depthSum.add(depth);
+                depthSamples.increment();
+                maxDepth.accumulateAndGet(depth, Math::max);
+            }
+        }
+
+        void processed(Batch batch, long start) {
+            busyNanos.add(System.nanoTime() - start);
+            batches.increment();
+            records.add(batch.size);
+        }
+
+        IngestStageStats stats(long elapsedNanos) {
+            long samples = depthSamples.sum();
+            return new IngestStageStats(kind, workers, records.sum(), batches.sum(), busyNanos.sum(), elapsedNanos,
+                    capacity, samples == 0 ? 0 : (double) depthSum.sum() / samples, maxDepth.get());
+        }
+    }
+
+    /**
+     * Состояние одной загрузки.
+     */
+    private final class Run {
+        final Stage parse = new Stage(IngestStage.PARSE, parseWorkers, parseWorkers * QUEUED_BATCHES_PER_WORKER);
+        final Stage index = new Stage(IngestStage.INDEX, indexWorkers, indexWorkers * QUEUED_BATCHES_PER_WORKER);
+        final Stage commit = new Stage(IngestStage.COMMIT, 1, indexWorkers * QUEUED_BATCHES_PER_WORKER);
+        final Semaphore inFlight = new Semaphore(
+                parse.capacity + index.capacity + commit.capacity + parseWorkers + indexWorkers + 1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        void fail(Throwable cause) {
+            failure.compareAndSet(null, cause);
+        }
+
+        boolean failed() {
+            return failure.get() != null;
+        }
+    }
+
+    private final TransportService service;
+    private final int parseWorkers;
+    private final int indexWorkers;
+    private final int batchSize;
+    private final ExecutorService parsePool;
+    private final ExecutorService indexPool;
+
+    /**
+     * Создает конвейер, который делит доступные процессоры поровну между разбором записей
+     * и подготовкой индексов.
+     *
+     * @param service сервис транспортных средств
+     */
+    public IngestPipeline(TransportService service) {
+        this(service, Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Создает конвейер.
+     *
+     * @param service      сервис транспортных средств
+     * @param parseWorkers количество потоков разбора
+     * @param indexWorkers количество потоков подготовки индексов
+     * @param batchSize    количество записей в пачке
+     * @throws IllegalArgumentException если количество потоков или размер пачки не положительны
+     */
+    public IngestPipeline(TransportService service, int parseWorkers, int indexWorkers, int batchSize) {
+        if (parseWorkers <= 0 || indexWorkers <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Недопустимые параметры: потоков разбора %d, потоков индексов %d, размер пачки %d",
+                    parseWorkers, indexWorkers, batchSize));
+        }
+        this.service = Objects.requireNonNull(service, "service");
+        this.parseWorkers = parseWorkers;
+        this.indexWorkers = indexWorkers;
+        this.batchSize = batchSize;
+        this.parsePool = Executors.newFixedThreadPool(parseWorkers, daemonThreads("ingest-parse-"));
+        this.indexPool = Executors.newFixedThreadPool(indexWorkers, daemonThreads("ingest-index-"));
+    }
+
+    /**
+     * Загружает транспортные средства из текстовых записей. Некорректные записи пропускаются,
+     * а их нарушения попадают в отчет. Добавление выполняется в вызывающем потоке.
+     *
+     * @param records текстовые записи
+     * @return отчет о загрузке и показатели стадий
+     * @throws IllegalStateException если загрузка прервана
+     */
+    public synchronized IngestReport load(Iterable<String> records) {
+        Objects.requireNonNull(records, "records");
+        OperationStats stats = service.getMetrics().get(FleetOperation.BULK_LOAD);
+        long start = stats.start();
+        long startNanos = System.nanoTime();
+        BulkLoadEvent event = new BulkLoadEvent();
+        event.begin();
+        Run run = new Run();
+        for (int i = 0; i < parseWorkers; i++) {
+            parsePool.execute(() -> parseWorker(run));
+        }
+        for (int i = 0; i < indexWorkers; i++) {
+            indexPool.execute(() -> forward(run, run.index, run.commit,
+                    batch -> batch.prepared = service.prepareAdded(batch.loaded)));
+        }
+        Thread reader = new Thread(() -> read(run, records), "ingest-reader");
+        reader.setDaemon(true);
+        reader.start();
+        BulkLoadReport report = new BulkLoadReport();
+        boolean interrupted = commitAll(run, report);
+        long elapsedNanos = System.nanoTime() - startNanos;
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        Throwable failure = run.failure.get();
+        if (failure != null) {
+            stats.recordError();
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            throw (RuntimeException) failure;
+        }
+        if (event.shouldCommit()) {
+            event.loaded = report.getLoadedCount();
+            event.rejected = report.getRejectedCount();
+            event.commit();
+        }
+        stats.stop(start);
+        Map<IngestStage, IngestStageStats> stages = new EnumMap<>(IngestStage.class);
+        for (Stage stage : new Stage[]{run.parse, run.index, run.commit}) {
+            stages.put(stage.kind, stage.stats(elapsedNanos));
+        }
+        return new IngestReport(report, stages, elapsedNanos);
+    }
+
+    /**
+     * Останавливает потоки конвейера, дождавшись выполняемой загрузки.
+     */
+    @Override
+    public synchronized void close() {
+        parsePool.shutdown();
+        indexPool.shutdown();
+    }
+
+    /**
+     * Читает ввод и передает пачки на разбор. В конце всегда передает признак {@link #END}
+     * каждому потоку разбора.
+     */
+    private void read(Run run, Iterable<String> records) {
+        try {
+            Iterator<String> iterator = records.iterator();
+            long sequence = 0;
+            long recordNumber = 1;
+            while (!run.failed() && iterator.hasNext()) {
+                String[] chunk = new String[batchSize];
+                int count = 0;
+                while (count < batchSize && iterator.hasNext()) {
+                    chunk[count++] = iterator.next();
+                }
+                run.inFlight.acquire();
+                run.parse.put(new Batch(sequence++, recordNumber, chunk, count));
+                recordNumber += count;
+            }
+        } catch (RuntimeException | Error e) {
+            run.fail(e);
+        } catch (InterruptedException e) {
+            run.fail(new IllegalStateException("Загрузка прервана", e));
+        }
+        try {
+            for (int i = 0; i < parseWorkers; i++) {
+                run.parse.put(END);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void parseWorker(Run run) {
+        TransportRecordParser parser = new TransportRecordParser();
+        Violations violations = new Violations();
+        forward(run, run.parse, run.index, batch -> {
+            List<Transport> loaded = new ArrayList<>(batch.size);
+            for (int i = 0; i < batch.size; i++) {
+                Transport transport = parser.parse(batch.records[i], violations);
+                if (transport == null) {
+                    batch.reject(batch.firstRecordNumber + i, violations);
+                } else {
+                    loaded.add(transport);
+                }
+            }
+            batch.records = null;
+            batch.loaded = loaded;
+        });
+    }
+
+    /**
+     * Обрабатывает пачки из очереди стадии и передает их следующей. Последний завершившийся поток
+     * стадии передает признак {@link #END} каждому потоку следующей. После сбоя пачки отбрасываются,
+     * чтобы конвейер опустел и признак конца дошел до добавления.
+     */
+    private void forward(Run run, Stage from, Stage to, Consumer<Batch> step) {
+        try {
+            for (Batch batch = from.queue.take(); batch != END; batch = from.queue.take()) {
+                if (run.failed()) {
+                    run.inFlight.release();
+                    continue;
+                }
+                long start = System.nanoTime();
+                try {
+                    step.accept(batch);
+                } catch (RuntimeException | Error e) {
+                    run.fail(e);
+                    run.inFlight.release();
+                    continue;
+                }
+                from.processed(batch, start);
+                to.put(batch);
+            }
+            if (from.running.decrementAndGet() == 0) {
+                for (int i = 0; i < to.workers; i++) {
+                    to.put(END);
+                }
+            }
+        } catch (InterruptedException e) {
+            run.fail(new IllegalStateException("Загрузка прервана", e));
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Добавляет пачки в коллекцию в порядке записей, пока не придет признак конца.
+     *
+     * @return true если вызывающий поток был прерван
+     */
+    private boolean commitAll(Run run, BulkLoadReport report) {
+        Map<Long, Batch> pending = new HashMap<>();
+        long next = 0;
+        boolean interrupted = false;
+        while (true) {
+            Batch batch;
+            try {
+                batch = run.commit.queue.take();
+            } catch (InterruptedException e) {
+                interrupted = true;
+                run.fail(new IllegalStateException("Загрузка прервана", e));
+                continue;
+            }
+            if (batch == END) {
+                return interrupted;
+            }
+            pending.put(batch.sequence, batch);
+            if (run.failed()) {
+                run.inFlight.release(pending.size());
+                pending.clear();
+                continue;
+            }
+            for (Batch ready = pending.remove(next); ready != null; ready = pending.remove(next)) {
+                next++;
+                if (!run.failed()) {
+                    long start = System.nanoTime();
+                    try {
+                        commit(ready, report);
+                        run.commit.processed(ready, start);
+                    } catch (RuntimeException | Error e) {
+                        run.fail(e);
+                    }
+                }
+                run.inFlight.release();
+            }
+        }
+    }
+
+    private void commit(Batch batch, BulkLoadReport report) {
+        for (int i = 0; i < batch.rejectedCount; i++) {
+            report.recordRejected(batch.rejectedNumbers[i], batch.rejectedViolations[i]);
+        }
+        if (!batch.loaded.isEmpty()) {
+            service.addPrepared(batch.loaded, batch.prepared);
+            report.recordLoaded(batch.loaded.size());
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.transport.service;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Итог загрузки через {@link IngestPipeline}: отчет о загруженных и отклоненных записях
+ * и показатели каждой стадии конвейера.
+ */
+public final class IngestReport {
+    private final BulkLoadReport load;
+    private final Map<IngestStage, IngestStageStats> stages;
+    private final long elapsedNanos;
+
+    IngestReport(BulkLoadReport load, Map<IngestStage, IngestStageStats> stages, long elapsedNanos) {
+        this.load = load;
+        this.stages = Collections.unmodifiableMap(new EnumMap<>(stages));
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Возвращает отчет о загруженных и отклоненных записях.
+     *
+     * @return отчет о загрузке
+     */
+    public BulkLoadReport getLoadReport() {
+        return load;
+    }
+
+    /**
+     * Возвращает показатели стадии.
+     *
+     * @param stage стадия
+     * @return показатели стадии
+     */
+    public IngestStageStats getStageStats(IngestStage stage) {
+        return stages.get(stage);
+    }
+
+    /**
+     * Возвращает показатели всех стадий в порядке прохождения записей.
+     *
+     * @return стадии и их показатели
+     */
+    public Map<IngestStage, IngestStageStats> getStageStats() {
+        return stages;
+    }
+
+    /**
+     * Возвращает время загрузки.
+     *
+     * @return время в наносекундах
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Возвращает скорость загрузки по всем записям, включая отклоненные.
+     *
+     * @return записей в секунду
+     */
+    public double getRecordsPerSecond() {
+        long records = load.getLoadedCount() + load.getRejectedCount();
+        return elapsedNanos == 0 ? 0 : records * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Возвращает строковое представление итога загрузки.
+     *
+     * @return строковое представление
+     */
+    @Override
+    public String toString() {
+        return String.format("IngestReport{%s, recordsPerSecond=%.0f, stages=%s}", load, getRecordsPerSecond(),
+                stages.values());
+    }
+}
@@ -0,0 +1,19 @@
+package com.transport.service;
+
+/**
+ * Стадия конвейера массовой загрузки {@link IngestPipeline}.
+ */
+public enum IngestStage {
+    /**
+     * Разбор записей, проверка значений и создание объектов транспорта. Выполняется параллельно.
+     */
+    PARSE,
+    /**
+     * Подготовка данных индексов для пачки, например триграмм и хешей фильтров. Выполняется параллельно.
+     */
+    INDEX,
+    /**
+     * Добавление пачек в коллекцию и обновление индексов в порядке записей. Выполняется в одном потоке.
+     */
+    COMMIT
+}
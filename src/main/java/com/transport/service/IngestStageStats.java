@@ -0,0 +1,141 @@
+package com.transport.service;
+
+/**
+ * Показатели одной стадии конвейера массовой загрузки за одну загрузку.
+ */
+public final class IngestStageStats {
+    private final IngestStage stage;
+    private final int workers;
+    private final long records;
+    private final long batches;
+    private final long busyNanos;
+    private final long elapsedNanos;
+    private final int queueCapacity;
+    private final double averageQueueDepth;
+    private final int maxQueueDepth;
+
+    IngestStageStats(IngestStage stage, int workers, long records, long batches, long busyNanos, long elapsedNanos,
+                     int queueCapacity, double averageQueueDepth, int maxQueueDepth) {
+        this.stage = stage;
+        this.workers = workers;
+        this.records = records;
+        this.batches = batches;
+        this.busyNanos = busyNanos;
+        this.elapsedNanos = elapsedNanos;
+        this.queueCapacity = queueCapacity;
+        this.averageQueueDepth = averageQueueDepth;
+        this.maxQueueDepth = maxQueueDepth;
+    }
+
+    /**
+     * Возвращает стадию.
+     *
+     * @return стадия
+     */
+    public IngestStage getStage() {
+        return stage;
+    }
+
+    /**
+     * Возвращает количество потоков стадии.
+     *
+     * @return количество потоков
+     */
+    public int getWorkerCount() {
+        return workers;
+    }
+
+    /**
+     * Возвращает количество записей, прошедших через стадию.
+     *
+     * @return количество записей
+     */
+    public long getRecordCount() {
+        return records;
+    }
+
+    /**
+     * Возвращает количество пачек, прошедших через стадию.
+     *
+     * @return количество пачек
+     */
+    public long getBatchCount() {
+        return batches;
+    }
+
+    /**
+     * Возвращает суммарное по потокам время обработки пачек.
+     *
+     * @return время в наносекундах
+     */
+    public long getBusyNanos() {
+        return busyNanos;
+    }
+
+    /**
+     * Возвращает пропускную способность стадии за время загрузки.
+     *
+     * @return записей в секунду
+     */
+    public double getRecordsPerSecond() {
+        return elapsedNanos == 0 ? 0 : records * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Возвращает пропускную способность, которую стадия показала бы без ожидания соседних стадий.
+     *
+     * @return записей в секунду при полной занятости всех потоков стадии
+     */
+    public double getCapacityPerSecond() {
+        return busyNanos == 0 ? 0 : records * 1e9 * workers / busyNanos;
+    }
+
+    /**
+     * Возвращает долю времени загрузки, которую потоки стадии были заняты обработкой.
+     * Стадия с занятостью, близкой к 1, ограничивает скорость всего конвейера.
+     *
+     * @return занятость от 0 до 1
+     */
+    public double getUtilization() {
+        return elapsedNanos == 0 ? 0 : Math.min(1, (double) busyNanos / workers / elapsedNanos);
+    }
+
+    /**
+     * Возвращает емкость входной очереди стадии.
+     *
+     * @return количество пачек
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Возвращает среднюю длину входной очереди стадии в момент постановки пачки.
+     *
+     * @return количество пачек
+     */
+    public double getAverageQueueDepth() {
+        return averageQueueDepth;
+    }
+
+    /**
+     * Возвращает наибольшую длину входной очереди стадии.
+     *
+     * @return количество пачек
+     */
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    /**
+     * Возвращает строковое представление показателей стадии.
+     *
+     * @return строковое представление
+     */
+    @Override
+    public String toString() {
+        return String.format("%s{workers=%d, records=%d, recordsPerSecond=%.0f, utilization=%.2f, "
+                        + "queueDepth=%.1f/%d (max %d)}", stage, workers, records, getRecordsPerSecond(),
+                getUtilization(), averageQueueDepth, queueCapacity, maxQueueDepth);
+    }
+}
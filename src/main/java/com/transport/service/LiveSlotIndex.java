@@ -0,0 +1,78 @@
+package com.transport.service;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Дерево Фенвика над позициями хранилища: хранит количество живых элементов на префиксах
+ * и позволяет за O(log n) найти позицию живого элемента по его индексу.
+ * Не потокобезопасно; хранилища используют его под своей блокировкой записи.
+ */
+final class LiveSlotIndex {
+    private int[] tree;
+
+    LiveSlotIndex(int capacity) {
+        this.tree = new int[capacity + 1];
+    }
+
+    /**
+     * Возвращает количество позиций, которые покрывает индекс.
+     *
+     * @return емкость индекса
+     */
+    int capacity() {
+        return tree.length - 1;
+    }
+
+    /**
+     * Изменяет количество живых элементов в позиции.
+     *
+     * @param slot  позиция
+     * @param delta 1 при добавлении элемента, -1 при удалении
+     */
+    void increment(int slot, int delta) {
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Находит позицию живого элемента по его индексу среди живых.
+     *
+     * @param index индекс среди живых элементов
+     * @return позиция в хранилище
+     */
+    int select(int index) {
+        int position = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(capacity()); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < tree.length && tree[next] < remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Перестраивает индекс за O(n) под новую емкость.
+     *
+     * @param capacity новая емкость
+     * @param count    количество занятых позиций
+     * @param live     проверка, жив ли элемент в позиции
+     */
+    void rebuild(int capacity, int count, IntPredicate live) {
+        tree = new int[capacity + 1];
+        for (int slot = 0; slot < count; slot++) {
+            if (live.test(slot)) {
+                tree[slot + 1]++;
+            }
+        }
+        for (int i = 1; i < tree.length; i++) {
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.transport.service;
+
+import java.util.Arrays;
+
+/**
+ * Хеш-таблица с открытой адресацией из положительных long-ключей в int-значения.
+ * Хранит данные в двух примитивных массивах и не создает объектов на каждую запись,
+ * поэтому не нагружает сборщик мусора даже при десятках миллионов ключей.
+ * Не потокобезопасна.
+ */
+public final class LongIntHashMap {
+    private static final long EMPTY = 0;
+    private static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int resizeThreshold;
+
+    /**
+     * Создает пустую таблицу.
+     *
+     * @param expectedSize ожидаемое количество ключей
+     */
+    public LongIntHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Возвращает значение по ключу.
+     *
+     * @param key положительный ключ
+     * @return значение или -1, если ключ отсутствует
+     */
+    public int get(long key) {
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            long current = keys[i];
+            if (current == key) {
+                return values[i];
+            }
+            if (current == EMPTY) {
+                return MISSING;
+            }
+        }
+    }
+
+    /**
+     * Записывает значение по ключу, заменяя предыдущее.
+     *
+     * @param key   положительный ключ
+     * @param value значение
+     */
+    public void put(long key, int value) {
+        if (size >= resizeThreshold) {
+            rehash(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            long current = keys[i];
+            if (current == key) {
+                values[i] = value;
+                return;
+            }
+            if (current == EMPTY) {
+                keys[i] = key;
+                values[i] = value;
+                size++;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Удаляет ключ и сдвигает следующие за ним элементы цепочки пробирования.
+     *
+     * @param key положительный ключ
+     * @return удаленное значение или -1, если ключ отсутствовал
+     */
+    public int remove(long key) {
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (keys[i] != key) {
+            if (keys[i] == EMPTY) {
+                return MISSING;
+            }
+            i = (i + 1) & mask;
+        }
+        int removed = values[i];
+        int gap = i;
+        for (int j = (gap + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = mix(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = EMPTY;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Удаляет все ключи.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    /**
+     * Возвращает количество ключей.
+     *
+     * @return количество ключей
+     */
+    public int size() {
+        return size;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        size = 0;
+        resizeThreshold = capacity / 4 * 3;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 4 / 3 + 1) - 1) << 1;
+        return Math.max(16, capacity);
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,740 @@
+package com.transport.service;
+
+import com.transport.model.Airplane;
+import com.transport.model.Car;
+import com.transport.model.RestoredTransports;
+import com.transport.model.Ship;
+import com.transport.model.Transport;
+import com.transport.model.TransportChangeListener;
+import com.transport.model.TransportField;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Хранилище транспортных средств вне кучи.
+ * <p>
+ * Каждое транспортное средство хранится записью фиксированной длины в блоках прямой памяти
+ * (ByteBuffer.allocateDirect), а строки - в отдельной области вне кучи (OffHeapStringArena).
+ * В куче остаются только примитивные массивы индексов, поэтому сборщику мусора не нужно
+ * обходить десятки миллионов объектов транспорта.
+ * <p>
+ * Чтение по индексу, идентификатору и через снимок создает временную копию объекта;
+ * изменения полей копии записываются обратно в хранилище через TransportService.
+ * Для обхода без создания объектов служит {@link #forEach(Consumer)} с переиспользуемым {@link View}.
+ * <p>
+ * Добавление и удаление выполняются под блокировкой записи, чтение и запись значений полей -
+ * под блокировкой чтения. Снимок удерживает блокировку чтения до закрытия и должен быть
+ * закрыт в том же потоке, в котором создан.
+ */
+public class OffHeapFleetStore implements FleetStore, AutoCloseable {
+    static final int RECORD_SIZE = 56;
+
+    private static final int CHUNK_SHIFT = 16;
+    private static final int RECORDS_PER_CHUNK = 1 << CHUNK_SHIFT;
+    private static final int MIN_HOLES_TO_COMPACT = 1024;
+
+    private static final int KIND = 0;
+    private static final int MAX_SPEED = 4;
+    private static final int ID = 8;
+    private static final int NAME = 16;
+    private static final int MANUFACTURER = 24;
+    private static final int INT_A = 32;
+    private static final int INT_B = 36;
+    private static final int REF_C = 40;
+    private static final int REF_D = 48;
+
+    private static final byte FREE = 0;
+    private static final byte TRANSPORT = 1;
+    private static final byte AIRPLANE = 2;
+    private static final byte CAR = 3;
+    private static final byte SHIP = 4;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private final LongIntHashMap slotsById = new LongIntHashMap(RECORDS_PER_CHUNK);
+    private final LiveSlotIndex liveSlots = new LiveSlotIndex(RECORDS_PER_CHUNK);
+    private final Object stringLock = new Object();
+    private OffHeapStringArena strings = new OffHeapStringArena();
+    private volatile TransportChangeListener changeListener;
+    private int count;
+    private volatile int liveCount;
+
+    /**
+     * Записывает транспортное средство в конец хранилища.
+     *
+     * @param transport транспортное средство для добавления
+     */
+    @Override
+    public void add(Transport transport) {
+        lock.writeLock().lock();
+        try {
+            int slot = count;
+            if (slot == chunks.size() * RECORDS_PER_CHUNK) {
+                chunks.add(ByteBuffer.allocateDirect(RECORDS_PER_CHUNK * RECORD_SIZE));
+            }
+            if (slot == liveSlots.capacity()) {
+                liveSlots.rebuild(liveSlots.capacity() * 2, count, this::isLive);
+            }
+            write(slot, transport);
+            slotsById.put(transport.getId(), slot);
+            liveSlots.increment(slot, 1);
+            count++;
+            liveCount++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удаляет транспортное средство по индексу.
+     *
+     * @param index индекс удаляемого элемента
+     * @return копия удаленного транспортного средства
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    @Override
+    public Transport remove(int index) {
+        lock.writeLock().lock();
+        try {
+            checkIndex(index);
+            int slot = slotOf(index);
+            Transport removed = materialize(slot);
+            free(slot);
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удаляет транспортное средство по идентификатору.
+     *
+     * @param id идентификатор транспортного средства
+     * @return копия удаленного транспортного средства или null, если оно не найдено
+     */
+    @Override
+    public Transport removeById(long id) {
+        lock.writeLock().lock();
+        try {
+            int slot = slotsById.get(id);
+            if (slot < 0) {
+                return null;
+            }
+            Transport removed = materialize(slot);
+            free(slot);
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ищет транспортное средство по идентификатору.
+     *
+     * @param id идентификатор транспортного средства
+     * @return копия найденного транспортного средства или null
+     */
+    @Override
+    public Transport findById(long id) {
+        lock.readLock().lock();
+        try {
+            int slot = slotsById.get(id);
+            return slot < 0 ? null : materialize(slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает копию транспортного средства по индексу.
+     *
+     * @param index индекс элемента
+     * @return копия транспортного средства
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    @Override
+    public Transport get(int index) {
+        lock.readLock().lock();
+        try {
+            checkIndex(index);
+            return materialize(slotOf(index));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает количество транспортных средств.
+     *
+     * @return количество элементов
+     */
+    @Override
+    public int size() {
+        return liveCount;
+    }
+
+    /**
+     * Создает снимок, удерживающий блокировку чтения до закрытия.
+     * Пока снимок открыт, добавление и удаление ждут; изменения полей выполняются.
+     *
+     * @return снимок хранилища
+     */
+    @Override
+    public FleetSnapshot snapshot() {
+        lock.readLock().lock();
+        return new LockedSnapshot();
+    }
+
+    /**
+     * Записывает новое значение поля в запись транспортного средства.
+     * Если транспортное средство с таким идентификатором не хранится (изменена копия,
+     * полученная до удаления), запись не меняется.
+     *
+     * @param transport измененное транспортное средство
+     * @param field     измененное поле
+     * @param newValue  новое значение
+     * @return false если транспортное средство с таким идентификатором не хранится
+     */
+    @Override
+    public boolean fieldChanged(Transport transport, TransportField field, Object newValue) {
+        lock.readLock().lock();
+        try {
+            int slot = slotsById.get(transport.getId());
+            if (slot < 0) {
+                return false;
+            }
+            ByteBuffer chunk = chunkOf(slot);
+            int base = offsetOf(slot);
+            switch (field) {
+                case NAME:
+                    replaceString(chunk, base + NAME, (String) newValue);
+                    break;
+                case MANUFACTURER:
+                    replaceString(chunk, base + MANUFACTURER, (String) newValue);
+                    break;
+                case LICENSE_PLATE:
+                case SHIP_TYPE:
+                    replaceString(chunk, base + REF_C, (String) newValue);
+                    break;
+                case FUEL_TYPE:
+                    replaceString(chunk, base + REF_D, (String) newValue);
+                    break;
+                case MAX_SPEED:
+                    chunk.putInt(base + MAX_SPEED, (Integer) newValue);
+                    break;
+                case MAX_ALTITUDE:
+                case DOOR_COUNT:
+                case DISPLACEMENT:
+                    chunk.putInt(base + INT_A, (Integer) newValue);
+                    break;
+                case PASSENGER_CAPACITY:
+                case CREW_SIZE:
+                    chunk.putInt(base + INT_B, (Integer) newValue);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Неизвестное поле: " + field);
+            }
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Задает слушатель, который устанавливается на копии, создаваемые при чтении.
+     *
+     * @param listener слушатель изменений полей
+     */
+    @Override
+    public void attachChangeListener(TransportChangeListener listener) {
+        this.changeListener = listener;
+    }
+
+    @Override
+    public boolean returnsCopies() {
+        return true;
+    }
+
+    /**
+     * Обходит все транспортные средства без создания объектов.
+     * Передаваемый View переиспользуется и действителен только внутри вызова action.
+     *
+     * @param action действие для каждой записи
+     */
+    public void forEach(Consumer<? super View> action) {
+        lock.readLock().lock();
+        try {
+            View view = new View();
+            for (int slot = 0; slot < count; slot++) {
+                if (isLive(slot)) {
+                    view.moveTo(slot);
+                    action.accept(view);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает объем прямой памяти, занятой записями.
+     *
+     * @return количество байт
+     */
+    public long getRecordBytes() {
+        return (long) chunks.size() * RECORDS_PER_CHUNK * RECORD_SIZE;
+    }
+
+    /**
+     * Возвращает объем прямой памяти, занятой строками.
+     *
+     * @return количество байт
+     */
+    public long getStringBytes() {
+        lock.readLock().lock();
+        try {
+            return strings.getReservedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Освобождает всю память хранилища. После закрытия хранилище пусто и может использоваться заново.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            chunks.clear();
+            slotsById.clear();
+            liveSlots.rebuild(RECORDS_PER_CHUNK, 0, slot -> false);
+            strings = new OffHeapStringArena();
+            count = 0;
+            liveCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Записывает все поля транспортного средства в запись.
+     *
+     * @param slot      позиция записи
+     * @param transport транспортное средство
+     */
+    private void write(int slot, Transport transport) {
+        ByteBuffer chunk = chunkOf(slot);
+        int base = offsetOf(slot);
+        chunk.putInt(base + MAX_SPEED, transport.getMaxSpeed());
+        chunk.putLong(base + ID, transport.getId());
+        chunk.putLong(base + NAME, putString(transport.getName()));
+        chunk.putLong(base + MANUFACTURER, putString(transport.getManufacturer()));
+        chunk.putLong(base + REF_C, OffHeapStringArena.NULL_REF);
+        chunk.putLong(base + REF_D, OffHeapStringArena.NULL_REF);
+        if (transport instanceof Airplane) {
+            Airplane airplane = (Airplane) transport;
+            chunk.putInt(base + INT_A, airplane.getMaxAltitude());
+            chunk.putInt(base + INT_B, airplane.getPassengerCapacity());
+            chunk.put(base + KIND, AIRPLANE);
+        } else if (transport instanceof Car) {
+            Car car = (Car) transport;
+            chunk.putInt(base + INT_A, car.getDoorCount());
+            chunk.putLong(base + REF_C, putString(car.getLicensePlate()));
+            chunk.putLong(base + REF_D, putString(car.getFuelType()));
+            chunk.put(base + KIND, CAR);
+        } else if (transport instanceof Ship) {
+            Ship ship = (Ship) transport;
+            chunk.putInt(base + INT_A, ship.getDisplacement());
+            chunk.putInt(base + INT_B, ship.getCrewSize());
+            chunk.putLong(base + REF_C, putString(ship.getShipType()));
+            chunk.put(base + KIND, SHIP);
+        } else {
+            chunk.put(base + KIND, TRANSPORT);
+        }
+    }
+
+    /**
+     * Создает объект транспортного средства по записи и устанавливает на него слушатель хранилища.
+     *
+     * @param slot позиция записи
+     * @return копия транспортного средства с исходным идентификатором
+     */
+    private Transport materialize(int slot) {
+        ByteBuffer chunk = chunkOf(slot);
+        int base = offsetOf(slot);
+        String name = getString(chunk.getLong(base + NAME));
+        int maxSpeed = chunk.getInt(base + MAX_SPEED);
+        String manufacturer = getString(chunk.getLong(base + MANUFACTURER));
+        long id = chunk.getLong(base + ID);
+        Transport transport;
+        switch (chunk.get(base + KIND)) {
+            case AIRPLANE:
+                transport = RestoredTransports.airplane(id, name, maxSpeed, manufacturer,
+                        chunk.getInt(base + INT_A), chunk.getInt(base + INT_B));
+                break;
+            case CAR:
+                transport = RestoredTransports.car(id, name, maxSpeed, manufacturer,
+                        getString(chunk.getLong(base + REF_C)), chunk.getInt(base + INT_A),
+                        getString(chunk.getLong(base + REF_D)));
+                break;
+            case SHIP:
+                transport = RestoredTransports.ship(id, name, maxSpeed, manufacturer, chunk.getInt(base + INT_A),
+                        chunk.getInt(base + INT_B), getString(chunk.getLong(base + REF_C)));
+                break;
+            default:
+                transport = RestoredTransports.transport(id, name, maxSpeed, manufacturer);
+        }
+        transport.setChangeListener(changeListener);
+        return transport;
+    }
+
+    /**
+     * Освобождает запись и при большом количестве пустых позиций уплотняет хранилище.
+     * Вызывается под блокировкой записи.
+     *
+     * @param slot позиция записи
+     */
+    private void free(int slot) {
+        ByteBuffer chunk = chunkOf(slot);
+        int base = offsetOf(slot);
+        long id = chunk.getLong(base + ID);
+        if (slotsById.get(id) == slot) {
+            slotsById.remove(id);
+        }
+        synchronized (stringLock) {
+            strings.release(chunk.getLong(base + NAME));
+            strings.release(chunk.getLong(base + MANUFACTURER));
+            strings.release(chunk.getLong(base + REF_C));
+            strings.release(chunk.getLong(base + REF_D));
+        }
+        chunk.put(base + KIND, FREE);
+        liveSlots.increment(slot, -1);
+        liveCount--;
+        int holes = count - liveCount;
+        if (holes >= MIN_HOLES_TO_COMPACT && holes >= liveCount) {
+            compactRecords();
+        }
+        if (strings.getGarbageBytes() > strings.getUsedBytes() / 2 && strings.getReservedBytes() > (1 << 22)) {
+            compactStrings();
+        }
+    }
+
+    /**
+     * Сдвигает живые записи к началу, освобождает лишние блоки и перестраивает индексы.
+     * Вызывается под блокировкой записи.
+     */
+    private void compactRecords() {
+        int target = 0;
+        for (int slot = 0; slot < count; slot++) {
+            if (!isLive(slot)) {
+                continue;
+            }
+            if (slot != target) {
+                ByteBuffer from = chunkOf(slot);
+                ByteBuffer to = chunkOf(target);
+                int fromBase = offsetOf(slot);
+                int toBase = offsetOf(target);
+                for (int offset = 0; offset < RECORD_SIZE; offset += Long.BYTES) {
+                    to.putLong(toBase + offset, from.getLong(fromBase + offset));
+                }
+            }
+            target++;
+        }
+        count = target;
+        int requiredChunks = Math.max(1, (count + RECORDS_PER_CHUNK - 1) >>> CHUNK_SHIFT);
+        while (chunks.size() > requiredChunks) {
+            chunks.remove(chunks.size() - 1);
+        }
+        slotsById.clear();
+        for (int slot = 0; slot < count; slot++) {
+            slotsById.put(chunkOf(slot).getLong(offsetOf(slot) + ID), slot);
+        }
+        liveSlots.rebuild(Math.max(RECORDS_PER_CHUNK, chunks.size() * RECORDS_PER_CHUNK), count, this::isLive);
+    }
+
+    /**
+     * Переписывает строки живых записей в новую область, отбрасывая замененные строки.
+     * Вызывается под блокировкой записи.
+     */
+    private void compactStrings() {
+        OffHeapStringArena old = strings;
+        OffHeapStringArena fresh = new OffHeapStringArena();
+        for (int slot = 0; slot < count; slot++) {
+            if (!isLive(slot)) {
+                continue;
+            }
+            ByteBuffer chunk = chunkOf(slot);
+            int base = offsetOf(slot);
+            for (int field : new int[]{NAME, MANUFACTURER, REF_C, REF_D}) {
+                chunk.putLong(base + field, fresh.put(old.get(chunk.getLong(base + field))));
+            }
+        }
+        strings = fresh;
+    }
+
+    private void replaceString(ByteBuffer chunk, int position, String value) {
+        synchronized (stringLock) {
+            strings.release(chunk.getLong(position));
+            chunk.putLong(position, strings.put(value));
+        }
+    }
+
+    private long putString(String value) {
+        synchronized (stringLock) {
+            return strings.put(value);
+        }
+    }
+
+    private String getString(long ref) {
+        return strings.get(ref);
+    }
+
+    private boolean isLive(int slot) {
+        return chunkOf(slot).get(offsetOf(slot) + KIND) != FREE;
+    }
+
+    private int slotOf(int index) {
+        return count == liveCount ? index : liveSlots.select(index);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= liveCount) {
+            throw new IndexOutOfBoundsException(String.format("Индекс: %d, размер: %d", index, liveCount));
+        }
+    }
+
+    private ByteBuffer chunkOf(int slot) {
+        return chunks.get(slot >>> CHUNK_SHIFT);
+    }
+
+    private static int offsetOf(int slot) {
+        return (slot & (RECORDS_PER_CHUNK - 1)) * RECORD_SIZE;
+    }
+
+    /**
+     * Легковесное представление записи для чтения без создания объекта транспорта.
+     * Методы, возвращающие строки, создают строку из памяти вне кучи при каждом вызове.
+     * Поля, которых нет у типа транспорта, возвращают 0 или null.
+     */
+    public final class View {
+        private ByteBuffer chunk;
+        private int base;
+        private int slot;
+
+        private View() {
+        }
+
+        private void moveTo(int slot) {
+            this.slot = slot;
+            this.chunk = chunkOf(slot);
+            this.base = offsetOf(slot);
+        }
+
+        private byte kind() {
+            return chunk.get(base + KIND);
+        }
+
+        /**
+         * Возвращает тип транспортного средства.
+         *
+         * @return класс модели
+         */
+        public Class<? extends Transport> getType() {
+            switch (kind()) {
+                case AIRPLANE:
+                    return Airplane.class;
+                case CAR:
+                    return Car.class;
+                case SHIP:
+                    return Ship.class;
+                default:
+                    return Transport.class;
+            }
+        }
+
+        /**
+         * Возвращает идентификатор транспортного средства.
+         *
+         * @return идентификатор транспортного средства
+         */
+        public long getId() {
+            return chunk.getLong(base + ID);
+        }
+
+        /**
+         * Возвращает название транспортного средства.
+         *
+         * @return название транспортного средства
+         */
+        public String getName() {
+            return getString(chunk.getLong(base + NAME));
+        }
+
+        /**
+         * Возвращает максимальная скорость.
+         *
+         * @return максимальная скорость
+         */
+        public int getMaxSpeed() {
+            return chunk.getInt(base + MAX_SPEED);
+        }
+
+        /**
+         * Возвращает производитель.
+         *
+         * @return производитель
+         */
+        public String getManufacturer() {
+            return getString(chunk.getLong(base + MANUFACTURER));
+        }
+
+        /**
+         * Возвращает максимальная высота полета самолета.
+         *
+         * @return максимальная высота полета самолета
+         */
+        public int getMaxAltitude() {
+            return kind() == AIRPLANE ? chunk.getInt(base + INT_A) : 0;
+        }
+
+        /**
+         * Возвращает вместимость пассажиров самолета.
+         *
+         * @return вместимость пассажиров самолета
+         */
+        public int getPassengerCapacity() {
+            return kind() == AIRPLANE ? chunk.getInt(base + INT_B) : 0;
+        }
+
+        /**
+         * Возвращает номерной знак автомобиля.
+         *
+         * @return номерной знак автомобиля
+         */
+        public String getLicensePlate() {
+            return kind() == CAR ? getString(chunk.getLong(base + REF_C)) : null;
+        }
+
+        /**
+         * Возвращает количество дверей автомобиля.
+         *
+         * @return количество дверей автомобиля
+         */
+        public int getDoorCount() {
+            return kind() == CAR ? chunk.getInt(base + INT_A) : 0;
+        }
+
+        /**
+         * Возвращает тип топлива автомобиля.
+         *
+         * @return тип топлива автомобиля
+         */
+        public String getFuelType() {
+            return kind() == CAR ? getString(chunk.getLong(base + REF_D)) : null;
+        }
+
+        /**
+         * Возвращает водоизмещение корабля.
+         *
+         * @return водоизмещение корабля
+         */
+        public int getDisplacement() {
+            return kind() == SHIP ? chunk.getInt(base + INT_A) : 0;
+        }
+
+        /**
+         * Возвращает размер экипажа корабля.
+         *
+         * @return размер экипажа корабля
+         */
+        public int getCrewSize() {
+            return kind() == SHIP ? chunk.getInt(base + INT_B) : 0;
+        }
+
+        /**
+         * Возвращает тип корабля.
+         *
+         * @return тип корабля
+         */
+        public String getShipType() {
+            return kind() == SHIP ? getString(chunk.getLong(base + REF_C)) : null;
+        }
+
+        /**
+         * Создает объект транспортного средства по текущей записи.
+         *
+         * @return копия транспортного средства
+         */
+        public Transport toTransport() {
+            return materialize(slot);
+        }
+    }
+
+    /**
+     * Снимок, удерживающий блокировку чтения хранилища.
+     */
+    private final class LockedSnapshot implements FleetSnapshot {
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final int size = liveCount;
+
+        /**
+         * Хранилище не версионируется, поэтому версия снимка всегда 0.
+         *
+         * @return 0
+         */
+        @Override
+        public long getVersion() {
+            return 0;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Transport> iterator() {
+            return new Iterator<Transport>() {
+                private int slot = advance(0);
+
+                @Override
+                public boolean hasNext() {
+                    return slot < count;
+                }
+
+                @Override
+                public Transport next() {
+                    if (slot >= count) {
+                        throw new NoSuchElementException();
+                    }
+                    Transport transport = materialize(slot);
+                    slot = advance(slot + 1);
+                    return transport;
+                }
+
+                private int advance(int from) {
+                    int i = from;
+                    while (i < count && !isLive(i)) {
+                        i++;
+                    }
+                    return i;
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.transport.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Область памяти вне кучи для строк переменной длины.
+ * Строки дописываются в блоки прямой памяти в виде длины и байтов UTF-8; ссылка на строку -
+ * это номер блока в старших 32 битах и смещение в младших. Замененные строки не освобождаются,
+ * их объем учитывается в {@link #getGarbageBytes()}.
+ * Чтение по ссылке безопасно параллельно с записью; запись и release нужно выполнять под внешней блокировкой.
+ */
+final class OffHeapStringArena {
+    static final long NULL_REF = -1;
+
+    private static final int BLOCK_SIZE = 1 << 20;
+
+    private final List<ByteBuffer> blocks = new CopyOnWriteArrayList<>();
+    private ByteBuffer current;
+    private long usedBytes;
+    private long garbageBytes;
+
+    /**
+     * Записывает строку в область.
+     *
+     * @param value строка или null
+     * @return ссылка на строку или NULL_REF для null
+     */
+    long put(String value) {
+        if (value == null) {
+            return NULL_REF;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int required = Integer.BYTES + bytes.length;
+        if (current == null || current.remaining() < required) {
+            current = ByteBuffer.allocateDirect(Math.max(BLOCK_SIZE, required));
+            blocks.add(current);
+        }
+        int offset = current.position();
+        current.putInt(bytes.length).put(bytes);
+        usedBytes += required;
+        return ((long) (blocks.size() - 1) << 32) | offset;
+    }
+
+    /**
+     * Читает строку по ссылке.
+     *
+     * @param ref ссылка, полученная от {@link #put}
+     * @return строка или null для NULL_REF
+     */
+    String get(long ref) {
+        if (ref == NULL_REF) {
+            return null;
+        }
+        ByteBuffer block = blocks.get((int) (ref >>> 32));
+        int offset = (int) ref;
+        int length = block.getInt(offset);
+        byte[] bytes = new byte[length];
+        int start = offset + Integer.BYTES;
+        for (int i = 0; i < length; i++) {
+            bytes[i] = block.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Помечает строку как более не используемую.
+     *
+     * @param ref ссылка на строку
+     */
+    void release(long ref) {
+        if (ref != NULL_REF) {
+            garbageBytes += Integer.BYTES + blocks.get((int) (ref >>> 32)).getInt((int) ref);
+        }
+    }
+
+    /**
+     * Возвращает объем записанных строк.
+     *
+     * @return количество байт, включая неиспользуемые строки
+     */
+    long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Возвращает объем строк, которые были заменены или удалены.
+     *
+     * @return количество неиспользуемых байт
+     */
+    long getGarbageBytes() {
+        return garbageBytes;
+    }
+
+    /**
+     * Возвращает объем выделенной прямой памяти.
+     *
+     * @return количество байт во всех блоках
+     */
+    long getReservedBytes() {
+        long total = 0;
+        for (ByteBuffer block : blocks) {
+            total += block.capacity();
+        }
+        return total;
+    }
+}
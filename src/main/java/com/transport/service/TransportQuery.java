@@ -0,0 +1,133 @@
+package com.transport.service;
+
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Запрос к коллекции транспортных средств: тип транспорта и набор условий равенства полей.
+ * Объект неизменяем; условия хранятся в порядке объявления полей, поэтому два запроса
+ * с одинаковыми условиями равны независимо от порядка вызовов {@link #where}.
+ */
+public final class TransportQuery {
+    private final Class<? extends Transport> type;
+    private final Map<TransportField, Object> conditions;
+
+    private TransportQuery(Class<? extends Transport> type, Map<TransportField, Object> conditions) {
+        this.type = type;
+        this.conditions = conditions;
+    }
+
+    /**
+     * Создает запрос, которому соответствуют все транспортные средства.
+     *
+     * @return запрос без условий
+     */
+    public static TransportQuery all() {
+        return of(Transport.class);
+    }
+
+    /**
+     * Создает запрос, которому соответствуют транспортные средства указанного типа и его наследники.
+     *
+     * @param type тип транспортного средства
+     * @return запрос без условий на поля
+     */
+    public static TransportQuery of(Class<? extends Transport> type) {
+        return new TransportQuery(Objects.requireNonNull(type, "type"),
+                Collections.unmodifiableMap(new EnumMap<>(TransportField.class)));
+    }
+
+    /**
+     * Возвращает новый запрос с дополнительным условием равенства поля.
+     *
+     * @param field поле транспортного средства
+     * @param value ожидаемое значение поля
+     * @return новый запрос
+     * @throws IllegalArgumentException если у транспорта запрошенного типа нет такого поля
+     */
+    public TransportQuery where(TransportField field, Object value) {
+        if (!field.getOwner().isAssignableFrom(type)) {
+            throw new IllegalArgumentException(String.format("Поле %s не определено для типа %s",
+                    field.getFieldName(), type.getSimpleName()));
+        }
+        Map<TransportField, Object> copy = new EnumMap<>(TransportField.class);
+        copy.putAll(conditions);
+        copy.put(field, value);
+        return new TransportQuery(type, Collections.unmodifiableMap(copy));
+    }
+
+    /**
+     * Проверяет, соответствует ли транспортное средство запросу.
+     *
+     * @param transport транспортное средство
+     * @return true если тип и все условия совпадают
+     */
+    public boolean matches(Transport transport) {
+        if (!type.isInstance(transport)) {
+            return false;
+        }
+        for (Map.Entry<TransportField, Object> condition : conditions.entrySet()) {
+            if (!Objects.equals(condition.getKey().get(transport), condition.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Возвращает тип транспортных средств, к которому относится запрос.
+     *
+     * @return тип транспорта
+     */
+    public Class<? extends Transport> getType() {
+        return type;
+    }
+
+    /**
+     * Возвращает условия запроса.
+     *
+     * @return неизменяемое отображение поля на ожидаемое значение
+     */
+    public Map<TransportField, Object> getConditions() {
+        return conditions;
+    }
+
+    /**
+     * Сравнивает этот запрос с другим объектом на равенство.
+     *
+     * @param o объект для сравнения
+     * @return true если совпадают тип и условия
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TransportQuery query = (TransportQuery) o;
+        return type.equals(query.type) && conditions.equals(query.conditions);
+    }
+
+    /**
+     * Возвращает хеш-код запроса.
+     *
+     * @return хеш-код запроса
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, conditions);
+    }
+
+    /**
+     * Возвращает строковое представление запроса.
+     *
+     * @return строковое представление запроса
+     */
+    @Override
+    public String toString() {
+        return String.format("TransportQuery{type=%s, conditions=%s}", type.getSimpleName(), conditions);
+    }
+}
@@ -4,20 +4,120 @@ import com.transport.model.Transport;
 import com.transport.model.Airplane;
 import com.transport.model.Car;
 import com.transport.model.Ship;
-import com.transport.exception.InvalidInputException;
+import com.transport.model.TransportChangeListener;
+import com.transport.model.TransportField;
+import com.transport.cache.QueryResultCache;
+import com.transport.index.FleetExistenceFilter;
+import com.transport.index.TrigramIndex;
+import com.transport.monitoring.BulkLoadEvent;
+import com.transport.monitoring.FleetMetrics;
+import com.transport.monitoring.FleetOperation;
+import com.transport.monitoring.OperationStats;
+import com.transport.monitoring.TransportAddEvent;
+import com.transport.monitoring.TransportQueryEvent;
+import com.transport.monitoring.TransportRemoveEvent;
+import com.transport.validation.TransportRecordParser;
+import com.transport.validation.TransportValidator;
+import com.transport.validation.Violations;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Scanner;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Сервис для работы с транспортными средствами
+ * Сервис для работы с транспортными средствами.
+ * Добавление, удаление и присваивание нового значения поля выполняются под блокировкой изменений
+ * вместе с уведомлением упорядоченных слушателей ({@link FleetListener#isOrdered()}); остальные
+ * слушатели уведомляются после снятия блокировки.
  */
 @Component
 public class TransportService {
-    private List<Transport> transports = new ArrayList<>();
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+    private static final int DEFAULT_QUERY_CACHE_ENTRIES = 256;
+    private static final long DEFAULT_QUERY_CACHE_BYTES = 16L * 1024 * 1024;
+    private static final int SEARCH_RESULT_LIMIT = 50;
+
+    private final FleetStore transports;
+    private final FleetExistenceFilter existenceFilter;
+    private final QueryResultCache queryCache;
+    private final TrigramIndex textIndex;
+    private final FleetMetrics metrics;
     private Scanner scanner = new Scanner(System.in);
+    private final ReentrantLock mutationLock = new ReentrantLock();
+    private final List<FleetListener> orderedListeners = new CopyOnWriteArrayList<>();
+    private final List<FleetListener> listeners = new CopyOnWriteArrayList<>();
+    private final TransportChangeListener fieldListener = new TransportChangeListener() {
+        @Override
+        public void onFieldChanged(Transport transport, TransportField field, Object oldValue, Object newValue) {
+            fireModified(transport, field, oldValue, newValue, () -> { });
+        }
+
+        @Override
+        public void applyFieldChange(Transport transport, TransportField field, Object oldValue, Object newValue,
+                                     Runnable assignment) {
+            fireModified(transport, field, oldValue, newValue, assignment);
+        }
+    };
+
+    /**
+     * Создает сервис с многоверсионным хранилищем VersionedFleetStore.
+     */
+    public TransportService() {
+        this(new VersionedFleetStore());
+    }
+
+    /**
+     * Создает сервис с указанным хранилищем транспортных средств,
+     * например OffHeapFleetStore для хранения больших коллекций вне кучи.
+     *
+     * @param transports хранилище транспортных средств
+     */
+    public TransportService(FleetStore transports) {
+        this(transports, DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * Создает сервис с указанным хранилищем и вероятностью ложноположительного ответа
+     * фильтра существования транспортных средств.
+     *
+     * @param transports        хранилище транспортных средств
+     * @param falsePositiveRate вероятность ложноположительного ответа фильтра (от 0 до 1, не включая)
+     * @throws IllegalArgumentException если вероятность вне допустимого диапазона
+     */
+    public TransportService(FleetStore transports, double falsePositiveRate) {
+        this(transports, falsePositiveRate, DEFAULT_QUERY_CACHE_ENTRIES, DEFAULT_QUERY_CACHE_BYTES);
+    }
+
+    /**
+     * Создает сервис с указанным хранилищем, вероятностью ложноположительного ответа
+     * фильтра существования и ограничениями кеша результатов запросов.
+     *
+     * @param transports        хранилище транспортных средств
+     * @param falsePositiveRate вероятность ложноположительного ответа фильтра (от 0 до 1, не включая)
+     * @param queryCacheEntries максимальное количество запросов в кеше; 0 отключает кеширование
+     * @param queryCacheBytes   максимальный приблизительный объем кеша в байтах
+     * @throws IllegalArgumentException если вероятность или ограничения кеша вне допустимого диапазона
+     */
+    public TransportService(FleetStore transports, double falsePositiveRate,
+                            int queryCacheEntries, long queryCacheBytes) {
+        this.transports = Objects.requireNonNull(transports, "transports");
+        this.existenceFilter = new FleetExistenceFilter(falsePositiveRate, transports::snapshot);
+        this.queryCache = new QueryResultCache(queryCacheEntries, queryCacheBytes, transports.returnsCopies());
+        this.textIndex = new TrigramIndex(transports::findById);
+        transports.attachChangeListener(fieldListener);
+        orderedListeners.add(existenceFilter);
+        listeners.add(queryCache);
+        listeners.add(textIndex);
+        this.metrics = new FleetMetrics(existenceFilter, queryCache);
+        listeners.add(metrics);
+    }
 
     /**
      * Добавляет новое транспортное средство в коллекцию.
@@ -53,11 +153,151 @@ public class TransportService {
         }
 
         if (transport != null) {
-            transports.add(transport);
+            addTransport(transport);
             System.out.println("Транспорт добавлен успешно!");
         }
     }
 
+    /**
+     * Добавляет готовое транспортное средство в коллекцию без диалога с пользователем.
+     * Сервис подписывается на изменения полей транспорта и уведомляет слушателей о добавлении.
+     *
+     * @param transport транспортное средство для добавления
+     * @throws NullPointerException если transport равен null
+     */
+    public void addTransport(Transport transport) {
+        Objects.requireNonNull(transport, "transport");
+        OperationStats stats = metrics.get(FleetOperation.ADD);
+        long start = stats.start();
+        TransportAddEvent event = new TransportAddEvent();
+        event.begin();
+        mutationLock.lock();
+        try {
+            transports.add(transport);
+            transport.setChangeListener(fieldListener);
+            for (FleetListener listener : orderedListeners) {
+                listener.onAdded(transport);
+            }
+        } finally {
+            mutationLock.unlock();
+        }
+        for (FleetListener listener : listeners) {
+            listener.onAdded(transport);
+        }
+        if (event.shouldCommit()) {
+            event.transportId = transport.getId();
+            event.transportType = transport.getClass();
+            event.count = 1;
+            event.fleetSize = transports.size();
+            event.commit();
+        }
+        stats.stop(start);
+    }
+
+    /**
+     * Загружает транспортные средства из текстовых записей без диалога с пользователем.
+     * Формат записей описан в {@link TransportRecordParser}. Некорректные записи пропускаются
+     * без выбрасывания исключений, а их нарушения попадают в отчет. Записи обрабатываются
+     * в вызывающем потоке; для больших объемов предназначен {@link IngestPipeline}.
+     *
+     * @param records текстовые записи
+     * @return отчет о загрузке
+     */
+    public BulkLoadReport bulkLoad(Iterable<String> records) {
+        OperationStats stats = metrics.get(FleetOperation.BULK_LOAD);
+        long start = stats.start();
+        BulkLoadEvent event = new BulkLoadEvent();
+        event.begin();
+        BulkLoadReport report = new BulkLoadReport();
+        TransportRecordParser parser = new TransportRecordParser();
+        Violations violations = new Violations();
+        long recordNumber = 0;
+        for (String record : records) {
+            recordNumber++;
+            Transport transport = parser.parse(record, violations);
+            if (transport == null) {
+                report.recordRejected(recordNumber, violations);
+            } else {
+                addTransport(transport);
+                report.recordLoaded();
+            }
+        }
+        if (event.shouldCommit()) {
+            event.loaded = report.getLoadedCount();
+            event.rejected = report.getRejectedCount();
+            event.commit();
+        }
+        stats.stop(start);
+        return report;
+    }
+
+    /**
+     * Подготавливает пачку к добавлению: вызывает {@link FleetListener#prepareAdded(List)} каждого слушателя.
+     * Не меняет состояние сервиса и может выполняться параллельно для разных пачек.
+     *
+     * @param batch транспортные средства, которые будут добавлены
+     * @return подготовленные данные слушателей
+     */
+    Map<FleetListener, Object> prepareAdded(List<Transport> batch) {
+        Map<FleetListener, Object> prepared = new IdentityHashMap<>();
+        prepareAdded(orderedListeners, batch, prepared);
+        prepareAdded(listeners, batch, prepared);
+        return prepared;
+    }
+
+    private static void prepareAdded(List<FleetListener> listeners, List<Transport> batch,
+                                     Map<FleetListener, Object> prepared) {
+        for (FleetListener listener : listeners) {
+            Object data = listener.prepareAdded(batch);
+            if (data != null) {
+                prepared.put(listener, data);
+            }
+        }
+    }
+
+    /**
+     * Добавляет подготовленную пачку в конец коллекции одной записью в хранилище,
+     * подписывается на изменения полей и уведомляет слушателей о пачке целиком.
+     * Каждое транспортное средство учитывается в статистике {@link FleetOperation#ADD}, а длительностью
+     * вызова считается доля пачки; событие JFR записывается одно на пачку.
+     *
+     * @param batch    транспортные средства для добавления
+     * @param prepared результат {@link #prepareAdded(List)} для этой пачки
+     */
+    void addPrepared(List<Transport> batch, Map<FleetListener, Object> prepared) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        OperationStats stats = metrics.get(FleetOperation.ADD);
+        long start = stats.startBatch();
+        TransportAddEvent event = new TransportAddEvent();
+        event.begin();
+        mutationLock.lock();
+        try {
+            transports.addAll(batch);
+            for (Transport transport : batch) {
+                transport.setChangeListener(fieldListener);
+            }
+            for (FleetListener listener : orderedListeners) {
+                listener.onAddedAll(batch, prepared.get(listener));
+            }
+        } finally {
+            mutationLock.unlock();
+        }
+        for (FleetListener listener : listeners) {
+            listener.onAddedAll(batch, prepared.get(listener));
+        }
+        if (event.shouldCommit()) {
+            Transport first = batch.get(0);
+            event.transportId = first.getId();
+            event.transportType = first.getClass();
+            event.count = batch.size();
+            event.fleetSize = transports.size();
+            event.commit();
+        }
+        stats.stop(start, batch.size());
+    }
+
     /**
      * Создает базовое транспортное средство с основными параметрами.
      * Запрашивает у пользователя название, максимальную скорость и производителя.
@@ -140,7 +380,7 @@ public class TransportService {
      * Автоматически логируется через аспект LoggingAspect.
      */
     public void removeTransport() {
-        if (transports.isEmpty()) {
+        if (transports.size() == 0) {
             System.out.println("Коллекция пуста!");
             return;
         }
@@ -148,24 +388,236 @@ public class TransportService {
         printAllTransports();
         int index = readInt("Введите индекс для удаления: ", 0, transports.size() - 1);
 
-        Transport removed = transports.remove(index);
+        Transport removed = removeTransport(index);
         System.out.println("Удален: " + removed);
     }
 
+    /**
+     * Удаляет транспортное средство по индексу без диалога с пользователем.
+     * Отписывает сервис от изменений полей удаленного транспорта и уведомляет слушателей.
+     *
+     * @param index индекс удаляемого элемента
+     * @return удаленное транспортное средство
+     * @throws IndexOutOfBoundsException если индекс вне диапазона коллекции
+     */
+    public Transport removeTransport(int index) {
+        long start = metrics.get(FleetOperation.REMOVE).start();
+        TransportRemoveEvent event = new TransportRemoveEvent();
+        event.begin();
+        Transport removed;
+        mutationLock.lock();
+        try {
+            removed = transports.remove(index);
+            detach(removed);
+        } catch (IndexOutOfBoundsException e) {
+            metrics.get(FleetOperation.REMOVE).recordError();
+            throw e;
+        } finally {
+            mutationLock.unlock();
+        }
+        notifyRemoved(removed);
+        commitRemoved(event, removed, start);
+        return removed;
+    }
+
+    /**
+     * Отписывает сервис от изменений полей удаленного транспорта и уведомляет упорядоченных слушателей.
+     * Вызывается под блокировкой изменений.
+     *
+     * @param removed удаленное транспортное средство
+     */
+    private void detach(Transport removed) {
+        if (removed.getChangeListener() == fieldListener) {
+            removed.setChangeListener(null);
+        }
+        for (FleetListener listener : orderedListeners) {
+            listener.onRemoved(removed);
+        }
+    }
+
+    /**
+     * Уведомляет остальных слушателей об удалении после снятия блокировки изменений.
+     *
+     * @param removed удаленное транспортное средство
+     */
+    private void notifyRemoved(Transport removed) {
+        for (FleetListener listener : listeners) {
+            listener.onRemoved(removed);
+        }
+    }
+
+    /**
+     * Удаляет транспортное средство по идентификатору.
+     * Отписывает сервис от изменений полей удаленного транспорта и уведомляет слушателей.
+     *
+     * @param id идентификатор транспортного средства
+     * @return удаленное транспортное средство или null, если оно не найдено
+     */
+    public Transport removeTransportById(long id) {
+        long start = metrics.get(FleetOperation.REMOVE).start();
+        TransportRemoveEvent event = new TransportRemoveEvent();
+        event.begin();
+        Transport removed;
+        mutationLock.lock();
+        try {
+            removed = transports.removeById(id);
+            if (removed != null) {
+                detach(removed);
+            }
+        } finally {
+            mutationLock.unlock();
+        }
+        if (removed != null) {
+            notifyRemoved(removed);
+        }
+        commitRemoved(event, removed, start);
+        return removed;
+    }
+
+    /**
+     * Фиксирует событие JFR и статистику удаления.
+     *
+     * @param event   событие, начатое перед удалением
+     * @param removed удаленное транспортное средство или null
+     * @param start   метка начала удаления
+     */
+    private void commitRemoved(TransportRemoveEvent event, Transport removed, long start) {
+        if (event.shouldCommit()) {
+            if (removed != null) {
+                event.transportId = removed.getId();
+                event.transportType = removed.getClass();
+            }
+            event.fleetSize = transports.size();
+            event.commit();
+        }
+        metrics.get(FleetOperation.REMOVE).stop(start);
+    }
+
+    /**
+     * Ищет транспортное средство по идентификатору.
+     *
+     * @param id идентификатор транспортного средства
+     * @return найденное транспортное средство или null
+     */
+    public Transport findTransportById(long id) {
+        OperationStats stats = metrics.get(FleetOperation.FIND);
+        long start = stats.start();
+        Transport found = transports.findById(id);
+        stats.stop(start);
+        return found;
+    }
+
+    /**
+     * Регистрирует слушателя изменений коллекции.
+     *
+     * @param listener слушатель для добавления
+     */
+    public void addListener(FleetListener listener) {
+        Objects.requireNonNull(listener, "listener");
+        (listener.isOrdered() ? orderedListeners : listeners).add(listener);
+    }
+
+    /**
+     * Отменяет регистрацию слушателя изменений коллекции.
+     *
+     * @param listener слушатель для удаления
+     */
+    public void removeListener(FleetListener listener) {
+        orderedListeners.remove(listener);
+        listeners.remove(listener);
+    }
+
+    /**
+     * Присваивает новое значение поля под блокировкой изменений и передает изменение хранилищу
+     * и слушателям коллекции. Изменения транспорта, удаленного до получения блокировки, и копий,
+     * полученных из хранилища до удаления транспорта, слушателям не передаются: иначе фильтр,
+     * индексы, кеш и история учли бы изменение транспорта, которого в коллекции нет.
+     *
+     * @param transport  измененное транспортное средство
+     * @param field      измененное поле
+     * @param oldValue   предыдущее значение
+     * @param newValue   новое значение
+     * @param assignment присваивание нового значения
+     */
+    private void fireModified(Transport transport, TransportField field, Object oldValue, Object newValue,
+                              Runnable assignment) {
+        mutationLock.lock();
+        try {
+            assignment.run();
+            if (transport.getChangeListener() != fieldListener
+                    || !transports.fieldChanged(transport, field, newValue)) {
+                return;
+            }
+            for (FleetListener listener : orderedListeners) {
+                listener.onModified(transport, field, oldValue, newValue);
+            }
+        } finally {
+            mutationLock.unlock();
+        }
+        for (FleetListener listener : listeners) {
+            listener.onModified(transport, field, oldValue, newValue);
+        }
+    }
+
     /**
      * Выводит в консоль список всех транспортных средств в коллекции.
      * Для каждого транспорта выводится индекс и строковое представление.
      * Если коллекция пуста, выводится соответствующее сообщение.
      */
     public void printAllTransports() {
-        if (transports.isEmpty()) {
+        if (transports.size() == 0) {
             System.out.println("Коллекция пуста!");
             return;
         }
 
         System.out.println("Список транспорта:");
-        for (int i = 0; i < transports.size(); i++) {
-            System.out.printf("%d: %s%n", i, transports.get(i));
+        try (FleetSnapshot snapshot = transports.snapshot()) {
+            int i = 0;
+            for (Transport transport : snapshot) {
+                System.out.printf("%d: %s%n", i++, transport);
+            }
+        }
+    }
+
+    /**
+     * Ищет транспортные средства по части названия или производителя, введенной пользователем,
+     * и выводит найденные в консоль. Регистр не учитывается.
+     * Автоматически логируется через аспект LoggingAspect.
+     */
+    public void searchTransports() {
+        System.out.print("Введите часть названия или производителя: ");
+        String text = scanner.nextLine().trim();
+        List<Transport> found = search(text, SEARCH_RESULT_LIMIT);
+        if (found.isEmpty()) {
+            System.out.println("Ничего не найдено!");
+            return;
+        }
+        System.out.println("Найденный транспорт:");
+        for (Transport transport : found) {
+            System.out.println(transport);
+        }
+        if (found.size() == SEARCH_RESULT_LIMIT) {
+            System.out.printf("Показаны первые %d результатов%n", SEARCH_RESULT_LIMIT);
+        }
+    }
+
+    /**
+     * Ищет транспортные средства, у которых название, производитель или строка
+     * «производитель название» содержит указанный текст без учета регистра.
+     * Поиск выполняется по триграммному индексу без просмотра всей коллекции.
+     *
+     * @param text  искомая подстрока
+     * @param limit максимальное количество результатов
+     * @return неизменяемый список найденных транспортных средств; порядок не определен
+     * @throws IllegalArgumentException если limit отрицателен
+     */
+    public List<Transport> search(String text, int limit) {
+        OperationStats stats = metrics.get(FleetOperation.SEARCH);
+        long start = stats.start();
+        try {
+            return textIndex.search(text, limit);
+        } finally {
+            stats.stop(start);
         }
     }
 
@@ -199,6 +651,7 @@ public class TransportService {
     /**
      * Читает целое число из консоли с валидацией диапазона.
      * Повторяет запрос до тех пор, пока не будет введено корректное значение.
+     * Некорректный ввод обрабатывается без исключений.
      *
      * @param prompt приглашение для ввода
      * @param min    минимальное допустимое значение (включительно)
@@ -207,33 +660,197 @@ public class TransportService {
      */
     private int readInt(String prompt, int min, int max) {
         while (true) {
-            try {
-                System.out.print(prompt);
-                String input = scanner.nextLine();
-                int value = Integer.parseInt(input);
-
-                if (value < min || value > max) {
-                    throw new InvalidInputException(
-                            String.format("Значение должно быть между %d и %d", min, max)
-                    );
-                }
+            System.out.print(prompt);
+            long value = TransportValidator.parseInt(scanner.nextLine());
 
-                return value;
-            } catch (NumberFormatException e) {
+            if (value == TransportValidator.NOT_A_NUMBER) {
                 System.out.println("Ошибка: введите целое число!");
-            } catch (InvalidInputException e) {
-                System.out.println("Ошибка: " + e.getMessage());
+            } else if (value < min || value > max) {
+                System.out.printf("Ошибка: Значение должно быть между %d и %d%n", min, max);
+            } else {
+                return (int) value;
             }
         }
     }
 
     /**
-     * Возвращает текущую коллекцию транспортных средств.
+     * Возвращает копию текущей коллекции транспортных средств.
      * Может использоваться для тестирования или внешнего доступа к данным.
+     * Для долгих обходов без копирования следует использовать {@link #snapshot()}.
      *
-     * @return список всех транспортных средств
+     * @return неизменяемый список всех транспортных средств
      */
     public List<Transport> getTransports() {
-        return transports;
+        try (FleetSnapshot snapshot = transports.snapshot()) {
+            return Collections.unmodifiableList(snapshot.toList());
+        }
+    }
+
+    /**
+     * Проверяет, зарегистрирован ли автомобиль с указанным номерным знаком.
+     * Если фильтр существования отвечает "точно нет", хранилище не просматривается.
+     *
+     * @param licensePlate номерной знак
+     * @return true если в коллекции есть автомобиль с таким номерным знаком
+     */
+    public boolean containsLicensePlate(String licensePlate) {
+        OperationStats stats = metrics.get(FleetOperation.EXISTS);
+        long start = stats.start();
+        try {
+            if (!existenceFilter.mightContainLicensePlate(licensePlate)) {
+                return false;
+            }
+            try (FleetSnapshot snapshot = transports.snapshot()) {
+                for (Transport transport : snapshot) {
+                    if (transport instanceof Car
+                            && Objects.equals(((Car) transport).getLicensePlate(), licensePlate)) {
+                        return true;
+                    }
+                }
+            }
+            existenceFilter.recordFalsePositive();
+            return false;
+        } finally {
+            stats.stop(start);
+        }
+    }
+
+    /**
+     * Проверяет, зарегистрировано ли транспортное средство с указанными названием и производителем.
+     * Если фильтр существования отвечает "точно нет", хранилище не просматривается.
+     *
+     * @param name         название
+     * @param manufacturer производитель
+     * @return true если в коллекции есть транспорт с такими названием и производителем
+     */
+    public boolean containsNameAndManufacturer(String name, String manufacturer) {
+        OperationStats stats = metrics.get(FleetOperation.EXISTS);
+        long start = stats.start();
+        try {
+            if (!existenceFilter.mightContainNameAndManufacturer(name, manufacturer)) {
+                return false;
+            }
+            try (FleetSnapshot snapshot = transports.snapshot()) {
+                for (Transport transport : snapshot) {
+                    if (Objects.equals(transport.getName(), name)
+                            && Objects.equals(transport.getManufacturer(), manufacturer)) {
+                        return true;
+                    }
+                }
+            }
+            existenceFilter.recordFalsePositive();
+            return false;
+        } finally {
+            stats.stop(start);
+        }
+    }
+
+    /**
+     * Возвращает фильтр существования транспортных средств для получения статистики.
+     *
+     * @return фильтр существования
+     */
+    public FleetExistenceFilter getExistenceFilter() {
+        return existenceFilter;
+    }
+
+    /**
+     * Возвращает кеш результатов запросов для получения статистики.
+     *
+     * @return кеш результатов запросов
+     */
+    public QueryResultCache getQueryCache() {
+        return queryCache;
+    }
+
+    /**
+     * Возвращает полнотекстовый индекс для получения статистики.
+     *
+     * @return триграммный индекс
+     */
+    public TrigramIndex getTextIndex() {
+        return textIndex;
+    }
+
+    /**
+     * Возвращает метрики сервиса для публикации через JMX.
+     *
+     * @return метрики сервиса
+     */
+    public FleetMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Возвращает транспортные средства, соответствующие запросу.
+     * Повторяющиеся запросы обслуживаются из кеша результатов, который сбрасывает только записи,
+     * затронутые изменениями коллекции. При промахе поиск выполняется по снимку коллекции
+     * и не блокирует параллельные изменения.
+     *
+     * @param query запрос
+     * @return неизменяемый список найденных транспортных средств в порядке добавления
+     */
+    public List<Transport> query(TransportQuery query) {
+        OperationStats stats = metrics.get(FleetOperation.QUERY);
+        long start = stats.start();
+        TransportQueryEvent event = new TransportQueryEvent();
+        event.begin();
+        List<Transport> result = queryCache.get(query);
+        int scanned = 0;
+        boolean cached = result != null;
+        if (!cached) {
+            long stamp = queryCache.stamp(query);
+            ArrayList<Transport> found = new ArrayList<>();
+            try (FleetSnapshot snapshot = transports.snapshot()) {
+                for (Transport transport : snapshot) {
+                    scanned++;
+                    if (query.matches(transport)) {
+                        found.add(transport);
+                    }
+                }
+            }
+            found.trimToSize();
+            result = Collections.unmodifiableList(found);
+            queryCache.put(query, result, stamp);
+        }
+        if (event.shouldCommit()) {
+            event.query = query.toString();
+            event.scanned = scanned;
+            event.matched = result.size();
+            event.cached = cached;
+            event.commit();
+        }
+        stats.stop(start);
+        return result;
+    }
+
+    /**
+     * Возвращает согласованный снимок коллекции для чтения без блокировок.
+     * Снимок не меняется при параллельных добавлениях и удалениях и должен быть закрыт после обхода.
+     *
+     * @return снимок коллекции
+     */
+    public FleetSnapshot snapshot() {
+        return transports.snapshot();
+    }
+
+    /**
+     * Возвращает транспортное средство по индексу в порядке добавления.
+     *
+     * @param index индекс транспортного средства
+     * @return транспортное средство
+     * @throws IndexOutOfBoundsException если индекс вне диапазона коллекции
+     */
+    public Transport getTransport(int index) {
+        return transports.get(index);
+    }
+
+    /**
+     * Возвращает количество транспортных средств в коллекции.
+     *
+     * @return количество транспортных средств
+     */
+    public int size() {
+        return transports.size();
     }
 }
\ No newline at end of file
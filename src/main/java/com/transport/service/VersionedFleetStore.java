@@ -0,0 +1,428 @@
+package com.transport.service;
+
+import com.transport.model.Transport;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Хранилище транспортных средств с многоверсионным управлением конкурентным доступом (MVCC).
+ * <p>
+ * Каждое добавление и удаление увеличивает версию хранилища. Элементы хранятся в массиве,
+ * в который только дописывают; удаление помечает элемент версией удаления, а не сдвигает массив.
+ * Снимок фиксирует массив, количество элементов и версию, поэтому читатель обходит его без блокировок
+ * и видит ровно те элементы, которые были живы в момент создания снимка.
+ * Запись выполняется под одной блокировкой и не ждет читателей.
+ * <p>
+ * Помеченные удаленными элементы периодически вычищаются уплотнением в новый массив.
+ * Хранилище учитывает активные снимки (эпохи читателей): пока открыт хотя бы один снимок,
+ * уплотнение откладывается, чтобы долгий обход не удерживал в памяти две копии массива.
+ * Отложенное уплотнение выполняется при закрытии последнего снимка.
+ * <p>
+ * Снимок изолирует состав коллекции, но не значения полей: транспортные средства изменяемы,
+ * и вызов сеттера виден всем читателям сразу.
+ */
+public class VersionedFleetStore implements FleetStore {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 64;
+    private static final int FORCED_COMPACTION_FACTOR = 4;
+    private static final long LIVE = Long.MAX_VALUE;
+
+    /**
+     * Элемент хранилища: транспортное средство, версия, в которой оно было удалено,
+     * и текущая позиция в массиве (меняется только при уплотнении, под блокировкой записи).
+     */
+    private static final class Entry {
+        final Transport transport;
+        volatile long deletedVersion = LIVE;
+        int slot;
+
+        Entry(Transport transport, int slot) {
+            this.transport = transport;
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * Неизменяемое состояние хранилища, которое публикуется после каждой записи.
+     */
+    private static final class State {
+        final Entry[] entries;
+        final int count;
+        final int liveCount;
+        final long version;
+
+        State(Entry[] entries, int count, int liveCount, long version) {
+            this.entries = entries;
+            this.count = count;
+            this.liveCount = liveCount;
+            this.version = version;
+        }
+    }
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final LiveSlotIndex liveSlots = new LiveSlotIndex(INITIAL_CAPACITY);
+    private final Set<VersionSnapshot> activeSnapshots = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+    private volatile State state = new State(new Entry[INITIAL_CAPACITY], 0, 0, 0);
+    private volatile boolean compactionPending;
+
+    /**
+     * Добавляет транспортное средство и публикует новую версию.
+     *
+     * @param transport транспортное средство для добавления
+     */
+    @Override
+    public void add(Transport transport) {
+        writeLock.lock();
+        try {
+            State current = state;
+            Entry[] entries = current.entries;
+            if (current.count == entries.length) {
+                entries = Arrays.copyOf(entries, entries.length * 2);
+            }
+            if (entries.length != liveSlots.capacity()) {
+                rebuildLiveSlots(entries, current.count);
+            }
+            Entry entry = new Entry(transport, current.count);
+            entries[current.count] = entry;
+            liveSlots.increment(current.count, 1);
+            byId.put(transport.getId(), entry);
+            state = new State(entries, current.count + 1, current.liveCount + 1, current.version + 1);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Добавляет пачку транспортных средств и публикует ее одной новой версией:
+     * снимки видят либо всю пачку, либо ни одного ее элемента.
+     *
+     * @param batch транспортные средства для добавления
+     */
+    @Override
+    public void addAll(List<Transport> batch) {
+        writeLock.lock();
+        try {
+            State current = state;
+            Entry[] entries = current.entries;
+            int count = current.count;
+            int length = entries.length;
+            while (length - count < batch.size()) {
+                length *= 2;
+            }
+            if (length != entries.length) {
+                entries = Arrays.copyOf(entries, length);
+            }
+            if (entries.length != liveSlots.capacity()) {
+                rebuildLiveSlots(entries, count);
+            }
+            for (Transport transport : batch) {
+                Entry entry = new Entry(transport, count);
+                entries[count] = entry;
+                liveSlots.increment(count, 1);
+                byId.put(transport.getId(), entry);
+                count++;
+            }
+            state = new State(entries, count, current.liveCount + batch.size(), current.version + 1);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Помечает транспортное средство удаленным в новой версии.
+     * Открытые ранее снимки продолжают его видеть.
+     *
+     * @param index индекс удаляемого элемента
+     * @return удаленное транспортное средство
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    @Override
+    public Transport remove(int index) {
+        writeLock.lock();
+        try {
+            State current = state;
+            checkIndex(index, current.liveCount);
+            int slot = current.count == current.liveCount ? index : liveSlots.select(index);
+            Entry entry = current.entries[slot];
+            byId.remove(entry.transport.getId(), entry);
+            markDeleted(current, entry);
+            return entry.transport;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Помечает транспортное средство с указанным идентификатором удаленным в новой версии.
+     *
+     * @param id идентификатор транспортного средства
+     * @return удаленное транспортное средство или null, если оно не найдено
+     */
+    @Override
+    public Transport removeById(long id) {
+        writeLock.lock();
+        try {
+            Entry entry = byId.remove(id);
+            if (entry == null) {
+                return null;
+            }
+            markDeleted(state, entry);
+            return entry.transport;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Ищет транспортное средство по идентификатору без блокировок.
+     *
+     * @param id идентификатор транспортного средства
+     * @return найденное транспортное средство или null
+     */
+    @Override
+    public Transport findById(long id) {
+        Entry entry = byId.get(id);
+        return entry == null ? null : entry.transport;
+    }
+
+    /**
+     * Помечает элемент удаленным, публикует новую версию и при необходимости уплотняет массив.
+     * Вызывается под блокировкой записи.
+     *
+     * @param current текущее состояние
+     * @param entry   удаляемый живой элемент
+     */
+    private void markDeleted(State current, Entry entry) {
+        long version = current.version + 1;
+        entry.deletedVersion = version;
+        liveSlots.increment(entry.slot, -1);
+        state = new State(current.entries, current.count, current.liveCount - 1, version);
+        int tombstones = current.count - current.liveCount + 1;
+        if (tombstones >= MIN_TOMBSTONES_TO_COMPACT && tombstones >= current.liveCount / 2) {
+            if (activeSnapshots.isEmpty() || tombstones >= FORCED_COMPACTION_FACTOR * current.liveCount) {
+                compact();
+            } else {
+                compactionPending = true;
+            }
+        }
+    }
+
+    /**
+     * Возвращает транспортное средство по индексу в текущей версии.
+     * Пока в массиве нет удаленных элементов, чтение выполняется без блокировок;
+     * иначе позиция ищется по индексу живых элементов под блокировкой записи.
+     * Для обхода всей коллекции следует использовать {@link #snapshot()}.
+     *
+     * @param index индекс элемента
+     * @return транспортное средство
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    @Override
+    public Transport get(int index) {
+        State current = state;
+        checkIndex(index, current.liveCount);
+        if (current.count == current.liveCount) {
+            return current.entries[index].transport;
+        }
+        writeLock.lock();
+        try {
+            current = state;
+            checkIndex(index, current.liveCount);
+            int slot = current.count == current.liveCount ? index : liveSlots.select(index);
+            return current.entries[slot].transport;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает количество транспортных средств в текущей версии.
+     *
+     * @return количество элементов
+     */
+    @Override
+    public int size() {
+        return state.liveCount;
+    }
+
+    /**
+     * Закрепляет текущую версию и возвращает снимок для чтения без блокировок.
+     *
+     * @return снимок текущей версии
+     */
+    @Override
+    public FleetSnapshot snapshot() {
+        VersionSnapshot snapshot = new VersionSnapshot(state);
+        activeSnapshots.add(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Возвращает текущую версию хранилища.
+     *
+     * @return номер версии
+     */
+    public long getVersion() {
+        return state.version;
+    }
+
+    /**
+     * Возвращает количество открытых снимков.
+     *
+     * @return количество активных читателей
+     */
+    public int getActiveSnapshotCount() {
+        return activeSnapshots.size();
+    }
+
+    /**
+     * Возвращает самую старую версию, закрепленную открытым снимком.
+     *
+     * @return версия самого старого снимка или -1, если открытых снимков нет
+     */
+    public long getOldestPinnedVersion() {
+        long oldest = Long.MAX_VALUE;
+        for (VersionSnapshot snapshot : activeSnapshots) {
+            oldest = Math.min(oldest, snapshot.state.version);
+        }
+        return oldest == Long.MAX_VALUE ? -1 : oldest;
+    }
+
+    /**
+     * Возвращает количество элементов, помеченных удаленными, но еще не вычищенных.
+     *
+     * @return количество удаленных элементов в текущем массиве
+     */
+    public int getTombstoneCount() {
+        State current = state;
+        return current.count - current.liveCount;
+    }
+
+    /**
+     * Переписывает живые элементы в новый массив. Вызывается под блокировкой записи.
+     * Версия не меняется: логическое содержимое хранилища остается прежним.
+     */
+    private void compact() {
+        State current = state;
+        Entry[] entries = new Entry[Math.max(INITIAL_CAPACITY, current.liveCount * 2)];
+        int count = 0;
+        for (int i = 0; i < current.count; i++) {
+            Entry entry = current.entries[i];
+            if (entry.deletedVersion == LIVE) {
+                entry.slot = count;
+                entries[count++] = entry;
+            }
+        }
+        rebuildLiveSlots(entries, count);
+        state = new State(entries, count, count, current.version);
+        compactionPending = false;
+    }
+
+    /**
+     * Перестраивает индекс живых позиций под массив элементов.
+     *
+     * @param entries массив элементов
+     * @param count   количество занятых позиций
+     */
+    private void rebuildLiveSlots(Entry[] entries, int count) {
+        liveSlots.rebuild(entries.length, count, slot -> entries[slot].deletedVersion == LIVE);
+    }
+
+    /**
+     * Выполняет отложенное уплотнение, если открытых снимков не осталось.
+     * Не ждет блокировку: если идет запись, уплотнение выполнится при следующем удалении.
+     */
+    private void compactIfIdle() {
+        if (compactionPending && activeSnapshots.isEmpty() && writeLock.tryLock()) {
+            try {
+                if (compactionPending && activeSnapshots.isEmpty()) {
+                    compact();
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Проверяет, что индекс находится в диапазоне живых элементов.
+     *
+     * @param index индекс
+     * @param size  количество живых элементов
+     * @throws IndexOutOfBoundsException если индекс вне диапазона
+     */
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.format("Индекс: %d, размер: %d", index, size));
+        }
+    }
+
+    /**
+     * Снимок, закрепляющий одну версию хранилища.
+     */
+    private final class VersionSnapshot implements FleetSnapshot {
+        private final State state;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        VersionSnapshot(State state) {
+            this.state = state;
+        }
+
+        @Override
+        public long getVersion() {
+            return state.version;
+        }
+
+        @Override
+        public int size() {
+            return state.liveCount;
+        }
+
+        @Override
+        public Iterator<Transport> iterator() {
+            return new Iterator<Transport>() {
+                private int slot = advance(0);
+
+                @Override
+                public boolean hasNext() {
+                    return slot < state.count;
+                }
+
+                @Override
+                public Transport next() {
+                    if (slot >= state.count) {
+                        throw new NoSuchElementException();
+                    }
+                    Transport transport = state.entries[slot].transport;
+                    slot = advance(slot + 1);
+                    return transport;
+                }
+
+                private int advance(int from) {
+                    int i = from;
+                    while (i < state.count && state.entries[i].deletedVersion <= state.version) {
+                        i++;
+                    }
+                    return i;
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                activeSnapshots.remove(this);
+                compactIfIdle();
+            }
+        }
+    }
+}
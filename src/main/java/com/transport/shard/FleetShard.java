@@ -0,0 +1,51 @@
+package com.transport.shard;
+
+import com.transport.model.Transport;
+import com.transport.service.TransportQuery;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Один шард коллекции транспортных средств со своим хранилищем и исполнителем.
+ * Все операции асинхронные и выполняются в исполнителе шарда в порядке поступления.
+ */
+public interface FleetShard extends AutoCloseable {
+
+    /**
+     * Добавляет транспортное средство в шард.
+     *
+     * @param transport транспортное средство
+     * @return future, завершающийся после добавления
+     */
+    CompletableFuture<Void> add(Transport transport);
+
+    /**
+     * Удаляет транспортное средство по идентификатору.
+     *
+     * @param id идентификатор транспортного средства
+     * @return future с удаленным транспортным средством или null, если оно не найдено
+     */
+    CompletableFuture<Transport> remove(long id);
+
+    /**
+     * Выполняет запрос по содержимому шарда.
+     *
+     * @param query запрос
+     * @return future со списком найденных транспортных средств
+     */
+    CompletableFuture<List<Transport>> query(TransportQuery query);
+
+    /**
+     * Возвращает количество транспортных средств в шарде.
+     *
+     * @return future с количеством элементов
+     */
+    CompletableFuture<Integer> size();
+
+    /**
+     * Останавливает исполнитель шарда и освобождает ресурсы.
+     */
+    @Override
+    void close();
+}
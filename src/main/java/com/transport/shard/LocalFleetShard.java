@@ -0,0 +1,69 @@
+package com.transport.shard;
+
+import com.transport.model.Transport;
+import com.transport.service.TransportQuery;
+import com.transport.service.TransportService;
+import com.transport.service.VersionedFleetStore;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Шард в текущем процессе: отдельный TransportService со своим хранилищем
+ * и однопоточным исполнителем, через который проходят все операции шарда.
+ */
+public class LocalFleetShard implements FleetShard {
+    private final TransportService service;
+    private final ExecutorService executor;
+
+    /**
+     * Создает шард с новым хранилищем VersionedFleetStore.
+     *
+     * @param name имя шарда, используется в имени потока исполнителя
+     */
+    public LocalFleetShard(String name) {
+        this.service = new TransportService(new VersionedFleetStore());
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Возвращает сервис, который хранит транспорт этого шарда.
+     * Позволяет подписаться на изменения транспортных средств шарда.
+     *
+     * @return сервис шарда
+     */
+    public TransportService getService() {
+        return service;
+    }
+
+    @Override
+    public CompletableFuture<Void> add(Transport transport) {
+        return CompletableFuture.runAsync(() -> service.addTransport(transport), executor);
+    }
+
+    @Override
+    public CompletableFuture<Transport> remove(long id) {
+        return CompletableFuture.supplyAsync(() -> service.removeTransportById(id), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<Transport>> query(TransportQuery query) {
+        return CompletableFuture.supplyAsync(() -> service.query(query), executor);
+    }
+
+    @Override
+    public CompletableFuture<Integer> size() {
+        return CompletableFuture.completedFuture(service.size());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
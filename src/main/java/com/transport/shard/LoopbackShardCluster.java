@@ -0,0 +1,107 @@
+package com.transport.shard;
+
+import com.transport.exception.ShardException;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Многопроцессный режим: запускает шарды в отдельных JVM на этой машине и подключается к ним
+ * через loopback-сокеты. Дочерние процессы используют тот же classpath, что и текущий процесс,
+ * и завершаются вместе с ним.
+ */
+public class LoopbackShardCluster implements AutoCloseable {
+    private final List<Process> processes;
+    private final ShardedTransportService service;
+
+    private LoopbackShardCluster(List<Process> processes, ShardedTransportService service) {
+        this.processes = processes;
+        this.service = service;
+    }
+
+    /**
+     * Запускает процессы шардов и подключается к ним.
+     *
+     * @param shardCount количество процессов-шардов
+     * @param shardKey   ключ распределения транспорта по шардам
+     * @return запущенный кластер
+     * @throws IllegalArgumentException если количество шардов не положительное
+     * @throws ShardException           если процесс не удалось запустить или к нему подключиться
+     */
+    public static LoopbackShardCluster start(int shardCount, ShardKey shardKey) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Количество шардов должно быть положительным");
+        }
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        String classPath = System.getProperty("java.class.path");
+        List<Process> processes = new ArrayList<>(shardCount);
+        List<InetSocketAddress> addresses = new ArrayList<>(shardCount);
+        try {
+            for (int i = 0; i < shardCount; i++) {
+                Process process = new ProcessBuilder(java, "-cp", classPath, ShardServer.class.getName(),
+                        "0", ShardServer.EXIT_WITH_PARENT)
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start();
+                processes.add(process);
+                addresses.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), awaitPort(process)));
+            }
+            return new LoopbackShardCluster(processes, ShardedTransportService.connect(addresses, shardKey));
+        } catch (IOException | ShardException e) {
+            processes.forEach(Process::destroy);
+            throw e instanceof ShardException ? (ShardException) e
+                    : new ShardException("Не удалось запустить процесс шарда", e);
+        }
+    }
+
+    /**
+     * Возвращает сервис, подключенный к процессам шардов.
+     *
+     * @return шардированный сервис
+     */
+    public ShardedTransportService getService() {
+        return service;
+    }
+
+    /**
+     * Закрывает соединения и завершает процессы шардов.
+     */
+    @Override
+    public void close() {
+        service.close();
+        for (Process process : processes) {
+            try {
+                process.getOutputStream().close();
+            } catch (IOException e) {
+                // Процесс уже завершился
+            }
+            process.destroy();
+        }
+    }
+
+    /**
+     * Читает стандартный вывод процесса до маркера готовности и возвращает порт.
+     *
+     * @param process процесс шарда
+     * @return номер порта
+     * @throws IOException    при ошибке чтения вывода процесса
+     * @throws ShardException если процесс завершился, не сообщив порт
+     */
+    private static int awaitPort(Process process) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith(ShardProtocol.READY_MARKER + " ")) {
+                return Integer.parseInt(line.substring(ShardProtocol.READY_MARKER.length() + 1).trim());
+            }
+        }
+        throw new ShardException("Процесс шарда завершился до готовности");
+    }
+}
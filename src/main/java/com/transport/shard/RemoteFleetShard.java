@@ -0,0 +1,180 @@
+package com.transport.shard;
+
+import com.transport.exception.ShardException;
+import com.transport.model.Transport;
+import com.transport.service.TransportQuery;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Клиент шарда, работающего в другом процессе (ShardServer).
+ * Запросы передаются по одному соединению и выполняются по очереди в однопоточном исполнителе клиента.
+ * Транспортные средства передаются по значению: изменения полей у полученных копий не попадают в шард.
+ * <p>
+ * Ошибка, о которой шард сообщил в ответе, завершает только свой запрос. После любой другой ошибки
+ * обмена положение в потоке ответов неизвестно, поэтому клиент закрывает соединение,
+ * а все последующие запросы завершаются ShardException.
+ */
+public class RemoteFleetShard implements FleetShard {
+    private static final int CONNECT_TIMEOUT_MILLIS = 5000;
+
+    private final InetSocketAddress address;
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private final ExecutorService executor;
+    private boolean broken;
+
+    /**
+     * Подключается к процессу шарда.
+     *
+     * @param address адрес сервера шарда
+     * @throws ShardException если соединение не удалось установить
+     */
+    public RemoteFleetShard(InetSocketAddress address) {
+        this.address = address;
+        try {
+            this.socket = new Socket();
+            socket.connect(address, CONNECT_TIMEOUT_MILLIS);
+            socket.setTcpNoDelay(true);
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        } catch (IOException e) {
+            throw new ShardException("Не удалось подключиться к шарду " + address, e);
+        }
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fleet-shard-client-" + address.getPort());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> add(Transport transport) {
+        return call(() -> {
+            out.writeByte(ShardProtocol.OP_ADD);
+            TransportCodec.writeTransport(out, transport);
+            readStatus();
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Transport> remove(long id) {
+        return call(() -> {
+            out.writeByte(ShardProtocol.OP_REMOVE);
+            out.writeLong(id);
+            readStatus();
+            return in.readBoolean() ? TransportCodec.readTransport(in) : null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<Transport>> query(TransportQuery query) {
+        return call(() -> {
+            out.writeByte(ShardProtocol.OP_QUERY);
+            TransportCodec.writeQuery(out, query);
+            readStatus();
+            int count = in.readInt();
+            List<Transport> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                result.add(TransportCodec.readTransport(in));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> size() {
+        return call(() -> {
+            out.writeByte(ShardProtocol.OP_SIZE);
+            readStatus();
+            return in.readInt();
+        });
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            socket.close();
+        } catch (IOException e) {
+            System.out.println("Ошибка закрытия соединения с шардом " + address + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Отправляет запрос и читает ответ в исполнителе клиента.
+     * Ошибка ответа шарда передается как есть, а после любой другой ошибки соединение закрывается.
+     *
+     * @param exchange обмен запросом и ответом
+     * @param <T>      тип результата
+     * @return future с результатом
+     */
+    private <T> CompletableFuture<T> call(Exchange<T> exchange) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (broken) {
+                throw new ShardException("Соединение с шардом " + address + " закрыто после ошибки обмена");
+            }
+            try {
+                return exchange.run();
+            } catch (ShardException e) {
+                // Только readStatus: ответ с ошибкой прочитан целиком, соединение пригодно
+                throw e;
+            } catch (IOException | RuntimeException e) {
+                disconnect();
+                throw new ShardException("Ошибка обмена с шардом " + address, e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Помечает соединение разорванным и закрывает сокет.
+     */
+    private void disconnect() {
+        broken = true;
+        try {
+            socket.close();
+        } catch (IOException e) {
+            System.out.println("Ошибка закрытия соединения с шардом " + address + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Отправляет накопленный запрос и читает статус ответа.
+     *
+     * @throws IOException    при ошибке ввода-вывода
+     * @throws ShardException если шард вернул ошибку
+     */
+    private void readStatus() throws IOException {
+        out.flush();
+        byte status = in.readByte();
+        if (status == ShardProtocol.STATUS_ERROR) {
+            throw new ShardException("Шард " + address + " вернул ошибку: " + in.readUTF());
+        }
+        if (status != ShardProtocol.STATUS_OK) {
+            throw new IOException("Неизвестный статус ответа: " + status);
+        }
+    }
+
+    /**
+     * Один обмен запросом и ответом с сервером шарда.
+     *
+     * @param <T> тип результата
+     */
+    @FunctionalInterface
+    private interface Exchange<T> {
+        T run() throws IOException;
+    }
+}
@@ -0,0 +1,87 @@
+package com.transport.shard;
+
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+import com.transport.service.TransportQuery;
+
+import java.util.Objects;
+
+/**
+ * Ключ распределения транспортных средств по шардам.
+ */
+public enum ShardKey {
+    /**
+     * Распределение по идентификатору транспортного средства.
+     */
+    ID {
+        @Override
+        public int shardOf(Transport transport, int shardCount) {
+            return shardOfId(transport.getId(), shardCount);
+        }
+
+        @Override
+        public int shardOf(TransportQuery query, int shardCount) {
+            return -1;
+        }
+    },
+
+    /**
+     * Распределение по производителю: весь транспорт одного производителя хранится в одном шарде,
+     * и запросы с условием на производителя обращаются только к нему.
+     */
+    MANUFACTURER {
+        @Override
+        public int shardOf(Transport transport, int shardCount) {
+            return spread(Objects.hashCode(transport.getManufacturer()), shardCount);
+        }
+
+        @Override
+        public int shardOf(TransportQuery query, int shardCount) {
+            if (!query.getConditions().containsKey(TransportField.MANUFACTURER)) {
+                return -1;
+            }
+            return spread(Objects.hashCode(query.getConditions().get(TransportField.MANUFACTURER)), shardCount);
+        }
+    };
+
+    /**
+     * Возвращает номер шарда для транспортного средства.
+     *
+     * @param transport  транспортное средство
+     * @param shardCount количество шардов
+     * @return номер шарда от 0 до shardCount - 1
+     */
+    public abstract int shardOf(Transport transport, int shardCount);
+
+    /**
+     * Возвращает номер единственного шарда, который может содержать результаты запроса.
+     *
+     * @param query      запрос
+     * @param shardCount количество шардов
+     * @return номер шарда или -1, если запрос нужно разослать во все шарды
+     */
+    public abstract int shardOf(TransportQuery query, int shardCount);
+
+    /**
+     * Возвращает номер шарда для идентификатора транспортного средства.
+     *
+     * @param id         идентификатор
+     * @param shardCount количество шардов
+     * @return номер шарда от 0 до shardCount - 1
+     */
+    static int shardOfId(long id, int shardCount) {
+        return spread(Long.hashCode(id), shardCount);
+    }
+
+    /**
+     * Перемешивает биты хеш-кода и приводит его к диапазону номеров шардов.
+     *
+     * @param hash       хеш-код
+     * @param shardCount количество шардов
+     * @return номер шарда от 0 до shardCount - 1
+     */
+    private static int spread(int hash, int shardCount) {
+        int h = hash * 0x9E3779B9;
+        return Math.floorMod(h ^ (h >>> 16), shardCount);
+    }
+}
@@ -0,0 +1,24 @@
+package com.transport.shard;
+
+/**
+ * Коды запросов и ответов протокола удаленного шарда.
+ * Запрос: код операции и аргументы. Ответ: код статуса, затем результат или сообщение об ошибке.
+ */
+final class ShardProtocol {
+    static final byte OP_ADD = 1;
+    static final byte OP_REMOVE = 2;
+    static final byte OP_QUERY = 3;
+    static final byte OP_SIZE = 4;
+
+    static final byte STATUS_OK = 0;
+    static final byte STATUS_ERROR = 1;
+
+    /**
+     * Строка, которую процесс шарда печатает в стандартный вывод, когда готов принимать соединения.
+     * За ней через пробел следует номер порта.
+     */
+    static final String READY_MARKER = "SHARD-READY";
+
+    private ShardProtocol() {
+    }
+}
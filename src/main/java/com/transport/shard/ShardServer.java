@@ -0,0 +1,199 @@
+package com.transport.shard;
+
+import com.transport.model.Transport;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Процесс шарда: обслуживает LocalFleetShard по протоколу ShardProtocol через loopback-сокет.
+ * Каждое соединение обрабатывается в отдельном потоке; операции шарда упорядочиваются его исполнителем.
+ */
+public class ShardServer implements AutoCloseable {
+    static final String EXIT_WITH_PARENT = "--exit-with-parent";
+
+    private final LocalFleetShard shard;
+    private final ServerSocket serverSocket;
+
+    /**
+     * Открывает серверный сокет на loopback-интерфейсе.
+     *
+     * @param port номер порта или 0 для выбора свободного порта
+     * @throws IOException если сокет не удалось открыть
+     */
+    public ShardServer(int port) throws IOException {
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.shard = new LocalFleetShard("fleet-shard-" + serverSocket.getLocalPort());
+    }
+
+    /**
+     * Возвращает порт, на котором сервер принимает соединения.
+     *
+     * @return номер порта
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Принимает соединения до закрытия сервера.
+     */
+    public void serve() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread handler = new Thread(() -> handle(socket), "shard-connection-" + socket.getPort());
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.out.println("Ошибка приема соединения: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Обрабатывает запросы одного клиента до закрытия соединения.
+     * Ответ собирается в буфере и отправляется целиком, поэтому исключение во время операции
+     * не оставляет в потоке части ответа: вместо него клиент получает STATUS_ERROR с сообщением.
+     * Ошибка ввода-вывода или протокола, в том числе ошибка разбора запроса, после которой
+     * непрочитанный остаток запроса нельзя отличить от следующей операции, закрывает соединение.
+     *
+     * @param socket соединение с клиентом
+     */
+    private void handle(Socket socket) {
+        try (Socket client = socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(client.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(client.getOutputStream()))) {
+            client.setTcpNoDelay(true);
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            DataOutputStream response = new DataOutputStream(buffer);
+            while (true) {
+                byte op;
+                try {
+                    op = in.readByte();
+                } catch (EOFException e) {
+                    return;
+                }
+                buffer.reset();
+                try {
+                    dispatch(op, in, response);
+                } catch (RuntimeException e) {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    buffer.reset();
+                    response.writeByte(ShardProtocol.STATUS_ERROR);
+                    response.writeUTF(String.valueOf(cause.getMessage()));
+                }
+                buffer.writeTo(out);
+                out.flush();
+            }
+        } catch (IOException e) {
+            System.out.println("Соединение с клиентом шарда прервано: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Выполняет одну операцию и записывает успешный ответ.
+     *
+     * @param op  код операции
+     * @param in  поток запроса
+     * @param out поток ответа
+     * @throws IOException при ошибке ввода-вывода или неизвестном коде операции
+     */
+    private void dispatch(byte op, DataInputStream in, DataOutputStream out) throws IOException {
+        switch (op) {
+            case ShardProtocol.OP_ADD: {
+                Transport transport = TransportCodec.readTransport(in);
+                shard.add(transport).join();
+                out.writeByte(ShardProtocol.STATUS_OK);
+                break;
+            }
+            case ShardProtocol.OP_REMOVE: {
+                Transport removed = shard.remove(in.readLong()).join();
+                out.writeByte(ShardProtocol.STATUS_OK);
+                out.writeBoolean(removed != null);
+                if (removed != null) {
+                    TransportCodec.writeTransport(out, removed);
+                }
+                break;
+            }
+            case ShardProtocol.OP_QUERY: {
+                List<Transport> result = shard.query(TransportCodec.readQuery(in)).join();
+                out.writeByte(ShardProtocol.STATUS_OK);
+                out.writeInt(result.size());
+                for (Transport transport : result) {
+                    TransportCodec.writeTransport(out, transport);
+                }
+                break;
+            }
+            case ShardProtocol.OP_SIZE:
+                out.writeByte(ShardProtocol.STATUS_OK);
+                out.writeInt(shard.size().join());
+                break;
+            default:
+                throw new IOException("Неизвестная операция: " + op);
+        }
+    }
+
+    /**
+     * Закрывает серверный сокет и останавливает шард.
+     *
+     * @throws IOException при ошибке закрытия сокета
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        shard.close();
+    }
+
+    /**
+     * Запускает процесс шарда и печатает маркер готовности с номером порта.
+     * С флагом --exit-with-parent процесс завершается, когда закрывается его стандартный ввод,
+     * поэтому дочерние процессы не переживают запустивший их процесс.
+     *
+     * @param args номер порта (0 или отсутствие - свободный порт) и необязательный флаг --exit-with-parent
+     * @throws IOException если сокет не удалось открыть
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        boolean exitWithParent = args.length > 1 && EXIT_WITH_PARENT.equals(args[1]);
+        ShardServer server = new ShardServer(port);
+        if (exitWithParent) {
+            startParentWatchdog();
+        }
+        System.out.println(ShardProtocol.READY_MARKER + " " + server.getPort());
+        System.out.flush();
+        server.serve();
+    }
+
+    /**
+     * Запускает поток, который завершает процесс после закрытия стандартного ввода.
+     */
+    private static void startParentWatchdog() {
+        Thread watchdog = new Thread(() -> {
+            try {
+                InputStream stdin = System.in;
+                while (stdin.read() != -1) {
+                    // Ожидаем закрытия стандартного ввода родительским процессом
+                }
+            } catch (IOException e) {
+                // Стандартный ввод недоступен - считаем, что родитель завершился
+            }
+            System.exit(0);
+        }, "shard-parent-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+    }
+}
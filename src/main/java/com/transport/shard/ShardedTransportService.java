@@ -0,0 +1,304 @@
+package com.transport.shard;
+
+import com.transport.exception.ShardException;
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+import com.transport.service.FleetListener;
+import com.transport.service.TransportQuery;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Коллекция транспортных средств, разбитая на несколько независимых шардов.
+ * Транспорт распределяется по шардам хешем от ключа ShardKey; запросы рассылаются во все шарды
+ * параллельно, а результаты собираются в один список. Если ключ распределения позволяет
+ * определить единственный подходящий шард, запрос отправляется только в него.
+ * <p>
+ * При распределении по производителю смена производителя у транспорта в локальном шарде
+ * переносит его в новый шард. Перенос и удаление одного транспорта выполняются по очереди:
+ * удаление дожидается незавершенного переноса и отправляется в шард, где транспорт оказался.
+ * Если добавить транспорт в новый шард не удалось, он возвращается в прежний.
+ */
+public class ShardedTransportService implements AutoCloseable {
+    private final List<FleetShard> shards;
+    private final ShardKey shardKey;
+    private final Map<Long, Integer> placement = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Создает сервис с указанным количеством шардов в текущем процессе.
+     *
+     * @param shardCount количество шардов
+     * @param shardKey   ключ распределения транспорта по шардам
+     * @throws IllegalArgumentException если количество шардов не положительное
+     */
+    public ShardedTransportService(int shardCount, ShardKey shardKey) {
+        this(createLocalShards(shardCount), shardKey);
+    }
+
+    /**
+     * Создает сервис над готовыми шардами.
+     *
+     * @param shards   шарды; порядок определяет номера шардов
+     * @param shardKey ключ распределения транспорта по шардам
+     * @throws IllegalArgumentException если список шардов пуст
+     */
+    public ShardedTransportService(List<? extends FleetShard> shards, ShardKey shardKey) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("Количество шардов должно быть положительным");
+        }
+        this.shards = new ArrayList<>(shards);
+        this.shardKey = Objects.requireNonNull(shardKey, "shardKey");
+        for (int i = 0; i < this.shards.size(); i++) {
+            FleetShard shard = this.shards.get(i);
+            if (shard instanceof LocalFleetShard) {
+                ((LocalFleetShard) shard).getService().addListener(new RehomingListener());
+            }
+        }
+    }
+
+    /**
+     * Подключается к шардам, работающим в других процессах.
+     *
+     * @param addresses адреса серверов шардов
+     * @param shardKey  ключ распределения транспорта по шардам
+     * @return сервис над удаленными шардами
+     * @throws ShardException если к одному из шардов не удалось подключиться
+     */
+    public static ShardedTransportService connect(List<InetSocketAddress> addresses, ShardKey shardKey) {
+        List<FleetShard> shards = new ArrayList<>(addresses.size());
+        try {
+            for (InetSocketAddress address : addresses) {
+                shards.add(new RemoteFleetShard(address));
+            }
+        } catch (ShardException e) {
+            shards.forEach(FleetShard::close);
+            throw e;
+        }
+        return new ShardedTransportService(shards, shardKey);
+    }
+
+    /**
+     * Возвращает количество шардов.
+     *
+     * @return количество шардов
+     */
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * Добавляет транспортное средство в шард, определенный ключом распределения.
+     *
+     * @param transport транспортное средство
+     * @return future, завершающийся после добавления
+     */
+    public CompletableFuture<Void> addTransportAsync(Transport transport) {
+        int shard = shardKey.shardOf(transport, shards.size());
+        if (shardKey != ShardKey.ID) {
+            placement.put(transport.getId(), shard);
+        }
+        return shards.get(shard).add(transport);
+    }
+
+    /**
+     * Добавляет транспортное средство и ждет завершения операции.
+     *
+     * @param transport транспортное средство
+     * @throws ShardException при ошибке шарда
+     */
+    public void addTransport(Transport transport) {
+        join(addTransportAsync(transport));
+    }
+
+    /**
+     * Удаляет транспортное средство по идентификатору.
+     *
+     * @param id идентификатор транспортного средства
+     * @return удаленное транспортное средство или null, если оно не найдено
+     * @throws ShardException при ошибке шарда
+     */
+    public Transport removeTransportById(long id) {
+        if (shardKey == ShardKey.ID) {
+            return join(shards.get(ShardKey.shardOfId(id, shards.size())).remove(id));
+        }
+        return join(inOrder(id, () -> {
+            Integer shard = placement.remove(id);
+            return shard == null ? CompletableFuture.completedFuture(null) : shards.get(shard).remove(id);
+        }));
+    }
+
+    /**
+     * Выполняет запрос во всех подходящих шардах параллельно и объединяет результаты.
+     *
+     * @param query запрос
+     * @return future со списком найденных транспортных средств
+     */
+    public CompletableFuture<List<Transport>> queryAsync(TransportQuery query) {
+        int target = shardKey.shardOf(query, shards.size());
+        if (target >= 0) {
+            return shards.get(target).query(query);
+        }
+        List<CompletableFuture<List<Transport>>> parts = new ArrayList<>(shards.size());
+        for (FleetShard shard : shards) {
+            parts.add(shard.query(query));
+        }
+        return CompletableFuture.allOf(parts.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+            int total = 0;
+            for (CompletableFuture<List<Transport>> part : parts) {
+                total += part.join().size();
+            }
+            List<Transport> result = new ArrayList<>(total);
+            for (CompletableFuture<List<Transport>> part : parts) {
+                result.addAll(part.join());
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Выполняет запрос и ждет результата.
+     *
+     * @param query запрос
+     * @return список найденных транспортных средств
+     * @throws ShardException при ошибке шарда
+     */
+    public List<Transport> query(TransportQuery query) {
+        return join(queryAsync(query));
+    }
+
+    /**
+     * Возвращает общее количество транспортных средств во всех шардах.
+     *
+     * @return количество транспортных средств
+     * @throws ShardException при ошибке шарда
+     */
+    public int size() {
+        int total = 0;
+        for (FleetShard shard : shards) {
+            total += join(shard.size());
+        }
+        return total;
+    }
+
+    /**
+     * Останавливает все шарды.
+     */
+    @Override
+    public void close() {
+        shards.forEach(FleetShard::close);
+    }
+
+    /**
+     * Ждет завершения операции шарда и разворачивает CompletionException.
+     *
+     * @param future операция шарда
+     * @param <T>    тип результата
+     * @return результат операции
+     * @throws ShardException если операция завершилась ошибкой
+     */
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ShardException) {
+                throw (ShardException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new ShardException("Ошибка операции шарда", cause);
+        }
+    }
+
+    /**
+     * Выполняет операцию над транспортом после завершения предыдущих операций над ним,
+     * независимо от их результата.
+     *
+     * @param id        идентификатор транспортного средства
+     * @param operation операция
+     * @param <T>       тип результата
+     * @return результат операции
+     */
+    private <T> CompletableFuture<T> inOrder(long id, Supplier<CompletableFuture<T>> operation) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CompletableFuture<Void> previous = pending.put(id, done);
+        CompletableFuture<T> result = (previous == null ? CompletableFuture.completedFuture((Void) null) : previous)
+                .thenCompose(ignored -> operation.get());
+        result.whenComplete((value, failure) -> {
+            pending.remove(id, done);
+            done.complete(null);
+        });
+        return result;
+    }
+
+    /**
+     * Переносит транспорт в шард, который соответствует его текущему производителю.
+     * Если добавление в новый шард не удалось, транспорт возвращается в прежний; если не удалось
+     * и это, транспорт перестает числиться в шардах, а future завершается ошибкой.
+     *
+     * @param transport транспортное средство
+     * @return future, завершающийся после переноса
+     */
+    private CompletableFuture<Void> rehome(Transport transport) {
+        long id = transport.getId();
+        Integer source = placement.get(id);
+        int target = shardKey.shardOf(transport, shards.size());
+        if (source == null || source == target) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return shards.get(source).remove(id).thenCompose(removed -> {
+            if (removed == null) {
+                placement.remove(id);
+                return CompletableFuture.completedFuture(null);
+            }
+            return shards.get(target).add(removed)
+                    .handle((ignored, failure) -> {
+                        if (failure == null) {
+                            placement.put(id, target);
+                            return CompletableFuture.<Void>completedFuture(null);
+                        }
+                        return shards.get(source).add(removed).whenComplete((restored, restoreFailure) -> {
+                            if (restoreFailure != null) {
+                                placement.remove(id);
+                            }
+                        });
+                    })
+                    .thenCompose(Function.identity());
+        });
+    }
+
+    private static List<FleetShard> createLocalShards(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Количество шардов должно быть положительным");
+        }
+        List<FleetShard> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new LocalFleetShard("fleet-shard-" + i));
+        }
+        return shards;
+    }
+
+    /**
+     * Ставит в очередь перенос транспорта в другой шард, если изменилось поле, по которому он распределен.
+     */
+    private final class RehomingListener implements FleetListener {
+
+        @Override
+        public void onModified(Transport transport, TransportField field, Object oldValue, Object newValue) {
+            if (shardKey == ShardKey.MANUFACTURER && field == TransportField.MANUFACTURER) {
+                inOrder(transport.getId(), () -> rehome(transport));
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.transport.shard;
+
+import com.transport.model.Airplane;
+import com.transport.model.Car;
+import com.transport.model.RestoredTransports;
+import com.transport.model.Ship;
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+import com.transport.service.TransportQuery;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Двоичное представление транспортных средств и запросов для обмена с удаленными шардами.
+ * Идентификатор транспортного средства передается вместе с полями и восстанавливается при чтении.
+ * Любая ошибка разбора сообщается как IOException: после нее положение в потоке не определено,
+ * и соединение нужно закрыть.
+ */
+public final class TransportCodec {
+    private static final byte TRANSPORT = 0;
+    private static final byte AIRPLANE = 1;
+    private static final byte CAR = 2;
+    private static final byte SHIP = 3;
+
+    private static final byte NULL_VALUE = 0;
+    private static final byte INT_VALUE = 1;
+    private static final byte STRING_VALUE = 2;
+
+    private TransportCodec() {
+    }
+
+    /**
+     * Записывает транспортное средство.
+     *
+     * @param out       поток для записи
+     * @param transport транспортное средство
+     * @throws IOException при ошибке записи
+     */
+    public static void writeTransport(DataOutput out, Transport transport) throws IOException {
+        if (transport instanceof Airplane) {
+            out.writeByte(AIRPLANE);
+        } else if (transport instanceof Car) {
+            out.writeByte(CAR);
+        } else if (transport instanceof Ship) {
+            out.writeByte(SHIP);
+        } else {
+            out.writeByte(TRANSPORT);
+        }
+        out.writeLong(transport.getId());
+        writeString(out, transport.getName());
+        out.writeInt(transport.getMaxSpeed());
+        writeString(out, transport.getManufacturer());
+        if (transport instanceof Airplane) {
+            Airplane airplane = (Airplane) transport;
+            out.writeInt(airplane.getMaxAltitude());
+            out.writeInt(airplane.getPassengerCapacity());
+        } else if (transport instanceof Car) {
+            Car car = (Car) transport;
+            writeString(out, car.getLicensePlate());
+            out.writeInt(car.getDoorCount());
+            writeString(out, car.getFuelType());
+        } else if (transport instanceof Ship) {
+            Ship ship = (Ship) transport;
+            out.writeInt(ship.getDisplacement());
+            out.writeInt(ship.getCrewSize());
+            writeString(out, ship.getShipType());
+        }
+    }
+
+    /**
+     * Читает транспортное средство, записанное {@link #writeTransport}.
+     *
+     * @param in поток для чтения
+     * @return прочитанное транспортное средство с исходным идентификатором
+     * @throws IOException при ошибке чтения, неизвестном типе транспорта или недопустимых значениях полей
+     */
+    public static Transport readTransport(DataInput in) throws IOException {
+        byte kind = in.readByte();
+        long id = in.readLong();
+        String name = readString(in);
+        int maxSpeed = in.readInt();
+        String manufacturer = readString(in);
+        try {
+            switch (kind) {
+                case TRANSPORT:
+                    return RestoredTransports.transport(id, name, maxSpeed, manufacturer);
+                case AIRPLANE:
+                    return RestoredTransports.airplane(id, name, maxSpeed, manufacturer, in.readInt(), in.readInt());
+                case CAR:
+                    return RestoredTransports.car(id, name, maxSpeed, manufacturer,
+                            readString(in), in.readInt(), readString(in));
+                case SHIP:
+                    return RestoredTransports.ship(id, name, maxSpeed, manufacturer,
+                            in.readInt(), in.readInt(), readString(in));
+                default:
+                    throw new IOException("Неизвестный тип транспорта: " + kind);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Недопустимое транспортное средство: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Записывает запрос.
+     *
+     * @param out   поток для записи
+     * @param query запрос
+     * @throws IOException при ошибке записи
+     */
+    public static void writeQuery(DataOutput out, TransportQuery query) throws IOException {
+        out.writeUTF(query.getType().getName());
+        out.writeInt(query.getConditions().size());
+        for (Map.Entry<TransportField, Object> condition : query.getConditions().entrySet()) {
+            out.writeUTF(condition.getKey().getFieldName());
+            Object value = condition.getValue();
+            if (value == null) {
+                out.writeByte(NULL_VALUE);
+            } else if (value instanceof Integer) {
+                out.writeByte(INT_VALUE);
+                out.writeInt((Integer) value);
+            } else {
+                out.writeByte(STRING_VALUE);
+                out.writeUTF(value.toString());
+            }
+        }
+    }
+
+    /**
+     * Читает запрос, записанный {@link #writeQuery}.
+     *
+     * @param in поток для чтения
+     * @return прочитанный запрос
+     * @throws IOException при ошибке чтения, неизвестном типе транспорта или недопустимом условии
+     */
+    public static TransportQuery readQuery(DataInput in) throws IOException {
+        String typeName = in.readUTF();
+        Class<? extends Transport> type;
+        try {
+            type = Class.forName(typeName).asSubclass(Transport.class);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Неизвестный тип транспорта: " + typeName, e);
+        }
+        TransportQuery query = TransportQuery.of(type);
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String fieldName = in.readUTF();
+            byte tag = in.readByte();
+            Object value;
+            switch (tag) {
+                case NULL_VALUE:
+                    value = null;
+                    break;
+                case INT_VALUE:
+                    value = in.readInt();
+                    break;
+                case STRING_VALUE:
+                    value = in.readUTF();
+                    break;
+                default:
+                    throw new IOException("Неизвестный тип значения: " + tag);
+            }
+            try {
+                query = query.where(TransportField.byName(fieldName), value);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Недопустимое условие запроса: " + e.getMessage(), e);
+            }
+        }
+        return query;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,210 @@
+package com.transport.snapshot;
+
+import com.transport.model.RestoredTransports;
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Раскодированный блок снимка: колонки значений по строкам блока.
+ * Числовые колонки и идентификаторы раскодированы в массивы; текстовые значения из словаря
+ * берутся готовыми, остальные хранятся байтами UTF-8 (значения с префиксным кодированием
+ * предварительно восстанавливаются) и превращаются в строки только при обращении.
+ * <p>
+ * {@link SnapshotDecoder} переиспользует блок: после чтения следующего блока
+ * прежнее содержимое недействительно.
+ */
+public final class SnapshotBlock {
+    private static final int FIELD_COUNT = SnapshotFormat.FIELDS.length;
+
+    int size;
+    byte[] body = new byte[0];
+    byte[] types = new byte[0];
+    long[] ids = new long[0];
+    /** Числовые колонки по порядковому номеру поля. */
+    final int[][] ints = new int[FIELD_COUNT][];
+    /** Словари текстовых колонок; null, если значения записаны подряд. Номер 0 означает null. */
+    final String[][] dictionaries = new String[FIELD_COUNT][];
+    /** Восстановленные байты UTF-8 значений с префиксным кодированием. */
+    byte[] text = new byte[1 << 16];
+    int textLength;
+    /** Восстановлены ли значения колонки в {@link #text}; иначе они читаются из тела блока. */
+    final boolean[] prefixed = new boolean[FIELD_COUNT];
+    /** Номер в словаре или смещение значения в {@link #text} либо в теле блока. */
+    final int[][] references = new int[FIELD_COUNT][];
+    /** Длина значения в байтах для колонок без словаря; -1 означает null. */
+    final int[][] lengths = new int[FIELD_COUNT][];
+
+    SnapshotBlock() {
+    }
+
+    /**
+     * Подготавливает массивы колонок для блока указанного размера.
+     *
+     * @param rows     количество строк
+     * @param bodySize размер тела блока в байтах
+     */
+    void reset(int rows, int bodySize) {
+        size = rows;
+        textLength = 0;
+        if (body.length < bodySize + Long.BYTES) {
+            body = new byte[bodySize + Long.BYTES + (bodySize >>> 3)];
+        }
+        if (types.length < rows) {
+            types = new byte[rows];
+            ids = new long[rows];
+            for (TransportField field : SnapshotFormat.FIELDS) {
+                int index = field.ordinal();
+                if (field.getValueType() == Integer.class) {
+                    ints[index] = new int[rows];
+                } else {
+                    references[index] = new int[rows];
+                    lengths[index] = new int[rows];
+                }
+            }
+        }
+    }
+
+    /**
+     * Возвращает количество строк в блоке.
+     *
+     * @return количество транспортных средств
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает идентификатор транспортного средства.
+     *
+     * @param row номер строки
+     * @return идентификатор
+     */
+    public long getId(int row) {
+        checkRow(row);
+        return ids[row];
+    }
+
+    /**
+     * Возвращает класс транспортного средства.
+     *
+     * @param row номер строки
+     * @return Transport, Airplane, Car или Ship
+     */
+    @SuppressWarnings("unchecked")
+    public Class<? extends Transport> getType(int row) {
+        checkRow(row);
+        return (Class<? extends Transport>) SnapshotFormat.TYPES[types[row]];
+    }
+
+    /**
+     * Возвращает значение числового поля.
+     *
+     * @param field числовое поле
+     * @param row   номер строки
+     * @return значение поля
+     * @throws IllegalArgumentException если поле не числовое или отсутствует у транспорта этой строки
+     */
+    public int getInt(TransportField field, int row) {
+        checkField(field, Integer.class, row);
+        return ints[field.ordinal()][row];
+    }
+
+    /**
+     * Возвращает значение текстового поля.
+     *
+     * @param field текстовое поле
+     * @param row   номер строки
+     * @return значение поля или null
+     * @throws IllegalArgumentException если поле не текстовое или отсутствует у транспорта этой строки
+     */
+    public String getString(TransportField field, int row) {
+        checkField(field, String.class, row);
+        return string(field.ordinal(), row);
+    }
+
+    /**
+     * Создает транспортное средство по строке блока с исходным идентификатором.
+     * Значения проверяются конструкторами модели.
+     *
+     * @param row номер строки
+     * @return новое транспортное средство
+     */
+    public Transport toTransport(int row) {
+        checkRow(row);
+        String name = string(TransportField.NAME.ordinal(), row);
+        int maxSpeed = ints[TransportField.MAX_SPEED.ordinal()][row];
+        String manufacturer = string(TransportField.MANUFACTURER.ordinal(), row);
+        long id = ids[row];
+        switch (types[row]) {
+            case 1:
+                return RestoredTransports.airplane(id, name, maxSpeed, manufacturer,
+                        ints[TransportField.MAX_ALTITUDE.ordinal()][row],
+                        ints[TransportField.PASSENGER_CAPACITY.ordinal()][row]);
+            case 2:
+                return RestoredTransports.car(id, name, maxSpeed, manufacturer,
+                        string(TransportField.LICENSE_PLATE.ordinal(), row),
+                        ints[TransportField.DOOR_COUNT.ordinal()][row],
+                        string(TransportField.FUEL_TYPE.ordinal(), row));
+            case 3:
+                return RestoredTransports.ship(id, name, maxSpeed, manufacturer,
+                        ints[TransportField.DISPLACEMENT.ordinal()][row],
+                        ints[TransportField.CREW_SIZE.ordinal()][row],
+                        string(TransportField.SHIP_TYPE.ordinal(), row));
+            default:
+                return RestoredTransports.transport(id, name, maxSpeed, manufacturer);
+        }
+    }
+
+    private String string(int field, int row) {
+        int reference = references[field][row];
+        String[] dictionary = dictionaries[field];
+        if (dictionary != null) {
+            return dictionary[reference];
+        }
+        int length = lengths[field][row];
+        if (length < 0) {
+            return null;
+        }
+        return new String(prefixed[field] ? text : body, reference, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Восстанавливает значение из префикса предыдущего значения и окончания из тела блока.
+     *
+     * @param previous     смещение предыдущего значения в {@link #text}
+     * @param shared       длина общего префикса
+     * @param source       тело блока
+     * @param sourceOffset смещение окончания в теле блока
+     * @param suffix       длина окончания
+     * @return смещение восстановленного значения в {@link #text}
+     */
+    int appendText(int previous, int shared, byte[] source, int sourceOffset, int suffix) {
+        int start = textLength;
+        if (start + shared + suffix > text.length) {
+            text = Arrays.copyOf(text, Math.max(text.length * 2, start + shared + suffix));
+        }
+        for (int i = 0; i < shared; i++) {
+            text[start + i] = text[previous + i];
+        }
+        System.arraycopy(source, sourceOffset, text, start + shared, suffix);
+        textLength = start + shared + suffix;
+        return start;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException(String.format("Строка: %d, размер блока: %d", row, size));
+        }
+    }
+
+    private void checkField(TransportField field, Class<?> valueType, int row) {
+        checkRow(row);
+        if (field.getValueType() != valueType || !SnapshotFormat.APPLIES[field.ordinal()][types[row]]) {
+            throw new IllegalArgumentException(String.format("Поле %s недоступно как %s для %s",
+                    field.getFieldName(), valueType.getSimpleName(), SnapshotFormat.TYPES[types[row]].getSimpleName()));
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.transport.snapshot;
+
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Потоковое чтение колоночного снимка, записанного {@link SnapshotEncoder}.
+ * В памяти одновременно находится только один блок: тело блока читается целиком,
+ * после чего колонки раскодируются из массива байт. Упакованные числа извлекаются
+ * чтением восьми байт с произвольного смещения, varint — побайтно.
+ * <pre>
+ * try (SnapshotDecoder decoder = new SnapshotDecoder(Files.newInputStream(path))) {
+ *     for (SnapshotBlock block = decoder.next(); block != null; block = decoder.next()) {
+ *         for (int row = 0; row &lt; block.size(); row++) {
+ *             total += block.getInt(TransportField.MAX_SPEED, row);
+ *         }
+ *     }
+ * }
+ * </pre>
+ * Экземпляр не потокобезопасен.
+ */
+public class SnapshotDecoder implements AutoCloseable {
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final int MAX_BLOCK_ROWS = 1 << 24;
+
+    private final DataInputStream in;
+    private final SnapshotBlock block = new SnapshotBlock();
+    private final int[][] rowsByType = new int[SnapshotFormat.TYPES.length][];
+    private final int[] typeCounts = new int[SnapshotFormat.TYPES.length];
+    private int position;
+    private boolean finished;
+
+    /**
+     * Создает декодер и проверяет заголовок снимка.
+     *
+     * @param in поток со снимком; закрывается вместе с декодером
+     * @throws IOException при ошибке чтения или если поток не является снимком
+     */
+    public SnapshotDecoder(InputStream in) throws IOException {
+        this.in = new DataInputStream(in);
+        int magic = Integer.reverseBytes(this.in.readInt());
+        byte version = this.in.readByte();
+        if (magic != SnapshotFormat.MAGIC || version != SnapshotFormat.VERSION) {
+            throw new IOException(String.format("Неподдерживаемый формат снимка: %08x, версия %d", magic, version));
+        }
+    }
+
+    /**
+     * Читает и раскодирует следующий блок.
+     *
+     * @return блок или null, если снимок закончился; возвращается один и тот же объект
+     * @throws IOException при ошибке чтения или поврежденном снимке
+     */
+    public SnapshotBlock next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        long rows = readVarLong();
+        if (rows == 0) {
+            finished = true;
+            return null;
+        }
+        long bodySize = readVarLong();
+        if (rows > MAX_BLOCK_ROWS || bodySize > Integer.MAX_VALUE - 2 * Long.BYTES) {
+            throw new IOException(String.format("Поврежденный снимок: блок из %d строк, %d байт", rows, bodySize));
+        }
+        block.reset((int) rows, (int) bodySize);
+        in.readFully(block.body, 0, (int) bodySize);
+        try {
+            decode(block, (int) bodySize);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Поврежденный блок снимка", e);
+        }
+        return block;
+    }
+
+    /**
+     * Создает транспортные средства для всех оставшихся строк снимка.
+     *
+     * @param action действие для каждого транспортного средства
+     * @return количество транспортных средств
+     * @throws IOException при ошибке чтения или поврежденном снимке
+     */
+    public long forEach(Consumer<? super Transport> action) throws IOException {
+        long count = 0;
+        for (SnapshotBlock next = next(); next != null; next = next()) {
+            for (int row = 0; row < next.size(); row++) {
+                action.accept(next.toTransport(row));
+            }
+            count += next.size();
+        }
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Раскодирует колонки тела блока.
+     *
+     * @param target   блок с прочитанным телом
+     * @param bodySize размер тела
+     * @throws IOException если колонки не соответствуют формату
+     */
+    private void decode(SnapshotBlock target, int bodySize) throws IOException {
+        int rows = target.size;
+        byte[] body = target.body;
+        position = 0;
+        Arrays.fill(typeCounts, 0);
+        for (int type = 0; type < rowsByType.length; type++) {
+            if (rowsByType[type] == null || rowsByType[type].length < rows) {
+                rowsByType[type] = new int[rows];
+            }
+        }
+        int typeBase = position;
+        position += (rows * SnapshotFormat.TYPE_BITS + 7) >>> 3;
+        for (int row = 0; row < rows; row++) {
+            int type = (int) unpack(body, typeBase, row, SnapshotFormat.TYPE_BITS, 0b11);
+            target.types[row] = (byte) type;
+            rowsByType[type][typeCounts[type]++] = row;
+        }
+        long id = 0;
+        for (int row = 0; row < rows; row++) {
+            long encoded = readVarLong(body);
+            id += (encoded >>> 1) ^ -(encoded & 1);
+            target.ids[row] = id;
+        }
+        for (TransportField field : SnapshotFormat.FIELDS) {
+            int index = field.ordinal();
+            boolean[] applies = SnapshotFormat.APPLIES[index];
+            int[] rowIndex = rowsOf(applies, rows);
+            int present = rowIndex == null ? rows : presentCount(applies);
+            if (present == 0) {
+                target.dictionaries[index] = null;
+                continue;
+            }
+            if (field.getValueType() == Integer.class) {
+                decodeInts(body, rows, rowIndex, present, target.ints[index]);
+            } else {
+                decodeStrings(target, index, rows, rowIndex, present);
+            }
+        }
+        if (position > bodySize) {
+            throw new IOException("Поврежденный блок снимка: колонки выходят за границу блока");
+        }
+    }
+
+    private void decodeInts(byte[] body, int rows, int[] rowIndex, int present, int[] column) throws IOException {
+        long encodedMin = readVarLong(body);
+        int min = (int) ((encodedMin >>> 1) ^ -(encodedMin & 1));
+        int width = readWidth(body);
+        int base = position;
+        position += (int) (((long) present * width + 7) >>> 3);
+        long mask = (1L << width) - 1;
+        if (rowIndex == null) {
+            for (int row = 0; row < rows; row++) {
+                column[row] = (int) (min + unpack(body, base, row, width, mask));
+            }
+        } else {
+            for (int i = 0; i < present; i++) {
+                column[rowIndex[i]] = (int) (min + unpack(body, base, i, width, mask));
+            }
+        }
+    }
+
+    private void decodeStrings(SnapshotBlock target, int index, int rows, int[] rowIndex, int present)
+            throws IOException {
+        byte[] body = target.body;
+        int[] references = target.references[index];
+        int[] lengths = target.lengths[index];
+        byte encoding = body[position++];
+        target.prefixed[index] = encoding == SnapshotFormat.PREFIX_STRINGS;
+        if (encoding == SnapshotFormat.DICTIONARY_STRINGS) {
+            long size = readVarLong(body);
+            if (size > present) {
+                throw new IOException("Поврежденный блок снимка: размер словаря " + size);
+            }
+            String[] dictionary = new String[(int) size + 1];
+            for (int i = 1; i <= size; i++) {
+                int length = (int) readVarLong(body) - 1;
+                dictionary[i] = length < 0 ? null : new String(body, position, length, StandardCharsets.UTF_8);
+                position += Math.max(length, 0);
+            }
+            target.dictionaries[index] = dictionary;
+            int width = readWidth(body);
+            int base = position;
+            position += (int) (((long) present * width + 7) >>> 3);
+            long mask = (1L << width) - 1;
+            for (int i = 0; i < present; i++) {
+                int reference = (int) unpack(body, base, i, width, mask);
+                if (reference > size) {
+                    throw new IOException("Поврежденный блок снимка: номер строки словаря " + reference);
+                }
+                references[rowIndex == null ? i : rowIndex[i]] = reference;
+            }
+        } else if (encoding == SnapshotFormat.PLAIN_STRINGS) {
+            target.dictionaries[index] = null;
+            for (int i = 0; i < present; i++) {
+                int row = rowIndex == null ? i : rowIndex[i];
+                int length = (int) readVarLong(body) - 1;
+                references[row] = position;
+                lengths[row] = length;
+                position += Math.max(length, 0);
+            }
+        } else if (encoding == SnapshotFormat.PREFIX_STRINGS) {
+            target.dictionaries[index] = null;
+            int previous = 0;
+            int previousLength = 0;
+            for (int i = 0; i < present; i++) {
+                int row = rowIndex == null ? i : rowIndex[i];
+                int suffix = (int) readVarLong(body) - 1;
+                if (suffix < 0) {
+                    lengths[row] = -1;
+                    continue;
+                }
+                int shared = (int) readVarLong(body);
+                if (shared > previousLength) {
+                    throw new IOException("Поврежденный блок снимка: общий префикс " + shared);
+                }
+                int start = target.appendText(previous, shared, body, position, suffix);
+                position += suffix;
+                references[row] = start;
+                lengths[row] = shared + suffix;
+                previous = start;
+                previousLength = shared + suffix;
+            }
+        } else {
+            throw new IOException("Поврежденный блок снимка: неизвестное кодирование строк " + encoding);
+        }
+    }
+
+    /**
+     * Возвращает строки блока, у типа которых есть поле, по возрастанию: null, если поле есть у всех строк.
+     */
+    private int[] rowsOf(boolean[] applies, int rows) {
+        int applicable = 0;
+        int single = 0;
+        for (int type = 0; type < applies.length; type++) {
+            if (applies[type]) {
+                applicable++;
+                single = type;
+            }
+        }
+        if (applicable == applies.length) {
+            return null;
+        }
+        if (applicable == 1) {
+            return rowsByType[single];
+        }
+        int[] merged = new int[presentCount(applies)];
+        int count = 0;
+        for (int row = 0; row < rows; row++) {
+            if (applies[block.types[row]]) {
+                merged[count++] = row;
+            }
+        }
+        return merged;
+    }
+
+    private int presentCount(boolean[] applies) {
+        int present = 0;
+        for (int type = 0; type < applies.length; type++) {
+            present += applies[type] ? typeCounts[type] : 0;
+        }
+        return present;
+    }
+
+    /**
+     * Извлекает упакованное число с номером index, читая восемь байт с байта, в котором оно начинается.
+     * Тело блока дополнено восемью байтами, поэтому чтение не выходит за границу массива.
+     */
+    private static long unpack(byte[] body, int base, int index, int width, long mask) {
+        long bit = (long) index * width;
+        long word = (long) LONGS.get(body, base + (int) (bit >>> 3));
+        return (word >>> (bit & 7)) & mask;
+    }
+
+    private int readWidth(byte[] body) throws IOException {
+        int width = body[position++];
+        if (width < 0 || width > Integer.SIZE) {
+            throw new IOException("Поврежденный блок снимка: ширина упаковки " + width);
+        }
+        return width;
+    }
+
+    private long readVarLong(byte[] body) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = body[position++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Снимок оборван: нет признака конца");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if (b < 0x80) {
+                return value;
+            }
+        }
+        throw new IOException("Поврежденный снимок: слишком длинное число");
+    }
+}
@@ -0,0 +1,390 @@
+package com.transport.snapshot;
+
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Запись транспортных средств в сжатый колоночный снимок (формат описан в {@link SnapshotFormat}).
+ * Строки накапливаются блоками по {@code blockSize}, и каждый блок записывается в поток
+ * одним вызовом write, поэтому дополнительная буферизация потока не нужна.
+ * <pre>
+ * try (FleetSnapshot snapshot = service.snapshot();
+ *      SnapshotEncoder encoder = new SnapshotEncoder(Files.newOutputStream(path))) {
+ *     encoder.writeAll(snapshot);
+ * }
+ * </pre>
+ * Экземпляр не потокобезопасен.
+ */
+public class SnapshotEncoder implements AutoCloseable {
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 16;
+
+    private final OutputStream out;
+    private final int blockSize;
+    private final List<Transport> rows;
+    private final int[] types;
+    private final int[] values;
+    private final Object[] strings;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> dictionaryValues = new ArrayList<>();
+    private ByteSink body = new ByteSink(1 << 16);
+    private long rowCount;
+    private long bytesWritten;
+    private boolean closed;
+
+    /**
+     * Создает кодировщик с размером блока по умолчанию и записывает заголовок снимка.
+     *
+     * @param out поток для записи; закрывается вместе с кодировщиком
+     * @throws IOException при ошибке записи
+     */
+    public SnapshotEncoder(OutputStream out) throws IOException {
+        this(out, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Создает кодировщик и записывает заголовок снимка.
+     *
+     * @param out       поток для записи; закрывается вместе с кодировщиком
+     * @param blockSize количество строк в блоке
+     * @throws IOException              при ошибке записи
+     * @throws IllegalArgumentException если размер блока не положительный
+     */
+    public SnapshotEncoder(OutputStream out, int blockSize) throws IOException {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Размер блока должен быть положительным: " + blockSize);
+        }
+        this.out = out;
+        this.blockSize = blockSize;
+        this.rows = new ArrayList<>(blockSize);
+        this.types = new int[blockSize];
+        this.values = new int[blockSize];
+        this.strings = new Object[blockSize];
+        ByteSink header = new ByteSink(8);
+        header.putIntLittleEndian(SnapshotFormat.MAGIC);
+        header.putByte(SnapshotFormat.VERSION);
+        emit(header);
+    }
+
+    /**
+     * Добавляет транспортное средство в снимок.
+     *
+     * @param transport транспортное средство
+     * @throws IOException           при ошибке записи заполненного блока
+     * @throws IllegalStateException если кодировщик закрыт
+     */
+    public void write(Transport transport) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Кодировщик снимка закрыт");
+        }
+        rows.add(transport);
+        if (rows.size() == blockSize) {
+            flushBlock();
+        }
+    }
+
+    /**
+     * Добавляет в снимок все транспортные средства.
+     *
+     * @param transports транспортные средства, например FleetSnapshot
+     * @throws IOException при ошибке записи
+     */
+    public void writeAll(Iterable<? extends Transport> transports) throws IOException {
+        for (Transport transport : transports) {
+            write(transport);
+        }
+    }
+
+    /**
+     * Возвращает количество записанных транспортных средств.
+     *
+     * @return количество строк
+     */
+    public long getRowCount() {
+        return rowCount + rows.size();
+    }
+
+    /**
+     * Возвращает количество байт, переданных в поток.
+     *
+     * @return размер записанной части снимка
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Записывает неполный блок и признак конца снимка, затем закрывает поток.
+     *
+     * @throws IOException при ошибке записи
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (!rows.isEmpty()) {
+                flushBlock();
+            }
+            ByteSink end = new ByteSink(1);
+            end.putVarLong(0);
+            emit(end);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Кодирует накопленные строки в блок и записывает его.
+     *
+     * @throws IOException при ошибке записи
+     */
+    private void flushBlock() throws IOException {
+        int count = rows.size();
+        body.clear();
+        int[] typeCounts = new int[SnapshotFormat.TYPES.length];
+        for (int i = 0; i < count; i++) {
+            types[i] = SnapshotFormat.typeOf(rows.get(i));
+            typeCounts[types[i]]++;
+        }
+        body.putPacked(types, count, 0, SnapshotFormat.TYPE_BITS);
+        long previousId = 0;
+        for (int i = 0; i < count; i++) {
+            long id = rows.get(i).getId();
+            body.putVarLong(zigzag(id - previousId));
+            previousId = id;
+        }
+        for (TransportField field : SnapshotFormat.FIELDS) {
+            boolean[] applies = SnapshotFormat.APPLIES[field.ordinal()];
+            int present = 0;
+            for (int type = 0; type < typeCounts.length; type++) {
+                present += applies[type] ? typeCounts[type] : 0;
+            }
+            if (present == 0) {
+                continue;
+            }
+            if (field.getValueType() == Integer.class) {
+                writeIntColumn(field, applies, count);
+            } else {
+                writeStringColumn(field, applies, count, present);
+            }
+        }
+        ByteSink header = new ByteSink(16);
+        header.putVarLong(count);
+        header.putVarLong(body.length);
+        emit(header);
+        emit(body);
+        rowCount += count;
+        rows.clear();
+        Arrays.fill(strings, 0, count, null);
+        if (body.bytes.length > (1 << 24)) {
+            body = new ByteSink(1 << 16);
+        }
+    }
+
+    /**
+     * Записывает числовую колонку: минимум блока, ширину и упакованные смещения от минимума.
+     */
+    private void writeIntColumn(TransportField field, boolean[] applies, int count) {
+        int present = 0;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            if (applies[types[i]]) {
+                int value = (Integer) field.get(rows.get(i));
+                values[present++] = value;
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+        }
+        int width = SnapshotFormat.bitsFor((long) max - min);
+        body.putVarLong(zigzag(min));
+        body.putByte(width);
+        body.putPacked(values, present, min, width);
+    }
+
+    /**
+     * Записывает текстовую колонку в словарном виде или, если словарь не окупается, без словаря.
+     */
+    private void writeStringColumn(TransportField field, boolean[] applies, int count, int present) {
+        dictionary.clear();
+        dictionaryValues.clear();
+        int limit = present / 2;
+        int collected = 0;
+        boolean useDictionary = true;
+        for (int i = 0; i < count; i++) {
+            if (applies[types[i]]) {
+                String value = (String) field.get(rows.get(i));
+                strings[collected++] = value;
+                if (useDictionary && value != null && !dictionary.containsKey(value)) {
+                    dictionary.put(value, dictionary.size() + 1);
+                    dictionaryValues.add(value);
+                    useDictionary = dictionary.size() <= limit;
+                }
+            }
+        }
+        if (useDictionary) {
+            body.putByte(SnapshotFormat.DICTIONARY_STRINGS);
+            body.putVarLong(dictionaryValues.size());
+            for (String value : dictionaryValues) {
+                body.putString(value);
+            }
+            for (int i = 0; i < collected; i++) {
+                values[i] = strings[i] == null ? 0 : dictionary.get(strings[i]);
+            }
+            int width = SnapshotFormat.bitsFor(dictionaryValues.size());
+            body.putByte(width);
+            body.putPacked(values, collected, 0, width);
+        } else {
+            writeUniqueStrings(collected);
+        }
+    }
+
+    /**
+     * Записывает текстовые значения без словаря: с префиксным кодированием, если общие
+     * с предыдущими значениями префиксы занимают не меньше четверти байт, иначе подряд,
+     * чтобы при чтении значения не приходилось восстанавливать.
+     */
+    private void writeUniqueStrings(int count) {
+        long total = 0;
+        long shared = 0;
+        byte[] previous = new byte[0];
+        for (int i = 0; i < count; i++) {
+            if (strings[i] != null) {
+                byte[] utf8 = ((String) strings[i]).getBytes(StandardCharsets.UTF_8);
+                strings[i] = utf8;
+                total += utf8.length;
+                shared += sharedPrefix(previous, utf8);
+                previous = utf8;
+            }
+        }
+        boolean prefixed = shared * 4 >= total;
+        body.putByte(prefixed ? SnapshotFormat.PREFIX_STRINGS : SnapshotFormat.PLAIN_STRINGS);
+        previous = new byte[0];
+        for (int i = 0; i < count; i++) {
+            byte[] utf8 = (byte[]) strings[i];
+            if (utf8 == null) {
+                body.putVarLong(0);
+            } else if (prefixed) {
+                int common = sharedPrefix(previous, utf8);
+                body.putVarLong(utf8.length - common + 1L);
+                body.putVarLong(common);
+                body.putBytes(utf8, common, utf8.length - common);
+                previous = utf8;
+            } else {
+                body.putVarLong(utf8.length + 1L);
+                body.putBytes(utf8, 0, utf8.length);
+            }
+        }
+    }
+
+    private static int sharedPrefix(byte[] previous, byte[] next) {
+        int mismatch = Arrays.mismatch(previous, next);
+        return mismatch < 0 ? next.length : mismatch;
+    }
+
+    private void emit(ByteSink sink) throws IOException {
+        out.write(sink.bytes, 0, sink.length);
+        bytesWritten += sink.length;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Растущий буфер байтов с записью varint, строк и упакованных чисел.
+     */
+    private static final class ByteSink {
+        private byte[] bytes;
+        private int length;
+
+        ByteSink(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void clear() {
+            length = 0;
+        }
+
+        void putByte(int value) {
+            ensure(1);
+            bytes[length++] = (byte) value;
+        }
+
+        void putIntLittleEndian(int value) {
+            ensure(Integer.BYTES);
+            for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE) {
+                bytes[length++] = (byte) (value >>> shift);
+            }
+        }
+
+        void putVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        /**
+         * Записывает строку как varint (длина в байтах + 1) и байты UTF-8; null записывается как 0.
+         */
+        void putString(String value) {
+            if (value == null) {
+                putVarLong(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            putVarLong(utf8.length + 1L);
+            putBytes(utf8, 0, utf8.length);
+        }
+
+        void putBytes(byte[] source, int offset, int count) {
+            ensure(count);
+            System.arraycopy(source, offset, bytes, length, count);
+            length += count;
+        }
+
+        /**
+         * Упаковывает смещения значений от base по width бит, младшие биты первыми.
+         */
+        void putPacked(int[] source, int count, int base, int width) {
+            if (width == 0) {
+                return;
+            }
+            ensure((int) (((long) count * width + 7) >>> 3));
+            long buffer = 0;
+            int buffered = 0;
+            for (int i = 0; i < count; i++) {
+                buffer |= ((long) source[i] - base) << buffered;
+                buffered += width;
+                while (buffered >= Byte.SIZE) {
+                    bytes[length++] = (byte) buffer;
+                    buffer >>>= Byte.SIZE;
+                    buffered -= Byte.SIZE;
+                }
+            }
+            if (buffered > 0) {
+                bytes[length++] = (byte) buffer;
+            }
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.transport.snapshot;
+
+import com.transport.model.Airplane;
+import com.transport.model.Car;
+import com.transport.model.Ship;
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+
+/**
+ * Общие константы колоночного формата снимка.
+ * <p>
+ * Снимок состоит из заголовка ({@link #MAGIC}, {@link #VERSION}) и последовательности блоков.
+ * Блок начинается с количества строк и длины тела (varint); блок с нулем строк завершает снимок.
+ * Тело блока содержит колонки в фиксированном порядке:
+ * <ol>
+ *     <li>тип транспорта — упаковка по 2 бита;</li>
+ *     <li>идентификатор — разности соседних значений, zigzag varint;</li>
+ *     <li>поля {@link TransportField} в порядке объявления, только для строк, у типа которых
+ *     есть это поле. Числовые поля — минимум блока (zigzag varint), ширина в битах (байт) и
+ *     упакованные смещения от минимума: ширина не превышает ширины диапазона, который
+ *     проверяет TransportValidator, например 4 бита для количества дверей и 11 бит для скорости.
+ *     Текстовые поля — словарь блока и упакованные номера строк словаря, если различных значений
+ *     не больше половины. Иначе для каждого значения записывается длина + 1 (varint, 0 означает
+ *     null) и байты UTF-8, а если соседние значения заметно совпадают по началу, как номера вида
+ *     «PLATE1041», — длина окончания + 1, длина общего с предыдущим значением префикса (varint)
+ *     и байты окончания.</li>
+ * </ol>
+ */
+final class SnapshotFormat {
+    static final int MAGIC = 0x54534E50;
+    static final byte VERSION = 1;
+    static final byte PLAIN_STRINGS = 0;
+    static final byte PREFIX_STRINGS = 2;
+    static final byte DICTIONARY_STRINGS = 1;
+    static final int TYPE_BITS = 2;
+    /** Классы транспорта по кодам типа. */
+    static final Class<?>[] TYPES = {Transport.class, Airplane.class, Car.class, Ship.class};
+    static final TransportField[] FIELDS = TransportField.values();
+    /** Для каждого поля: есть ли оно у транспорта с данным кодом типа. */
+    static final boolean[][] APPLIES = new boolean[FIELDS.length][TYPES.length];
+
+    static {
+        for (TransportField field : FIELDS) {
+            for (int type = 0; type < TYPES.length; type++) {
+                APPLIES[field.ordinal()][type] = field.getOwner().isAssignableFrom(TYPES[type]);
+            }
+        }
+    }
+
+    private SnapshotFormat() {
+    }
+
+    /**
+     * Возвращает код типа транспортного средства.
+     *
+     * @param transport транспортное средство
+     * @return индекс в {@link #TYPES}
+     */
+    static int typeOf(Transport transport) {
+        if (transport instanceof Airplane) {
+            return 1;
+        } else if (transport instanceof Car) {
+            return 2;
+        } else if (transport instanceof Ship) {
+            return 3;
+        }
+        return 0;
+    }
+
+    /**
+     * Возвращает количество бит, достаточное для чисел от 0 до value.
+     *
+     * @param value неотрицательное число
+     * @return ширина в битах, от 0 до 64
+     */
+    static int bitsFor(long value) {
+        return 64 - Long.numberOfLeadingZeros(value);
+    }
+}
@@ -0,0 +1,192 @@
+package com.transport.validation;
+
+import com.transport.exception.InvalidInputException;
+import com.transport.model.Airplane;
+import com.transport.model.Car;
+import com.transport.model.Ship;
+import com.transport.model.Transport;
+
+/**
+ * Разбор текстовых записей о транспорте для массовой загрузки.
+ * Запись состоит из полей, разделенных точкой с запятой; первое поле задает тип:
+ * <pre>
+ * TRANSPORT;название;скорость;производитель
+ * AIRPLANE;название;скорость;производитель;высота;вместимость
+ * CAR;название;скорость;производитель;номер;двери;топливо
+ * SHIP;название;скорость;производитель;водоизмещение;экипаж;тип корабля
+ * </pre>
+ * Некорректная запись не приводит к исключению: {@link #parse(String, Violations)} возвращает null
+ * и накапливает все нарушения записи. Экземпляр хранит буфер границ полей и не потокобезопасен.
+ */
+public final class TransportRecordParser {
+    public static final char SEPARATOR = ';';
+    private static final int MAX_FIELDS = 7;
+
+    private final int[] starts = new int[MAX_FIELDS];
+    private final int[] ends = new int[MAX_FIELDS];
+
+    /**
+     * Разбирает запись и создает транспортное средство.
+     *
+     * @param record     текстовая запись
+     * @param violations накопитель нарушений; очищается перед разбором
+     * @return транспортное средство или null, если запись некорректна
+     */
+    public Transport parse(String record, Violations violations) {
+        violations.clear();
+        int count = split(record);
+        if (count < 4) {
+            violations.add(Violation.MALFORMED_RECORD);
+            return null;
+        }
+        int maxSpeed = number(record, 2, violations);
+
+        if (isType(record, "TRANSPORT")) {
+            if (!expectFields(count, 4, violations) || !violations.isValid()
+                    || violations.add(TransportValidator.checkSpeed(maxSpeed))) {
+                return null;
+            }
+            return new Transport(field(record, 1), maxSpeed, field(record, 3));
+        }
+        if (isType(record, "AIRPLANE")) {
+            if (!expectFields(count, 6, violations)) {
+                return null;
+            }
+            int maxAltitude = number(record, 4, violations);
+            int passengerCapacity = number(record, 5, violations);
+            if (!violations.isValid()
+                    || !TransportValidator.validateAirplane(maxSpeed, maxAltitude, passengerCapacity, violations)) {
+                return null;
+            }
+            return new Airplane(field(record, 1), maxSpeed, field(record, 3), maxAltitude, passengerCapacity);
+        }
+        if (isType(record, "CAR")) {
+            if (!expectFields(count, 7, violations)) {
+                return null;
+            }
+            int doorCount = number(record, 5, violations);
+            if (!violations.isValid() || !TransportValidator.validateCar(maxSpeed, doorCount, violations)) {
+                return null;
+            }
+            return new Car(field(record, 1), maxSpeed, field(record, 3), field(record, 4), doorCount, field(record, 6));
+        }
+        if (isType(record, "SHIP")) {
+            if (!expectFields(count, 7, violations)) {
+                return null;
+            }
+            int displacement = number(record, 4, violations);
+            int crewSize = number(record, 5, violations);
+            if (!violations.isValid()
+                    || !TransportValidator.validateShip(maxSpeed, displacement, crewSize, violations)) {
+                return null;
+            }
+            return new Ship(field(record, 1), maxSpeed, field(record, 3), displacement, crewSize, field(record, 6));
+        }
+        violations.add(Violation.UNKNOWN_TYPE);
+        return null;
+    }
+
+    /**
+     * Разбирает запись и создает транспортное средство, сообщая о нарушении исключением.
+     *
+     * @param record текстовая запись
+     * @return транспортное средство
+     * @throws InvalidInputException если запись некорректна; сообщение соответствует первому нарушению
+     */
+    public Transport parse(String record) {
+        Violations violations = new Violations();
+        Transport transport = parse(record, violations);
+        violations.throwIfInvalid();
+        return transport;
+    }
+
+    /**
+     * Формирует запись для транспортного средства в формате, который понимает парсер.
+     *
+     * @param transport транспортное средство
+     * @return текстовая запись
+     */
+    public static String format(Transport transport) {
+        StringBuilder record = new StringBuilder(64);
+        if (transport instanceof Airplane) {
+            record.append("AIRPLANE");
+        } else if (transport instanceof Car) {
+            record.append("CAR");
+        } else if (transport instanceof Ship) {
+            record.append("SHIP");
+        } else {
+            record.append("TRANSPORT");
+        }
+        record.append(SEPARATOR).append(transport.getName())
+                .append(SEPARATOR).append(transport.getMaxSpeed())
+                .append(SEPARATOR).append(transport.getManufacturer());
+        if (transport instanceof Airplane) {
+            Airplane airplane = (Airplane) transport;
+            record.append(SEPARATOR).append(airplane.getMaxAltitude())
+                    .append(SEPARATOR).append(airplane.getPassengerCapacity());
+        } else if (transport instanceof Car) {
+            Car car = (Car) transport;
+            record.append(SEPARATOR).append(car.getLicensePlate())
+                    .append(SEPARATOR).append(car.getDoorCount())
+                    .append(SEPARATOR).append(car.getFuelType());
+        } else if (transport instanceof Ship) {
+            Ship ship = (Ship) transport;
+            record.append(SEPARATOR).append(ship.getDisplacement())
+                    .append(SEPARATOR).append(ship.getCrewSize())
+                    .append(SEPARATOR).append(ship.getShipType());
+        }
+        return record.toString();
+    }
+
+    /**
+     * Находит границы полей записи.
+     *
+     * @param record текстовая запись
+     * @return количество полей или MAX_FIELDS + 1, если полей слишком много
+     */
+    private int split(String record) {
+        if (record == null) {
+            return 0;
+        }
+        int count = 0;
+        int start = 0;
+        while (true) {
+            int end = record.indexOf(SEPARATOR, start);
+            if (count == MAX_FIELDS) {
+                return MAX_FIELDS + 1;
+            }
+            starts[count] = start;
+            ends[count] = end < 0 ? record.length() : end;
+            count++;
+            if (end < 0) {
+                return count;
+            }
+            start = end + 1;
+        }
+    }
+
+    private boolean expectFields(int actual, int expected, Violations violations) {
+        if (actual != expected) {
+            violations.add(Violation.MALFORMED_RECORD);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isType(String record, String type) {
+        return ends[0] - starts[0] == type.length() && record.regionMatches(true, starts[0], type, 0, type.length());
+    }
+
+    private String field(String record, int index) {
+        return record.substring(starts[index], ends[index]);
+    }
+
+    private int number(String record, int index, Violations violations) {
+        long value = TransportValidator.parseInt(record, starts[index], ends[index]);
+        if (value == TransportValidator.NOT_A_NUMBER) {
+            violations.add(Violation.NOT_A_NUMBER);
+            return 0;
+        }
+        return (int) value;
+    }
+}
@@ -0,0 +1,218 @@
+package com.transport.validation;
+
+/**
+ * Правила валидации полей транспортных средств без исключений.
+ * Методы {@code checkXxx} возвращают код нарушения или null, если значение допустимо;
+ * методы {@code validateXxx} накапливают нарушения всех полей в {@link Violations}.
+ * Конструкторы и сеттеры моделей используют те же правила, но сообщают о нарушении исключением.
+ */
+public final class TransportValidator {
+    public static final int MIN_SPEED = 0;
+    public static final int MAX_SPEED = 2000;
+    public static final int MIN_ALTITUDE = 0;
+    public static final int MAX_ALTITUDE = 20000;
+    public static final int MIN_PASSENGER_CAPACITY = 1;
+    public static final int MAX_PASSENGER_CAPACITY = 1000;
+    public static final int MIN_DOOR_COUNT = 1;
+    public static final int MAX_DOOR_COUNT = 10;
+    public static final int MIN_DISPLACEMENT = 1;
+    public static final int MAX_DISPLACEMENT = 1000000;
+    public static final int MIN_CREW_SIZE = 1;
+    public static final int MAX_CREW_SIZE = 5000;
+
+    /**
+     * Значение, которое {@link #parseInt(CharSequence)} возвращает для строки, не являющейся целым числом.
+     */
+    public static final long NOT_A_NUMBER = Long.MIN_VALUE;
+
+    private TransportValidator() {
+    }
+
+    /**
+     * Проверяет максимальную скорость.
+     *
+     * @param speed скорость в км/ч
+     * @return нарушение или null
+     */
+    public static Violation checkSpeed(int speed) {
+        if (speed < MIN_SPEED) {
+            return Violation.SPEED_NEGATIVE;
+        }
+        return speed > MAX_SPEED ? Violation.SPEED_TOO_HIGH : null;
+    }
+
+    /**
+     * Проверяет максимальную высоту полета самолета.
+     *
+     * @param altitude высота в метрах
+     * @return нарушение или null
+     */
+    public static Violation checkAltitude(int altitude) {
+        if (altitude < MIN_ALTITUDE) {
+            return Violation.ALTITUDE_NEGATIVE;
+        }
+        return altitude > MAX_ALTITUDE ? Violation.ALTITUDE_TOO_HIGH : null;
+    }
+
+    /**
+     * Проверяет вместимость пассажиров самолета.
+     *
+     * @param capacity вместимость пассажиров
+     * @return нарушение или null
+     */
+    public static Violation checkPassengerCapacity(int capacity) {
+        if (capacity < MIN_PASSENGER_CAPACITY) {
+            return Violation.PASSENGER_CAPACITY_NOT_POSITIVE;
+        }
+        return capacity > MAX_PASSENGER_CAPACITY ? Violation.PASSENGER_CAPACITY_TOO_HIGH : null;
+    }
+
+    /**
+     * Проверяет количество дверей автомобиля.
+     *
+     * @param doors количество дверей
+     * @return нарушение или null
+     */
+    public static Violation checkDoorCount(int doors) {
+        if (doors < MIN_DOOR_COUNT) {
+            return Violation.DOOR_COUNT_NOT_POSITIVE;
+        }
+        return doors > MAX_DOOR_COUNT ? Violation.DOOR_COUNT_TOO_HIGH : null;
+    }
+
+    /**
+     * Проверяет водоизмещение корабля.
+     *
+     * @param displacement водоизмещение в тоннах
+     * @return нарушение или null
+     */
+    public static Violation checkDisplacement(int displacement) {
+        if (displacement < MIN_DISPLACEMENT) {
+            return Violation.DISPLACEMENT_NOT_POSITIVE;
+        }
+        return displacement > MAX_DISPLACEMENT ? Violation.DISPLACEMENT_TOO_HIGH : null;
+    }
+
+    /**
+     * Проверяет размер экипажа корабля.
+     *
+     * @param crewSize размер экипажа
+     * @return нарушение или null
+     */
+    public static Violation checkCrewSize(int crewSize) {
+        if (crewSize < MIN_CREW_SIZE) {
+            return Violation.CREW_SIZE_NOT_POSITIVE;
+        }
+        return crewSize > MAX_CREW_SIZE ? Violation.CREW_SIZE_TOO_HIGH : null;
+    }
+
+    /**
+     * Проверяет поля самолета и накапливает нарушения.
+     *
+     * @param maxSpeed          максимальная скорость
+     * @param maxAltitude       максимальная высота
+     * @param passengerCapacity вместимость пассажиров
+     * @param violations        накопитель нарушений
+     * @return true если все поля допустимы
+     */
+    public static boolean validateAirplane(int maxSpeed, int maxAltitude, int passengerCapacity, Violations violations) {
+        boolean valid = !violations.add(checkSpeed(maxSpeed));
+        valid &= !violations.add(checkAltitude(maxAltitude));
+        valid &= !violations.add(checkPassengerCapacity(passengerCapacity));
+        return valid;
+    }
+
+    /**
+     * Проверяет поля автомобиля и накапливает нарушения.
+     *
+     * @param maxSpeed   максимальная скорость
+     * @param doorCount  количество дверей
+     * @param violations накопитель нарушений
+     * @return true если все поля допустимы
+     */
+    public static boolean validateCar(int maxSpeed, int doorCount, Violations violations) {
+        boolean valid = !violations.add(checkSpeed(maxSpeed));
+        valid &= !violations.add(checkDoorCount(doorCount));
+        return valid;
+    }
+
+    /**
+     * Проверяет поля корабля и накапливает нарушения.
+     *
+     * @param maxSpeed     максимальная скорость
+     * @param displacement водоизмещение
+     * @param crewSize     размер экипажа
+     * @param violations   накопитель нарушений
+     * @return true если все поля допустимы
+     */
+    public static boolean validateShip(int maxSpeed, int displacement, int crewSize, Violations violations) {
+        boolean valid = !violations.add(checkSpeed(maxSpeed));
+        valid &= !violations.add(checkDisplacement(displacement));
+        valid &= !violations.add(checkCrewSize(crewSize));
+        return valid;
+    }
+
+    /**
+     * Разбирает десятичное целое число без исключений.
+     * Допускает необязательный знак и, в отличие от {@link Integer#parseInt(String)},
+     * пробелы по краям строки.
+     *
+     * @param text строка
+     * @return значение в диапазоне int или {@link #NOT_A_NUMBER}
+     */
+    public static long parseInt(CharSequence text) {
+        if (text == null) {
+            return NOT_A_NUMBER;
+        }
+        int start = 0;
+        int end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return parseInt(text, start, end);
+    }
+
+    /**
+     * Разбирает десятичное целое число из части строки без исключений.
+     *
+     * @param text  строка
+     * @param start начало числа (включительно)
+     * @param end   конец числа (не включительно)
+     * @return значение в диапазоне int или {@link #NOT_A_NUMBER}
+     */
+    public static long parseInt(CharSequence text, int start, int end) {
+        if (start >= end) {
+            return NOT_A_NUMBER;
+        }
+        boolean negative = false;
+        char sign = text.charAt(start);
+        if (sign == '-' || sign == '+') {
+            negative = sign == '-';
+            if (++start == end) {
+                return NOT_A_NUMBER;
+            }
+        }
+        int digits = start;
+        while (digits < end - 1 && text.charAt(digits) == '0') {
+            digits++;
+        }
+        if (end - digits > 10) {
+            return NOT_A_NUMBER;
+        }
+        long value = 0;
+        for (int i = digits; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return NOT_A_NUMBER;
+            }
+            value = value * 10 + digit;
+        }
+        if (negative) {
+            value = -value;
+        }
+        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? NOT_A_NUMBER : value;
+    }
+}
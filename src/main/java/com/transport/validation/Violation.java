@@ -0,0 +1,52 @@
+package com.transport.validation;
+
+import com.transport.model.TransportField;
+
+/**
+ * Код нарушения правила валидации.
+ * Используется вместо исключений там, где некорректные данные ожидаемы и их много,
+ * например при массовой загрузке.
+ */
+public enum Violation {
+    MALFORMED_RECORD(null, "Неверный формат записи"),
+    UNKNOWN_TYPE(null, "Неизвестный тип транспорта"),
+    NOT_A_NUMBER(null, "Ожидалось целое число"),
+    SPEED_NEGATIVE(TransportField.MAX_SPEED, "Скорость не может быть отрицательной"),
+    SPEED_TOO_HIGH(TransportField.MAX_SPEED, "Скорость не может превышать 2000 км/ч"),
+    ALTITUDE_NEGATIVE(TransportField.MAX_ALTITUDE, "Высота не может быть отрицательной"),
+    ALTITUDE_TOO_HIGH(TransportField.MAX_ALTITUDE, "Высота не может превышать 20000 м"),
+    PASSENGER_CAPACITY_NOT_POSITIVE(TransportField.PASSENGER_CAPACITY, "Вместимость пассажиров должна быть положительной"),
+    PASSENGER_CAPACITY_TOO_HIGH(TransportField.PASSENGER_CAPACITY, "Вместимость пассажиров не может превышать 1000"),
+    DOOR_COUNT_NOT_POSITIVE(TransportField.DOOR_COUNT, "Количество дверей должно быть положительным"),
+    DOOR_COUNT_TOO_HIGH(TransportField.DOOR_COUNT, "Количество дверей не может превышать 10"),
+    DISPLACEMENT_NOT_POSITIVE(TransportField.DISPLACEMENT, "Водоизмещение должно быть положительным"),
+    DISPLACEMENT_TOO_HIGH(TransportField.DISPLACEMENT, "Водоизмещение не может превышать 1,000,000 тонн"),
+    CREW_SIZE_NOT_POSITIVE(TransportField.CREW_SIZE, "Размер экипажа должен быть положительным"),
+    CREW_SIZE_TOO_HIGH(TransportField.CREW_SIZE, "Размер экипажа не может превышать 5000 человек");
+
+    private final TransportField field;
+    private final String message;
+
+    Violation(TransportField field, String message) {
+        this.field = field;
+        this.message = message;
+    }
+
+    /**
+     * Возвращает поле, к которому относится нарушение.
+     *
+     * @return поле или null, если нарушение относится к записи целиком
+     */
+    public TransportField getField() {
+        return field;
+    }
+
+    /**
+     * Возвращает описание нарушения для пользователя.
+     *
+     * @return сообщение об ошибке
+     */
+    public String getMessage() {
+        return message;
+    }
+}
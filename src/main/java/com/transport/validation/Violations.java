@@ -0,0 +1,112 @@
+package com.transport.validation;
+
+import com.transport.exception.InvalidInputException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Накопитель нарушений валидации.
+ * Хранит множество нарушений битовой маской, поэтому добавление и проверка
+ * не выделяют память, а один экземпляр можно переиспользовать для множества записей
+ * с помощью {@link #clear()}. Не потокобезопасен.
+ */
+public final class Violations {
+    private static final Violation[] VALUES = Violation.values();
+
+    private long mask;
+
+    /**
+     * Добавляет нарушение. Значение null игнорируется, что позволяет передавать
+     * результат проверки без дополнительного условия.
+     *
+     * @param violation нарушение или null
+     * @return true если нарушение было добавлено
+     */
+    public boolean add(Violation violation) {
+        if (violation == null) {
+            return false;
+        }
+        mask |= 1L << violation.ordinal();
+        return true;
+    }
+
+    /**
+     * Проверяет, зафиксировано ли указанное нарушение.
+     *
+     * @param violation нарушение
+     * @return true если нарушение зафиксировано
+     */
+    public boolean contains(Violation violation) {
+        return (mask & (1L << violation.ordinal())) != 0;
+    }
+
+    /**
+     * Проверяет, что нарушений нет.
+     *
+     * @return true если нарушений нет
+     */
+    public boolean isValid() {
+        return mask == 0;
+    }
+
+    /**
+     * Возвращает количество различных нарушений.
+     *
+     * @return количество нарушений
+     */
+    public int size() {
+        return Long.bitCount(mask);
+    }
+
+    /**
+     * Возвращает первое по порядку объявления нарушение.
+     *
+     * @return нарушение или null, если нарушений нет
+     */
+    public Violation first() {
+        return mask == 0 ? null : VALUES[Long.numberOfTrailingZeros(mask)];
+    }
+
+    /**
+     * Удаляет все нарушения для повторного использования накопителя.
+     */
+    public void clear() {
+        mask = 0;
+    }
+
+    /**
+     * Возвращает нарушения списком.
+     *
+     * @return список нарушений в порядке объявления
+     */
+    public List<Violation> toList() {
+        List<Violation> result = new ArrayList<>(size());
+        for (long rest = mask; rest != 0; rest &= rest - 1) {
+            result.add(VALUES[Long.numberOfTrailingZeros(rest)]);
+        }
+        return result;
+    }
+
+    /**
+     * Выбрасывает исключение для первого нарушения, если нарушения есть.
+     * Используется там, где вызывающему коду нужна семантика исключений.
+     *
+     * @throws InvalidInputException если зафиксировано хотя бы одно нарушение
+     */
+    public void throwIfInvalid() {
+        if (mask != 0) {
+            throw InvalidInputException.of(first());
+        }
+    }
+
+    /**
+     * Возвращает строковое представление нарушений.
+     *
+     * @return строковое представление
+     */
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+}
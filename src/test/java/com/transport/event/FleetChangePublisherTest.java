@@ -0,0 +1,158 @@
+package com.transport.event;
+
+import com.transport.model.Car;
+import com.transport.service.TransportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Поток событий под нагрузкой: несколько потоков изменяют коллекцию, один подписчик успевает
+ * за ними, другой нет.
+ */
+class FleetChangePublisherTest {
+    private static final int MUTATORS = 4;
+    private static final int ADDS_PER_MUTATOR = 100;
+    private static final long MAX_BLOCK_MILLIS = 20;
+    private static final long SCHEDULING_SLACK_MILLIS = 40;
+    private static final double CHECKED_PERCENTILE = 0.99;
+
+    private final ExecutorService subscriberPool = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutDown() {
+        subscriberPool.shutdownNow();
+    }
+
+    @Test
+    void slowSubscriberLosesEventsWithoutDelayingMutatorsBeyondBound() throws Exception {
+        FleetChangePublisher publisher = new FleetChangePublisher(subscriberPool, 16, MAX_BLOCK_MILLIS,
+                TimeUnit.MILLISECONDS);
+        RecordingSubscriber fast = new RecordingSubscriber(0);
+        RecordingSubscriber slow = new RecordingSubscriber(50);
+        publisher.subscribe(fast);
+        publisher.subscribe(slow);
+        TransportService service = new TransportService();
+        service.addTransport(new Car("Warm-up", 120, "Kia", "W0", 4, "Petrol"));
+        service.addListener(publisher);
+
+        int attempts = MUTATORS * ADDS_PER_MUTATOR;
+        long[] addNanos = new long[attempts];
+        AtomicInteger measured = new AtomicInteger();
+        Thread[] mutators = new Thread[MUTATORS];
+        for (int m = 0; m < MUTATORS; m++) {
+            int mutator = m;
+            mutators[m] = new Thread(() -> {
+                for (int i = 0; i < ADDS_PER_MUTATOR; i++) {
+                    Car car = new Car("Car-" + mutator + "-" + i, 120, "Kia", "P" + mutator + "-" + i, 4, "Petrol");
+                    long start = System.nanoTime();
+                    service.addTransport(car);
+                    addNanos[measured.getAndIncrement()] = System.nanoTime() - start;
+                }
+            });
+            mutators[m].start();
+        }
+        for (Thread mutator : mutators) {
+            mutator.join();
+        }
+        publisher.close();
+        assertTrue(fast.completed.await(10, TimeUnit.SECONDS));
+        assertTrue(slow.completed.await(10, TimeUnit.SECONDS));
+
+        assertStrictlyIncreasing(fast.sequences);
+        assertStrictlyIncreasing(slow.sequences);
+        assertTrue(publisher.getDroppedCount() > 0, "медленный подписчик должен терять события");
+        assertTrue(slow.sequences.size() < attempts);
+        assertEquals(2L * attempts, fast.sequences.size() + slow.sequences.size() + publisher.getDroppedCount());
+        // Отдельные добавления может задержать планировщик или сборка мусора, поэтому граница
+        // проверяется по перцентилю, а не по худшему случаю.
+        Arrays.sort(addNanos);
+        long addMillis = TimeUnit.NANOSECONDS.toMillis(addNanos[(int) (attempts * CHECKED_PERCENTILE) - 1]);
+        assertTrue(addMillis <= MAX_BLOCK_MILLIS + SCHEDULING_SLACK_MILLIS,
+                "99% добавлений уложились в " + addMillis + " мс");
+    }
+
+    @Test
+    void fastSubscriberReceivesEveryEventInOrder() throws Exception {
+        FleetChangePublisher publisher = new FleetChangePublisher(subscriberPool, 16, MAX_BLOCK_MILLIS,
+                TimeUnit.MILLISECONDS);
+        RecordingSubscriber fast = new RecordingSubscriber(0);
+        publisher.subscribe(fast);
+        TransportService service = new TransportService();
+        service.addListener(publisher);
+
+        for (int i = 0; i < 1000; i++) {
+            service.addTransport(new Car("Car-" + i, 120, "Kia", "P" + i, 4, "Petrol"));
+        }
+        publisher.close();
+        assertTrue(fast.completed.await(10, TimeUnit.SECONDS));
+
+        assertEquals(1000, fast.sequences.size());
+        assertEquals(0, publisher.getDroppedCount());
+        for (int i = 0; i < fast.sequences.size(); i++) {
+            assertEquals(i + 1, (long) fast.sequences.get(i));
+        }
+    }
+
+    private static void assertStrictlyIncreasing(List<Long> sequences) {
+        for (int i = 1; i < sequences.size(); i++) {
+            assertTrue(sequences.get(i - 1) < sequences.get(i),
+                    "номер " + sequences.get(i) + " получен после " + sequences.get(i - 1));
+        }
+    }
+
+    /**
+     * Подписчик, который запоминает номера событий и тратит на каждое заданное время.
+     */
+    private static final class RecordingSubscriber implements Flow.Subscriber<FleetChangeEvent> {
+        final List<Long> sequences = new CopyOnWriteArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        private final long delayMillis;
+        private Flow.Subscription subscription;
+
+        RecordingSubscriber(long delayMillis) {
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(FleetChangeEvent item) {
+            sequences.add(item.getSequence());
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.transport.index;
+
+import com.transport.model.Car;
+import com.transport.model.Transport;
+import com.transport.service.TransportService;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Фильтр существования при одновременных добавлениях, удалениях и переименованиях,
+ * во время которых фильтр несколько раз перестраивается по снимку коллекции.
+ */
+class FleetExistenceFilterTest {
+    private static final int ROUNDS = 5;
+    private static final int ADDERS = 2;
+    private static final int ADDS_PER_ADDER = 10_000;
+    private static final int CHANGES = 20_000;
+
+    @Test
+    void removalNotifiedAfterRebuildKeepsVehicleWithSamePlate() throws Exception {
+        HookedFleetStore store = new HookedFleetStore();
+        TransportService service = new TransportService(store);
+        Car removed = new Car("Removed", 120, "Kia", "AA0001AA", 4, "Petrol");
+        service.addTransport(removed);
+        service.addTransport(new Car("Twin", 120, "Kia", "AA0001AA", 4, "Petrol"));
+        fillToCapacity(service);
+
+        store.runAfterNextChange(() -> overflow(service));
+        service.removeTransportById(removed.getId());
+        store.awaitHook();
+
+        FleetExistenceFilter filter = service.getExistenceFilter();
+        assertTrue(filter.getRebuildCount() > 0, "фильтр должен перестроиться");
+        assertTrue(filter.mightContainLicensePlate("AA0001AA"), "ложноотрицательный ответ для оставшегося номера");
+    }
+
+    @Test
+    void plateChangeNotifiedAfterRebuildKeepsVehicleWithOldPlate() throws Exception {
+        HookedFleetStore store = new HookedFleetStore();
+        TransportService service = new TransportService(store);
+        Car changed = new Car("Changed", 120, "Kia", "AA0001AA", 4, "Petrol");
+        service.addTransport(changed);
+        service.addTransport(new Car("Twin", 120, "Kia", "AA0001AA", 4, "Petrol"));
+        fillToCapacity(service);
+
+        store.runAfterNextChange(() -> overflow(service));
+        changed.setLicensePlate("BB0002BB");
+        store.awaitHook();
+
+        FleetExistenceFilter filter = service.getExistenceFilter();
+        assertTrue(filter.getRebuildCount() > 0, "фильтр должен перестроиться");
+        assertTrue(filter.mightContainLicensePlate("AA0001AA"), "ложноотрицательный ответ для прежнего номера");
+        assertTrue(filter.mightContainLicensePlate("BB0002BB"), "ложноотрицательный ответ для нового номера");
+    }
+
+    @Test
+    void concurrentChangesNeverCauseFalseNegatives() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            TransportService service = new TransportService();
+            FleetExistenceFilter filter = service.getExistenceFilter();
+            Car[] cars = new Car[ADDERS * ADDS_PER_ADDER];
+            for (int i = 0; i < cars.length; i++) {
+                cars[i] = new Car("Car-" + i, 120, "Kia", "P-" + i, 4, "Petrol");
+            }
+            AtomicInteger renames = new AtomicInteger();
+            List<Thread> threads = new ArrayList<>();
+            for (int a = 0; a < ADDERS; a++) {
+                int first = a * ADDS_PER_ADDER;
+                threads.add(new Thread(() -> {
+                    for (int i = first; i < first + ADDS_PER_ADDER; i++) {
+                        service.addTransport(cars[i]);
+                    }
+                }));
+            }
+            long seed = round;
+            threads.add(new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < CHANGES; i++) {
+                    service.removeTransportById(cars[random.nextInt(cars.length)].getId());
+                }
+            }));
+            threads.add(new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(~seed);
+                for (int i = 0; i < CHANGES; i++) {
+                    Car car = cars[random.nextInt(cars.length)];
+                    if (random.nextBoolean()) {
+                        car.setName("Renamed-" + renames.incrementAndGet());
+                    } else {
+                        car.setLicensePlate("R-" + renames.incrementAndGet());
+                    }
+                }
+            }));
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertTrue(filter.getRebuildCount() > 0, "фильтр должен перестраиваться");
+            for (Transport transport : service.getTransports()) {
+                Car car = (Car) transport;
+                assertTrue(filter.mightContainLicensePlate(car.getLicensePlate()),
+                        "ложноотрицательный ответ для номера " + car.getLicensePlate());
+                assertTrue(filter.mightContainNameAndManufacturer(car.getName(), car.getManufacturer()),
+                        "ложноотрицательный ответ для " + car.getName());
+            }
+        }
+    }
+
+    /**
+     * Добавляет два транспортных средства сверх емкости фильтра, заполненной {@link #fillToCapacity}:
+     * фильтр перестроится, даже если удаление уже уменьшило коллекцию.
+     */
+    private static void overflow(TransportService service) {
+        service.addTransport(new Car("Overflow-1", 120, "Kia", "O-1", 4, "Petrol"));
+        service.addTransport(new Car("Overflow-2", 120, "Kia", "O-2", 4, "Petrol"));
+    }
+
+    /**
+     * Добавляет транспорт, пока коллекция не заполнит текущую емкость фильтра:
+     * следующее добавление перестроит фильтр.
+     */
+    private static void fillToCapacity(TransportService service) {
+        int capacity = service.getExistenceFilter().getCapacity();
+        for (int i = service.getTransports().size(); i < capacity; i++) {
+            service.addTransport(new Car("Filler-" + i, 120, "Kia", "F-" + i, 4, "Petrol"));
+        }
+    }
+}
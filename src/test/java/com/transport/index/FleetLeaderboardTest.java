@@ -0,0 +1,216 @@
+package com.transport.index;
+
+import com.transport.model.Airplane;
+import com.transport.model.Car;
+import com.transport.model.Transport;
+import com.transport.model.TransportField;
+import com.transport.service.TransportService;
+import com.transport.service.VersionedFleetStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнение рейтингов с полной сортировкой коллекции после каждого добавления, удаления
+ * и изменения поля в случайных последовательностях операций, в том числе одновременных.
+ */
+class FleetLeaderboardTest {
+    private static final int SEQUENCES = 300;
+    private static final int OPERATIONS = 300;
+    private static final String[] MANUFACTURERS = {"Boeing", "Airbus", "Tupolev", "Embraer"};
+    private static final int CONCURRENT_ROUNDS = 20;
+    private static final int CONCURRENT_OPERATIONS = 2000;
+
+    @Test
+    void topMatchesFullSortAfterEveryChange() {
+        int rebuilds = 0;
+        for (int seed = 0; seed < SEQUENCES; seed++) {
+            SplittableRandom random = new SplittableRandom(seed);
+            TransportService service = new TransportService(new VersionedFleetStore());
+            int size = 1 + random.nextInt(6);
+            int initial = random.nextInt(30);
+            for (int i = 0; i < initial; i++) {
+                addRandom(service, random);
+            }
+            FleetLeaderboard fastest = new FleetLeaderboard(Airplane.class, TransportField.MAX_SPEED, null, size,
+                    service::snapshot);
+            FleetLeaderboard largest = new FleetLeaderboard(Airplane.class, TransportField.PASSENGER_CAPACITY,
+                    TransportField.MANUFACTURER, size, service::snapshot);
+            service.addListener(fastest);
+            service.addListener(largest);
+
+            for (int operation = 0; operation < OPERATIONS; operation++) {
+                applyRandom(service, random);
+                String context = "последовательность " + seed + ", операция " + operation;
+                List<Transport> airplanes = service.getTransports().stream()
+                        .filter(transport -> transport instanceof Airplane)
+                        .collect(Collectors.toList());
+                assertEquals(expectedTop(airplanes, Transport::getMaxSpeed, size), ids(fastest.top()), context);
+                Map<String, List<Transport>> groups = largest.topByGroup();
+                for (String manufacturer : MANUFACTURERS) {
+                    List<Transport> produced = airplanes.stream()
+                            .filter(transport -> transport.getManufacturer().equals(manufacturer))
+                            .collect(Collectors.toList());
+                    List<Long> expected = expectedTop(produced,
+                            transport -> ((Airplane) transport).getPassengerCapacity(), size);
+                    assertEquals(expected, ids(largest.top(manufacturer)), context + ", " + manufacturer);
+                    assertEquals(expected, ids(groups.getOrDefault(manufacturer, List.of())),
+                            context + ", " + manufacturer);
+                }
+            }
+            rebuilds += fastest.getRebuildCount() + largest.getRebuildCount();
+        }
+        assertTrue(rebuilds > 0, "удаления из рейтинга должны приводить к перестройке");
+    }
+
+    @Test
+    void removalNotifiedAfterRebuildKeepsGroup() throws Exception {
+        HookedFleetStore store = new HookedFleetStore();
+        TransportService service = new TransportService(store);
+        Airplane first = new Airplane("First", 40, "Boeing", 1000, 10);
+        Airplane second = new Airplane("Second", 30, "Boeing", 1000, 10);
+        Airplane third = new Airplane("Third", 20, "Boeing", 1000, 10);
+        Airplane removed = new Airplane("Removed", 10, "Boeing", 1000, 10);
+        for (Airplane airplane : List.of(first, second, third, removed)) {
+            service.addTransport(airplane);
+        }
+        FleetLeaderboard fastest = new FleetLeaderboard(Airplane.class, TransportField.MAX_SPEED, null, 1,
+                service::snapshot);
+        service.addListener(fastest);
+
+        store.runAfterNextChange(() -> {
+            service.removeTransportById(first.getId());
+            service.removeTransportById(second.getId());
+        });
+        service.removeTransportById(removed.getId());
+        store.awaitHook();
+
+        assertTrue(fastest.getRebuildCount() > 0, "рейтинг должен перестроиться");
+        assertEquals(List.of(third.getId()), ids(fastest.top()));
+    }
+
+    @Test
+    void concurrentChangesMatchFullSort() throws Exception {
+        for (int round = 0; round < CONCURRENT_ROUNDS; round++) {
+            TransportService service = new TransportService();
+            SplittableRandom seeds = new SplittableRandom(round);
+            for (int i = 0; i < 50; i++) {
+                addRandom(service, seeds);
+            }
+            int size = 1 + seeds.nextInt(4);
+            FleetLeaderboard fastest = new FleetLeaderboard(Airplane.class, TransportField.MAX_SPEED, null, size,
+                    service::snapshot);
+            FleetLeaderboard largest = new FleetLeaderboard(Airplane.class, TransportField.PASSENGER_CAPACITY,
+                    TransportField.MANUFACTURER, size, service::snapshot);
+            service.addListener(fastest);
+            service.addListener(largest);
+
+            List<Thread> threads = new ArrayList<>();
+            threads.add(new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+                for (int i = 0; i < CONCURRENT_OPERATIONS; i++) {
+                    addRandom(service, random);
+                }
+            }));
+            threads.add(new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+                for (int i = 0; i < CONCURRENT_OPERATIONS; i++) {
+                    List<Transport> all = service.getTransports();
+                    if (!all.isEmpty()) {
+                        service.removeTransportById(all.get(random.nextInt(all.size())).getId());
+                    }
+                }
+            }));
+            threads.add(new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+                for (int i = 0; i < CONCURRENT_OPERATIONS; i++) {
+                    List<Transport> all = service.getTransports();
+                    if (!all.isEmpty()) {
+                        modifyRandom(all.get(random.nextInt(all.size())), random);
+                    }
+                }
+            }));
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            String context = "раунд " + round;
+            List<Transport> airplanes = service.getTransports().stream()
+                    .filter(transport -> transport instanceof Airplane)
+                    .collect(Collectors.toList());
+            assertEquals(expectedTop(airplanes, Transport::getMaxSpeed, size), ids(fastest.top()), context);
+            for (String manufacturer : MANUFACTURERS) {
+                List<Transport> produced = airplanes.stream()
+                        .filter(transport -> transport.getManufacturer().equals(manufacturer))
+                        .collect(Collectors.toList());
+                assertEquals(expectedTop(produced, transport -> ((Airplane) transport).getPassengerCapacity(), size),
+                        ids(largest.top(manufacturer)), context + ", " + manufacturer);
+            }
+        }
+    }
+
+    private static void applyRandom(TransportService service, SplittableRandom random) {
+        List<Transport> all = service.getTransports();
+        int choice = random.nextInt(10);
+        if (choice < 3 || all.isEmpty()) {
+            addRandom(service, random);
+            return;
+        }
+        Transport transport = all.get(random.nextInt(all.size()));
+        if (choice < 6) {
+            service.removeTransportById(transport.getId());
+        } else {
+            modifyRandom(transport, random);
+        }
+    }
+
+    private static void modifyRandom(Transport transport, SplittableRandom random) {
+        int choice = random.nextInt(4);
+        if (choice < 2) {
+            transport.setMaxSpeed(1 + random.nextInt(50));
+        } else if (choice < 3) {
+            transport.setManufacturer(MANUFACTURERS[random.nextInt(MANUFACTURERS.length)]);
+        } else if (transport instanceof Airplane) {
+            ((Airplane) transport).setPassengerCapacity(1 + random.nextInt(40));
+        }
+    }
+
+    private static void addRandom(TransportService service, SplittableRandom random) {
+        String manufacturer = MANUFACTURERS[random.nextInt(MANUFACTURERS.length)];
+        if (random.nextInt(4) == 0) {
+            service.addTransport(new Car("Car", 1 + random.nextInt(50), manufacturer, "AA1234AA", 4, "Petrol"));
+        } else {
+            service.addTransport(new Airplane("Plane", 1 + random.nextInt(50), manufacturer, 1000,
+                    1 + random.nextInt(40)));
+        }
+    }
+
+    /**
+     * Первые {@code size} идентификаторов при сортировке по убыванию метрики, а при равной
+     * метрике по возрастанию идентификатора.
+     */
+    private static List<Long> expectedTop(List<Transport> transports, ToIntFunction<Transport> metric, int size) {
+        return transports.stream()
+                .sorted(Comparator.comparingInt(metric).reversed().thenComparingLong(Transport::getId))
+                .limit(size)
+                .map(Transport::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Long> ids(List<Transport> transports) {
+        return transports.stream().map(Transport::getId).collect(Collectors.toList());
+    }
+}
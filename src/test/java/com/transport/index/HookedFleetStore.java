@@ -0,0 +1,122 @@
+package com.transport.index;
+
+import com.transport.model.Transport;
+import com.transport.model.TransportChangeListener;
+import com.transport.model.TransportField;
+import com.transport.service.FleetSnapshot;
+import com.transport.service.FleetStore;
+import com.transport.service.VersionedFleetStore;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Хранилище для тестов гонок: после удаления или изменения поля, то есть до уведомления слушателей,
+ * один раз запускает в другом потоке заданное действие и ждет его завершения ограниченное время.
+ * Если сервис уведомляет слушателей под той же блокировкой, что и изменяет хранилище, действие
+ * дождется конца уведомления; иначе оно выполнится внутри окна между изменением и уведомлением.
+ */
+final class HookedFleetStore implements FleetStore {
+    private static final long HOOK_WAIT_MILLIS = 200;
+
+    private final FleetStore delegate = new VersionedFleetStore();
+    private final AtomicReference<Runnable> hook = new AtomicReference<>();
+    private volatile Thread hookThread;
+
+    /**
+     * Задает действие, выполняемое после следующего удаления или изменения поля.
+     *
+     * @param action действие
+     */
+    void runAfterNextChange(Runnable action) {
+        hook.set(action);
+    }
+
+    /**
+     * Дожидается завершения действия.
+     *
+     * @throws InterruptedException если ожидание прервано
+     */
+    void awaitHook() throws InterruptedException {
+        Thread thread = hookThread;
+        if (thread != null) {
+            thread.join();
+        }
+    }
+
+    private void fireHook() {
+        Runnable action = hook.getAndSet(null);
+        if (action == null) {
+            return;
+        }
+        Thread thread = new Thread(action);
+        hookThread = thread;
+        thread.start();
+        try {
+            thread.join(HOOK_WAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void add(Transport transport) {
+        delegate.add(transport);
+    }
+
+    @Override
+    public void addAll(List<Transport> batch) {
+        delegate.addAll(batch);
+    }
+
+    @Override
+    public Transport remove(int index) {
+        Transport removed = delegate.remove(index);
+        fireHook();
+        return removed;
+    }
+
+    @Override
+    public Transport removeById(long id) {
+        Transport removed = delegate.removeById(id);
+        fireHook();
+        return removed;
+    }
+
+    @Override
+    public Transport findById(long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Transport get(int index) {
+        return delegate.get(index);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public FleetSnapshot snapshot() {
+        return delegate.snapshot();
+    }
+
+    @Override
+    public boolean fieldChanged(Transport transport, TransportField field, Object newValue) {
+        boolean stored = delegate.fieldChanged(transport, field, newValue);
+        fireHook();
+        return stored;
+    }
+
+    @Override
+    public void attachChangeListener(TransportChangeListener listener) {
+        delegate.attachChangeListener(listener);
+    }
+
+    @Override
+    public boolean returnsCopies() {
+        return delegate.returnsCopies();
+    }
+}
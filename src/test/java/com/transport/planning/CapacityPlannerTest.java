@@ -0,0 +1,199 @@
+package com.transport.planning;
+
+import com.transport.model.Airplane;
+import com.transport.model.Car;
+import com.transport.model.Ship;
+import com.transport.model.Transport;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнение планов с полным перебором на небольших случайных парках до 14 транспортных средств.
+ */
+class CapacityPlannerTest {
+    private static final int INSTANCES = 3000;
+    private static final int MAX_FLEET = 14;
+
+    private static CapacityPlanner planner;
+
+    @BeforeAll
+    static void createPlanner() {
+        planner = new CapacityPlanner(3);
+    }
+
+    @AfterAll
+    static void closePlanner() {
+        planner.close();
+    }
+
+    @Test
+    void minVehiclesMatchesExhaustiveSearch() {
+        checkAgainstExhaustiveSearch(PlanningObjective.MIN_VEHICLES, 5);
+    }
+
+    @Test
+    void minTimeNeverClaimsWrongOptimum() {
+        checkAgainstExhaustiveSearch(PlanningObjective.MIN_TIME, 6);
+    }
+
+    /**
+     * Для каждого случайного парка проверяет суммы плана, допустимость в обе стороны, нижнюю оценку
+     * и заявление об оптимальности. Для MIN_VEHICLES количество транспорта должно совпасть с перебором;
+     * для MIN_TIME эвристика может найти более медленный план, но тогда не должна называть его оптимальным.
+     */
+    private static void checkAgainstExhaustiveSearch(PlanningObjective objective, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int proven = 0;
+        for (int instance = 0; instance < INSTANCES; instance++) {
+            List<Transport> fleet = randomFleet(random);
+            CapacityDemand demand = CapacityDemand.of(random.nextInt(200), random.nextInt(2000))
+                    .withCrewLimit(random.nextInt(200)).withDistance(100).minimizing(objective);
+            CapacityPlan plan = planner.plan(fleet, demand, 5, TimeUnit.SECONDS);
+            Best best = exhaustiveSearch(fleet, demand);
+            String context = "парк " + fleet.size() + ", " + demand + ", " + plan;
+
+            assertTotals(plan, context);
+            assertEquals(best.feasible(), plan.isFeasible(), context);
+            if (!plan.isFeasible()) {
+                continue;
+            }
+            assertFalse(plan.isTimedOut(), context);
+            if (objective == PlanningObjective.MIN_VEHICLES) {
+                assertTrue(plan.getLowerBound() <= best.count, context);
+                assertEquals(best.count, plan.getVehicleCount(), context);
+            } else {
+                assertTrue(plan.getLowerBound() <= best.countAtSpeed, context);
+                int slowest = plan.getVehicleCount() == 0 ? Integer.MAX_VALUE : plan.getSlowestSpeed();
+                assertTrue(slowest <= best.speed, context);
+                if (plan.isOptimal()) {
+                    assertEquals(best.speed, slowest, context);
+                    assertEquals(best.countAtSpeed, plan.getVehicleCount(), context);
+                }
+            }
+            if (plan.isOptimal()) {
+                proven++;
+            }
+        }
+        assertTrue(proven > 0);
+    }
+
+    private static List<Transport> randomFleet(SplittableRandom random) {
+        int size = 1 + random.nextInt(MAX_FLEET);
+        List<Transport> fleet = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int speed = random.nextInt(5) == 0 ? 0 : 1 + random.nextInt(30);
+            switch (random.nextInt(4)) {
+                case 0:
+                    fleet.add(new Airplane("a" + i, speed, "m", 10, 1 + random.nextInt(300)));
+                    break;
+                case 1:
+                    fleet.add(new Car("c" + i, speed, "m", "p" + i, 1 + random.nextInt(10), "f"));
+                    break;
+                case 2:
+                    fleet.add(new Ship("s" + i, speed, "m", 1 + random.nextInt(1000), 1 + random.nextInt(60), "t"));
+                    break;
+                default:
+                    fleet.add(new Transport("t" + i, speed, "m"));
+            }
+        }
+        return fleet;
+    }
+
+    /**
+     * Проверяет, что суммы плана совпадают с выбранным транспортом, а транспорт не повторяется.
+     */
+    private static void assertTotals(CapacityPlan plan, String context) {
+        long passengers = 0;
+        long cargo = 0;
+        long crew = 0;
+        Set<Transport> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Transport transport : plan.getVehicles()) {
+            passengers += passengers(transport);
+            cargo += cargo(transport);
+            crew += crew(transport);
+            distinct.add(transport);
+        }
+        assertEquals(plan.getVehicleCount(), distinct.size(), context);
+        assertEquals(passengers, plan.getPassengerCapacity(), context);
+        assertEquals(cargo, plan.getCargoCapacity(), context);
+        assertEquals(crew, plan.getCrew(), context);
+    }
+
+    /**
+     * Перебирает все подмножества парка.
+     */
+    private static Best exhaustiveSearch(List<Transport> fleet, CapacityDemand demand) {
+        Best best = new Best();
+        for (int mask = 0; mask < 1 << fleet.size(); mask++) {
+            long passengers = 0;
+            long cargo = 0;
+            long crew = 0;
+            int count = 0;
+            int slowest = Integer.MAX_VALUE;
+            boolean usable = true;
+            for (int i = 0; i < fleet.size() && usable; i++) {
+                if ((mask >> i & 1) == 0) {
+                    continue;
+                }
+                Transport transport = fleet.get(i);
+                usable = transport.getMaxSpeed() > 0 && transport.getClass() != Transport.class;
+                count++;
+                slowest = Math.min(slowest, transport.getMaxSpeed());
+                passengers += passengers(transport);
+                cargo += cargo(transport);
+                crew += crew(transport);
+            }
+            if (!usable || passengers < demand.getPassengers() || cargo < demand.getCargoTonnes()
+                    || crew > demand.getCrewLimit()) {
+                continue;
+            }
+            best.count = Math.min(best.count, count);
+            if (slowest > best.speed || slowest == best.speed && count < best.countAtSpeed) {
+                best.speed = slowest;
+                best.countAtSpeed = count;
+            }
+        }
+        return best;
+    }
+
+    private static long passengers(Transport transport) {
+        if (transport instanceof Airplane) {
+            return ((Airplane) transport).getPassengerCapacity();
+        }
+        return transport instanceof Car ? ((Car) transport).getDoorCount() : 0;
+    }
+
+    private static long cargo(Transport transport) {
+        return transport instanceof Ship ? ((Ship) transport).getDisplacement() : 0;
+    }
+
+    private static long crew(Transport transport) {
+        return transport instanceof Ship ? ((Ship) transport).getCrewSize() : 0;
+    }
+
+    /**
+     * Лучшие значения, найденные перебором.
+     */
+    private static final class Best {
+        int count = Integer.MAX_VALUE;
+        int speed = -1;
+        int countAtSpeed = Integer.MAX_VALUE;
+
+        boolean feasible() {
+            return count != Integer.MAX_VALUE;
+        }
+    }
+}